@@ -3,10 +3,15 @@ package com.javarepowizards.portfoliomanager;
 import com.javarepowizards.portfoliomanager.dao.*;
 import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
 import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.simulation.ISimulationParameterDAO;
+import com.javarepowizards.portfoliomanager.dao.simulation.SimulationParameterDAO;
 import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
 import com.javarepowizards.portfoliomanager.dao.stock.StockDAO;
+import com.javarepowizards.portfoliomanager.dao.trade.ITradeDAO;
+import com.javarepowizards.portfoliomanager.dao.trade.TradeDAO;
 import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
 import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.dao.watchlist.CachedWatchlistDAO;
 import com.javarepowizards.portfoliomanager.dao.watchlist.IWatchlistDAO;
 import com.javarepowizards.portfoliomanager.dao.watchlist.WatchlistDAO;
 import com.javarepowizards.portfoliomanager.domain.stock.IStockRepoReadOnly;
@@ -15,14 +20,24 @@ import com.javarepowizards.portfoliomanager.domain.stock.StockRepository;
 import com.javarepowizards.portfoliomanager.infrastructure.InMemoryStockRepository;
 import com.javarepowizards.portfoliomanager.services.Auth.AuthService;
 import com.javarepowizards.portfoliomanager.services.Auth.IAuthService;
+import com.javarepowizards.portfoliomanager.services.Auth.LoginService;
 import com.javarepowizards.portfoliomanager.services.Auth.RegistrationService;
+import com.javarepowizards.portfoliomanager.services.Auth.UserProvisioningService;
+import com.javarepowizards.portfoliomanager.services.backtest.BacktestEngine;
+import com.javarepowizards.portfoliomanager.services.optimisation.MeanVarianceOptimiser;
+import com.javarepowizards.portfoliomanager.services.risk.RiskEngine;
+import com.javarepowizards.portfoliomanager.services.simulation.BlockBootstrapSimulator;
 import com.javarepowizards.portfoliomanager.services.simulation.ISimulationServices;
+import com.javarepowizards.portfoliomanager.services.simulation.SimulationCalibrator;
 import com.javarepowizards.portfoliomanager.services.simulation.SimulationServices;
+import com.javarepowizards.portfoliomanager.services.simulation.StockStatisticsCache;
+import com.javarepowizards.portfoliomanager.services.stress.StressTestEngine;
+import com.javarepowizards.portfoliomanager.services.trading.ITradeService;
+import com.javarepowizards.portfoliomanager.services.trading.TradeService;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
 import com.javarepowizards.portfoliomanager.services.watchlist.IWatchlistService;
 import com.javarepowizards.portfoliomanager.services.watchlist.WatchlistService;
 import com.opencsv.exceptions.CsvValidationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -42,10 +57,13 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class AppContext {
     private AppContext() {} // Prevent instantiation
 
+    /** Last trading day in the bundled price data; simulations and valuations start here. */
+    private static final LocalDate MOST_RECENT_DATE = LocalDate.of(2023, 12, 29);
+
     /**
      * Initializes all core application services in the correct order.
-     * This includes database services, stock repository, watchlist services,
-     * and authentication service.
+     * This includes database services, authentication and trading services,
+     * stock repository and watchlist services.
      *
      * @throws SQLException if database initialization fails
      * @throws IOException if stock data files cannot be read
@@ -55,10 +73,33 @@ public final class AppContext {
     public static void initAll()
             throws SQLException, IOException, URISyntaxException, CsvValidationException
     {
-        initializeDatabaseServices();
+        initializeDatabaseServices(new DatabaseConnection());
         initializeAuthService();
+        initializeTrading();
         initializeStockRepository();
         initializeWatchlist();
+        initializeBacktesting();
+        initializeSimulation();
+    }
+
+    /**
+     * Initializes only the services needed to simulate, backtest and report on portfolios
+     * without a user interface: the database DAOs, the stock data, and the backtesting,
+     * risk and simulation services. Authentication and the watchlist are left out,
+     * so no JavaFX classes are loaded.
+     *
+     * @param databaseUrl JDBC URL of the database to read users and holdings from
+     * @throws SQLException if database initialization fails
+     * @throws IOException if stock data files cannot be read
+     * @throws URISyntaxException if resource URIs are malformed
+     * @throws CsvValidationException if CSV parsing fails
+     */
+    public static void initHeadless(String databaseUrl)
+            throws SQLException, IOException, URISyntaxException, CsvValidationException
+    {
+        initializeDatabaseServices(new DatabaseConnection(databaseUrl));
+        initializeStockRepository();
+        initializeBacktesting();
         initializeSimulation();
     }
 
@@ -140,11 +181,11 @@ public final class AppContext {
      * Creates and registers database-related services:
      * the JDBC connection, IUserDAO, and IPortfolioDAO.
      *
+     * @param dbConnection the open database connection to register
      * @throws SQLException if connection or DAO initialization fails
      */
-    private static void initializeDatabaseServices() throws SQLException {
+    private static void initializeDatabaseServices(IDatabaseConnection dbConnection) throws SQLException {
         // 1) DB connection, user DAO
-        IDatabaseConnection dbConnection = new DatabaseConnection();
         AppContext.registerService(IDatabaseConnection.class, dbConnection);
 
         // Initialize UserDAO since other services might depend on it
@@ -155,20 +196,40 @@ public final class AppContext {
         // register the PortfolioDAO under its interface
         PortfolioDAO portfolioDAO = new PortfolioDAO(dbConnection);
         AppContext.registerService(IPortfolioDAO.class, portfolioDAO);
-        System.out.println("DB connection: " + dbConnection.getConnection());
     }
 
 
     /**
-     * Creates and registers the authentication service using BCrypt.
+     * Creates and registers the authentication service using BCrypt, at the cost given by the
+     * {@value AuthService#COST_PROPERTY} system property or {@link AuthService#DEFAULT_COST},
+     * and the login, registration and bulk provisioning services built on it.
      */
     private static void initializeAuthService() {
-        PasswordEncoder pwEncoder = new BCryptPasswordEncoder();
-        IAuthService authService = new AuthService(pwEncoder);
+        int cost = Integer.getInteger(AuthService.COST_PROPERTY, AuthService.DEFAULT_COST);
+        IAuthService authService = new AuthService(cost);
         AppContext.registerService(IAuthService.class, authService);
 
+        LoginService loginService = new LoginService(authService, AppContext.getUserDAO());
+        AppContext.registerService(LoginService.class, loginService);
+
         RegistrationService registrationService = new RegistrationService(authService, AppContext.getUserDAO());
         AppContext.registerService(RegistrationService.class, registrationService);
+
+        UserProvisioningService provisioningService = new UserProvisioningService(authService, AppContext.getUserDAO());
+        AppContext.registerService(UserProvisioningService.class, provisioningService);
+    }
+
+    /**
+     * Creates and registers the trade DAO and the trade service whose writer thread applies orders.
+     *
+     * @throws SQLException if the trade ledger tables cannot be created
+     */
+    private static void initializeTrading() throws SQLException {
+        ITradeDAO tradeDAO = new TradeDAO(AppContext.getService(IDatabaseConnection.class));
+        AppContext.registerService(ITradeDAO.class, tradeDAO);
+        IPortfolioDAO portfolioDAO = AppContext.getService(IPortfolioDAO.class);
+        AppContext.registerService(ITradeService.class,
+                new TradeService(tradeDAO, TradeService.DEFAULT_MAX_BATCH, portfolioDAO::invalidate));
     }
 
     /**
@@ -204,7 +265,8 @@ public final class AppContext {
      */
     private static void initializeWatchlist() throws SQLException {
         //construct & register the DAO
-        IWatchlistDAO watchlistDAO = new WatchlistDAO(AppContext.getService(IDatabaseConnection.class));
+        IWatchlistDAO watchlistDAO =
+                new CachedWatchlistDAO(new WatchlistDAO(AppContext.getService(IDatabaseConnection.class)));
         AppContext.registerService(IWatchlistDAO.class, watchlistDAO);
 
         //construct & register the application service
@@ -219,15 +281,51 @@ public final class AppContext {
         AppContext.registerService(IWatchlistReadOnly.class,watchlistService);
     }
 
-    private static void initializeSimulation() {
+    /**
+     * Creates and registers the shared statistics cache, the calibrated parameter store,
+     * the calibrator and the simulation services.
+     * The historical bootstrap model resamples every day of the price matrix up to the most recent date.
+     *
+     * @throws SQLException if the parameter table cannot be created
+     */
+    private static void initializeSimulation() throws SQLException {
+        StockStatisticsCache statsCache = new StockStatisticsCache(AppContext.getService(IStockDAO.class));
+        AppContext.registerService(StockStatisticsCache.class, statsCache);
+
+        ISimulationParameterDAO parameterDAO =
+                new SimulationParameterDAO(AppContext.getService(IDatabaseConnection.class));
+        AppContext.registerService(ISimulationParameterDAO.class, parameterDAO);
+        AppContext.registerService(SimulationCalibrator.class,
+                new SimulationCalibrator(statsCache, MOST_RECENT_DATE));
 
         ISimulationServices simService = new SimulationServices(
                 AppContext.getService(IPortfolioDAO.class),
                 AppContext.getService(IStockDAO.class),
-                LocalDate.of(2023, 12, 29));
+                statsCache,
+                parameterDAO,
+                new BlockBootstrapSimulator(AppContext.getService(PriceMatrix.class),
+                        LocalDate.MIN, MOST_RECENT_DATE, BlockBootstrapSimulator.DEFAULT_BLOCK_LENGTH),
+                MOST_RECENT_DATE);
 
         AppContext.registerService(ISimulationServices.class, simService);
     }
 
+    /**
+     * Builds the shared price matrix from the loaded stock data
+     * and registers it together with the backtest, stress-test, optimisation and risk services that use it.
+     */
+    private static void initializeBacktesting() {
+        PriceMatrix prices = PriceMatrix.load(AppContext.getService(IStockDAO.class));
+        AppContext.registerService(PriceMatrix.class, prices);
+        AppContext.registerService(BacktestEngine.class, new BacktestEngine(prices));
+        AppContext.registerService(StressTestEngine.class, new StressTestEngine(prices, MOST_RECENT_DATE));
+        AppContext.registerService(MeanVarianceOptimiser.class, MeanVarianceOptimiser.fromHistory(
+                prices, prices.tickers(), MOST_RECENT_DATE, MeanVarianceOptimiser.TRADING_DAYS_PER_YEAR, 0.0));
+
+        RiskEngine riskEngine = new RiskEngine(prices, RiskEngine.DEFAULT_WINDOW, RiskEngine.DEFAULT_CONFIDENCE);
+        riskEngine.advanceTo(MOST_RECENT_DATE);
+        AppContext.registerService(RiskEngine.class, riskEngine);
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.javarepowizards.portfoliomanager.cli;
+
+import com.javarepowizards.portfoliomanager.services.simulation.SimulationModel;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.OptionalInt;
+
+/**
+ * Parsed command line of {@link PortfolioCli}.
+ *
+ * @param command   the report to produce
+ * @param userId    the user to report on, or empty for every user with holdings
+ * @param database  SQLite database file to read users and holdings from
+ * @param format    output format
+ * @param out       file to write the report to, or {@code null} for standard output
+ * @param days      number of days to simulate
+ * @param paths     number of simulated paths per user
+ * @param model     price model to simulate with
+ * @param from      first day of the backtest, or {@code null} for one year before {@code to}
+ * @param to        last day of the backtest, or {@code null} for the last trading day
+ */
+record CliOptions(ReportCommand command,
+                  OptionalInt userId,
+                  Path database,
+                  ReportFormat format,
+                  Path out,
+                  int days,
+                  int paths,
+                  SimulationModel model,
+                  LocalDate from,
+                  LocalDate to) {
+
+    static final int DEFAULT_DAYS = 252;
+    static final int DEFAULT_PATHS = 1000;
+
+    static final String USAGE = """
+            Usage: PortfolioCli <simulate|backtest|risk> [options]
+              --user <id|all>      user to report on (default: all users with holdings)
+              --db <file>          SQLite database (default: database.db)
+              --format <json|csv>  output format (default: json)
+              --out <file>         write the report to a file instead of standard output
+              --days <n>           simulate: days to simulate (default: 252)
+              --paths <n>          simulate: paths per user (default: 1000)
+              --model <name>       simulate: momentum_gbm or historical_bootstrap (default: momentum_gbm)
+              --from <yyyy-mm-dd>  backtest: first day (default: one year before --to)
+              --to <yyyy-mm-dd>    backtest: last day (default: last trading day)
+            """;
+
+    /**
+     * Parses the command line.
+     *
+     * @param args the arguments passed to {@code main}
+     * @return the parsed options, with defaults filled in
+     * @throws IllegalArgumentException if an argument is unknown, missing its value or malformed
+     */
+    static CliOptions parse(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("A command is required");
+        }
+        ReportCommand command = parseEnum(ReportCommand.class, args[0], "command");
+        OptionalInt userId = OptionalInt.empty();
+        Path database = Path.of("database.db");
+        ReportFormat format = ReportFormat.JSON;
+        Path out = null;
+        int days = DEFAULT_DAYS;
+        int paths = DEFAULT_PATHS;
+        SimulationModel model = SimulationModel.MOMENTUM_GBM;
+        LocalDate from = null;
+        LocalDate to = null;
+
+        for (int i = 1; i < args.length; i += 2) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[i + 1];
+            try {
+                switch (option) {
+                    case "--user" -> userId = value.equalsIgnoreCase("all")
+                            ? OptionalInt.empty() : OptionalInt.of(Integer.parseInt(value));
+                    case "--db" -> database = Path.of(value);
+                    case "--format" -> format = parseEnum(ReportFormat.class, value, "format");
+                    case "--out" -> out = Path.of(value);
+                    case "--days" -> days = positive(option, Integer.parseInt(value));
+                    case "--paths" -> paths = positive(option, Integer.parseInt(value));
+                    case "--model" -> model = parseEnum(SimulationModel.class, value, "model");
+                    case "--from" -> from = LocalDate.parse(value);
+                    case "--to" -> to = LocalDate.parse(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value, e);
+            }
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("--from must not be after --to");
+        }
+        return new CliOptions(command, userId, database, format, out, days, paths, model, from, to);
+    }
+
+    private static int positive(String option, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + " must be positive");
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String what) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + what + " " + value, e);
+        }
+    }
+}
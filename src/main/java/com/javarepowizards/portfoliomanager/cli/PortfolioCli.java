@@ -0,0 +1,138 @@
+package com.javarepowizards.portfoliomanager.cli;
+
+import com.javarepowizards.portfoliomanager.AppContext;
+import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioSnapshot;
+import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Command-line entry point that runs simulations, backtests and risk reports
+ * for one or all users without starting the JavaFX application.
+ * Only the headless services are initialised (see {@link AppContext#initHeadless}), and none of
+ * them load a JavaFX class, so it runs on a plain class path without the JavaFX libraries,
+ * e.g. from a scheduled job:
+ * <pre>
+ *   java -cp ... com.javarepowizards.portfoliomanager.cli.PortfolioCli risk --user all --format csv --out risk.csv
+ * </pre>
+ * It must be started from the class path, not as a module: the application module
+ * {@code requires} the JavaFX modules for the GUI, so resolving it on the module path
+ * needs them present. The watchlist, session and chart services still use JavaFX types
+ * and are never initialised here.
+ * Exits with 0 on success, 1 if any user could not be reported on, and 2 on a usage error.
+ */
+public final class PortfolioCli {
+
+    private PortfolioCli() { }
+
+    /**
+     * Runs the command line and exits with its status.
+     *
+     * @param args the command followed by its options
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs the command line, writing the report to {@code out} unless {@code --out} is given.
+     *
+     * @param args the command followed by its options
+     * @param out  standard output
+     * @param err  destination of usage and error messages
+     * @return the exit status
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) {
+        CliOptions options;
+        try {
+            options = CliOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(CliOptions.USAGE);
+            return 2;
+        }
+        if (!Files.isRegularFile(options.database())) {
+            err.println("Database not found: " + options.database());
+            return 2;
+        }
+
+        try {
+            AppContext.initHeadless("jdbc:sqlite:" + options.database().toAbsolutePath());
+            Map<Integer, PortfolioSnapshot> portfolios;
+            try {
+                portfolios = loadPortfolios(options);
+            } catch (IllegalArgumentException e) {
+                err.println(e.getMessage());
+                return 2;
+            }
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            int failures = 0;
+            for (PortfolioSnapshot portfolio : portfolios.values()) {
+                try {
+                    rows.add(options.command().report(portfolio, options));
+                } catch (RuntimeException e) {
+                    err.println("Skipping user " + portfolio.getUserId() + ": " + e.getMessage());
+                    failures++;
+                }
+            }
+
+            if (options.out() != null) {
+                try (Writer writer = Files.newBufferedWriter(options.out(), StandardCharsets.UTF_8)) {
+                    options.format().write(rows, writer);
+                }
+            } else {
+                options.format().write(rows, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            }
+            return failures == 0 ? 0 : 1;
+        } catch (SQLException | IOException | URISyntaxException | CsvValidationException e) {
+            err.println("Failed to produce " + options.command().name().toLowerCase(Locale.ROOT) + " report: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Loads the portfolios to report on, ordered by user ID.
+     *
+     * @param options the parsed command line
+     * @return snapshots keyed by user ID
+     * @throws IllegalArgumentException if a single user was asked for and does not exist
+     * @throws SQLException if the holdings or balances cannot be read
+     */
+    private static Map<Integer, PortfolioSnapshot> loadPortfolios(CliOptions options) throws SQLException {
+        IPortfolioDAO portfolioDAO = AppContext.getService(IPortfolioDAO.class);
+        IUserDAO userDAO = AppContext.getUserDAO();
+        Map<Integer, PortfolioSnapshot> portfolios = new TreeMap<>();
+
+        if (options.userId().isPresent()) {
+            int userId = options.userId().getAsInt();
+            if (userDAO.getUserById(userId).isEmpty()) {
+                throw new IllegalArgumentException("No user with ID " + userId);
+            }
+            portfolios.put(userId, PortfolioSnapshot.load(userId, portfolioDAO, userDAO));
+            return portfolios;
+        }
+
+        // one query for every user's holdings, then one balance lookup per user
+        for (Map.Entry<Integer, List<PortfolioEntry>> e : portfolioDAO.getHoldingsForAllUsers().entrySet()) {
+            int userId = e.getKey();
+            portfolios.put(userId, new PortfolioSnapshot(userId, e.getValue(), userDAO.getBalance(userId)));
+        }
+        return portfolios;
+    }
+}
@@ -0,0 +1,125 @@
+package com.javarepowizards.portfoliomanager.cli;
+
+import com.javarepowizards.portfoliomanager.AppContext;
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioSnapshot;
+import com.javarepowizards.portfoliomanager.services.backtest.BacktestEngine;
+import com.javarepowizards.portfoliomanager.services.backtest.BacktestResult;
+import com.javarepowizards.portfoliomanager.services.risk.RiskEngine;
+import com.javarepowizards.portfoliomanager.services.risk.RiskMetrics;
+import com.javarepowizards.portfoliomanager.services.simulation.ISimulationServices;
+import com.javarepowizards.portfoliomanager.services.simulation.PathStore;
+import com.javarepowizards.portfoliomanager.services.simulation.StreamingPortfolioStatistics;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The reports {@link PortfolioCli} can produce. Each one turns a single user's
+ * portfolio into one report row, using the services registered in {@link AppContext}.
+ */
+enum ReportCommand {
+
+    /** Monte Carlo simulation of the portfolio's value, summarised across paths. */
+    SIMULATE {
+        @Override
+        Map<String, Object> report(PortfolioSnapshot portfolio, CliOptions options) {
+            PathStore store = AppContext.getService(ISimulationServices.class)
+                    .buildSimEngine(portfolio, options.days(), options.model())
+                    .simulatePaths(options.paths());
+            int last = store.days();
+            double start = store.get(0, 0);
+
+            StreamingPortfolioStatistics stats = new StreamingPortfolioStatistics(last);
+            for (int p = 0; p < store.paths(); p++) {
+                for (int d = 0; d <= last; d++) {
+                    stats.accept(store.get(p, d));
+                }
+                stats.endPath();
+            }
+            StreamingPortfolioStatistics.Summary summary = stats.summary();
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("user_id", portfolio.getUserId());
+            row.put("model", options.model().name().toLowerCase(Locale.ROOT));
+            row.put("days", last);
+            row.put("paths", store.paths());
+            row.put("starting_value", start);
+            row.put("mean_terminal_value", store.mean(last));
+            row.put("p05_terminal_value", store.quantile(last, 0.05));
+            row.put("p50_terminal_value", store.quantile(last, 0.50));
+            row.put("p95_terminal_value", store.quantile(last, 0.95));
+            row.put("probability_of_loss", 1.0 - store.probabilityEndsAbove(start));
+            row.put("cumulative_return_pct", summary.cumulativeReturnPct());
+            row.put("annualised_volatility_pct", summary.annualisedVolatilityPct());
+            row.put("sharpe", summary.annualisedSharpe());
+            row.put("sortino", summary.annualisedSortino());
+            row.put("mean_max_drawdown_pct", summary.maxDrawdownPct());
+            row.put("worst_drawdown_pct", summary.worstDrawdownPct());
+            return row;
+        }
+    },
+
+    /** Replay of the current holdings over a historical date range. */
+    BACKTEST {
+        @Override
+        Map<String, Object> report(PortfolioSnapshot portfolio, CliOptions options) {
+            BacktestEngine engine = AppContext.getService(BacktestEngine.class);
+            PriceMatrix prices = engine.getPrices();
+            LocalDate to = options.to() != null ? options.to() : prices.date(prices.days() - 1);
+            LocalDate from = options.from() != null ? options.from() : to.minusYears(1);
+            BacktestResult result = engine.replay(
+                    portfolio.getHoldings(), portfolio.getAvailableBalance(), from, to);
+
+            double initial = result.equity()[0];
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("user_id", portfolio.getUserId());
+            row.put("start", result.dates().get(0));
+            row.put("end", result.dates().get(result.dates().size() - 1));
+            row.put("initial_equity", initial);
+            row.put("final_equity", result.finalEquity());
+            row.put("total_return_pct", (result.finalEquity() / initial - 1.0) * 100.0);
+            row.put("max_drawdown_pct", result.maxDrawdown() * 100.0);
+            return row;
+        }
+    },
+
+    /** Rolling value at risk, expected shortfall, beta and drawdown as of the last trading day. */
+    RISK {
+        @Override
+        Map<String, Object> report(PortfolioSnapshot portfolio, CliOptions options) {
+            RiskEngine engine = AppContext.getService(RiskEngine.class);
+            RiskMetrics m;
+            synchronized (engine) {
+                engine.trackPortfolio(portfolio.getUserId(), portfolio.getHoldings());
+                m = engine.portfolioMetrics(portfolio.getUserId());
+                engine.untrackPortfolio(portfolio.getUserId());
+            }
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("user_id", portfolio.getUserId());
+            row.put("as_of", engine.getCurrentDate());
+            row.put("benchmark", engine.usesIndexBenchmark() ? "index" : "equal_weight");
+            row.put("observations", m.observations());
+            row.put("value_at_risk", m.valueAtRisk());
+            row.put("expected_shortfall", m.expectedShortfall());
+            row.put("beta", m.beta());
+            row.put("correlation", m.correlation());
+            row.put("drawdown", m.drawdown());
+            row.put("max_drawdown", m.maxDrawdown());
+            return row;
+        }
+    };
+
+    /**
+     * Produces the report row for one user.
+     *
+     * @param portfolio the user's holdings and cash
+     * @param options   the parsed command line
+     * @return the row's columns in output order
+     * @throws IllegalArgumentException if the portfolio cannot be reported on, e.g. a holding has no price data
+     */
+    abstract Map<String, Object> report(PortfolioSnapshot portfolio, CliOptions options);
+}
@@ -0,0 +1,69 @@
+package com.javarepowizards.portfoliomanager.cli;
+
+import com.opencsv.CSVWriter;
+import org.json.JSONWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The formats {@link PortfolioCli} can write a report in.
+ * A report is a list of rows, one per user, whose columns keep their insertion order.
+ * Every row of a report is expected to have the same columns.
+ */
+enum ReportFormat {
+
+    /** A JSON array with one object per row. Non-finite numbers are written as {@code null}. */
+    JSON {
+        @Override
+        void write(List<Map<String, Object>> rows, Writer out) throws IOException {
+            JSONWriter json = new JSONWriter(out).array();
+            for (Map<String, Object> row : rows) {
+                json.object();
+                for (Map.Entry<String, Object> column : row.entrySet()) {
+                    json.key(column.getKey()).value(jsonValue(column.getValue()));
+                }
+                json.endObject();
+            }
+            json.endArray();
+            out.write(System.lineSeparator());
+            out.flush();
+        }
+    },
+
+    /** Comma-separated values with a header row taken from the first row's columns. */
+    CSV {
+        @Override
+        void write(List<Map<String, Object>> rows, Writer out) throws IOException {
+            CSVWriter csv = new CSVWriter(out);
+            if (!rows.isEmpty()) {
+                csv.writeNext(rows.get(0).keySet().toArray(new String[0]), false);
+            }
+            for (Map<String, Object> row : rows) {
+                csv.writeNext(row.values().stream().map(String::valueOf).toArray(String[]::new), false);
+            }
+            csv.flush();
+        }
+    };
+
+    /**
+     * Writes the rows to the given writer and flushes it. The writer is left open.
+     *
+     * @param rows the report rows
+     * @param out  destination of the report
+     * @throws IOException if writing fails
+     */
+    abstract void write(List<Map<String, Object>> rows, Writer out) throws IOException;
+
+    private static Object jsonValue(Object value) {
+        if (value instanceof Double d && !Double.isFinite(d)) {
+            return null;
+        }
+        if (value instanceof Number || value instanceof Boolean || value == null) {
+            return value;
+        }
+        return value.toString();
+    }
+}
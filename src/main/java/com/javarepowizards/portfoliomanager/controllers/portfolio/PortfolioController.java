@@ -4,6 +4,7 @@ import com.javarepowizards.portfoliomanager.AppContext;
 import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
 import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
 import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
 import com.javarepowizards.portfoliomanager.services.session.Session;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -16,6 +17,7 @@ import javafx.scene.Node;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.*;
 import javafx.scene.text.Text;
+import com.javarepowizards.portfoliomanager.services.trading.ITradeService;
 import com.javarepowizards.portfoliomanager.services.watchlist.IWatchlistService;
 import java.net.URL;
 import java.util.List;
@@ -58,6 +60,9 @@ public class PortfolioController implements Initializable {
     /** Portfolio data access object */
     private IPortfolioDAO portfolioDAO;
 
+    /** Service that executes sell orders atomically */
+    private ITradeService tradeService;
+
     /** Currently logged-in user's ID */
     private int currentUserId;
 
@@ -71,6 +76,7 @@ public class PortfolioController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         portfolioDAO = AppContext.getService(IPortfolioDAO.class);
+        tradeService = AppContext.getService(ITradeService.class);
         currentUserId = Session.getCurrentUser().getUserId();
         watchlistService = AppContext.getService(IWatchlistService.class);
 
@@ -143,8 +149,10 @@ public class PortfolioController implements Initializable {
 
     private void handleSell(PortfolioEntry entry) {
         try {
-            portfolioDAO.sellHolding(currentUserId, entry.getStock());
-            refreshPortfolio();  // Keep this here since it's UI-related
+            // sells the whole holding at its average cost, crediting its book value
+            tradeService.submit(TradeOrder.sell(
+                            currentUserId, entry.getStock(), entry.getAmountHeld(), entry.getPurchasePrice()))
+                    .thenRunAsync(this::refreshPortfolio, Platform::runLater);  // Keep this here since it's UI-related
         } catch (Exception e) {
             /* Consume the exception */
         }
@@ -194,16 +202,21 @@ public class PortfolioController implements Initializable {
     }
 
     /**
-     * Fetches the user’s holdings from the DB, rebuilds the pie chart & table.
+     * Fetches the user’s holdings from the DB in the background,
+     * then rebuilds the pie chart & table on the FX thread.
+     * A failed fetch leaves the view as it was.
      */
     private void refreshPortfolio() {
-        List<PortfolioEntry> holdings;
-        try {
-            holdings = portfolioDAO.getHoldingsForUser(currentUserId);
-        } catch (Exception e) {
-            return;  // bail out on error
-        }
+        portfolioDAO.getHoldingsForUserAsync(currentUserId)
+                .thenAcceptAsync(this::showHoldings, Platform::runLater);
+    }
 
+    /**
+     * Rebuilds the pie chart, summary texts and table from the given holdings.
+     *
+     * @param holdings the user's current holdings
+     */
+    private void showHoldings(List<PortfolioEntry> holdings) {
         // rebuild pie slices by actual market value
         var data = pieChart.getData();
         data.clear();
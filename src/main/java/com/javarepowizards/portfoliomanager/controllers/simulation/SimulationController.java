@@ -2,24 +2,30 @@ package com.javarepowizards.portfoliomanager.controllers.simulation;
 
 import com.javarepowizards.portfoliomanager.AppContext;
 import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
 import com.javarepowizards.portfoliomanager.services.simulation.PortfolioSimulation;
 import com.javarepowizards.portfoliomanager.services.simulation.ISimulationServices;
+import com.javarepowizards.portfoliomanager.services.simulation.SimulationModel;
 import com.javarepowizards.portfoliomanager.services.utility.OllamaService;
 import com.javarepowizards.portfoliomanager.services.simulation.PortfolioStatistics;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.Slider;
 import javafx.concurrent.Task;
 import javafx.scene.control.ProgressIndicator;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -42,7 +48,9 @@ public class SimulationController implements Initializable {
     @FXML private Label labelVolatility;
     @FXML private Label labelCumulativeReturn;
     @FXML private Slider sliderSimulationDays;
+    @FXML private ChoiceBox<SimulationModel> choiceSimulationModel;
     @FXML private Button btnRunSimulation;
+    @FXML private Button btnCancelSimulation;
     @FXML private Label labelReview;
 
     @FXML private ProgressIndicator progressIndicator;
@@ -50,8 +58,18 @@ public class SimulationController implements Initializable {
 
     private int buttonCount = 0;
 
+    // Minimum time between chart redraws while a simulation is streaming results.
+    private static final long CHART_REFRESH_NANOS = 100_000_000L;
+
+    // The simulation currently running, if any, so it can be cancelled.
+    private Task<List<Double>> simTask;
+    // Series the running simulation appends its partial results to.
+    private XYChart.Series<Number, Number> liveSeries;
+
     // References that must be provided externally (from MainController, for example)
     private IPortfolioDAO portfolioDAO;
+    // Cash balance from the last refresh, so metric updates do not go back to the database.
+    private double availableBalance;
 
     // OllamaService instance to handle AI interactions
     private final OllamaService ollamaService = new OllamaService();
@@ -80,6 +98,8 @@ public class SimulationController implements Initializable {
 
         // Set run simulation button action.
         btnRunSimulation.setOnAction(e -> runSimulation());
+        btnCancelSimulation.setOnAction(e -> cancelSimulation());
+        btnCancelSimulation.setDisable(true);
         progressIndicator.setVisible(false);
     }
 
@@ -97,30 +117,40 @@ public class SimulationController implements Initializable {
         labelCumulativeReturn.setText("Cumulative Return: N/A");
         xAxis.setLabel("Simulation Day");
         yAxis.setLabel("Portfolio Value ($)");
+        choiceSimulationModel.getItems().setAll(SimulationModel.values());
+        choiceSimulationModel.setValue(SimulationModel.MOMENTUM_GBM);
     }
 
     /**
      * Refreshes the portfolio data displayed in the UI.
-     * This method updates the balance, portfolio value, and holdings list.
+     * This method loads the balance, portfolio value, and holdings list in the background
+     * and updates the labels and list on the FX thread once all three have arrived.
      */
     public void refreshPortfolioData() {
 
         if (portfolioDAO != null) {
-            double preValue = portfolioDAO.getTotalPortfolioValue();
-            double preBalance = portfolioDAO.getAvailableBalance();
-            labelBalance.setText(String.format("Balance: $%.2f", preBalance));
-            labelHoldings.setText(String.format("Holdings $%.2f", preValue - preBalance));
-            labelPortfolioValue.setText(String.format("Portfolio: $%.2f", preValue));
-
-
-            List<String> rows = portfolioDAO.getHoldings().stream()
-                    .map(en -> String.format("%s: %d shares @ $%,.2f = $%,.2f",
-                            en.getStock().getSymbol(),
-                            en.getAmountHeld(),
-                            en.getPurchasePrice(),
-                            en.getMarketValue()))
-                    .collect(Collectors.toList());
-            listHoldings.getItems().setAll(rows);
+            CompletableFuture<Double> value = portfolioDAO.getTotalPortfolioValueAsync();
+            CompletableFuture<Double> balance = portfolioDAO.getAvailableBalanceAsync();
+            CompletableFuture<List<PortfolioEntry>> holdings = portfolioDAO.getHoldingsAsync();
+
+            CompletableFuture.allOf(value, balance, holdings).thenRunAsync(() -> {
+                double preValue = value.join();
+                double preBalance = balance.join();
+                availableBalance = preBalance;
+                labelBalance.setText(String.format("Balance: $%.2f", preBalance));
+                labelHoldings.setText(String.format("Holdings $%.2f", preValue - preBalance));
+                labelPortfolioValue.setText(String.format("Portfolio: $%.2f", preValue));
+
+
+                List<String> rows = holdings.join().stream()
+                        .map(en -> String.format("%s: %d shares @ $%,.2f = $%,.2f",
+                                en.getStock().getSymbol(),
+                                en.getAmountHeld(),
+                                en.getPurchasePrice(),
+                                en.getMarketValue()))
+                        .collect(Collectors.toList());
+                listHoldings.getItems().setAll(rows);
+            }, Platform::runLater);
         }
     }
 
@@ -139,26 +169,65 @@ public class SimulationController implements Initializable {
         }
         prepareUiForSimulation();
         int simulationDays = (int) sliderSimulationDays.getValue();
-        PortfolioSimulation engine = services.buildSimEngine(simulationDays);
+        PortfolioSimulation engine;
+        try {
+            engine = services.buildSimEngine(simulationDays, choiceSimulationModel.getValue());
+        } catch (IllegalStateException e) {
+            onSimFailure(e);
+            return;
+        }
+
+        liveSeries = new XYChart.Series<>();
+        portfolioLineChart.getData().setAll(List.of(liveSeries));
 
+        simTask = new Task<>() {
+            private long lastPublish = System.nanoTime() - CHART_REFRESH_NANOS;
 
-        Task<List<Double>> simTask = new Task<>() {
             @Override protected List<Double> call() {
-                return engine.simulatePortfolio();
+                // Publish a snapshot at most every CHART_REFRESH_NANOS so the FX thread isn't flooded.
+                return engine.simulatePortfolio((done, total, values) -> {
+                    long now = System.nanoTime();
+                    if (now - lastPublish >= CHART_REFRESH_NANOS) {
+                        lastPublish = now;
+                        updateValue(List.copyOf(values));
+                        updateProgress(done, total);
+                    }
+                });
             }
         };
 
+        simTask.valueProperty().addListener((obs, old, partial) -> {
+            if (partial != null) {
+                updateChart(partial);
+            }
+        });
+        progressIndicator.progressProperty().bind(simTask.progressProperty());
+
         simTask.setOnSucceeded(evt ->
                 onSimSuccess(simTask.getValue(), simulationDays));
 
         simTask.setOnFailed(evt ->
                 onSimFailure(simTask.getException()));
 
-        new Thread(simTask, "Sim-Thread").start();
+        simTask.setOnCancelled(evt -> onSimCancelled());
+
+        Thread simThread = new Thread(simTask, "Sim-Thread");
+        simThread.setDaemon(true);
+        simThread.start();
 
         buttonCount = 0;
     }
 
+    /**
+     * Cancels the running simulation, if any.
+     * The simulation thread is interrupted and stops at the end of its current day.
+     */
+    private void cancelSimulation() {
+        if (simTask != null && simTask.isRunning()) {
+            simTask.cancel(true);
+        }
+    }
+
 // ------------------------------------------------------------------
 //   helpers
 // ------------------------------------------------------------------
@@ -170,19 +239,26 @@ public class SimulationController implements Initializable {
     /** Disable button, show spinner, reset label. */
     private void prepareUiForSimulation() {
         btnRunSimulation.setDisable(true);
+        btnCancelSimulation.setDisable(false);
         labelReview.setText("Loading AI Summary…");
         labelReview.setStyle("-fx-text-fill:#FFFFFF;");
         progressIndicator.setVisible(true);
     }
 
-    /** Draw the line chart. */
+    /** Draw the line chart, appending only the days not already plotted. */
     private void updateChart(List<Double> vals) {
-        XYChart.Series<Number,Number> s = new XYChart.Series<>();
-        for (int d = 0; d < vals.size(); d++) {
-            s.getData().add(new XYChart.Data<>(d, vals.get(d)));
+        List<XYChart.Data<Number,Number>> added = new ArrayList<>();
+        for (int d = liveSeries.getData().size(); d < vals.size(); d++) {
+            added.add(new XYChart.Data<>(d, vals.get(d)));
         }
+        liveSeries.getData().addAll(added);
+    }
 
-        portfolioLineChart.getData().setAll(List.of(s));
+    /** Stop showing simulation progress and go back to an indeterminate spinner. */
+    private void endSimulationProgress() {
+        progressIndicator.progressProperty().unbind();
+        progressIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+        btnCancelSimulation.setDisable(true);
     }
 
     /** Write numbers to the three metric labels + current value. */
@@ -192,7 +268,7 @@ public class SimulationController implements Initializable {
         labelVolatility      .setText("%.2f%%".formatted(m.annualisedVolatilityPct()));
         labelSharpeRatio     .setText("%.2f".formatted(m.annualisedSharpe()));
         labelPortfolioValue  .setText("Portfolio: $%,.2f".formatted(latestValue));
-        labelHoldings        .setText("Holdings: $%,.2f".formatted(latestValue - portfolioDAO.getAvailableBalance()));
+        labelHoldings        .setText("Holdings: $%,.2f".formatted(latestValue - availableBalance));
     }
 
 
@@ -223,6 +299,7 @@ public class SimulationController implements Initializable {
 
     /** on simulation success. */
     private void onSimSuccess(List<Double> values, int days) {
+        endSimulationProgress();
         updateChart(values);                                   // graph
         PortfolioStatistics.Metrics m =
                 PortfolioStatistics.compute(values, days);
@@ -233,11 +310,20 @@ public class SimulationController implements Initializable {
 
     /** on simulation failure. */
     private void onSimFailure(Throwable ex) {
+        endSimulationProgress();
         labelReview.setText("⚠️ Simulation failed: " + ex.getMessage());
         btnRunSimulation.setDisable(false);
         progressIndicator.setVisible(false);
     }
 
+    /** on simulation cancelled by the user. */
+    private void onSimCancelled() {
+        endSimulationProgress();
+        labelReview.setText("Simulation cancelled.");
+        btnRunSimulation.setDisable(false);
+        progressIndicator.setVisible(false);
+    }
+
     /**  when Ollama isn’t running. */
     private void showOllamaWarning() {
 
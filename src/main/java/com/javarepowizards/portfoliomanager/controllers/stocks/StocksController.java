@@ -10,6 +10,10 @@ import com.javarepowizards.portfoliomanager.dao.watchlist.IWatchlistDAO;
 import com.javarepowizards.portfoliomanager.domain.stock.IStock;
 import com.javarepowizards.portfoliomanager.domain.stock.StockRepository;
 import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeLeg;
+import com.javarepowizards.portfoliomanager.services.trading.ITradeService;
+import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -29,9 +33,12 @@ import java.io.IOException;
 import java.net.URL;
 import java.sql.SQLException;
 import java.util.Arrays;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 /**
@@ -110,6 +117,10 @@ public class StocksController implements Initializable {
      * DAO for managing portfolio entries
      */
     private IPortfolioDAO portfolioDAO;
+    /**
+     * Service that executes buy orders atomically
+     */
+    private ITradeService tradeService;
     /**
      * Repository for fetching stock data
      */
@@ -124,6 +135,11 @@ public class StocksController implements Initializable {
      */
     private int currentUserId;
 
+    /**
+     * Current user's favourites, loaded in the background and kept in step with the star toggles
+     */
+    private final Set<StockName> favourites = EnumSet.noneOf(StockName.class);
+
     /**
      * Master list of all stocks for search filtering
      */
@@ -147,14 +163,11 @@ public class StocksController implements Initializable {
     public void initialize(URL url, ResourceBundle rb) {
         initServices();
         initCurrentUser();
+        initFavourites();
         initLabels();
         initTableColumns();
         initCellFactories();
-        try {
-            initBarGraph();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        initBarGraph();
         initDataLoading();
         initEventHandlers();
         initCustomColumns();
@@ -162,7 +175,7 @@ public class StocksController implements Initializable {
 
     }
 
-    public void initBarGraph() throws SQLException {
+    public void initBarGraph() {
         portfolioLegendContainer.prefWrapLengthProperty()
                 .bind(portfolioLegendContainer.widthProperty());
         barPresenter = new PortfolioBarPresenter(portfolioChartPane, portfolioDAO);
@@ -174,7 +187,7 @@ public class StocksController implements Initializable {
     /**
      * Initializes the 'Favourite' column with toggleable star buttons.
      * Each cell contains a button to mark or unmark a stock as favourite.
-     * Uses DAO methods to check and update user watchlist.
+     * Reads the favourites loaded by {@link #initFavourites()} and saves toggles in the background.
      */
     private void setupFavouriteColumn() {
         favouriteCol.setCellFactory(new Callback<>() {
@@ -206,21 +219,17 @@ public class StocksController implements Initializable {
                             String ticker = data.tickerProperty().get();
                             StockName stockName = StockName.fromString(ticker);
 
-                            try {
-                                List<StockName> favorites = watchlistDAO.listForUser(currentUserId);
-                                if (favorites.contains(stockName)) {
-                                    // Remove from favourites if already present
-                                    watchlistDAO.removeForUser(currentUserId, stockName);
-                                    btn.setGraphic(unfavourited);
-                                    btn.setTooltip(new Tooltip("Add to favourites"));
-                                } else {
-                                    // Add to favourites
-                                    watchlistDAO.addForUser(currentUserId, stockName);
-                                    btn.setGraphic(favourite);
-                                    btn.setTooltip(new Tooltip("Remove from favourites"));
-                                }
-                            } catch (SQLException e) {
-                                throw new RuntimeException(e);
+                            if (favourites.remove(stockName)) {
+                                // Remove from favourites if already present
+                                saveFavourite(stockName, false);
+                                btn.setGraphic(unfavourited);
+                                btn.setTooltip(new Tooltip("Add to favourites"));
+                            } else {
+                                // Add to favourites
+                                favourites.add(stockName);
+                                saveFavourite(stockName, true);
+                                btn.setGraphic(favourite);
+                                btn.setTooltip(new Tooltip("Remove from favourites"));
                             }
                         });
                     }
@@ -236,16 +245,11 @@ public class StocksController implements Initializable {
                             String ticker = data.tickerProperty().get();
                             StockName stockName = StockName.fromString(ticker);
 
-                            try {
-                                List<StockName> favourites = watchlistDAO.listForUser(currentUserId);
-                                boolean isFavourite = favourites.contains(stockName);
+                            boolean isFavourite = favourites.contains(stockName);
 
-                                // Set appropriate graphic and tooltip
-                                btn.setGraphic(isFavourite ? favourite : unfavourited);
-                                btn.setTooltip(new Tooltip(isFavourite ? "Remove from favourites" : "Add to favourites"));
-                            } catch (SQLException e) {
-                                throw new RuntimeException(e);
-                            }
+                            // Set appropriate graphic and tooltip
+                            btn.setGraphic(isFavourite ? favourite : unfavourited);
+                            btn.setTooltip(new Tooltip(isFavourite ? "Remove from favourites" : "Add to favourites"));
                             setGraphic(btn);
                         }
                     }
@@ -254,6 +258,34 @@ public class StocksController implements Initializable {
         });
     }
 
+    /**
+     * Saves a favourite toggle in the background. If saving fails, the toggle is undone
+     * and the error shown, so the star always matches the stored watchlist.
+     *
+     * @param stockName the stock that was toggled
+     * @param added     true if it was added to the favourites, false if removed
+     */
+    private void saveFavourite(StockName stockName, boolean added) {
+        CompletableFuture<Void> save = added
+                ? watchlistDAO.addForUserAsync(currentUserId, stockName)
+                : watchlistDAO.removeForUserAsync(currentUserId, stockName);
+        save.whenCompleteAsync((ignored, error) -> {
+            if (error == null) {
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (added) {
+                favourites.remove(stockName);
+            } else {
+                favourites.add(stockName);
+            }
+            tableView.refresh();
+            buyFeedbackLabel.setText("Could not update favourites: " + cause.getMessage());
+            buyFeedbackLabel.setTextFill(Color.RED);
+        }, Platform::runLater);
+    }
+
     /**
      * Initializes the 'Info' column with buttons to select a stock row.
      * Each cell includes a button that, when clicked, selects the corresponding
@@ -328,8 +360,8 @@ public class StocksController implements Initializable {
 
     /**
      * Handles the Buy button action.
-     * Validates the selected stock and quantity. Creates a PortfolioEntry
-     * and updates DAO and UI accordingly.
+     * Validates the selected stock and quantity, executes the purchase through the
+     * trade service and updates the UI accordingly.
      */
     private void handleBuyStock() {
         StockRow selected = tableView.getSelectionModel().getSelectedItem();
@@ -340,49 +372,49 @@ public class StocksController implements Initializable {
             return;
         }
 
+        TradeOrder order;
         try {
             int quantity = Integer.parseInt(stockQuantityField.getText());
 
             StockName stockName = StockName.fromString(selected.tickerProperty().get());
             double price = selected.closeProperty().get();
+            order = TradeOrder.buy(currentUserId, stockName, quantity, price);
+
+        } catch (NumberFormatException ex) {
+            buyFeedbackLabel.setText("Invalid quantity.");
+            buyFeedbackLabel.setTextFill(Color.RED);
+            return;
 
-            double totalValue = price * quantity;
-            double currentBalance = portfolioDAO.getAvailableBalance();
+        } catch (Exception ex) {
+            buyFeedbackLabel.setText("Error: " + ex.getMessage());
+            buyFeedbackLabel.setTextFill(Color.RED);
+            return;
+        }
 
-            if (totalValue > currentBalance) {
-                buyFeedbackLabel.setText("Insufficient balance. You need $" + String.format("%.2f", totalValue));
+        // the balance check and the debit run in one transaction, off the FX thread
+        buyStockButton.setDisable(true);
+        tradeService.submit(order).whenCompleteAsync((result, error) -> {
+            buyStockButton.setDisable(false);
+            if (error != null) {
+                buyFeedbackLabel.setText("Error: " + error.getMessage());
+                buyFeedbackLabel.setTextFill(Color.RED);
+                return;
+            }
+            if (!result.executed()) {
+                buyFeedbackLabel.setText(result.rejectionReason());
                 buyFeedbackLabel.setTextFill(Color.RED);
                 return;
             }
-
-            portfolioDAO.upsertHolding(currentUserId, stockName, quantity, totalValue);
-            portfolioDAO.deductFromBalance(currentUserId, totalValue);
 
             // Refresh balance labels
-            updateCashBalanceLabel();
             updateBalanceLabels();
 
-            buyFeedbackLabel.setText("Bought " + quantity + " " + stockName.getSymbol());
+            TradeLeg leg = order.legs().get(0);
+            buyFeedbackLabel.setText("Bought " + leg.quantity() + " " + leg.stock().getSymbol());
             buyFeedbackLabel.setTextFill(Color.LIGHTGREEN);
 
             barPresenter.refresh();
-
-        } catch (NumberFormatException ex) {
-            buyFeedbackLabel.setText("Invalid quantity.");
-            buyFeedbackLabel.setTextFill(Color.RED);
-
-        } catch (Exception ex) {
-            buyFeedbackLabel.setText("Error: " + ex.getMessage());
-            buyFeedbackLabel.setTextFill(Color.RED);
-        }
-    }
-
-    /**
-     * Updates the label showing the user's available cash.
-     */
-    private void updateCashBalanceLabel() {
-        double balance = portfolioDAO.getAvailableBalance();
-        cashBalanceLabel.setText(String.format("Cash: $%.2f", balance));
+        }, Platform::runLater);
     }
 
     /**
@@ -445,17 +477,21 @@ public class StocksController implements Initializable {
     }
 
     /**
-     * Updates the labels showing cash and holdings values.
+     * Loads the cash and total portfolio values in the background,
+     * then updates the labels showing cash and holdings values.
      */
     private void updateBalanceLabels() {
-        double cash = portfolioDAO.getAvailableBalance();
-        double total = portfolioDAO.getTotalPortfolioValue();
-        double holdings = total - cash;
-
-        cashBalanceLabel.setText(String.format("Cash: $%,.2f", cash));
-        holdingsValueLabel.setText(String.format("Holdings: $%,.2f", holdings));
-        portfolioValueLabel.setText(String.format("Portfolio: $%,.2f", total));
-
+        portfolioDAO.getAvailableBalanceAsync()
+                .thenCombine(portfolioDAO.getTotalPortfolioValueAsync(), (cash, total) -> new double[]{cash, total})
+                .thenAcceptAsync(values -> {
+                    double cash = values[0];
+                    double total = values[1];
+                    double holdings = total - cash;
+
+                    cashBalanceLabel.setText(String.format("Cash: $%,.2f", cash));
+                    holdingsValueLabel.setText(String.format("Holdings: $%,.2f", holdings));
+                    portfolioValueLabel.setText(String.format("Portfolio: $%,.2f", total));
+                }, Platform::runLater);
     }
 
 
@@ -464,6 +500,7 @@ public class StocksController implements Initializable {
 
         stockRepository = AppContext.getService(StockRepository.class);
         portfolioDAO = AppContext.getService(IPortfolioDAO.class);
+        tradeService = AppContext.getService(ITradeService.class);
     }
 
     private void initCurrentUser() {
@@ -474,13 +511,16 @@ public class StocksController implements Initializable {
     }
 
     private void initLabels(){
-        // Display initial cash balance
-        double balance = portfolioDAO.getAvailableBalance();
-        updateCashBalanceLabel();
-        cashBalanceLabel.setText(String.format("Cash: $%.2f", balance));
         updateBalanceLabels();
     }
 
+    private void initFavourites() {
+        watchlistDAO.listForUserAsync(currentUserId).thenAcceptAsync(list -> {
+            favourites.addAll(list);
+            tableView.refresh();
+        }, Platform::runLater);
+    }
+
     private void initTableColumns() {
         // Clear existing columns and set up fresh ones
         tableView.getColumns().clear();
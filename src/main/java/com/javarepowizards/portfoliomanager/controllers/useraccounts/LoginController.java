@@ -1,11 +1,11 @@
 package com.javarepowizards.portfoliomanager.controllers.useraccounts;
 
 import com.javarepowizards.portfoliomanager.AppContext;
-import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
 import com.javarepowizards.portfoliomanager.models.User;
-import com.javarepowizards.portfoliomanager.services.Auth.IAuthService;
+import com.javarepowizards.portfoliomanager.services.Auth.LoginService;
 import com.javarepowizards.portfoliomanager.services.session.Session;
 import com.javarepowizards.portfoliomanager.services.session.NavigationService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -18,10 +18,8 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.Optional;
 import java.util.ResourceBundle;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controller for the login view.
@@ -36,26 +34,25 @@ public class LoginController implements Initializable {
     @FXML private PasswordField passwordField;
     @FXML private Button loginButton;
 
-    private IAuthService authService;
-    private IUserDAO userDAO;
+    private LoginService loginService;
 
     /**
      * Initializes the controller after FXML components are loaded.
-     * Obtains UserDAO and AuthService instances from the application context.
+     * Obtains the LoginService instance from the application context.
      *
      * @param location  the location used to resolve relative paths, or null if unknown
      * @param resources the resources used to localize the root object, or null if none
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        userDAO = AppContext.getUserDAO();
-        authService = AppContext.getService(IAuthService.class);
+        loginService = AppContext.getService(LoginService.class);
     }
 
     /**
      * Handles the login button action.
      * Validates input, retrieves the user by email or username,
      * verifies the password, and navigates to the dashboard on success.
+     * The check runs in the background; the button is disabled until it completes.
      * Shows an error alert on failure or database issues.
      */
     @FXML
@@ -67,32 +64,41 @@ public class LoginController implements Initializable {
             return;
         }
 
-        try {
-            Optional<User> userOpt = isEmail(email)
-                    ? userDAO.getUserByEmail(email)
-                    : userDAO.getUserByUsername(email);
-
-            if (userOpt.isPresent() && authService.verifyPassword(password, userOpt.get().getPasswordHash())) {
-                Session.setCurrentUser(userOpt.get());
-
-                // —— swap in the “shell” with nav bar ——
-                NavigationService.loadScene(
-                        /* source node */   loginButton,
-                        /* fxml path */     "navigation-bar.fxml",
-                        /* controller init */ ctrl -> {
-                            // no extra setup: MainController.initialize()
-                            // will automatically fire and load the dashboard
-                        },
-                        /* title */         "Dashboard",
-                        /* width */         1200,
-                        /* height */        800
-                );
+        loginButton.setDisable(true);
+        loginService.login(email, password).whenCompleteAsync((userOpt, error) -> {
+            loginButton.setDisable(false);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                showAlert("Database Error", "Could not verify credentials: " + cause.getMessage());
+            } else if (userOpt.isPresent()) {
+                showDashboard(userOpt.get());
             } else {
                 showAlert("Login Failed", "Invalid username/email or password.");
             }
-        } catch (SQLException e) {
-            showAlert("Database Error", "Could not verify credentials: " + e.getMessage());
-        }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Starts the session for the authenticated user and swaps in the main shell.
+     *
+     * @param user the user who logged in
+     */
+    private void showDashboard(User user) {
+        Session.setCurrentUser(user);
+
+        // —— swap in the “shell” with nav bar ——
+        NavigationService.loadScene(
+                /* source node */   loginButton,
+                /* fxml path */     "navigation-bar.fxml",
+                /* controller init */ ctrl -> {
+                    // no extra setup: MainController.initialize()
+                    // will automatically fire and load the dashboard
+                },
+                /* title */         "Dashboard",
+                /* width */         1200,
+                /* height */        800
+        );
     }
 
     /**
@@ -130,15 +136,4 @@ public class LoginController implements Initializable {
         alert.setContentText(message);
         alert.showAndWait();
     }
-
-    /**
-     * Determines if the given input string matches an email pattern.
-     *
-     * @param input the string to test
-     * @return true if the input is a valid email format, false otherwise
-     */
-    private boolean isEmail(String input) {
-        String emailRegex = "^[A-Za-z0-9+_.-]+@(.+)$";
-        return Pattern.compile(emailRegex).matcher(input).matches();
-    }
 }
@@ -2,9 +2,9 @@ package com.javarepowizards.portfoliomanager.controllers.useraccounts;
 
 import com.javarepowizards.portfoliomanager.AppContext;
 import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
-import com.javarepowizards.portfoliomanager.models.User;
 import com.javarepowizards.portfoliomanager.services.Auth.IAuthService;
 import com.javarepowizards.portfoliomanager.services.session.Session;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
@@ -12,9 +12,12 @@ import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import java.net.URL;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Pattern;
 
 /**
@@ -55,36 +58,43 @@ public class UserAccountsController implements Initializable {
      * If a new username is provided, updates the username.
      * If a valid new email is provided, updates the email.
      * If a first name or last name is provided, updates the full name.
-     * Shows an error alert on validation failure or exceptions.
+     * The updates run in the background; an error alert is shown on validation failure
+     * straight away, or on the FX thread if an update fails.
      */
     @FXML
     private void updateUserInfo() {
-        try {
-            String fName = fNameField.getText();
-            String lName = lNameField.getText();
-            String username = usernameField.getText();
-            String email = emailField.getText();
-            System.out.println(username);
-            if (username.length() > 1) {
-                userDAO.updateUsername(Session.getCurrentUser().getUserId(), username);
-            }
-            if (email.length() > 1 && IsEmail(email)) {
-                userDAO.updateEmail(Session.getCurrentUser().getUserId(), email);
-            } else if (email.length() > 1 && !IsEmail(email)) {
-                throw new Exception("Incorrect email format.");
-            }
-            if (fName.length() > 1 || lName.length() > 1) {
-                userDAO.updateFullName(Session.getCurrentUser().getUserId(), fName, lName);
-            }
-        } catch (Exception e) {
-            showAlertError(e.getMessage());
+        String fName = fNameField.getText();
+        String lName = lNameField.getText();
+        String username = usernameField.getText();
+        String email = emailField.getText();
+        if (email.length() > 1 && !IsEmail(email)) {
+            showAlertError("Incorrect email format.");
+            return;
         }
+
+        int userId = Session.getCurrentUser().getUserId();
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        if (username.length() > 1) {
+            updates.add(userDAO.updateUsernameAsync(userId, username));
+        }
+        if (email.length() > 1) {
+            updates.add(userDAO.updateEmailAsync(userId, email));
+        }
+        if (fName.length() > 1 || lName.length() > 1) {
+            updates.add(userDAO.updateFullNameAsync(userId, fName, lName));
+        }
+        CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new))
+                .exceptionallyAsync(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    showAlertError(cause.getMessage());
+                    return null;
+                }, Platform::runLater);
     }
 
     /**
      * Updates the current user's password.
-     * Verifies the old password, checks that the new password and confirmation match,
-     * enforces a minimum length, then hashes and stores the new password.
+     * Checks that the new password and confirmation match and enforces a minimum length,
+     * then verifies the old password, hashes and stores the new one in the background.
      * Shows an error alert on validation failure or SQL errors.
      */
     @FXML
@@ -92,21 +102,32 @@ public class UserAccountsController implements Initializable {
         String oldPassword = oldPasswordField.getText();
         String newPassword = newPasswordField.getText();
         String confirmPassword = confirmPasswordField.getText();
-        try {
-            Optional<User> userOpt = userDAO.getUserById(Session.getCurrentUser().getUserId());
-            if (userOpt.isEmpty() || !authService.verifyPassword(oldPassword, userOpt.get().getPasswordHash())) {
-                throw new SQLException("Incorrect Password!");
-            }
-            if (!Objects.equals(newPassword, confirmPassword)) {
-                throw new SQLException("New password does not match.");
-            }
-            if (newPassword.length() < 8) {
-                throw new SQLException("Password must be at least 8 characters.");
-            }
-            userDAO.updatePassword(Session.getCurrentUser().getUserId(), authService.hashPassword(confirmPassword));
-        } catch (SQLException e) {
-            showAlertError(e.getMessage());
+        if (!Objects.equals(newPassword, confirmPassword)) {
+            showAlertError("New password does not match.");
+            return;
+        }
+        if (newPassword.length() < 8) {
+            showAlertError("Password must be at least 8 characters.");
+            return;
         }
+
+        int userId = Session.getCurrentUser().getUserId();
+        userDAO.getUserByIdAsync(userId)
+                .thenCompose(userOpt -> userOpt.isEmpty()
+                        ? CompletableFuture.completedFuture(false)
+                        : authService.verifyPasswordAsync(oldPassword, userOpt.get().getPasswordHash()))
+                .thenCompose(matches -> {
+                    if (!matches) {
+                        throw new CompletionException(new SQLException("Incorrect Password!"));
+                    }
+                    return authService.hashPasswordAsync(confirmPassword);
+                })
+                .thenCompose(hash -> userDAO.updatePasswordAsync(userId, hash))
+                .exceptionallyAsync(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    showAlertError(cause.getMessage());
+                    return null;
+                }, Platform::runLater);
     }
 
     /**
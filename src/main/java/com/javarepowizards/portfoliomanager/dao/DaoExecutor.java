@@ -0,0 +1,92 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs DAO calls off the calling thread, so JavaFX controllers never wait on the database.
+ * Every call gets its own virtual thread, and a semaphore bounds how many calls reach the
+ * database at once: {@link DatabaseConnection} only has a handful of connections, and
+ * callers beyond that would just queue on them while holding on to their thread.
+ * Safe to share between threads.
+ */
+public final class DaoExecutor implements Executor, AutoCloseable {
+
+    /** Calls allowed to run at once by default: one per read connection plus one for the writer. */
+    public static final int DEFAULT_MAX_CONCURRENCY = DatabaseConnection.DEFAULT_READERS + 1;
+
+    private static final DaoExecutor SHARED = new DaoExecutor(DEFAULT_MAX_CONCURRENCY);
+
+    private final ExecutorService threads =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-", 0).factory());
+    private final Semaphore permits;
+
+    /**
+     * Creates an executor.
+     *
+     * @param maxConcurrency most calls allowed to run at once
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    public DaoExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Returns the executor used by the asynchronous methods of the DAO interfaces.
+     *
+     * @return the shared executor
+     */
+    public static DaoExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Runs a DAO call on a virtual thread once a permit is free.
+     *
+     * @param call the call to run
+     * @param <T> the type of result produced
+     * @return a future completed with the call's result, or exceptionally with what it threw
+     */
+    public <T> CompletableFuture<T> supply(SqlSupplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs a task on a virtual thread once a permit is free.
+     *
+     * @param task the task to run
+     */
+    @Override
+    public void execute(Runnable task) {
+        threads.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Stops accepting calls and waits for those already submitted to finish.
+     */
+    @Override
+    public void close() {
+        threads.close();
+    }
+}
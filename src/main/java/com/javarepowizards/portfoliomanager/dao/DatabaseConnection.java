@@ -3,16 +3,42 @@ package com.javarepowizards.portfoliomanager.dao;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Provides a connection to the SQLite database.
- * Initializes a single JDBC connection on construction
- * and exposes it via the IDatabaseConnection interface.
+ * Provides connections to the SQLite database.
+ * Opens one writer connection and a small pool of read-only connections, with the
+ * database in write-ahead-log (WAL) mode so readers see the last committed state
+ * and never wait for a writer. Writes are serialised on the writer connection.
+ * An in-memory database cannot be shared between connections, so in that case
+ * reads also run on the writer.
+ * Each connection keeps a {@link StatementCache}, so the connection lent to {@link #read}
+ * and {@link #write} work reuses prepared statements across calls.
+ * Safe to share between threads.
  */
 
-public class DatabaseConnection implements IDatabaseConnection {
+public class DatabaseConnection implements IDatabaseConnection, AutoCloseable {
+
+    /** JDBC URL of the database file the application uses by default. */
+    public static final String DEFAULT_URL = "jdbc:sqlite:database.db";
+
+    /** Number of read connections opened by default. */
+    public static final int DEFAULT_READERS =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /** How long a statement waits for a lock held by another connection before failing. */
+    private static final int BUSY_TIMEOUT_MS = 5_000;
 
     private final Connection connection;
+    private final StatementCache writerCache;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<StatementCache> readers = new ArrayList<>();
+    private final BlockingQueue<StatementCache> idleReaders;
 
     /**
      * Creates a DatabaseConnection by opening a JDBC connection
@@ -21,12 +47,70 @@ public class DatabaseConnection implements IDatabaseConnection {
      * @throws SQLException if a database access error occurs
      */
     public DatabaseConnection() throws SQLException {
-        String url = "jdbc:sqlite:database.db";
+        this(DEFAULT_URL);
+    }
+
+    /**
+     * Creates a DatabaseConnection to the given database with the default number of readers.
+     *
+     * @param url JDBC URL of the database, e.g. {@code jdbc:sqlite:/path/to/database.db}
+     * @throws SQLException if a database access error occurs
+     */
+    public DatabaseConnection(String url) throws SQLException {
+        this(url, DEFAULT_READERS);
+    }
+
+    /**
+     * Creates a DatabaseConnection to the given database.
+     *
+     * @param url         JDBC URL of the database
+     * @param readerCount number of read-only connections to open; ignored for in-memory databases
+     * @throws SQLException if a database access error occurs
+     * @throws IllegalArgumentException if {@code readerCount} is negative
+     */
+    public DatabaseConnection(String url, int readerCount) throws SQLException {
+        this(url, readerCount, StatementCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a DatabaseConnection to the given database.
+     *
+     * @param url                JDBC URL of the database
+     * @param readerCount        number of read-only connections to open; ignored for in-memory databases
+     * @param statementCacheSize prepared statements kept per connection; 0 disables the cache
+     * @throws SQLException if a database access error occurs
+     * @throws IllegalArgumentException if {@code readerCount} or {@code statementCacheSize} is negative
+     */
+    public DatabaseConnection(String url, int readerCount, int statementCacheSize) throws SQLException {
+        if (readerCount < 0 || statementCacheSize < 0) {
+            throw new IllegalArgumentException("readerCount and statementCacheSize must not be negative");
+        }
         this.connection = DriverManager.getConnection(url);
+        this.writerCache = new StatementCache(connection, statementCacheSize);
+        boolean shared = !isInMemory(url);
+        try {
+            configure(connection, shared, false);
+            if (shared) {
+                for (int i = 0; i < readerCount; i++) {
+                    Connection reader = DriverManager.getConnection(url);
+                    readers.add(new StatementCache(reader, statementCacheSize));
+                    configure(reader, true, true);
+                }
+            }
+        } catch (SQLException e) {
+            try {
+                closeAll();
+            } catch (SQLException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        this.idleReaders = new ArrayBlockingQueue<>(Math.max(1, readers.size()), false, readers);
     }
 
     /**
-     * Returns the active JDBC Connection instance.
+     * Returns the writer connection.
+     * Work done on it directly is not synchronised with {@link #read} or {@link #write}.
      *
      * @return the JDBC Connection to the SQLite database
      */
@@ -34,4 +118,119 @@ public class DatabaseConnection implements IDatabaseConnection {
     public Connection getConnection() {
         return connection;
     }
+
+    /**
+     * Runs queries on an idle read connection, waiting for one if all are busy.
+     * Called while the same thread is inside {@link #write}, the work runs on the writer
+     * instead so it sees the writer's uncommitted changes.
+     *
+     * @param work the queries to run
+     * @param <T> the type of result produced
+     * @return the result of the work
+     * @throws SQLException if a database access error occurs or the wait is interrupted
+     */
+    @Override
+    public <T> T read(SqlFunction<T> work) throws SQLException {
+        if (readers.isEmpty() || writeLock.isHeldByCurrentThread()) {
+            return write(work);
+        }
+        StatementCache reader;
+        try {
+            reader = idleReaders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+        try {
+            return work.apply(reader.connection());
+        } finally {
+            idleReaders.add(reader);
+        }
+    }
+
+    /**
+     * Runs statements on the writer connection, one caller at a time.
+     *
+     * @param work the statements to run
+     * @param <T> the type of result produced
+     * @return the result of the work
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public <T> T write(SqlFunction<T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            return work.apply(writerCache.connection());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the prepared-statement cache counters summed over every connection.
+     *
+     * @return hits, misses and evictions so far
+     */
+    public StatementCacheStats getStatementCacheStats() {
+        StatementCacheStats total = writerCache.stats();
+        for (StatementCache reader : readers) {
+            total = total.plus(reader.stats());
+        }
+        return total;
+    }
+
+    /**
+     * Closes the writer and every read connection.
+     *
+     * @throws SQLException if a connection fails to close
+     */
+    @Override
+    public void close() throws SQLException {
+        closeAll();
+    }
+
+    /**
+     * Closes every connection opened so far; also used when the constructor fails part way.
+     */
+    private void closeAll() throws SQLException {
+        SQLException failure = null;
+        for (StatementCache reader : readers) {
+            try {
+                reader.connection().close();
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        connection.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Applies the pragmas shared by every connection. WAL mode is stored in the database file,
+     * so setting it on the writer is enough; NORMAL synchronous is durable in WAL mode except
+     * for the last commits before a power loss.
+     */
+    private static void configure(Connection c, boolean shared, boolean readOnly) throws SQLException {
+        try (Statement stmt = c.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            stmt.execute("PRAGMA cache_size = -16384");     // 16 MiB page cache
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            if (!shared) {
+                return;
+            }
+            stmt.execute("PRAGMA mmap_size = 268435456");   // map up to 256 MiB of the file
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            } else {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            }
+        }
+    }
+
+    private static boolean isInMemory(String url) {
+        return url.contains(":memory:") || url.contains("mode=memory") || url.equals("jdbc:sqlite:");
+    }
 }
@@ -4,17 +4,48 @@ import java.sql.Connection;
 import java.sql.SQLException;
 
 /**
- * Provides a connection to the SQLite database.
- * Initializes a single JDBC connection on construction
- * and exposes it via the IDatabaseConnection interface.
+ * Provides connections to the SQLite database.
+ * DAOs should run their statements through {@link #read} and {@link #write},
+ * which make the connection safe to use from several threads at once.
+ * The defaults serialise all work on the single connection returned by {@link #getConnection()};
+ * {@link DatabaseConnection} overrides them to spread reads over a pool.
  */
 public interface IDatabaseConnection {
 
     /**
-     * Creates a DatabaseConnection by opening a JDBC connection
-     * to the local SQLite database file.
+     * Returns the connection that writes go through.
+     * Work done on it directly is not synchronised with {@link #read} or {@link #write}.
      *
+     * @return the JDBC connection
      * @throws SQLException if a database access error occurs
      */
     Connection getConnection() throws SQLException;
+
+    /**
+     * Runs work that only queries the database.
+     *
+     * @param work the queries to run
+     * @param <T> the type of result produced
+     * @return the result of the work
+     * @throws SQLException if a database access error occurs
+     */
+    default <T> T read(SqlFunction<T> work) throws SQLException {
+        return write(work);
+    }
+
+    /**
+     * Runs work that may modify the database. Writes never run concurrently with each other,
+     * so work that spans several statements can manage its own transaction.
+     *
+     * @param work the statements to run
+     * @param <T> the type of result produced
+     * @return the result of the work
+     * @throws SQLException if a database access error occurs
+     */
+    default <T> T write(SqlFunction<T> work) throws SQLException {
+        Connection connection = getConnection();
+        synchronized (connection) {
+            return work.apply(connection);
+        }
+    }
 }
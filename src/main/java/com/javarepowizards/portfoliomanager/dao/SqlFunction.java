@@ -0,0 +1,23 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Unit of JDBC work run on a connection lent out by an {@link IDatabaseConnection}.
+ * The connection must not be kept or used after the call returns.
+ *
+ * @param <T> the type of result produced
+ */
+@FunctionalInterface
+public interface SqlFunction<T> {
+
+    /**
+     * Runs the work.
+     *
+     * @param connection the connection to run on
+     * @return the result of the work
+     * @throws SQLException if a database access error occurs
+     */
+    T apply(Connection connection) throws SQLException;
+}
@@ -0,0 +1,20 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import java.sql.SQLException;
+
+/**
+ * DAO call that may fail with an {@link SQLException}, run later by a {@link DaoExecutor}.
+ *
+ * @param <T> the type of result produced
+ */
+@FunctionalInterface
+public interface SqlSupplier<T> {
+
+    /**
+     * Runs the call.
+     *
+     * @return the result of the call
+     * @throws SQLException if a database access error occurs
+     */
+    T get() throws SQLException;
+}
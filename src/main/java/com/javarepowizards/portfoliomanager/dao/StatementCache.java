@@ -0,0 +1,159 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of prepared statements for one connection, keyed by SQL text.
+ * The connection it hands out looks like the real one, except that
+ * {@code prepareStatement(sql)} returns a cached statement when there is one and
+ * closing that statement only clears its parameters and returns it to the cache,
+ * so DAOs keep their usual try-with-resources code and stop re-parsing the SQL.
+ *
+ * A statement that is still open when the same SQL is prepared again, e.g. by a
+ * nested query, is not shared: the second caller gets a fresh statement that is
+ * closed for real. Least recently used statements are closed once the cache is full.
+ * The connection must only be used by one thread at a time; the counters may be read from any thread.
+ */
+final class StatementCache {
+
+    /** Number of statements kept per connection by default. */
+    static final int DEFAULT_CAPACITY = 64;
+
+    private final Connection connection;
+    private final Connection cachingConnection;
+    private final int capacity;
+    private final Map<String, Entry> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates an empty cache for a connection.
+     *
+     * @param connection the real connection
+     * @param capacity   maximum number of statements to keep; 0 disables caching
+     */
+    StatementCache(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.cachingConnection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this::onConnection);
+    }
+
+    /**
+     * Returns the connection to lend out, whose single-argument {@code prepareStatement} goes through the cache.
+     *
+     * @return the caching view of the connection
+     */
+    Connection connection() {
+        return cachingConnection;
+    }
+
+    /**
+     * Returns the counters of this cache.
+     *
+     * @return hits, misses and evictions so far
+     */
+    StatementCacheStats stats() {
+        return new StatementCacheStats(hits.get(), misses.get(), evictions.get());
+    }
+
+    private Object onConnection(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("prepareStatement") && args.length == 1) {
+            return prepare((String) args[0]);
+        }
+        return invoke(connection, method, args);
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        Entry entry = statements.get(sql);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+            entry.inUse = true;
+            return entry.view;
+        }
+        misses.incrementAndGet();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        if (entry != null || capacity == 0) {
+            return statement;   // already leased by an enclosing caller, or caching is off
+        }
+        entry = new Entry(statement);
+        entry.inUse = true;
+        statements.put(sql, entry);
+        evictIfFull();
+        return entry.view;
+    }
+
+    private void evictIfFull() {
+        Iterator<Entry> it = statements.values().iterator();
+        while (statements.size() > capacity && it.hasNext()) {
+            Entry eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                evictions.incrementAndGet();
+                try {
+                    eldest.statement.close();
+                } catch (SQLException ignored) {
+                    // the statement is unusable either way
+                }
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A cached statement and the view of it handed to callers.
+     */
+    private final class Entry implements InvocationHandler {
+        final PreparedStatement statement;
+        final PreparedStatement view;
+        boolean inUse;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+            this.view = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (inUse) {
+                        inUse = false;
+                        statement.clearParameters();
+                        statement.clearBatch();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return !inUse || statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return cachingConnection;
+                }
+                default -> {
+                    return StatementCache.invoke(statement, method, args);
+                }
+            }
+        }
+    }
+}
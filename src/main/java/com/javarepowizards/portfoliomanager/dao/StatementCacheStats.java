@@ -0,0 +1,31 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+/**
+ * Counters of a prepared-statement cache.
+ *
+ * @param hits      number of times a cached statement was reused
+ * @param misses    number of times a statement had to be prepared
+ * @param evictions number of cached statements closed to make room for others
+ */
+public record StatementCacheStats(long hits, long misses, long evictions) {
+
+    /**
+     * Returns the fraction of statement requests served from the cache.
+     *
+     * @return hits over hits plus misses, or 0 if there were no requests
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    /**
+     * Adds another cache's counters to these.
+     *
+     * @param other the counters to add
+     * @return the summed counters
+     */
+    public StatementCacheStats plus(StatementCacheStats other) {
+        return new StatementCacheStats(hits + other.hits, misses + other.misses, evictions + other.evictions);
+    }
+}
@@ -1,10 +1,13 @@
 package com.javarepowizards.portfoliomanager.dao.portfolio;
 
+import com.javarepowizards.portfoliomanager.dao.DaoExecutor;
 import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
 import com.javarepowizards.portfoliomanager.models.StockName;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for portfolio data access operations.
@@ -60,6 +63,14 @@ public interface IPortfolioDAO {
      */
     List<PortfolioEntry> getHoldingsForUser(int userId) throws SQLException;
 
+    /**
+     * Gets the holdings of every user in a single query.
+     *
+     * @return holdings keyed by user ID; users without holdings are absent
+     * @throws SQLException if retrieval fails
+     */
+    Map<Integer, List<PortfolioEntry>> getHoldingsForAllUsers() throws SQLException;
+
     /**
      * Sells a specific stock holding for the user.
      *
@@ -77,5 +88,51 @@ public interface IPortfolioDAO {
      * @throws SQLException if the update fails
      */
     void deductFromBalance(int userId, double amount) throws SQLException;
-}
 
+    /**
+     * Discards anything cached for a user, so the next read sees the stored data.
+     * Call after changing the user's holdings or balance other than through this DAO.
+     * Does nothing by default.
+     *
+     * @param userId ID of the user
+     */
+    default void invalidate(int userId) {
+    }
+
+    /**
+     * Gets the holdings for the currently logged-in user on the {@link DaoExecutor}.
+     *
+     * @return a future completed with the holdings
+     */
+    default CompletableFuture<List<PortfolioEntry>> getHoldingsAsync() {
+        return DaoExecutor.shared().supply(this::getHoldings);
+    }
+
+    /**
+     * Gets all holdings for a specified user ID on the {@link DaoExecutor}.
+     *
+     * @param userId ID of the user
+     * @return a future completed with the holdings, or exceptionally if retrieval fails
+     */
+    default CompletableFuture<List<PortfolioEntry>> getHoldingsForUserAsync(int userId) {
+        return DaoExecutor.shared().supply(() -> getHoldingsForUser(userId));
+    }
+
+    /**
+     * Gets the available cash balance for the currently logged-in user on the {@link DaoExecutor}.
+     *
+     * @return a future completed with the balance
+     */
+    default CompletableFuture<Double> getAvailableBalanceAsync() {
+        return DaoExecutor.shared().supply(this::getAvailableBalance);
+    }
+
+    /**
+     * Calculates the total value of the user's portfolio on the {@link DaoExecutor}.
+     *
+     * @return a future completed with the total of holdings and cash
+     */
+    default CompletableFuture<Double> getTotalPortfolioValueAsync() {
+        return DaoExecutor.shared().supply(this::getTotalPortfolioValue);
+    }
+}
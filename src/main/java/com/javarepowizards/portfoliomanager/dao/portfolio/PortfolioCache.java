@@ -0,0 +1,155 @@
+package com.javarepowizards.portfoliomanager.dao.portfolio;
+
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user read model of holdings and cash balances kept by {@link PortfolioDAO}.
+ * A user's holdings and balance are loaded on first read and then served from memory.
+ * Writes made through the DAO are applied to the cached values once they succeed, so the
+ * cache stays current without reloading. Each user has a version that every write bumps,
+ * and a load that overlapped a write does not cache what it read, since it may have seen
+ * the database either before or after the write.
+ * Safe to share between threads.
+ */
+final class PortfolioCache {
+
+    private final Map<Integer, Cached> users = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the user's cached holdings, loading them if they are not cached.
+     *
+     * @param userId the user
+     * @param loader reads the holdings from the database
+     * @return the holdings, as an unmodifiable list
+     * @throws SQLException if the load fails
+     */
+    List<PortfolioEntry> holdings(int userId, Loader<List<PortfolioEntry>> loader) throws SQLException {
+        Cached cached = users.computeIfAbsent(userId, id -> new Cached());
+        long version;
+        synchronized (cached) {
+            if (cached.holdings != null) {
+                return cached.holdings;
+            }
+            version = cached.version;
+        }
+        List<PortfolioEntry> loaded = List.copyOf(loader.load());
+        synchronized (cached) {
+            if (cached.version == version && cached.writers == 0) {
+                cached.holdings = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the user's cached balance, loading it if it is not cached.
+     *
+     * @param userId the user
+     * @param loader reads the balance from the database
+     * @return the balance
+     * @throws SQLException if the load fails
+     */
+    double balance(int userId, Loader<Double> loader) throws SQLException {
+        Cached cached = users.computeIfAbsent(userId, id -> new Cached());
+        long version;
+        synchronized (cached) {
+            if (cached.balance != null) {
+                return cached.balance;
+            }
+            version = cached.version;
+        }
+        double loaded = loader.load();
+        synchronized (cached) {
+            if (cached.version == version && cached.writers == 0) {
+                cached.balance = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Runs a write for a user and then applies it to whatever is cached for them.
+     * If the write fails the user's entry is dropped, since it is unknown what was committed.
+     *
+     * @param userId the user whose holdings or balance the write changes
+     * @param write  the database write
+     * @param apply  updates the cached values from the write's result; only called after the write succeeded
+     * @param <T> the type of result produced by the write
+     * @return the result of the write
+     * @throws SQLException if the write fails
+     */
+    <T> T write(int userId, Loader<T> write, Update<T> apply) throws SQLException {
+        Cached cached = users.computeIfAbsent(userId, id -> new Cached());
+        synchronized (cached) {
+            cached.writers++;
+            cached.version++;
+        }
+        boolean succeeded = false;
+        T result = null;
+        try {
+            result = write.load();
+            succeeded = true;
+            return result;
+        } finally {
+            synchronized (cached) {
+                cached.writers--;
+                cached.version++;
+                if (succeeded) {
+                    apply.apply(cached, result);
+                } else {
+                    cached.holdings = null;
+                    cached.balance = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops everything cached for a user, so the next read goes to the database.
+     *
+     * @param userId the user
+     */
+    void invalidate(int userId) {
+        Cached cached = users.computeIfAbsent(userId, id -> new Cached());
+        synchronized (cached) {
+            cached.version++;
+            cached.holdings = null;
+            cached.balance = null;
+        }
+    }
+
+    /**
+     * What is cached for one user; a null field has not been loaded.
+     */
+    static final class Cached {
+        List<PortfolioEntry> holdings;
+        Double balance;
+        private long version;
+        private int writers;
+    }
+
+    /**
+     * A database read or write that may fail.
+     *
+     * @param <T> the type of result produced
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    /**
+     * Applies a successful write to the cached values, which the caller holds the lock on.
+     *
+     * @param <T> the type of result produced by the write
+     */
+    @FunctionalInterface
+    interface Update<T> {
+        void apply(Cached cached, T result);
+    }
+}
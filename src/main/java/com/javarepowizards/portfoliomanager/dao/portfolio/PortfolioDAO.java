@@ -7,17 +7,22 @@ import com.javarepowizards.portfoliomanager.services.session.Session;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for portfolio operations.
  * Supports both DB-backed and in-memory modes for retrieving and updating
  * user holdings and balances.
+ * In DB mode each user's holdings and balance are cached after the first read and kept
+ * current by the writes made through this DAO; writes made elsewhere must be followed
+ * by {@link #invalidate(int)}.
  */
 public class PortfolioDAO implements IPortfolioDAO {
 
-    /** Connection to the SQL database (null if in-memory mode) */
-    private final Connection conn;
+    /** Provider of connections to the SQL database (null if in-memory mode) */
+    private final IDatabaseConnection db;
 
     /** Indicates whether the DAO is using a real database */
     private final boolean dbMode;
@@ -28,18 +33,17 @@ public class PortfolioDAO implements IPortfolioDAO {
     /** Available balance (only meaningful in in-memory mode) */
     private final double availableBalance;
 
+    /** Cached holdings and balances per user (only used in DB mode) */
+    private final PortfolioCache cache = new PortfolioCache();
+
     /**
      * Constructs a DB-backed PortfolioDAO.
      *
      * @param dbConnection The database connection provider
      */
     public PortfolioDAO(IDatabaseConnection dbConnection) {
-        try {
-            this.conn = dbConnection.getConnection();
-            createTables();
-        } catch (SQLException e) {
-            throw new RuntimeException("Unable to obtain DB connection", e);
-        }
+        this.db = dbConnection;
+        createTables();
         this.dbMode = true;
         this.holdings = null;
         this.availableBalance = 0.0;
@@ -56,7 +60,7 @@ public class PortfolioDAO implements IPortfolioDAO {
             throw new IllegalStateException("In-memory PortfolioDAO should only be used in tests or simulations.");
         }
 
-        this.conn = null;
+        this.db = null;
         this.dbMode = false;
         this.holdings = holdings;
         this.availableBalance = availableBalance;
@@ -89,35 +93,7 @@ public class PortfolioDAO implements IPortfolioDAO {
             return holdings;
         }
 
-        int userId = Session.getCurrentUser().getUserId();
-        String sql = """
-                  SELECT ticker, holding_amount, holding_value
-                    FROM user_holdings
-                   WHERE user_id = ?
-                """;
-        List<PortfolioEntry> out = new ArrayList<>();
-
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String ticker = rs.getString("ticker");
-                    int qty = rs.getInt("holding_amount");
-                    double val = rs.getDouble("holding_value");
-                    double avg = qty > 0 ? val / qty : 0.0;
-
-                    out.add(new PortfolioEntry(
-                            StockName.fromString(ticker),
-                            avg,
-                            qty
-                    ));
-                }
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to load holdings for user " + userId, e);
-        }
-
-        return out;
+        return getHoldingsForUser(Session.getCurrentUser().getUserId());
     }
 
     /**
@@ -134,11 +110,15 @@ public class PortfolioDAO implements IPortfolioDAO {
         int userId = Session.getCurrentUser().getUserId();
         String sql = "SELECT balance FROM user_balances WHERE user_id = ?";
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? rs.getDouble("balance") : 0.0;
-            }
+        try {
+            return cache.balance(userId, () -> db.read(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, userId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? rs.getDouble("balance") : 0.0;
+                    }
+                }
+            }));
         } catch (SQLException e) {
             throw new RuntimeException("Failed to load balance for user " + userId, e);
         }
@@ -154,10 +134,18 @@ public class PortfolioDAO implements IPortfolioDAO {
      */
     public void deductFromBalance(int userId, double amount) throws SQLException {
         String sql = "UPDATE user_balances SET balance = balance - ? WHERE user_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setDouble(1, amount);
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
+        try {
+            cache.write(userId, () -> db.write(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setDouble(1, amount);
+                    stmt.setInt(2, userId);
+                    return stmt.executeUpdate();
+                }
+            }), (cached, updated) -> {
+                if (cached.balance != null) {
+                    cached.balance -= amount;
+                }
+            });
         } catch (SQLException e) {
             throw new SQLException(e);
         }
@@ -176,24 +164,7 @@ public class PortfolioDAO implements IPortfolioDAO {
         }
 
         int userId = Session.getCurrentUser().getUserId();
-        String sql = """
-              INSERT INTO user_holdings 
-                (user_id, ticker, holding_amount, holding_value)
-              VALUES (?, ?, ?, ?)
-              ON CONFLICT(user_id, ticker) DO UPDATE
-                SET holding_amount = user_holdings.holding_amount + excluded.holding_amount,
-                    holding_value  = user_holdings.holding_value  + excluded.holding_value
-            """;
-
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            ps.setString(2, entry.getStock().getSymbol());
-            ps.setInt(3, entry.getAmountHeld());
-            ps.setDouble(4, entry.getMarketValue());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to upsert holding for user " + userId, e);
-        }
+        upsertHolding(userId, entry.getStock(), entry.getAmountHeld(), entry.getMarketValue());
     }
 
     /**
@@ -208,25 +179,62 @@ public class PortfolioDAO implements IPortfolioDAO {
                   FROM user_holdings
                  WHERE user_id = ?
             """;
-        List<PortfolioEntry> holdings = new ArrayList<>();
-        try (PreparedStatement p = conn.prepareStatement(sql)) {
-            p.setInt(1, userId);
-            try (ResultSet rs = p.executeQuery()) {
+        try {
+            return cache.holdings(userId, () -> db.read(conn -> {
+                List<PortfolioEntry> holdings = new ArrayList<>();
+                try (PreparedStatement p = conn.prepareStatement(sql)) {
+                    p.setInt(1, userId);
+                    try (ResultSet rs = p.executeQuery()) {
+                        while (rs.next()) {
+                            int amt = rs.getInt("holding_amount");
+                            double val = rs.getDouble("holding_value");
+                            double avg = amt > 0 ? val / amt : 0.0;
+                            holdings.add(new PortfolioEntry(
+                                    StockName.fromString(rs.getString("ticker")),
+                                    avg,
+                                    amt
+                            ));
+                        }
+                    }
+                }
+                return holdings;
+            }));
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch holdings for user " + userId, e);
+        }
+    }
+
+    /**
+     * Fetches the holdings of every user in one pass over user_holdings.
+     * In in-memory mode the test holdings are returned under user ID 0.
+     *
+     * @return holdings keyed by user ID
+     * @throws SQLException if the query fails
+     */
+    @Override
+    public Map<Integer, List<PortfolioEntry>> getHoldingsForAllUsers() throws SQLException {
+        if (!dbMode) {
+            return holdings.isEmpty() ? Map.of() : Map.of(0, holdings);
+        }
+
+        String sql = """
+                SELECT user_id, ticker, holding_amount, holding_value
+                  FROM user_holdings
+            """;
+        return db.read(conn -> {
+            Map<Integer, List<PortfolioEntry>> out = new HashMap<>();
+            try (PreparedStatement p = conn.prepareStatement(sql);
+                 ResultSet rs = p.executeQuery()) {
                 while (rs.next()) {
                     int amt = rs.getInt("holding_amount");
                     double val = rs.getDouble("holding_value");
                     double avg = amt > 0 ? val / amt : 0.0;
-                    holdings.add(new PortfolioEntry(
-                            StockName.fromString(rs.getString("ticker")),
-                            avg,
-                            amt
-                    ));
+                    out.computeIfAbsent(rs.getInt("user_id"), id -> new ArrayList<>())
+                            .add(new PortfolioEntry(StockName.fromString(rs.getString("ticker")), avg, amt));
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to fetch holdings for user " + userId, e);
-        }
-        return holdings;
+            return out;
+        });
     }
 
     /**
@@ -245,12 +253,20 @@ public class PortfolioDAO implements IPortfolioDAO {
                   SET holding_amount = user_holdings.holding_amount + excluded.holding_amount,
                       holding_value  = user_holdings.holding_value  + excluded.holding_value
             """;
-        try (PreparedStatement p = conn.prepareStatement(sql)) {
-            p.setInt(1, userId);
-            p.setString(2, stock.getSymbol());
-            p.setInt(3, quantity);
-            p.setDouble(4, totalValue);
-            p.executeUpdate();
+        try {
+            cache.write(userId, () -> db.write(conn -> {
+                try (PreparedStatement p = conn.prepareStatement(sql)) {
+                    p.setInt(1, userId);
+                    p.setString(2, stock.getSymbol());
+                    p.setInt(3, quantity);
+                    p.setDouble(4, totalValue);
+                    return p.executeUpdate();
+                }
+            }), (cached, updated) -> {
+                if (cached.holdings != null) {
+                    cached.holdings = withPurchase(cached.holdings, stock, quantity, totalValue);
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to upsert holding for user " + userId, e);
         }
@@ -270,45 +286,40 @@ public class PortfolioDAO implements IPortfolioDAO {
             return availableBalance + totalHoldings;
         }
 
-        int userId = Session.getCurrentUser().getUserId();
-        double cash = getAvailableBalance();
-
-        String sql = "SELECT SUM(holding_value) AS total FROM user_holdings WHERE user_id = ?";
-
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                double holdings = rs.next() ? rs.getDouble("total") : 0.0;
-                return cash + holdings; // cash + actual stock value
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to compute total for user " + userId, e);
+        double total = getAvailableBalance();
+        for (PortfolioEntry entry : getHoldings()) {
+            total += entry.getMarketValue(); // cash + actual stock value
         }
+        return total;
     }
 
     /**
      * Creates the user_holdings table if it does not exist.
      */
     public void createTables() {
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS user_holdings (
-                      user_id         INTEGER     NOT NULL,
-                      ticker          VARCHAR(10) NOT NULL,
-                      holding_amount  INTEGER     NOT NULL,
-                      holding_value   DECIMAL(15,2) NOT NULL,
-                      PRIMARY KEY (user_id, ticker),
-                      FOREIGN KEY (user_id) REFERENCES user_auth(user_id) 
-                        ON DELETE CASCADE
-                    )
-                """);
+        try {
+            db.write(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    return stmt.execute("""
+                            CREATE TABLE IF NOT EXISTS user_holdings (
+                              user_id         INTEGER     NOT NULL,
+                              ticker          VARCHAR(10) NOT NULL,
+                              holding_amount  INTEGER     NOT NULL,
+                              holding_value   DECIMAL(15,2) NOT NULL,
+                              PRIMARY KEY (user_id, ticker),
+                              FOREIGN KEY (user_id) REFERENCES user_auth(user_id) 
+                                ON DELETE CASCADE
+                            )
+                        """);
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to create user_holdings table", e);
         }
     }
 
     /**
-     * Sells a specific holding and updates the user's balance.
+     * Sells a specific holding and credits its value to the user's balance in one transaction.
      *
      * @param userId User identifier
      * @param stock Stock to sell
@@ -316,42 +327,93 @@ public class PortfolioDAO implements IPortfolioDAO {
      */
     @Override
     public void sellHolding(int userId, StockName stock) throws SQLException {
-        double marketValue;
-
-        // Fetch current market value of the holding
-        String selectSQL = "SELECT holding_value FROM user_holdings WHERE user_id = ? AND ticker = ?";
-        try (PreparedStatement selectStmt = conn.prepareStatement(selectSQL)) {
-            selectStmt.setInt(1, userId);
-            selectStmt.setString(2, stock.getSymbol());
-
-            try (ResultSet rs = selectStmt.executeQuery()) {
-                if (rs.next()) {
-                    marketValue = rs.getDouble("holding_value");
-                } else {
-                    throw new SQLException("Holding not found for stock: " + stock.getSymbol());
+        cache.write(userId, () -> db.write(conn -> {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                double marketValue;
+
+                // Fetch current market value of the holding
+                String selectSQL = "SELECT holding_value FROM user_holdings WHERE user_id = ? AND ticker = ?";
+                try (PreparedStatement selectStmt = conn.prepareStatement(selectSQL)) {
+                    selectStmt.setInt(1, userId);
+                    selectStmt.setString(2, stock.getSymbol());
+
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        if (rs.next()) {
+                            marketValue = rs.getDouble("holding_value");
+                        } else {
+                            throw new SQLException("Holding not found for stock: " + stock.getSymbol());
+                        }
+                    }
+                }
+
+                // Delete holding and update user balance
+                String deleteSQL = "DELETE FROM user_holdings WHERE user_id = ? AND ticker = ?";
+                String updateSQL = "UPDATE user_balances SET balance = balance + ? WHERE user_id = ?";
+
+                try (
+                        PreparedStatement deleteStmt = conn.prepareStatement(deleteSQL);
+                        PreparedStatement updateStmt = conn.prepareStatement(updateSQL)
+                ) {
+                    deleteStmt.setInt(1, userId);
+                    deleteStmt.setString(2, stock.getSymbol());
+                    deleteStmt.executeUpdate();
+
+                    updateStmt.setDouble(1, marketValue);
+                    updateStmt.setInt(2, userId);
+                    updateStmt.executeUpdate();
                 }
+                conn.commit();
+                return marketValue;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }), (cached, marketValue) -> {
+            if (cached.holdings != null) {
+                cached.holdings = cached.holdings.stream().filter(e -> e.getStock() != stock).toList();
+            }
+            if (cached.balance != null) {
+                cached.balance += marketValue;
             }
+        });
+    }
+
+    /**
+     * Drops the cached holdings and balance of a user, so the next read goes to the database.
+     *
+     * @param userId User identifier
+     */
+    @Override
+    public void invalidate(int userId) {
+        if (dbMode) {
+            cache.invalidate(userId);
         }
+    }
 
-        // Delete holding and update user balance
-        String deleteSQL = "DELETE FROM user_holdings WHERE user_id = ? AND ticker = ?";
-        String updateSQL = "UPDATE user_balances SET balance = balance + ? WHERE user_id = ?";
-
-        try (
-                PreparedStatement deleteStmt = conn.prepareStatement(deleteSQL);
-                PreparedStatement updateStmt = conn.prepareStatement(updateSQL)
-        ) {
-            deleteStmt.setInt(1, userId);
-            deleteStmt.setString(2, stock.getSymbol());
-            deleteStmt.executeUpdate();
-
-            updateStmt.setDouble(1, marketValue);
-            updateStmt.setInt(2, userId);
-            updateStmt.executeUpdate();
+    /**
+     * Returns the holdings after buying more of a stock, merging into an existing holding at its average cost.
+     */
+    private static List<PortfolioEntry> withPurchase(List<PortfolioEntry> holdings, StockName stock,
+                                                     int quantity, double totalValue) {
+        List<PortfolioEntry> out = new ArrayList<>(holdings.size() + 1);
+        boolean merged = false;
+        for (PortfolioEntry e : holdings) {
+            if (e.getStock() == stock) {
+                int amt = e.getAmountHeld() + quantity;
+                double val = e.getMarketValue() + totalValue;
+                out.add(new PortfolioEntry(stock, amt > 0 ? val / amt : 0.0, amt));
+                merged = true;
+            } else {
+                out.add(e);
+            }
+        }
+        if (!merged) {
+            out.add(new PortfolioEntry(stock, quantity > 0 ? totalValue / quantity : 0.0, quantity));
         }
+        return List.copyOf(out);
     }
 }
-
-
-
-
@@ -0,0 +1,107 @@
+package com.javarepowizards.portfoliomanager.dao.portfolio;
+
+import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of one user's holdings and cash, captured at a point in time.
+ * Lets services that read "the current portfolio" through {@link IPortfolioDAO}
+ * run against any user without a logged-in session, e.g. from a batch job.
+ * Every method that would change the portfolio throws {@link UnsupportedOperationException}.
+ */
+public final class PortfolioSnapshot implements IPortfolioDAO {
+
+    private final int userId;
+    private final List<PortfolioEntry> holdings;
+    private final double availableBalance;
+
+    /**
+     * Creates a snapshot from already-loaded holdings and cash.
+     *
+     * @param userId           ID of the user the portfolio belongs to
+     * @param holdings         the user's holdings
+     * @param availableBalance the user's cash balance
+     */
+    public PortfolioSnapshot(int userId, List<PortfolioEntry> holdings, double availableBalance) {
+        this.userId = userId;
+        this.holdings = List.copyOf(holdings);
+        this.availableBalance = availableBalance;
+    }
+
+    /**
+     * Loads a user's holdings and cash balance from the database.
+     *
+     * @param userId       ID of the user
+     * @param portfolioDAO source of the user's holdings
+     * @param userDAO      source of the user's cash balance
+     * @return the snapshot
+     * @throws SQLException if either lookup fails
+     */
+    public static PortfolioSnapshot load(int userId, IPortfolioDAO portfolioDAO, IUserDAO userDAO)
+            throws SQLException {
+        return new PortfolioSnapshot(userId, portfolioDAO.getHoldingsForUser(userId), userDAO.getBalance(userId));
+    }
+
+    /**
+     * Returns the ID of the user the portfolio belongs to.
+     *
+     * @return the user ID
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    @Override
+    public List<PortfolioEntry> getHoldings() {
+        return holdings;
+    }
+
+    @Override
+    public double getAvailableBalance() {
+        return availableBalance;
+    }
+
+    @Override
+    public double getTotalPortfolioValue() {
+        double total = availableBalance;
+        for (PortfolioEntry entry : holdings) {
+            total += entry.getMarketValue();
+        }
+        return total;
+    }
+
+    @Override
+    public List<PortfolioEntry> getHoldingsForUser(int userId) {
+        return userId == this.userId ? holdings : List.of();
+    }
+
+    @Override
+    public Map<Integer, List<PortfolioEntry>> getHoldingsForAllUsers() {
+        return holdings.isEmpty() ? Map.of() : Map.of(userId, holdings);
+    }
+
+    @Override
+    public void addToHoldings(PortfolioEntry entry) {
+        throw new UnsupportedOperationException("Portfolio snapshots are read-only");
+    }
+
+    @Override
+    public void upsertHolding(int userId, StockName stock, int quantity, double totalValue) {
+        throw new UnsupportedOperationException("Portfolio snapshots are read-only");
+    }
+
+    @Override
+    public void sellHolding(int userId, StockName stock) {
+        throw new UnsupportedOperationException("Portfolio snapshots are read-only");
+    }
+
+    @Override
+    public void deductFromBalance(int userId, double amount) {
+        throw new UnsupportedOperationException("Portfolio snapshots are read-only");
+    }
+}
@@ -0,0 +1,29 @@
+package com.javarepowizards.portfoliomanager.dao.simulation;
+
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Persists calibrated simulation hyper-parameters per ticker.
+ */
+public interface ISimulationParameterDAO {
+
+    /**
+     * Returns every calibrated parameter set.
+     *
+     * @return calibrated parameters keyed by ticker; tickers never calibrated are absent
+     * @throws SQLException if a database access error occurs
+     */
+    Map<StockName, SimulationParameters> findAll() throws SQLException;
+
+    /**
+     * Inserts or replaces the calibrated parameters for several tickers in one transaction.
+     *
+     * @param params parameters keyed by ticker
+     * @throws SQLException if a database access error occurs
+     */
+    void saveAll(Map<StockName, SimulationParameters> params) throws SQLException;
+}
@@ -0,0 +1,89 @@
+package com.javarepowizards.portfoliomanager.dao.simulation;
+
+import com.javarepowizards.portfoliomanager.dao.IDatabaseConnection;
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.sql.*;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link ISimulationParameterDAO}.
+ * Stores one row of calibrated hyper-parameters per ticker in the simulation_parameters table.
+ */
+public class SimulationParameterDAO implements ISimulationParameterDAO {
+    private static final String CREATE_SQL = """
+        CREATE TABLE IF NOT EXISTS simulation_parameters (
+          symbol             TEXT PRIMARY KEY,
+          k_multiplier       REAL NOT NULL,
+          max_daily_movement REAL NOT NULL,
+          smoothing_factor   REAL NOT NULL
+        );
+        """;
+    private static final String SELECT_ALL_SQL =
+            "SELECT symbol, k_multiplier, max_daily_movement, smoothing_factor FROM simulation_parameters";
+    private static final String UPSERT_SQL =
+            "INSERT OR REPLACE INTO simulation_parameters"
+                    + "(symbol, k_multiplier, max_daily_movement, smoothing_factor) VALUES(?, ?, ?, ?)";
+
+    private final IDatabaseConnection db;
+
+    /**
+     * Constructs a SimulationParameterDAO and ensures its table exists.
+     *
+     * @param databaseConnection provider of the JDBC connection
+     * @throws SQLException if an error occurs creating the table or obtaining the connection
+     */
+    public SimulationParameterDAO(IDatabaseConnection databaseConnection) throws SQLException {
+        this.db = databaseConnection;
+        db.write(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                return stmt.execute(CREATE_SQL);
+            }
+        });
+    }
+
+    @Override
+    public Map<StockName, SimulationParameters> findAll() throws SQLException {
+        return db.read(conn -> {
+            Map<StockName, SimulationParameters> out = new EnumMap<>(StockName.class);
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_ALL_SQL);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.put(StockName.valueOf(rs.getString("symbol")), new SimulationParameters(
+                            rs.getDouble("k_multiplier"),
+                            rs.getDouble("max_daily_movement"),
+                            rs.getDouble("smoothing_factor")));
+                }
+            }
+            return out;
+        });
+    }
+
+    @Override
+    public void saveAll(Map<StockName, SimulationParameters> params) throws SQLException {
+        db.write(conn -> {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+                for (Map.Entry<StockName, SimulationParameters> e : params.entrySet()) {
+                    SimulationParameters p = e.getValue();
+                    ps.setString(1, e.getKey().name());
+                    ps.setDouble(2, p.kMultiplier());
+                    ps.setDouble(3, p.maxDailyMovement());
+                    ps.setDouble(4, p.smoothingFactor());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+                return params.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        });
+    }
+}
@@ -1,6 +1,5 @@
 package com.javarepowizards.portfoliomanager.dao.stock;
 
-import com.javarepowizards.portfoliomanager.MainApplication;
 import com.javarepowizards.portfoliomanager.models.StockName;
 import com.javarepowizards.portfoliomanager.models.StockData;
 import java.io.BufferedReader;
@@ -39,7 +38,7 @@ public class StockDAO implements IStockDAO {
     private StockDAO() {
         try {
             // Attempt to locate the CSV on the classpath
-            URL url = MainApplication.class.getResource(DEFAULT_CSV_PATH);
+            URL url = StockDAO.class.getResource(DEFAULT_CSV_PATH);
             // Null‐check to avoid NullPointerException if the resource is missing (probably not needed)
             if (url == null) {
                 throw new RuntimeException("Could not find resource on classpath: " + DEFAULT_CSV_PATH);
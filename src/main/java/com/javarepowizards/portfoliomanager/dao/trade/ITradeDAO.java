@@ -0,0 +1,50 @@
+package com.javarepowizards.portfoliomanager.dao.trade;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioSnapshot;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeRecord;
+import com.javarepowizards.portfoliomanager.models.TradeResult;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Applies trade orders to user holdings and cash balances and keeps the ledger of executed trades.
+ */
+public interface ITradeDAO {
+
+    /**
+     * Applies several orders in one transaction. Each order is all-or-nothing:
+     * a rejected order leaves no trace, while the others are still committed.
+     * Every leg of an executed order is appended to the trade ledger.
+     *
+     * @param orders the orders to apply, in order
+     * @return one result per order, in the same order
+     * @throws SQLException if a database access error occurs; nothing is committed in that case
+     */
+    List<TradeResult> executeBatch(List<TradeOrder> orders) throws SQLException;
+
+    /**
+     * Returns a user's executed trades within a time range, oldest first.
+     *
+     * @param userId the user
+     * @param from   start of the range, inclusive
+     * @param to     end of the range, exclusive
+     * @return the trades in ledger order
+     * @throws SQLException if a database access error occurs
+     */
+    List<TradeRecord> findTrades(int userId, Instant from, Instant to) throws SQLException;
+
+    /**
+     * Reconstructs a user's holdings and cash as they were at a point in time,
+     * from the nearest earlier position snapshot plus the ledger trades after it.
+     *
+     * @param userId the user
+     * @param asOf   the point in time; trades executed at exactly this instant are included
+     * @return the portfolio at that time, or empty if the user had not traded through the ledger by then
+     * @throws SQLException if a database access error occurs
+     */
+    Optional<PortfolioSnapshot> positionsAsOf(int userId, Instant asOf) throws SQLException;
+}
@@ -0,0 +1,505 @@
+package com.javarepowizards.portfoliomanager.dao.trade;
+
+import com.javarepowizards.portfoliomanager.dao.IDatabaseConnection;
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioSnapshot;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.TradeLeg;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeRecord;
+import com.javarepowizards.portfoliomanager.models.TradeResult;
+import com.javarepowizards.portfoliomanager.models.TradeSide;
+
+import java.sql.*;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC implementation of {@link ITradeDAO} over the user_holdings and user_balances tables.
+ * A batch runs in a single transaction, so it costs one commit however many orders it holds;
+ * each order runs inside its own savepoint and is rolled back to it when rejected.
+ * Holdings keep their book value, so selling part of a holding removes the same fraction of its value.
+ *
+ * Every executed leg is appended to the trades table, which cannot be updated or deleted.
+ * user_holdings and user_balances stay the current positions, so reading them does not
+ * depend on the length of the ledger. Past positions come from the position_snapshots
+ * tables: a user's holdings and cash are copied there before their first ledger trade and
+ * again every {@code snapshotInterval} trades, and an as-of query replays only the trades
+ * after the nearest earlier snapshot. Holdings changed outside this DAO, e.g. through
+ * {@code PortfolioDAO.upsertHolding}, are only picked up by the next snapshot.
+ */
+public class TradeDAO implements ITradeDAO {
+
+    /** Number of ledger trades per user between position snapshots by default. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 500;
+
+    private static final String[] CREATE_SQL = {
+            """
+            CREATE TABLE IF NOT EXISTS trades (
+              trade_id    INTEGER PRIMARY KEY AUTOINCREMENT,
+              user_id     INTEGER     NOT NULL,
+              ticker      VARCHAR(10) NOT NULL,
+              side        VARCHAR(4)  NOT NULL,
+              quantity    INTEGER     NOT NULL,
+              price       REAL        NOT NULL,
+              executed_at INTEGER     NOT NULL
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS trades_by_user ON trades (user_id, trade_id)",
+            "CREATE INDEX IF NOT EXISTS trades_by_user_time ON trades (user_id, executed_at)",
+            """
+            CREATE TRIGGER IF NOT EXISTS trades_no_update BEFORE UPDATE ON trades
+            BEGIN SELECT RAISE(ABORT, 'trades is append-only'); END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS trades_no_delete BEFORE DELETE ON trades
+            BEGIN SELECT RAISE(ABORT, 'trades is append-only'); END
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS position_snapshots (
+              snapshot_id   INTEGER PRIMARY KEY AUTOINCREMENT,
+              user_id       INTEGER NOT NULL,
+              last_trade_id INTEGER NOT NULL,
+              taken_at      INTEGER NOT NULL,
+              balance       REAL    NOT NULL
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS position_snapshots_by_user ON position_snapshots (user_id, taken_at)",
+            """
+            CREATE TABLE IF NOT EXISTS position_snapshot_holdings (
+              snapshot_id    INTEGER     NOT NULL,
+              ticker         VARCHAR(10) NOT NULL,
+              holding_amount INTEGER     NOT NULL,
+              holding_value  REAL        NOT NULL,
+              PRIMARY KEY (snapshot_id, ticker)
+            )
+            """
+    };
+
+    private static final String SELECT_BALANCE_SQL = "SELECT balance FROM user_balances WHERE user_id = ?";
+    private static final String UPDATE_BALANCE_SQL = "UPDATE user_balances SET balance = ? WHERE user_id = ?";
+    private static final String SELECT_HOLDING_SQL =
+            "SELECT holding_amount, holding_value FROM user_holdings WHERE user_id = ? AND ticker = ?";
+    private static final String UPSERT_HOLDING_SQL = """
+            INSERT INTO user_holdings (user_id, ticker, holding_amount, holding_value)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT(user_id, ticker) DO UPDATE
+              SET holding_amount = user_holdings.holding_amount + excluded.holding_amount,
+                  holding_value  = user_holdings.holding_value  + excluded.holding_value
+            """;
+    private static final String UPDATE_HOLDING_SQL =
+            "UPDATE user_holdings SET holding_amount = ?, holding_value = ? WHERE user_id = ? AND ticker = ?";
+    private static final String DELETE_HOLDING_SQL = "DELETE FROM user_holdings WHERE user_id = ? AND ticker = ?";
+
+    private static final String INSERT_TRADE_SQL = """
+            INSERT INTO trades (user_id, ticker, side, quantity, price, executed_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            RETURNING trade_id
+            """;
+    private static final String SELECT_TRADES_SQL = """
+            SELECT trade_id, ticker, side, quantity, price, executed_at
+              FROM trades
+             WHERE user_id = ? AND executed_at >= ? AND executed_at < ?
+             ORDER BY trade_id
+            """;
+    private static final String SELECT_TRADES_AFTER_SQL = """
+            SELECT trade_id, ticker, side, quantity, price, executed_at
+              FROM trades
+             WHERE user_id = ? AND trade_id > ? AND executed_at <= ?
+             ORDER BY trade_id
+            """;
+    private static final String COUNT_TRADES_AFTER_SQL =
+            "SELECT COUNT(*) FROM trades WHERE user_id = ? AND trade_id > ?";
+    private static final String MAX_TRADE_SQL =
+            "SELECT COALESCE(MAX(trade_id), 0) FROM trades WHERE user_id = ?";
+
+    private static final String LATEST_SNAPSHOT_SQL = """
+            SELECT last_trade_id FROM position_snapshots
+             WHERE user_id = ?
+             ORDER BY taken_at DESC, snapshot_id DESC LIMIT 1
+            """;
+    private static final String SNAPSHOT_AS_OF_SQL = """
+            SELECT snapshot_id, last_trade_id, balance FROM position_snapshots
+             WHERE user_id = ? AND taken_at <= ?
+             ORDER BY taken_at DESC, snapshot_id DESC LIMIT 1
+            """;
+    private static final String INSERT_SNAPSHOT_SQL = """
+            INSERT INTO position_snapshots (user_id, last_trade_id, taken_at, balance)
+            VALUES (?, ?, ?, ?)
+            RETURNING snapshot_id
+            """;
+    private static final String COPY_HOLDINGS_SQL = """
+            INSERT INTO position_snapshot_holdings (snapshot_id, ticker, holding_amount, holding_value)
+            SELECT ?, ticker, holding_amount, holding_value FROM user_holdings WHERE user_id = ?
+            """;
+    private static final String SELECT_SNAPSHOT_HOLDINGS_SQL =
+            "SELECT ticker, holding_amount, holding_value FROM position_snapshot_holdings WHERE snapshot_id = ?";
+
+    /** Slack allowed when comparing balances, so buying with exactly the cash held is not rejected by rounding. */
+    private static final double EPSILON = 1e-9;
+
+    private final IDatabaseConnection db;
+    private final Clock clock;
+    private final int snapshotInterval;
+
+    /**
+     * Constructs a TradeDAO that timestamps trades with the system clock and ensures the ledger tables exist.
+     * The holdings and balance tables are created by the portfolio and user DAOs.
+     *
+     * @param databaseConnection provider of the JDBC connection
+     * @throws SQLException if an error occurs creating the tables
+     */
+    public TradeDAO(IDatabaseConnection databaseConnection) throws SQLException {
+        this(databaseConnection, Clock.systemUTC(), DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Constructs a TradeDAO and ensures the ledger tables exist.
+     *
+     * @param databaseConnection provider of the JDBC connection
+     * @param clock              source of trade timestamps
+     * @param snapshotInterval   number of trades per user between position snapshots
+     * @throws SQLException if an error occurs creating the tables
+     * @throws IllegalArgumentException if {@code snapshotInterval} is not positive
+     */
+    public TradeDAO(IDatabaseConnection databaseConnection, Clock clock, int snapshotInterval) throws SQLException {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("snapshotInterval must be positive: " + snapshotInterval);
+        }
+        this.db = databaseConnection;
+        this.clock = clock;
+        this.snapshotInterval = snapshotInterval;
+        db.write(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : CREATE_SQL) {
+                    stmt.execute(sql);
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<TradeResult> executeBatch(List<TradeOrder> orders) throws SQLException {
+        return db.write(conn -> {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                List<TradeResult> results = new ArrayList<>(orders.size());
+                for (TradeOrder order : orders) {
+                    Savepoint savepoint = conn.setSavepoint();
+                    TradeResult result = apply(conn, order, clock.instant());
+                    if (!result.executed()) {
+                        conn.rollback(savepoint);
+                    }
+                    conn.releaseSavepoint(savepoint);
+                    results.add(result);
+                }
+                conn.commit();
+                return results;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    @Override
+    public List<TradeRecord> findTrades(int userId, Instant from, Instant to) throws SQLException {
+        return db.read(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_TRADES_SQL)) {
+                ps.setInt(1, userId);
+                ps.setLong(2, from.toEpochMilli());
+                ps.setLong(3, to.toEpochMilli());
+                return readTrades(ps, userId);
+            }
+        });
+    }
+
+    @Override
+    public Optional<PortfolioSnapshot> positionsAsOf(int userId, Instant asOf) throws SQLException {
+        return db.read(conn -> {
+            long snapshotId;
+            long lastTradeId;
+            double balance;
+            try (PreparedStatement ps = conn.prepareStatement(SNAPSHOT_AS_OF_SQL)) {
+                ps.setInt(1, userId);
+                ps.setLong(2, asOf.toEpochMilli());
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        return Optional.empty();
+                    }
+                    snapshotId = rs.getLong("snapshot_id");
+                    lastTradeId = rs.getLong("last_trade_id");
+                    balance = rs.getDouble("balance");
+                }
+            }
+
+            Map<StockName, Position> positions = new EnumMap<>(StockName.class);
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_SNAPSHOT_HOLDINGS_SQL)) {
+                ps.setLong(1, snapshotId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        positions.put(StockName.fromString(rs.getString("ticker")),
+                                new Position(rs.getInt("holding_amount"), rs.getDouble("holding_value")));
+                    }
+                }
+            }
+
+            List<TradeRecord> tail;
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_TRADES_AFTER_SQL)) {
+                ps.setInt(1, userId);
+                ps.setLong(2, lastTradeId);
+                ps.setLong(3, asOf.toEpochMilli());
+                tail = readTrades(ps, userId);
+            }
+            for (TradeRecord trade : tail) {
+                Position position = positions.computeIfAbsent(trade.stock(), s -> new Position(0, 0.0));
+                if (trade.side() == TradeSide.BUY) {
+                    position.buy(trade.quantity(), trade.quantity() * trade.price());
+                } else if (position.sell(trade.quantity()) <= 0) {
+                    positions.remove(trade.stock());
+                }
+                balance += trade.cashDelta();
+            }
+
+            List<PortfolioEntry> holdings = new ArrayList<>(positions.size());
+            positions.forEach((stock, p) -> holdings.add(new PortfolioEntry(stock, p.value / p.amount, p.amount)));
+            return Optional.of(new PortfolioSnapshot(userId, holdings, balance));
+        });
+    }
+
+    /**
+     * Applies the legs of one order, records them in the ledger and then settles the cash,
+     * returning a rejection as soon as a leg cannot be filled.
+     */
+    private TradeResult apply(Connection conn, TradeOrder order, Instant now) throws SQLException {
+        int userId = order.userId();
+        double balance;
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_BALANCE_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return TradeResult.rejected(order, "No balance found for user " + userId);
+                }
+                balance = rs.getDouble("balance");
+            }
+        }
+
+        // the first ledger trade of a user is preceded by a snapshot of what they held before it
+        long snapshotTradeId = latestSnapshotTradeId(conn, userId);
+        if (snapshotTradeId < 0) {
+            snapshotTradeId = maxTradeId(conn, userId);
+            snapshot(conn, userId, snapshotTradeId, now, balance);
+        }
+
+        double cost = 0.0;
+        long lastTradeId = snapshotTradeId;
+        for (TradeLeg leg : order.legs()) {
+            if (leg.side() == TradeSide.BUY) {
+                buy(conn, userId, leg);
+                cost += leg.value();
+                balance -= leg.value();
+            } else if (!sell(conn, userId, leg)) {
+                return TradeResult.rejected(order,
+                        "Not enough " + leg.stock().getSymbol() + " shares to sell " + leg.quantity());
+            } else {
+                balance += leg.value();
+            }
+            lastTradeId = record(conn, userId, leg, now);
+        }
+        if (balance < -EPSILON) {
+            return TradeResult.rejected(order, String.format("Insufficient balance. You need $%.2f", cost));
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(UPDATE_BALANCE_SQL)) {
+            ps.setDouble(1, balance);
+            ps.setInt(2, userId);
+            ps.executeUpdate();
+        }
+        if (tradesSince(conn, userId, snapshotTradeId) >= snapshotInterval) {
+            snapshot(conn, userId, lastTradeId, now, balance);
+        }
+        return TradeResult.executed(order, balance);
+    }
+
+    private static void buy(Connection conn, int userId, TradeLeg leg) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_HOLDING_SQL)) {
+            ps.setInt(1, userId);
+            ps.setString(2, leg.stock().getSymbol());
+            ps.setInt(3, leg.quantity());
+            ps.setDouble(4, leg.value());
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Removes the sold shares from the holding, deleting it once empty.
+     *
+     * @return false if the user holds fewer shares than the leg sells
+     */
+    private static boolean sell(Connection conn, int userId, TradeLeg leg) throws SQLException {
+        String ticker = leg.stock().getSymbol();
+        Position position;
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_HOLDING_SQL)) {
+            ps.setInt(1, userId);
+            ps.setString(2, ticker);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                position = new Position(rs.getInt("holding_amount"), rs.getDouble("holding_value"));
+            }
+        }
+        if (position.amount < leg.quantity()) {
+            return false;
+        }
+
+        if (position.sell(leg.quantity()) == 0) {
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_HOLDING_SQL)) {
+                ps.setInt(1, userId);
+                ps.setString(2, ticker);
+                ps.executeUpdate();
+            }
+        } else {
+            try (PreparedStatement ps = conn.prepareStatement(UPDATE_HOLDING_SQL)) {
+                ps.setInt(1, position.amount);
+                ps.setDouble(2, position.value);
+                ps.setInt(3, userId);
+                ps.setString(4, ticker);
+                ps.executeUpdate();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends a leg to the ledger.
+     *
+     * @return the ID of the new trade
+     */
+    private static long record(Connection conn, int userId, TradeLeg leg, Instant now) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_TRADE_SQL)) {
+            ps.setInt(1, userId);
+            ps.setString(2, leg.stock().getSymbol());
+            ps.setString(3, leg.side().name());
+            ps.setInt(4, leg.quantity());
+            ps.setDouble(5, leg.price());
+            ps.setLong(6, now.toEpochMilli());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Copies the user's current holdings and the given balance into a new snapshot.
+     */
+    private static void snapshot(Connection conn, int userId, long lastTradeId, Instant now, double balance)
+            throws SQLException {
+        long snapshotId;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SNAPSHOT_SQL)) {
+            ps.setInt(1, userId);
+            ps.setLong(2, lastTradeId);
+            ps.setLong(3, now.toEpochMilli());
+            ps.setDouble(4, balance);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                snapshotId = rs.getLong(1);
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(COPY_HOLDINGS_SQL)) {
+            ps.setLong(1, snapshotId);
+            ps.setInt(2, userId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Returns the last trade covered by the user's latest snapshot, or -1 if there is none.
+     */
+    private static long latestSnapshotTradeId(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(LATEST_SNAPSHOT_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        }
+    }
+
+    private static long maxTradeId(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(MAX_TRADE_SQL)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static long tradesSince(Connection conn, int userId, long tradeId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(COUNT_TRADES_AFTER_SQL)) {
+            ps.setInt(1, userId);
+            ps.setLong(2, tradeId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static List<TradeRecord> readTrades(PreparedStatement ps, int userId) throws SQLException {
+        List<TradeRecord> trades = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                trades.add(new TradeRecord(
+                        rs.getLong("trade_id"),
+                        userId,
+                        StockName.fromString(rs.getString("ticker")),
+                        TradeSide.valueOf(rs.getString("side")),
+                        rs.getInt("quantity"),
+                        rs.getDouble("price"),
+                        Instant.ofEpochMilli(rs.getLong("executed_at"))));
+            }
+        }
+        return trades;
+    }
+
+    /**
+     * Share count and book value of one holding, updated the same way for live trades and ledger replay.
+     */
+    private static final class Position {
+        int amount;
+        double value;
+
+        Position(int amount, double value) {
+            this.amount = amount;
+            this.value = value;
+        }
+
+        void buy(int quantity, double cost) {
+            amount += quantity;
+            value += cost;
+        }
+
+        /**
+         * Removes shares at their average cost.
+         *
+         * @return the number of shares left
+         */
+        int sell(int quantity) {
+            int remaining = amount - quantity;
+            value = remaining <= 0 ? 0.0 : value * remaining / amount;
+            amount = remaining;
+            return remaining;
+        }
+    }
+}
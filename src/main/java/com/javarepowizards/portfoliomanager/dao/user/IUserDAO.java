@@ -1,8 +1,12 @@
 package com.javarepowizards.portfoliomanager.dao.user;
+import com.javarepowizards.portfoliomanager.dao.DaoExecutor;
+import com.javarepowizards.portfoliomanager.models.NewAccount;
 import com.javarepowizards.portfoliomanager.models.User;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -19,6 +23,28 @@ public interface IUserDAO {
      */
     boolean createUser(User user, double startingBalance) throws SQLException;
 
+    /**
+     * Creates many users in a single transaction.
+     * A user whose username or email is already taken, in the database or earlier in the list,
+     * is skipped; the others are created and their IDs set.
+     *
+     * @param accounts the users to create, with their starting balances
+     * @return one entry per account, in order: empty if it was created, otherwise why it was skipped
+     * @throws SQLException if a database access error occurs, in which case no user is created
+     */
+    List<Optional<String>> createUsers(List<NewAccount> accounts) throws SQLException;
+
+    /**
+     * Checks which users {@link #createUsers(List)} would skip, without writing anything.
+     * The result can be stale by the time the users are created, so {@code createUsers}
+     * still checks again.
+     *
+     * @param users the users that would be created, in order
+     * @return one entry per user, in order: empty if it could be created, otherwise why not
+     * @throws SQLException if a database access error occurs
+     */
+    List<Optional<String>> findConflicts(List<User> users) throws SQLException;
+
     double getBalance(int userId) throws SQLException;
 
     /**
@@ -49,9 +75,11 @@ public interface IUserDAO {
     Optional<User> getUserById(int userId) throws SQLException;
 
     /**
-     * Retrieves the currently authenticated user.
+     * Retrieves the currently authenticated user from the session, without a query
+     * unless their account details changed since they were loaded.
      *
-     * @return an {@link Optional} containing the current {@link User}, or empty if no user is authenticated
+     * @return an {@link Optional} containing the current {@link User}, or empty if they no longer exist
+     * @throws NullPointerException if no user is logged in
      */
     Optional<User> getCurrentUser();
 
@@ -97,4 +125,101 @@ public interface IUserDAO {
      * @throws SQLException if a database access error occurs
      */
     void updateFullName(int userId, String fName, String lName) throws SQLException;
+
+    /**
+     * Retrieves a user's cash balance on the {@link DaoExecutor}.
+     *
+     * @param userId the ID of the user
+     * @return a future completed with the balance, or exceptionally if a database access error occurs
+     */
+    default CompletableFuture<Double> getBalanceAsync(int userId) {
+        return DaoExecutor.shared().supply(() -> getBalance(userId));
+    }
+
+    /**
+     * Retrieves a user by their email address on the {@link DaoExecutor}.
+     *
+     * @param email the email address to search for
+     * @return a future completed with the matching user, if any
+     */
+    default CompletableFuture<Optional<User>> getUserByEmailAsync(String email) {
+        return DaoExecutor.shared().supply(() -> getUserByEmail(email));
+    }
+
+    /**
+     * Retrieves a user by their username on the {@link DaoExecutor}.
+     *
+     * @param username the username to search for
+     * @return a future completed with the matching user, if any
+     */
+    default CompletableFuture<Optional<User>> getUserByUsernameAsync(String username) {
+        return DaoExecutor.shared().supply(() -> getUserByUsername(username));
+    }
+
+    /**
+     * Retrieves a user by their unique ID on the {@link DaoExecutor}.
+     *
+     * @param userId the user ID to search for
+     * @return a future completed with the matching user, if any
+     */
+    default CompletableFuture<Optional<User>> getUserByIdAsync(int userId) {
+        return DaoExecutor.shared().supply(() -> getUserById(userId));
+    }
+
+    /**
+     * Updates the email address of a user on the {@link DaoExecutor}.
+     *
+     * @param userId the ID of the user to update
+     * @param email the new email address
+     * @return a future completed once the update is done
+     */
+    default CompletableFuture<Void> updateEmailAsync(int userId, String email) {
+        return DaoExecutor.shared().supply(() -> {
+            updateEmail(userId, email);
+            return null;
+        });
+    }
+
+    /**
+     * Updates the username of a user on the {@link DaoExecutor}.
+     *
+     * @param userId the ID of the user to update
+     * @param username the new username
+     * @return a future completed once the update is done
+     */
+    default CompletableFuture<Void> updateUsernameAsync(int userId, String username) {
+        return DaoExecutor.shared().supply(() -> {
+            updateUsername(userId, username);
+            return null;
+        });
+    }
+
+    /**
+     * Updates the first and last name of a user on the {@link DaoExecutor}.
+     *
+     * @param userId the ID of the user to update
+     * @param fName the new first name
+     * @param lName the new last name
+     * @return a future completed once the update is done
+     */
+    default CompletableFuture<Void> updateFullNameAsync(int userId, String fName, String lName) {
+        return DaoExecutor.shared().supply(() -> {
+            updateFullName(userId, fName, lName);
+            return null;
+        });
+    }
+
+    /**
+     * Updates the password hash of a user on the {@link DaoExecutor}.
+     *
+     * @param userId the ID of the user to update
+     * @param newPassword the new password hash
+     * @return a future completed once the update is done
+     */
+    default CompletableFuture<Void> updatePasswordAsync(int userId, String newPassword) {
+        return DaoExecutor.shared().supply(() -> {
+            updatePassword(userId, newPassword);
+            return null;
+        });
+    }
 }
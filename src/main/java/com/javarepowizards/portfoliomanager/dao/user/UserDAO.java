@@ -1,19 +1,28 @@
 package com.javarepowizards.portfoliomanager.dao.user;
 
 import com.javarepowizards.portfoliomanager.dao.IDatabaseConnection;
+import com.javarepowizards.portfoliomanager.models.NewAccount;
 import com.javarepowizards.portfoliomanager.models.User;
 import com.javarepowizards.portfoliomanager.services.session.Session;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Data Access Object for user authentication, profile, and balance.
  * Manages user creation and retrieval as well as updates to user data.
  */
 public class UserDAO implements IUserDAO {
-    private final Connection connection;
+
+    /** Rows sent to the database per JDBC batch when creating users in bulk. */
+    static final int BATCH_SIZE = 500;
+
+    private final IDatabaseConnection db;
 
     /**
      * Constructs a {@code UserDAO} instance with the provided database connection
@@ -23,7 +32,7 @@ public class UserDAO implements IUserDAO {
      * @throws SQLException if a database access error occurs during table creation
      */
     public UserDAO(IDatabaseConnection dbConnection) throws SQLException {
-        this.connection = dbConnection.getConnection();
+        this.db = dbConnection;
         createTables();
     }
 
@@ -32,41 +41,44 @@ public class UserDAO implements IUserDAO {
      * Always drops & recreates user_holdings so we get (user_id,ticker) as a true PK.
      */
     private void createTables() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // --- auth table ---
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS user_auth (
-                  user_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                  username VARCHAR(24) UNIQUE NOT NULL,
-                  email VARCHAR(255) UNIQUE NOT NULL,
-                  password_hash VARCHAR(255) NOT NULL
-                )
-            """);
-
-            // --- users profile table ---
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS users (
-                  user_id INTEGER PRIMARY KEY,
-                  phone VARCHAR(20),
-                  first_name VARCHAR(255),
-                  last_name VARCHAR(255),
-                  simulation_difficulty TEXT 
-                    CHECK (simulation_difficulty IN ('Easy','Medium','Hard')) DEFAULT 'Easy', 
-                    FOREIGN KEY (user_id) REFERENCES user_auth(user_id) 
-                    ON DELETE CASCADE
-                )
-            """);
-
-            // --- balances table ---
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS user_balances (
-                  user_id INTEGER PRIMARY KEY,
-                  balance DECIMAL(15,2) NOT NULL DEFAULT 0.00,
-                  currency VARCHAR(3) DEFAULT 'AUD',
-                  FOREIGN KEY (user_id) REFERENCES user_auth(user_id) ON DELETE CASCADE
-                )
-            """);
-        }
+        db.write(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                // --- auth table ---
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS user_auth (
+                      user_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                      username VARCHAR(24) UNIQUE NOT NULL,
+                      email VARCHAR(255) UNIQUE NOT NULL,
+                      password_hash VARCHAR(255) NOT NULL
+                    )
+                """);
+
+                // --- users profile table ---
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS users (
+                      user_id INTEGER PRIMARY KEY,
+                      phone VARCHAR(20),
+                      first_name VARCHAR(255),
+                      last_name VARCHAR(255),
+                      simulation_difficulty TEXT 
+                        CHECK (simulation_difficulty IN ('Easy','Medium','Hard')) DEFAULT 'Easy', 
+                        FOREIGN KEY (user_id) REFERENCES user_auth(user_id) 
+                        ON DELETE CASCADE
+                    )
+                """);
+
+                // --- balances table ---
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS user_balances (
+                      user_id INTEGER PRIMARY KEY,
+                      balance DECIMAL(15,2) NOT NULL DEFAULT 0.00,
+                      currency VARCHAR(3) DEFAULT 'AUD',
+                      FOREIGN KEY (user_id) REFERENCES user_auth(user_id) ON DELETE CASCADE
+                    )
+                """);
+            }
+            return null;
+        });
     }
 
     /**
@@ -82,54 +94,209 @@ public class UserDAO implements IUserDAO {
      */
     @Override
     public boolean createUser(User user, double startingBalance) throws SQLException {
-        connection.setAutoCommit(false);
-        try {
-            final String authSql = """
-            INSERT INTO user_auth (username, email, password_hash)
-            VALUES (?, ?, ?)
-        """;
+        return db.write(connection -> {
+            connection.setAutoCommit(false);
+            try {
+                final String authSql = """
+                INSERT INTO user_auth (username, email, password_hash)
+                VALUES (?, ?, ?)
+            """;
+
+                try (PreparedStatement authStmt = connection.prepareStatement(authSql, Statement.RETURN_GENERATED_KEYS)) {
+                    authStmt.setString(1, user.getUsername());
+                    authStmt.setString(2, user.getEmail());
+                    authStmt.setString(3, user.getPasswordHash());
+
+                    if (authStmt.executeUpdate() == 0) {
+                        throw new SQLException("Creating user failed, no rows affected.");
+                    }
 
-            try (PreparedStatement authStmt = connection.prepareStatement(authSql, Statement.RETURN_GENERATED_KEYS)) {
-                authStmt.setString(1, user.getUsername());
-                authStmt.setString(2, user.getEmail());
-                authStmt.setString(3, user.getPasswordHash());
 
-                if (authStmt.executeUpdate() == 0) {
-                    throw new SQLException("Creating user failed, no rows affected.");
+                    try (ResultSet rs = authStmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            int userId = rs.getInt(1);
+                            user.setId(userId);
+
+                            try (PreparedStatement userStmt = connection.prepareStatement("INSERT INTO users (user_id) VALUES (?)")) {
+                                userStmt.setInt(1, userId);
+                                userStmt.executeUpdate();
+                            }
+
+                            try (PreparedStatement balanceStmt = connection.prepareStatement("INSERT INTO user_balances (user_id, balance) VALUES (?, ?)")) {
+                                balanceStmt.setInt(1, userId);
+                                balanceStmt.setDouble(2, startingBalance);
+                                balanceStmt.executeUpdate();
+                            }
+                        } else {
+                            throw new SQLException("Creating user failed, no ID obtained.");
+                        }
+                    }
                 }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
 
 
-                try (ResultSet rs = authStmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        int userId = rs.getInt(1);
-                        user.setId(userId);
 
-                        try (PreparedStatement userStmt = connection.prepareStatement("INSERT INTO users (user_id) VALUES (?)")) {
-                            userStmt.setInt(1, userId);
-                            userStmt.executeUpdate();
+    /**
+     * Creates many users in a single transaction using JDBC batches.
+     * <p>
+     * Existing usernames and emails are read once, so duplicates are reported per user
+     * instead of failing the batch. The accepted users are then inserted into
+     * {@code user_auth}, {@code users} and {@code user_balances} in batches of
+     * {@value #BATCH_SIZE}. The writer connection is held throughout, so the IDs assigned
+     * are read back as those above the highest ID before the insert.
+     *
+     * @param accounts the users to create, with their starting balances
+     * @return one entry per account, in order: empty if it was created, otherwise why it was skipped
+     * @throws SQLException if a database access error occurs, in which case no user is created
+     */
+    @Override
+    public List<Optional<String>> createUsers(List<NewAccount> accounts) throws SQLException {
+        return db.write(connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Set<String> usernames = new HashSet<>();
+                Set<String> emails = new HashSet<>();
+                int maxId = readIdentifiers(connection, usernames, emails);
+
+                List<Optional<String>> outcomes = new ArrayList<>(accounts.size());
+                Map<String, NewAccount> accepted = new HashMap<>();
+                try (PreparedStatement authStmt = connection.prepareStatement(
+                        "INSERT INTO user_auth (username, email, password_hash) VALUES (?, ?, ?)")) {
+                    for (NewAccount account : accounts) {
+                        User user = account.user();
+                        Optional<String> conflict = claim(user, usernames, emails);
+                        outcomes.add(conflict);
+                        if (conflict.isEmpty()) {
+                            accepted.put(user.getUsername(), account);
+                            authStmt.setString(1, user.getUsername());
+                            authStmt.setString(2, user.getEmail());
+                            authStmt.setString(3, user.getPasswordHash());
+                            addToBatch(authStmt, accepted.size());
                         }
+                    }
+                    authStmt.executeBatch();
+                }
 
-                        try (PreparedStatement balanceStmt = connection.prepareStatement("INSERT INTO user_balances (user_id, balance) VALUES (?, ?)")) {
-                            balanceStmt.setInt(1, userId);
-                            balanceStmt.setDouble(2, startingBalance);
-                            balanceStmt.executeUpdate();
+                // read back the IDs of the new rows
+                try (PreparedStatement idStmt = connection.prepareStatement(
+                        "SELECT user_id, username FROM user_auth WHERE user_id > ?")) {
+                    idStmt.setInt(1, maxId);
+                    try (ResultSet rs = idStmt.executeQuery()) {
+                        while (rs.next()) {
+                            NewAccount account = accepted.get(rs.getString("username"));
+                            if (account != null) {
+                                account.user().setId(rs.getInt("user_id"));
+                            }
                         }
-                    } else {
-                        throw new SQLException("Creating user failed, no ID obtained.");
                     }
                 }
+
+                try (PreparedStatement userStmt = connection.prepareStatement("INSERT INTO users (user_id) VALUES (?)");
+                     PreparedStatement balanceStmt = connection.prepareStatement(
+                             "INSERT INTO user_balances (user_id, balance) VALUES (?, ?)")) {
+                    int rows = 0;
+                    for (NewAccount account : accepted.values()) {
+                        rows++;
+                        userStmt.setInt(1, account.user().getUserId());
+                        addToBatch(userStmt, rows);
+                        balanceStmt.setInt(1, account.user().getUserId());
+                        balanceStmt.setDouble(2, account.startingBalance());
+                        addToBatch(balanceStmt, rows);
+                    }
+                    userStmt.executeBatch();
+                    balanceStmt.executeBatch();
+                }
+
+                connection.commit();
+                return outcomes;
+            } catch (SQLException e) {
+                connection.rollback();
+                for (NewAccount account : accounts) {
+                    account.user().setId(0);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    /**
+     * Finds which users {@link #createUsers(List)} would skip, using a single read of the
+     * existing usernames and emails.
+     *
+     * @param users the users that would be created, in order
+     * @return one entry per user, in order: empty if it could be created, otherwise why not
+     * @throws SQLException if a database access error occurs
+     */
+    @Override
+    public List<Optional<String>> findConflicts(List<User> users) throws SQLException {
+        return db.read(connection -> {
+            Set<String> usernames = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            readIdentifiers(connection, usernames, emails);
+            List<Optional<String>> conflicts = new ArrayList<>(users.size());
+            for (User user : users) {
+                conflicts.add(claim(user, usernames, emails));
+            }
+            return conflicts;
+        });
+    }
+
+    /**
+     * Reads every existing username and email into the given sets.
+     *
+     * @return the highest user ID, or 0 if there are no users
+     */
+    private static int readIdentifiers(Connection connection, Set<String> usernames, Set<String> emails)
+            throws SQLException {
+        int maxId = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT user_id, username, email FROM user_auth")) {
+            while (rs.next()) {
+                maxId = Math.max(maxId, rs.getInt("user_id"));
+                usernames.add(rs.getString("username"));
+                emails.add(rs.getString("email"));
             }
-            connection.commit();
-            return true;
-        } catch (SQLException e) {
-            connection.rollback();
-            throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
+        return maxId;
     }
 
+    /**
+     * Claims the user's username and email if neither is taken yet.
+     *
+     * @return empty if both were claimed, otherwise why the user cannot be created
+     */
+    private static Optional<String> claim(User user, Set<String> usernames, Set<String> emails) {
+        if (!usernames.add(user.getUsername())) {
+            return Optional.of("Username already taken: " + user.getUsername());
+        }
+        if (!emails.add(user.getEmail())) {
+            usernames.remove(user.getUsername());
+            return Optional.of("Email already registered: " + user.getEmail());
+        }
+        return Optional.empty();
+    }
 
+    /**
+     * Adds the statement's parameters to its batch, sending the batch once it is full.
+     */
+    private static void addToBatch(PreparedStatement stmt, int rows) throws SQLException {
+        stmt.addBatch();
+        if (rows % BATCH_SIZE == 0) {
+            stmt.executeBatch();
+        }
+    }
 
     /**
      * Retrieves a user from the database by their email address.
@@ -150,21 +317,23 @@ public class UserDAO implements IUserDAO {
          WHERE email = ?
     """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, email);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    User user = new User(
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            rs.getString("password_hash")
-                    );
-                    user.setId(rs.getInt("user_id"));
-                    return Optional.of(user);
+        return db.read(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setString(1, email);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        User user = new User(
+                                rs.getString("username"),
+                                rs.getString("email"),
+                                rs.getString("password_hash")
+                        );
+                        user.setId(rs.getInt("user_id"));
+                        return Optional.of(user);
+                    }
                 }
             }
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
@@ -187,21 +356,23 @@ public class UserDAO implements IUserDAO {
               FROM user_auth ua
              WHERE ua.username = ?
         """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, username);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    User user = new User(
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            rs.getString("password_hash")
-                    );
-                    user.setId(rs.getInt("user_id"));
-                    return Optional.of(user);
+        return db.read(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setString(1, username);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        User user = new User(
+                                rs.getString("username"),
+                                rs.getString("email"),
+                                rs.getString("password_hash")
+                        );
+                        user.setId(rs.getInt("user_id"));
+                        return Optional.of(user);
+                    }
                 }
             }
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
@@ -220,21 +391,23 @@ public class UserDAO implements IUserDAO {
     @Override
     public Optional<User> getUserById(int userId) throws SQLException {
         String sql = "SELECT user_id, username, email, password_hash FROM user_auth WHERE user_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    User user = new User(
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            rs.getString("password_hash")
-                    );
-                    user.setId(rs.getInt("user_id"));
-                    return Optional.of(user);
+        return db.read(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        User user = new User(
+                                rs.getString("username"),
+                                rs.getString("email"),
+                                rs.getString("password_hash")
+                        );
+                        user.setId(rs.getInt("user_id"));
+                        return Optional.of(user);
+                    }
                 }
             }
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     /**
@@ -249,12 +422,14 @@ public class UserDAO implements IUserDAO {
      */
     @Override
     public void updateSimulationDifficulty(int userId, String difficulty) throws SQLException {
-        try (PreparedStatement p = connection.prepareStatement(
-                "UPDATE users SET simulation_difficulty = ? WHERE user_id = ?")) {
-            p.setString(1, difficulty);
-            p.setInt(2, userId);
-            p.executeUpdate();
-        }
+        db.write(connection -> {
+            try (PreparedStatement p = connection.prepareStatement(
+                    "UPDATE users SET simulation_difficulty = ? WHERE user_id = ?")) {
+                p.setString(1, difficulty);
+                p.setInt(2, userId);
+                return p.executeUpdate();
+            }
+        });
     }
 
     /**
@@ -285,19 +460,22 @@ public class UserDAO implements IUserDAO {
         }
         sql.append(" WHERE user_id = ?");
         params.add(userId);
-        try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
-            for (int i = 0; i < params.size(); i++) {
-                stmt.setObject(i + 1, params.get(i));
+        db.write(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                return stmt.executeUpdate();
             }
-            stmt.executeUpdate();
-        }
+        });
     }
 
     /**
      * Updates the email address for a specific user.
      * <p>
      * This method updates the {@code email} field in the {@code user_auth} table
-     * for the user identified by the provided user ID.
+     * for the user identified by the provided user ID, and marks the session stale
+     * if that user is logged in so their details are reloaded.
      *
      * @param userId the unique identifier of the user whose email is to be updated
      * @param email the new email address to assign to the user
@@ -307,13 +485,18 @@ public class UserDAO implements IUserDAO {
     public void updateEmail(int userId, String email) {
         final String sql = "UPDATE user_auth SET email = ? WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, email);
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
+        try {
+            db.write(connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setString(1, email);
+                    stmt.setInt(2, userId);
+                    return stmt.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update email for user ID: " + userId, e);
         }
+        Session.invalidate(userId);
     }
 
 
@@ -322,7 +505,8 @@ public class UserDAO implements IUserDAO {
      * Updates the username for a specific user.
      * <p>
      * This method updates the {@code username} field in the {@code user_auth} table
-     * for the user identified by the provided user ID.
+     * for the user identified by the provided user ID, and marks the session stale
+     * if that user is logged in so their details are reloaded.
      *
      * @param userId the unique identifier of the user whose username is to be updated
      * @param username the new username to assign to the user
@@ -332,20 +516,26 @@ public class UserDAO implements IUserDAO {
     public void updateUsername(int userId, String username) {
         final String sql = "UPDATE user_auth SET username = ? WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, username);
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
+        try {
+            db.write(connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setString(1, username);
+                    stmt.setInt(2, userId);
+                    return stmt.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update username for user ID: " + userId, e);
         }
+        Session.invalidate(userId);
     }
 
     /**
      * Updates the password hash for a specific user.
      * <p>
      * This method updates the {@code password_hash} field in the {@code user_auth} table
-     * for the user identified by the given user ID.
+     * for the user identified by the given user ID, and marks the session stale
+     * if that user is logged in so their details are reloaded.
      *
      * @param userId the unique identifier of the user whose password is to be updated
      * @param newPassword the new password hash to assign to the user
@@ -355,29 +545,35 @@ public class UserDAO implements IUserDAO {
     public void updatePassword(int userId, String newPassword) {
         final String sql = "UPDATE user_auth SET password_hash = ? WHERE user_id = ?";
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, newPassword);
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
+        try {
+            db.write(connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setString(1, newPassword);
+                    stmt.setInt(2, userId);
+                    return stmt.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update password for user ID: " + userId, e);
         }
+        Session.invalidate(userId);
     }
 
     /**
      * Retrieves the currently authenticated user based on the active session.
      * <p>
-     * This method obtains the current user's ID from the session and fetches
-     * the corresponding {@link User} from the database.
+     * The user loaded at login is returned without a query; the database is only
+     * read again after one of their account details has been updated.
      *
-     * @return an {@link Optional} containing the current {@link User} if present,
-     *         or {@link Optional#empty()} if no user is authenticated
-     * @throws RuntimeException if a database access error occurs while retrieving the user
+     * @return an {@link Optional} containing the current {@link User},
+     *         or {@link Optional#empty()} if they no longer exist
+     * @throws NullPointerException if no user is logged in
+     * @throws RuntimeException if a database access error occurs while reloading the user
      */
     @Override
     public Optional<User> getCurrentUser() {
         try {
-            return getUserById(Session.getCurrentUser().getUserId());
+            return Session.currentUser(this::getUserById);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to retrieve current user from session", e);
         }
@@ -386,14 +582,16 @@ public class UserDAO implements IUserDAO {
    @Override
     public double getBalance(int userId) throws SQLException {
         String sql = "SELECT balance FROM user_balances WHERE user_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble("balance");
+        return db.read(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getDouble("balance");
+                    }
                 }
             }
-        }
-        return 0.0;
+            return 0.0;
+        });
     }
 }
@@ -0,0 +1,150 @@
+package com.javarepowizards.portfoliomanager.dao.watchlist;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link IWatchlistDAO} that keeps each user's watchlist in memory in front of another DAO.
+ * A watchlist is held as a bitset indexed by {@link StockName#ordinal()}, loaded on first use,
+ * so {@link #contains} costs one bit lookup and {@link #listForUser} needs no query.
+ * Writes go to the underlying DAO first, skipping symbols that would not change anything,
+ * and are then applied to the bitset. Listeners registered here are notified once per
+ * change that affected the watchlist, after the cache is up to date;
+ * listeners registered directly on the underlying DAO would see the cache before it is updated.
+ * Lists are returned in {@link StockName} declaration order.
+ * Safe to share between threads, provided the underlying DAO is only written through this one.
+ */
+public class CachedWatchlistDAO implements IWatchlistDAO {
+
+    private static final StockName[] SYMBOLS = StockName.values();
+
+    private final IWatchlistDAO delegate;
+    private final Map<Integer, Entry> users = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a cache in front of a watchlist DAO.
+     *
+     * @param delegate the DAO that stores the watchlists
+     */
+    public CachedWatchlistDAO(IWatchlistDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<StockName> listForUser(int userId) throws SQLException {
+        Entry entry = entry(userId);
+        synchronized (entry) {
+            BitSet bits = entry.load(userId);
+            List<StockName> out = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                out.add(SYMBOLS[i]);
+            }
+            return out;
+        }
+    }
+
+    @Override
+    public boolean contains(int userId, StockName symbol) throws SQLException {
+        Entry entry = entry(userId);
+        synchronized (entry) {
+            return entry.load(userId).get(symbol.ordinal());
+        }
+    }
+
+    @Override
+    public void addForUser(int userId, StockName symbol) throws SQLException {
+        updateForUser(userId, List.of(symbol), List.of());
+    }
+
+    @Override
+    public void removeForUser(int userId, StockName symbol) throws SQLException {
+        updateForUser(userId, List.of(), List.of(symbol));
+    }
+
+    /**
+     * Adds and removes several stock symbols, writing only the symbols that change
+     * the watchlist to the underlying DAO in one call.
+     * Notifies listeners once if anything changed.
+     *
+     * @param userId  the unique identifier of the user
+     * @param added   the stock symbols to add
+     * @param removed the stock symbols to remove
+     * @throws SQLException if a database access error occurs; the cached watchlist is reloaded on next use
+     * @throws IllegalArgumentException if a symbol is both added and removed
+     */
+    @Override
+    public void updateForUser(int userId, Collection<StockName> added, Collection<StockName> removed)
+            throws SQLException {
+        WatchlistDAO.requireDisjoint(added, removed);
+        Entry entry = entry(userId);
+        synchronized (entry) {
+            BitSet bits = entry.load(userId);
+            List<StockName> toAdd = new ArrayList<>();
+            for (StockName symbol : added) {
+                if (!bits.get(symbol.ordinal()) && !toAdd.contains(symbol)) {
+                    toAdd.add(symbol);
+                }
+            }
+            List<StockName> toRemove = new ArrayList<>();
+            for (StockName symbol : removed) {
+                if (bits.get(symbol.ordinal()) && !toRemove.contains(symbol)) {
+                    toRemove.add(symbol);
+                }
+            }
+            if (toAdd.isEmpty() && toRemove.isEmpty()) {
+                return;
+            }
+
+            try {
+                delegate.updateForUser(userId, toAdd, toRemove);
+            } catch (SQLException | RuntimeException e) {
+                entry.bits = null;
+                throw e;
+            }
+            toAdd.forEach(symbol -> bits.set(symbol.ordinal()));
+            toRemove.forEach(symbol -> bits.clear(symbol.ordinal()));
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    @Override
+    public void addListener(Runnable r) {
+        listeners.add(r);
+    }
+
+    @Override
+    public void removeListener(Runnable r) {
+        listeners.remove(r);
+    }
+
+    private Entry entry(int userId) {
+        return users.computeIfAbsent(userId, id -> new Entry());
+    }
+
+    /**
+     * One user's cached watchlist; guarded by its own monitor.
+     */
+    private final class Entry {
+        BitSet bits;
+
+        BitSet load(int userId) throws SQLException {
+            if (bits == null) {
+                BitSet loaded = new BitSet(SYMBOLS.length);
+                for (StockName symbol : delegate.listForUser(userId)) {
+                    loaded.set(symbol.ordinal());
+                }
+                bits = loaded;
+            }
+            return bits;
+        }
+    }
+}
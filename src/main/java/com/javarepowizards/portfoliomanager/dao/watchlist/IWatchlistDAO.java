@@ -1,8 +1,11 @@
 package com.javarepowizards.portfoliomanager.dao.watchlist;
 
+import com.javarepowizards.portfoliomanager.dao.DaoExecutor;
 import com.javarepowizards.portfoliomanager.models.StockName;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 /**
  * Data access interface for managing a user's watchlist.
  */
@@ -35,6 +38,38 @@ public interface IWatchlistDAO {
      */
     void removeForUser(int userId, StockName symbol) throws SQLException;
 
+    /**
+     * Checks whether a stock symbol is in the watchlist of the specified user.
+     *
+     * @param userId the unique identifier of the user
+     * @param symbol the stock symbol to look for
+     * @return true if the symbol is in the user's watchlist
+     * @throws SQLException if a database access error occurs
+     */
+    default boolean contains(int userId, StockName symbol) throws SQLException {
+        return listForUser(userId).contains(symbol);
+    }
+
+    /**
+     * Adds and removes several stock symbols for the specified user as one change.
+     * Implementations that support it apply the change in a single transaction
+     * and notify listeners once; by default each symbol is added or removed in turn.
+     *
+     * @param userId  the unique identifier of the user
+     * @param added   the stock symbols to add
+     * @param removed the stock symbols to remove; must not share any symbol with {@code added}
+     * @throws SQLException if a database access error occurs
+     */
+    default void updateForUser(int userId, Collection<StockName> added, Collection<StockName> removed)
+            throws SQLException {
+        for (StockName symbol : added) {
+            addForUser(userId, symbol);
+        }
+        for (StockName symbol : removed) {
+            removeForUser(userId, symbol);
+        }
+    }
+
     /**
      * Registers a listener to be notified when the watchlist changes.
      *
@@ -48,4 +83,42 @@ public interface IWatchlistDAO {
      * @param r the listener to remove
      */
     void removeListener (Runnable r);
+
+    /**
+     * Retrieves the watchlist of the specified user on the {@link DaoExecutor}.
+     *
+     * @param userId the unique identifier of the user
+     * @return a future completed with the user's stock names
+     */
+    default CompletableFuture<List<StockName>> listForUserAsync(int userId) {
+        return DaoExecutor.shared().supply(() -> listForUser(userId));
+    }
+
+    /**
+     * Adds a stock symbol to the watchlist of the specified user on the {@link DaoExecutor}.
+     *
+     * @param userId the unique identifier of the user
+     * @param symbol the stock symbol to add
+     * @return a future completed once the symbol is stored
+     */
+    default CompletableFuture<Void> addForUserAsync(int userId, StockName symbol) {
+        return DaoExecutor.shared().supply(() -> {
+            addForUser(userId, symbol);
+            return null;
+        });
+    }
+
+    /**
+     * Removes a stock symbol from the watchlist of the specified user on the {@link DaoExecutor}.
+     *
+     * @param userId the unique identifier of the user
+     * @param symbol the stock symbol to remove
+     * @return a future completed once the symbol is removed
+     */
+    default CompletableFuture<Void> removeForUserAsync(int userId, StockName symbol) {
+        return DaoExecutor.shared().supply(() -> {
+            removeForUser(userId, symbol);
+            return null;
+        });
+    }
 }
@@ -5,6 +5,7 @@ import com.javarepowizards.portfoliomanager.models.StockName;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,7 +31,7 @@ public class WatchlistDAO implements IWatchlistDAO {
     private static final String DELETE_SQL =
             "DELETE FROM user_watchlist WHERE user_id = ? AND symbol = ?";
 
-    private final Connection conn;
+    private final IDatabaseConnection db;
 
     private final List<Runnable> listeners = new ArrayList<>();
 
@@ -61,11 +62,13 @@ public class WatchlistDAO implements IWatchlistDAO {
      * @throws SQLException if an error occurs creating the table or obtaining the connection
      */
     public WatchlistDAO(IDatabaseConnection databaseConnection) throws SQLException {
-        this.conn = databaseConnection.getConnection();
+        this.db = databaseConnection;
         // ensure table exists
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(CREATE_SQL);
-        }
+        db.write(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                return stmt.execute(CREATE_SQL);
+            }
+        });
     }
 
     /**
@@ -76,16 +79,18 @@ public class WatchlistDAO implements IWatchlistDAO {
      * @throws SQLException if a database access error occurs
      */
     public List<StockName> listForUser(int userId) throws SQLException {
-        List<StockName> out = new ArrayList<>();
-        try (PreparedStatement ps = conn.prepareStatement(SELECT_SQL)) {
-            ps.setInt(1, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    out.add(StockName.valueOf(rs.getString("symbol")));
+        return db.read(conn -> {
+            List<StockName> out = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(SELECT_SQL)) {
+                ps.setInt(1, userId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        out.add(StockName.valueOf(rs.getString("symbol")));
+                    }
                 }
             }
-        }
-        return out;
+            return out;
+        });
     }
 
     /**
@@ -98,12 +103,15 @@ public class WatchlistDAO implements IWatchlistDAO {
      * @throws SQLException if a database access error occurs
      */
     public void addForUser(int userId, StockName symbol) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
-            ps.setInt(1, userId);
-            ps.setString(2, symbol.name());
-            if (ps.executeUpdate() > 0){
-             notifyListeners();
+        int changed = db.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                ps.setInt(1, userId);
+                ps.setString(2, symbol.name());
+                return ps.executeUpdate();
             }
+        });
+        if (changed > 0) {
+            notifyListeners();
         }
     }
 
@@ -117,11 +125,73 @@ public class WatchlistDAO implements IWatchlistDAO {
      * @throws SQLException if a database access error occurs
      */
     public void removeForUser(int userId, StockName symbol) throws SQLException {
-        try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
-            ps.setInt(1, userId);
-            ps.setString(2, symbol.name());
-            if (ps.executeUpdate() > 0) {
-                notifyListeners();
+        int changed = db.write(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+                ps.setInt(1, userId);
+                ps.setString(2, symbol.name());
+                return ps.executeUpdate();
+            }
+        });
+        if (changed > 0) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Adds and removes several stock symbols in one transaction.
+     * Symbols already present are not added again and absent ones are skipped when removing.
+     * Notifies listeners once if the change affects at least one row.
+     *
+     * @param userId  the unique identifier of the user
+     * @param added   the stock symbols to add
+     * @param removed the stock symbols to remove
+     * @throws SQLException if a database access error occurs; nothing is changed in that case
+     * @throws IllegalArgumentException if a symbol is both added and removed
+     */
+    @Override
+    public void updateForUser(int userId, Collection<StockName> added, Collection<StockName> removed)
+            throws SQLException {
+        requireDisjoint(added, removed);
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        int changed = db.write(conn -> {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(INSERT_SQL);
+                 PreparedStatement delete = conn.prepareStatement(DELETE_SQL)) {
+                int rows = 0;
+                for (StockName symbol : added) {
+                    insert.setInt(1, userId);
+                    insert.setString(2, symbol.name());
+                    rows += insert.executeUpdate();
+                }
+                for (StockName symbol : removed) {
+                    delete.setInt(1, userId);
+                    delete.setString(2, symbol.name());
+                    rows += delete.executeUpdate();
+                }
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        });
+        if (changed > 0) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Rejects a batch that both adds and removes the same symbol, whose outcome would be ambiguous.
+     */
+    static void requireDisjoint(Collection<StockName> added, Collection<StockName> removed) {
+        for (StockName symbol : removed) {
+            if (added.contains(symbol)) {
+                throw new IllegalArgumentException(symbol + " is both added and removed");
             }
         }
     }
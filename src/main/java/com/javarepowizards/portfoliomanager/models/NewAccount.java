@@ -0,0 +1,10 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * A user to create together with the cash they start with.
+ *
+ * @param user            the user, whose password is already hashed; its ID is set once created
+ * @param startingBalance the user's opening cash balance
+ */
+public record NewAccount(User user, double startingBalance) {
+}
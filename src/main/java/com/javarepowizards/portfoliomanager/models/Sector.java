@@ -0,0 +1,40 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * GICS sectors used to group stocks, for example when applying sector-wide scenario shocks.
+ */
+public enum Sector {
+    MATERIALS("Materials"),
+    FINANCIALS("Financials"),
+    HEALTH_CARE("Health Care"),
+    CONSUMER_DISCRETIONARY("Consumer Discretionary"),
+    CONSUMER_STAPLES("Consumer Staples"),
+    COMMUNICATION_SERVICES("Communication Services"),
+    INFORMATION_TECHNOLOGY("Information Technology"),
+    INDUSTRIALS("Industrials"),
+    REAL_ESTATE("Real Estate"),
+    /**
+     * Market indices, which span every sector.
+     */
+    INDEX("Index");
+
+    private final String displayName;
+
+    /**
+     * Constructs a Sector with its human-friendly name.
+     *
+     * @param displayName the sector name as shown to users
+     */
+    Sector(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the human-friendly sector name.
+     *
+     * @return the display name string
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
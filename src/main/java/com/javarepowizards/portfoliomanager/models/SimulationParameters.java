@@ -0,0 +1,14 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * Hyper-parameters that shape a simulated price path beyond the ticker's drift and volatility.
+ *
+ * @param kMultiplier      multiplier for the dynamic upper/lower volatility bounds
+ * @param maxDailyMovement maximum fractional change allowed in one day
+ * @param smoothingFactor  smoothing factor (α) for dynamic momentum updates
+ */
+public record SimulationParameters(double kMultiplier, double maxDailyMovement, double smoothingFactor) {
+
+    /** The hand-tuned values used before any calibration has been run. */
+    public static final SimulationParameters DEFAULT = new SimulationParameters(2.0, 0.02, 0.3);
+}
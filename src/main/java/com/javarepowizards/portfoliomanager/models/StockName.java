@@ -2,43 +2,46 @@ package com.javarepowizards.portfoliomanager.models;
 
 /**
  * Enumeration of supported ASX stock symbols and their corresponding display names.
- * Each constant holds the exact symbol used in CSV headers and a human-friendly name.
+ * Each constant holds the exact symbol used in CSV headers, a human-friendly name and its GICS sector.
  */
 public enum StockName {
-    WES_AX("WES.AX", "Wesfarmers Ltd"),
-    TLS_AX("TLS.AX", "Telstra Corp Ltd"),
-    AMC_AX("AMC.AX", "Amcor PLC"),
-    XRO_AX("XRO.AX", "Xero Ltd"),
-    SHL_AX("SHL.AX", "Sonic Healthcare Ltd"),
-    DMP_AX("DMP.AX", "Domino’s Pizza Ent."),
-    FMG_AX("FMG.AX", "Fortescue Metals Grp"),
-    CSL_AX("CSL.AX", "CSL Ltd"),
-    WBC_AX("WBC.AX", "Westpac Banking Corp"),
-    BXB_AX("BXB.AX", "Brambles Ltd"),
-    BHP_AX("BHP.AX", "BHP Group Ltd"),
-    RIO_AX("RIO.AX", "Rio Tinto Ltd"),
-    NXT_AX("NXT.AX", "NextDC Ltd"),
-    MQG_AX("MQG.AX", "Macquarie Group Ltd"),
-    AXJO_AX("^AXJO.AX", "S&P/ASX 200 Index"),
-    REA_AX("REA.AX", "REA Group Ltd"),
-    COH_AX("COH.AX", "Cochlear Ltd"),
-    GMG_AX("GMG.AX", "Goodman Group"),
-    JBH_AX("JBH.AX", "JB Hi-Fi Ltd"),
-    ALL_AX("ALL.AX", "Aristocrat Leisure Ltd"),
-    WOW_AX("WOW.AX", "Woolworths Group Ltd");
+    WES_AX("WES.AX", "Wesfarmers Ltd", Sector.CONSUMER_DISCRETIONARY),
+    TLS_AX("TLS.AX", "Telstra Corp Ltd", Sector.COMMUNICATION_SERVICES),
+    AMC_AX("AMC.AX", "Amcor PLC", Sector.MATERIALS),
+    XRO_AX("XRO.AX", "Xero Ltd", Sector.INFORMATION_TECHNOLOGY),
+    SHL_AX("SHL.AX", "Sonic Healthcare Ltd", Sector.HEALTH_CARE),
+    DMP_AX("DMP.AX", "Domino’s Pizza Ent.", Sector.CONSUMER_DISCRETIONARY),
+    FMG_AX("FMG.AX", "Fortescue Metals Grp", Sector.MATERIALS),
+    CSL_AX("CSL.AX", "CSL Ltd", Sector.HEALTH_CARE),
+    WBC_AX("WBC.AX", "Westpac Banking Corp", Sector.FINANCIALS),
+    BXB_AX("BXB.AX", "Brambles Ltd", Sector.INDUSTRIALS),
+    BHP_AX("BHP.AX", "BHP Group Ltd", Sector.MATERIALS),
+    RIO_AX("RIO.AX", "Rio Tinto Ltd", Sector.MATERIALS),
+    NXT_AX("NXT.AX", "NextDC Ltd", Sector.INFORMATION_TECHNOLOGY),
+    MQG_AX("MQG.AX", "Macquarie Group Ltd", Sector.FINANCIALS),
+    AXJO_AX("^AXJO.AX", "S&P/ASX 200 Index", Sector.INDEX),
+    REA_AX("REA.AX", "REA Group Ltd", Sector.COMMUNICATION_SERVICES),
+    COH_AX("COH.AX", "Cochlear Ltd", Sector.HEALTH_CARE),
+    GMG_AX("GMG.AX", "Goodman Group", Sector.REAL_ESTATE),
+    JBH_AX("JBH.AX", "JB Hi-Fi Ltd", Sector.CONSUMER_DISCRETIONARY),
+    ALL_AX("ALL.AX", "Aristocrat Leisure Ltd", Sector.CONSUMER_DISCRETIONARY),
+    WOW_AX("WOW.AX", "Woolworths Group Ltd", Sector.CONSUMER_STAPLES);
 
     private final String symbol;
     private final String displayName;
+    private final Sector sector;
 
     /**
-     * Constructs a StockName constant with its CSV symbol and display name.
+     * Constructs a StockName constant with its CSV symbol, display name and sector.
      *
      * @param symbol the exact string used in CSV headers, for example "WES.AX"
      * @param displayName the human-friendly name, for example "Wesfarmers Ltd"
+     * @param sector the GICS sector the company belongs to
      */
-    StockName(String symbol, String displayName) {
+    StockName(String symbol, String displayName, Sector sector) {
         this.symbol      = symbol;
         this.displayName = displayName;
+        this.sector      = sector;
     }
 
     /**
@@ -59,6 +62,15 @@ public enum StockName {
         return displayName;
     }
 
+    /**
+     * Returns the GICS sector of the company.
+     *
+     * @return the sector
+     */
+    public Sector getSector() {
+        return sector;
+    }
+
     /**
      * Alias for getDisplayName.
      *
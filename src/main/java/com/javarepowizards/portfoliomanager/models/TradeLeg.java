@@ -0,0 +1,39 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * One stock bought or sold as part of a {@link TradeOrder}.
+ *
+ * @param stock    the stock traded
+ * @param side     whether the shares are bought or sold
+ * @param quantity number of shares; must be positive
+ * @param price    price per share; must be finite and not negative
+ */
+public record TradeLeg(StockName stock, TradeSide side, int quantity, double price) {
+
+    /**
+     * Validates the leg.
+     *
+     * @throws IllegalArgumentException if the stock or side is missing, the quantity is not positive
+     *                                  or the price is negative or not finite
+     */
+    public TradeLeg {
+        if (stock == null || side == null) {
+            throw new IllegalArgumentException("A trade leg needs a stock and a side");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+        }
+        if (!Double.isFinite(price) || price < 0.0) {
+            throw new IllegalArgumentException("Price must be a finite, non-negative number: " + price);
+        }
+    }
+
+    /**
+     * Returns the cash value of the leg.
+     *
+     * @return quantity times price
+     */
+    public double value() {
+        return quantity * price;
+    }
+}
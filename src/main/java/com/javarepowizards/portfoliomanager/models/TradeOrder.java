@@ -0,0 +1,65 @@
+package com.javarepowizards.portfoliomanager.models;
+
+import java.util.List;
+
+/**
+ * A request to trade one or more stocks for a user, applied all-or-nothing.
+ * The legs of a basket order are applied in order, and the order is rejected
+ * if any sell leg exceeds the shares held or the cash balance would end up negative.
+ *
+ * @param userId the user whose holdings and balance are changed
+ * @param legs   the stocks to buy or sell; never empty
+ */
+public record TradeOrder(int userId, List<TradeLeg> legs) {
+
+    /**
+     * Validates the order and takes an immutable copy of its legs.
+     *
+     * @throws IllegalArgumentException if there are no legs
+     */
+    public TradeOrder {
+        legs = List.copyOf(legs);
+        if (legs.isEmpty()) {
+            throw new IllegalArgumentException("A trade order needs at least one leg");
+        }
+    }
+
+    /**
+     * Creates an order that buys a single stock.
+     *
+     * @param userId   the buying user
+     * @param stock    the stock to buy
+     * @param quantity number of shares
+     * @param price    price per share
+     * @return the order
+     */
+    public static TradeOrder buy(int userId, StockName stock, int quantity, double price) {
+        return new TradeOrder(userId, List.of(new TradeLeg(stock, TradeSide.BUY, quantity, price)));
+    }
+
+    /**
+     * Creates an order that sells a single stock.
+     *
+     * @param userId   the selling user
+     * @param stock    the stock to sell
+     * @param quantity number of shares
+     * @param price    price per share
+     * @return the order
+     */
+    public static TradeOrder sell(int userId, StockName stock, int quantity, double price) {
+        return new TradeOrder(userId, List.of(new TradeLeg(stock, TradeSide.SELL, quantity, price)));
+    }
+
+    /**
+     * Returns the net change in cash if the order is executed.
+     *
+     * @return sell proceeds minus buy costs
+     */
+    public double cashDelta() {
+        double delta = 0.0;
+        for (TradeLeg leg : legs) {
+            delta += leg.side() == TradeSide.BUY ? -leg.value() : leg.value();
+        }
+        return delta;
+    }
+}
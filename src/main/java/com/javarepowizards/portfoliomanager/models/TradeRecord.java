@@ -0,0 +1,28 @@
+package com.javarepowizards.portfoliomanager.models;
+
+import java.time.Instant;
+
+/**
+ * One executed trade leg as recorded in the trade ledger.
+ *
+ * @param tradeId    position of the trade in the ledger; later trades have larger IDs
+ * @param userId     the user who traded
+ * @param stock      the stock traded
+ * @param side       whether the shares were bought or sold
+ * @param quantity   number of shares
+ * @param price      price per share
+ * @param executedAt when the trade was committed
+ */
+public record TradeRecord(long tradeId, int userId, StockName stock, TradeSide side,
+                          int quantity, double price, Instant executedAt) {
+
+    /**
+     * Returns the net change in cash caused by the trade.
+     *
+     * @return the proceeds of a sell, or the negated cost of a buy
+     */
+    public double cashDelta() {
+        double value = quantity * price;
+        return side == TradeSide.BUY ? -value : value;
+    }
+}
@@ -0,0 +1,34 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * Outcome of a {@link TradeOrder}.
+ *
+ * @param order           the order that was applied or rejected
+ * @param executed        true if every leg was applied
+ * @param balanceAfter    the user's cash balance after the order, or {@link Double#NaN} if it was rejected
+ * @param rejectionReason why the order was rejected, or null if it was executed
+ */
+public record TradeResult(TradeOrder order, boolean executed, double balanceAfter, String rejectionReason) {
+
+    /**
+     * Creates the result of an executed order.
+     *
+     * @param order        the order
+     * @param balanceAfter the cash balance after the order
+     * @return the result
+     */
+    public static TradeResult executed(TradeOrder order, double balanceAfter) {
+        return new TradeResult(order, true, balanceAfter, null);
+    }
+
+    /**
+     * Creates the result of a rejected order, none of whose legs were applied.
+     *
+     * @param order  the order
+     * @param reason message explaining the rejection, suitable to show the user
+     * @return the result
+     */
+    public static TradeResult rejected(TradeOrder order, String reason) {
+        return new TradeResult(order, false, Double.NaN, reason);
+    }
+}
@@ -0,0 +1,11 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * Direction of one leg of a trade.
+ */
+public enum TradeSide {
+    /** Shares are added to the holding and their cost is taken from the cash balance. */
+    BUY,
+    /** Shares are removed from the holding and their proceeds are added to the cash balance. */
+    SELL
+}
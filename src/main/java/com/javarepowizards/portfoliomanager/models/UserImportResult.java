@@ -0,0 +1,44 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * Outcome of one {@link UserImportRow}.
+ *
+ * @param line            position of the row in its source
+ * @param username        the username the row asked for
+ * @param user            the created user, or null if the row was rejected
+ * @param rejectionReason why the row was rejected, or null if the user was created
+ */
+public record UserImportResult(int line, String username, User user, String rejectionReason) {
+
+    /**
+     * Creates the result of a row whose user was created.
+     *
+     * @param line the row's position
+     * @param user the created user
+     * @return the result
+     */
+    public static UserImportResult created(int line, User user) {
+        return new UserImportResult(line, user.getUsername(), user, null);
+    }
+
+    /**
+     * Creates the result of a rejected row, for which nothing was written.
+     *
+     * @param line     the row's position
+     * @param username the username the row asked for
+     * @param reason   message explaining the rejection
+     * @return the result
+     */
+    public static UserImportResult rejected(int line, String username, String reason) {
+        return new UserImportResult(line, username, null, reason);
+    }
+
+    /**
+     * Determines whether the row's user was created.
+     *
+     * @return {@code true} if the user was created
+     */
+    public boolean created() {
+        return user != null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.javarepowizards.portfoliomanager.models;
+
+/**
+ * One user to provision in a bulk import, as read from a file or given through the API.
+ * Fields are kept as entered and validated when the import runs.
+ *
+ * @param line     position of the row in its source, used to report errors
+ * @param username the username
+ * @param email    the email address
+ * @param password the plaintext password
+ * @param balance  the opening cash balance
+ */
+public record UserImportRow(int line, String username, String email, String password, String balance) {
+
+    /**
+     * Hides the password, so rows can be logged safely.
+     *
+     * @return the row without its password
+     */
+    @Override
+    public String toString() {
+        return "UserImportRow[line=" + line + ", username=" + username + ", email=" + email + ", balance=" + balance + "]";
+    }
+}
@@ -1,22 +1,93 @@
 package com.javarepowizards.portfoliomanager.services.Auth;
 
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Service responsible for hashing and verifying user passwords.
  * Uses the provided PasswordEncoder implementation for all cryptographic operations.
+ * <p>
+ * Hashing is deliberately slow, so the asynchronous methods run it on a small pool of
+ * daemon threads, half the cores by default: a burst of logins queues up there instead
+ * of freezing the UI or taking every core. Successful verifications are remembered for
+ * a short time, so checking the same credentials again does not hash again.
  */
-public class AuthService implements IAuthService {
+public class AuthService implements IAuthService, AutoCloseable {
+
+    /** System property the application reads its BCrypt cost factor from. */
+    public static final String COST_PROPERTY = "portfoliomanager.bcrypt.cost";
+
+    /** BCrypt cost factor used when none is configured: 2^10 rounds. */
+    public static final int DEFAULT_COST = 10;
+
+    /** Threads hashing at once by default. */
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** How long a successful verification is remembered by default. */
+    public static final Duration DEFAULT_VERIFICATION_TTL = Duration.ofMinutes(1);
+
+    /** Cost factor of a BCrypt hash, e.g. {@code $2a$10$...}. */
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
 
     private final PasswordEncoder passwordEncoder;
+    private final int cost;
+    private final ThreadPoolExecutor hashing;
+    private final VerificationCache verified;
 
     /**
      * Constructs an AuthService with the specified PasswordEncoder.
+     * Stored hashes are upgraded when the encoder reports they are weaker than it would produce.
      *
      * @param passwordEncoder the PasswordEncoder used for hashing and verifying passwords
      */
     public AuthService(PasswordEncoder passwordEncoder) {
+        this(passwordEncoder, -1, DEFAULT_THREADS, DEFAULT_VERIFICATION_TTL, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs an AuthService hashing with BCrypt at the given cost.
+     * Stored hashes of any other cost are upgraded on the next login.
+     *
+     * @param cost the BCrypt cost factor, between 4 and 31
+     * @throws IllegalArgumentException if {@code cost} is out of range
+     */
+    public AuthService(int cost) {
+        this(cost, DEFAULT_THREADS, DEFAULT_VERIFICATION_TTL, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs an AuthService hashing with BCrypt at the given cost.
+     *
+     * @param cost            the BCrypt cost factor, between 4 and 31
+     * @param threads         most hashes computed at once
+     * @param verificationTtl how long a successful verification is remembered; zero disables this
+     * @param clock           clock used to expire remembered verifications
+     * @throws IllegalArgumentException if {@code cost} is out of range or {@code threads} is not positive
+     */
+    public AuthService(int cost, int threads, Duration verificationTtl, Clock clock) {
+        this(new BCryptPasswordEncoder(cost), cost, threads, verificationTtl, clock);
+    }
+
+    private AuthService(PasswordEncoder passwordEncoder, int cost, int threads,
+                        Duration verificationTtl, Clock clock) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
         this.passwordEncoder = passwordEncoder;
+        this.cost = cost;
+        this.hashing = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("auth-", 0).daemon().factory());
+        this.hashing.allowCoreThreadTimeOut(true);
+        this.verified = new VerificationCache(verificationTtl, clock);
     }
 
     /**
@@ -32,6 +103,7 @@ public class AuthService implements IAuthService {
 
     /**
      * Verifies a plaintext password against a stored password hash.
+     * A match is remembered briefly, so the same check again is answered without hashing.
      *
      * @param password   the plaintext password to verify
      * @param storedHash the stored password hash to compare against
@@ -39,6 +111,67 @@ public class AuthService implements IAuthService {
      */
     @Override
     public boolean verifyPassword(String password, String storedHash) {
-        return passwordEncoder.matches(password, storedHash);
+        if (verified.contains(password, storedHash)) {
+            return true;
+        }
+        boolean matches = passwordEncoder.matches(password, storedHash);
+        if (matches) {
+            verified.add(password, storedHash);
+        }
+        return matches;
+    }
+
+    /**
+     * Hashes the provided plaintext password on the hashing threads.
+     *
+     * @param password the plaintext password to hash
+     * @return a future completed with the hashed password string
+     */
+    @Override
+    public CompletableFuture<String> hashPasswordAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> hashPassword(password), hashing);
+    }
+
+    /**
+     * Verifies a plaintext password against a stored password hash on the hashing threads,
+     * or straight away if the same check succeeded recently.
+     *
+     * @param password   the plaintext password to verify
+     * @param storedHash the stored password hash to compare against
+     * @return a future completed with {@code true} if the password matches the hash
+     */
+    @Override
+    public CompletableFuture<Boolean> verifyPasswordAsync(String password, String storedHash) {
+        if (verified.contains(password, storedHash)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return CompletableFuture.supplyAsync(() -> verifyPassword(password, storedHash), hashing);
+    }
+
+    /**
+     * Determines whether a stored hash was made with a different cost than the one configured.
+     * Hashes that are not BCrypt are left alone when the cost is known.
+     *
+     * @param storedHash the stored password hash
+     * @return {@code true} if the hash should be replaced by a fresh one
+     */
+    @Override
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+        if (cost < 0) {
+            return passwordEncoder.upgradeEncoding(storedHash);
+        }
+        Matcher m = BCRYPT_COST.matcher(storedHash);
+        return m.find() && Integer.parseInt(m.group(1)) != cost;
+    }
+
+    /**
+     * Stops the hashing threads once queued work has finished.
+     */
+    @Override
+    public void close() {
+        hashing.shutdown();
     }
 }
@@ -1,5 +1,7 @@
 package com.javarepowizards.portfoliomanager.services.Auth;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service interface for password hashing and verification.
  */
@@ -21,4 +23,29 @@ public interface IAuthService {
      * @return {@code true} if the password matches the stored hash, {@code false} otherwise
      */
     boolean verifyPassword(String password, String storedHash);
+
+    /**
+     * Hashes the given plaintext password without blocking the caller.
+     *
+     * @param password the plaintext password to hash
+     * @return a future completed with the hashed password string
+     */
+    CompletableFuture<String> hashPasswordAsync(String password);
+
+    /**
+     * Verifies a plaintext password against a stored password hash without blocking the caller.
+     *
+     * @param password   the plaintext password to verify
+     * @param storedHash the stored hashed password to compare against
+     * @return a future completed with {@code true} if the password matches the stored hash
+     */
+    CompletableFuture<Boolean> verifyPasswordAsync(String password, String storedHash);
+
+    /**
+     * Determines whether a stored hash should be replaced because the hashing settings changed.
+     *
+     * @param storedHash the stored hashed password
+     * @return {@code true} if the password should be hashed again after a successful verification
+     */
+    boolean needsRehash(String storedHash);
 }
@@ -0,0 +1,77 @@
+package com.javarepowizards.portfoliomanager.services.Auth;
+
+import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
+import com.javarepowizards.portfoliomanager.models.User;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Service that checks login credentials without blocking the caller.
+ * The user is looked up on the DAO executor and the password verified on the
+ * authentication service's hashing threads. When the stored hash was made with
+ * different hashing settings, it is replaced by a fresh hash of the same password.
+ */
+public class LoginService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
+    private final IAuthService authService;
+    private final IUserDAO userDAO;
+
+    /**
+     * Constructs a LoginService.
+     *
+     * @param authService the service that verifies and hashes passwords
+     * @param userDAO     the DAO users are looked up in and hashes upgraded through
+     */
+    public LoginService(IAuthService authService, IUserDAO userDAO) {
+        this.authService = authService;
+        this.userDAO = userDAO;
+    }
+
+    /**
+     * Checks a user's credentials.
+     * A hash that needs upgrading is replaced before the future completes; if that fails,
+     * the login still succeeds and the upgrade is tried again next time.
+     *
+     * @param identifier the user's email address or username
+     * @param password   the plaintext password
+     * @return a future completed with the user if the credentials are correct, or empty if not;
+     *         completed exceptionally if the user cannot be looked up
+     */
+    public CompletableFuture<Optional<User>> login(String identifier, String password) {
+        CompletableFuture<Optional<User>> lookup = EMAIL.matcher(identifier).matches()
+                ? userDAO.getUserByEmailAsync(identifier)
+                : userDAO.getUserByUsernameAsync(identifier);
+
+        return lookup.thenCompose(found -> {
+            if (found.isEmpty()) {
+                return CompletableFuture.completedFuture(Optional.<User>empty());
+            }
+            User user = found.get();
+            return authService.verifyPasswordAsync(password, user.getPasswordHash()).thenCompose(matches -> {
+                if (!matches) {
+                    return CompletableFuture.completedFuture(Optional.<User>empty());
+                }
+                if (!authService.needsRehash(user.getPasswordHash())) {
+                    return CompletableFuture.completedFuture(Optional.of(user));
+                }
+                return upgradeHash(user, password).thenApply(ignored -> Optional.of(user));
+            });
+        });
+    }
+
+    /**
+     * Hashes the password with the current settings and stores it for the user.
+     *
+     * @return a future completed once the hash is stored, or once storing it failed
+     */
+    private CompletableFuture<Void> upgradeHash(User user, String password) {
+        return authService.hashPasswordAsync(password)
+                .thenCompose(hash -> userDAO.updatePasswordAsync(user.getUserId(), hash)
+                        .thenRun(() -> user.setPasswordHash(hash)))
+                .exceptionally(e -> null);  // keep the old hash; the login itself is still valid
+    }
+}
@@ -38,7 +38,7 @@ public class RegistrationService {
         }
     }
 
-    private void validateAllFieldsNonEmpty(String username,
+    static void validateAllFieldsNonEmpty(String username,
                                            String email,
                                            String password,
                                            String confirmPassword,
@@ -55,7 +55,7 @@ public class RegistrationService {
         }
     }
 
-    private void validatePasswordsMatch(String password, String confirmPassword)
+    static void validatePasswordsMatch(String password, String confirmPassword)
             throws ValidationException
     {
         if (!password.equals(confirmPassword)) {
@@ -63,7 +63,7 @@ public class RegistrationService {
         }
     }
 
-    private void validatePasswordLength(String password)
+    static void validatePasswordLength(String password)
             throws ValidationException
     {
         if (password.length() < 8) {
@@ -71,7 +71,7 @@ public class RegistrationService {
         }
     }
 
-    private void validateEmailFormat(String email)
+    static void validateEmailFormat(String email)
             throws ValidationException
     {
         String emailRegex = "^[A-Za-z0-9+_.-]+@(.+)$";
@@ -80,7 +80,7 @@ public class RegistrationService {
         }
     }
 
-    private double parseAndValidateBalance(String rawBalance)
+    static double parseAndValidateBalance(String rawBalance)
             throws ValidationException
     {
         try {
@@ -0,0 +1,178 @@
+package com.javarepowizards.portfoliomanager.services.Auth;
+
+import com.javarepowizards.portfoliomanager.dao.user.IUserDAO;
+import com.javarepowizards.portfoliomanager.models.NewAccount;
+import com.javarepowizards.portfoliomanager.models.User;
+import com.javarepowizards.portfoliomanager.models.UserImportResult;
+import com.javarepowizards.portfoliomanager.models.UserImportRow;
+import com.javarepowizards.portfoliomanager.services.utility.ValidationException;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Service that creates many user accounts at once, e.g. a class of students.
+ * Rows are validated like a single registration and checked for taken usernames and
+ * emails, the passwords of the remaining rows are hashed in parallel on the authentication
+ * service's bounded hashing threads, and all accounts are written in one batched transaction.
+ * Each row gets its own result, so one bad row does not stop the rest.
+ */
+public class UserProvisioningService {
+
+    /** Columns of an import file, in order. A first row with these names is skipped. */
+    public static final List<String> CSV_COLUMNS = List.of("username", "email", "password", "balance");
+
+    private final IAuthService authService;
+    private final IUserDAO userDAO;
+
+    /**
+     * Constructs a UserProvisioningService.
+     *
+     * @param authService the service that hashes passwords
+     * @param userDAO     the DAO the accounts are created through
+     */
+    public UserProvisioningService(IAuthService authService, IUserDAO userDAO) {
+        this.authService = authService;
+        this.userDAO = userDAO;
+    }
+
+    /**
+     * Creates the accounts listed in a CSV file with the columns {@link #CSV_COLUMNS}.
+     * Rows are numbered by the line they end on; blank lines are skipped.
+     *
+     * @param csv the file contents
+     * @return one result per row, in file order
+     * @throws IOException if the file cannot be read
+     * @throws CsvValidationException if the file is not valid CSV
+     * @throws SQLException if the accounts cannot be written, in which case none are created
+     */
+    public List<UserImportResult> importCsv(Reader csv) throws IOException, CsvValidationException, SQLException {
+        List<UserImportRow> rows = new ArrayList<>();
+        List<UserImportResult> malformed = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(csv)) {
+            String[] record;
+            boolean first = true;
+            while ((record = reader.readNext()) != null) {
+                int line = (int) reader.getLinesRead();
+                if (record.length == 0 || (record.length == 1 && record[0].isBlank())) {
+                    continue;
+                }
+                if (first && isHeader(record)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                if (record.length != CSV_COLUMNS.size()) {
+                    malformed.add(UserImportResult.rejected(line, record[0].trim(),
+                            "Expected " + CSV_COLUMNS.size() + " columns but found " + record.length));
+                    continue;
+                }
+                rows.add(new UserImportRow(line, record[0], record[1], record[2], record[3]));
+            }
+        }
+
+        List<UserImportResult> results = new ArrayList<>(importUsers(rows));
+        results.addAll(malformed);
+        results.sort((a, b) -> Integer.compare(a.line(), b.line()));
+        return results;
+    }
+
+    /**
+     * Creates the given accounts.
+     * A row is rejected if it fails the registration checks, or if its username or email
+     * is already taken, in the database or by an earlier row.
+     *
+     * @param rows the accounts to create
+     * @return one result per row, in the order given
+     * @throws SQLException if the accounts cannot be written, in which case none are created
+     */
+    public List<UserImportResult> importUsers(List<UserImportRow> rows) throws SQLException {
+        UserImportResult[] results = new UserImportResult[rows.size()];
+
+        // validate, then reject taken usernames and emails before spending any hashing on them
+        List<Integer> valid = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        double[] balances = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRow row = rows.get(i);
+            try {
+                balances[i] = validate(row);
+                valid.add(i);
+                users.add(new User(trim(row.username()), trim(row.email()), null));
+            } catch (ValidationException e) {
+                results[i] = UserImportResult.rejected(row.line(), trim(row.username()), e.getMessage());
+            }
+        }
+        List<Optional<String>> conflicts = userDAO.findConflicts(users);
+        List<Integer> free = new ArrayList<>(valid.size());
+        List<NewAccount> accounts = new ArrayList<>(valid.size());
+        for (int k = 0; k < valid.size(); k++) {
+            int i = valid.get(k);
+            User user = users.get(k);
+            if (conflicts.get(k).isPresent()) {
+                results[i] = UserImportResult.rejected(rows.get(i).line(), user.getUsername(), conflicts.get(k).get());
+            } else {
+                free.add(i);
+                accounts.add(new NewAccount(user, balances[i]));
+            }
+        }
+
+        // hash every remaining password at once
+        List<CompletableFuture<String>> hashes = new ArrayList<>(free.size());
+        for (int i : free) {
+            hashes.add(authService.hashPasswordAsync(rows.get(i).password()));
+        }
+        for (int k = 0; k < free.size(); k++) {
+            try {
+                accounts.get(k).user().setPasswordHash(hashes.get(k).join());
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Failed to hash the password on line " + rows.get(free.get(k)).line(),
+                        e.getCause());
+            }
+        }
+
+        List<Optional<String>> outcomes = userDAO.createUsers(accounts);
+        for (int k = 0; k < free.size(); k++) {
+            int i = free.get(k);
+            User user = accounts.get(k).user();
+            results[i] = outcomes.get(k)
+                    .map(reason -> UserImportResult.rejected(rows.get(i).line(), user.getUsername(), reason))
+                    .orElseGet(() -> UserImportResult.created(rows.get(i).line(), user));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies the registration checks to a row.
+     *
+     * @return the row's opening balance
+     */
+    private static double validate(UserImportRow row) throws ValidationException {
+        String username = trim(row.username());
+        String email = trim(row.email());
+        String password = row.password() == null ? "" : row.password();
+        String balance = trim(row.balance());
+
+        RegistrationService.validateAllFieldsNonEmpty(username, email, password, password, balance);
+        RegistrationService.validatePasswordLength(password);
+        RegistrationService.validateEmailFormat(email);
+        return RegistrationService.parseAndValidateBalance(balance);
+    }
+
+    private static boolean isHeader(String[] record) {
+        return record[0].trim().equalsIgnoreCase(CSV_COLUMNS.getFirst());
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+}
@@ -0,0 +1,103 @@
+package com.javarepowizards.portfoliomanager.services.Auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers password checks that succeeded recently, so the same credentials are not hashed again.
+ * An entry is keyed by a token computed with HMAC-SHA256 over the stored hash and the password,
+ * with a key that never leaves this object: neither the password nor a fast, crackable digest of
+ * it is kept, and a changed hash no longer matches its old token. Entries expire after a fixed time.
+ * Safe to share between threads.
+ */
+final class VerificationCache {
+
+    /** Most tokens kept at once; expired ones are dropped when this is exceeded. */
+    static final int MAX_ENTRIES = 1024;
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final SecretKeySpec key;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param ttl   how long a verification is remembered; zero disables the cache
+     * @param clock clock used to expire entries
+     * @throws IllegalArgumentException if {@code ttl} is negative
+     */
+    VerificationCache(Duration ttl, Clock clock) {
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be negative: " + ttl);
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    /**
+     * Determines whether the password was verified against the hash within the time to live.
+     *
+     * @param password   the plaintext password
+     * @param storedHash the stored password hash
+     * @return {@code true} if a successful check is remembered
+     */
+    boolean contains(String password, String storedHash) {
+        if (ttlMillis == 0 || password == null || storedHash == null) {
+            return false;
+        }
+        String token = token(password, storedHash);
+        Long expiry = expiries.get(token);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry <= clock.millis()) {
+            expiries.remove(token, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remembers that the password matched the hash.
+     *
+     * @param password   the plaintext password
+     * @param storedHash the stored password hash
+     */
+    void add(String password, String storedHash) {
+        if (ttlMillis == 0 || password == null || storedHash == null) {
+            return;
+        }
+        long now = clock.millis();
+        expiries.put(token(password, storedHash), now + ttlMillis);
+        if (expiries.size() > MAX_ENTRIES) {
+            expiries.values().removeIf(expiry -> expiry <= now);
+            if (expiries.size() > MAX_ENTRIES) {
+                expiries.clear();
+            }
+        }
+    }
+
+    private String token(String password, String storedHash) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(storedHash.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
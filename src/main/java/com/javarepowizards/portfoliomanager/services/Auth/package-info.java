@@ -1,5 +1,6 @@
 /**
  * Authentication service implementations.
- * Provides password hashing and verification functionality.
+ * Provides password hashing and verification functionality,
+ * and checks login credentials off the JavaFX application thread.
  */
 package com.javarepowizards.portfoliomanager.services.Auth;
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays portfolios over historical prices.
+ * A backtest walks the price matrix one day at a time over primitive arrays,
+ * valuing the positions at each close, consulting a {@link RebalanceRule}
+ * and recording equity, turnover and drawdown.
+ * The engine holds no per-run state, so one instance can run many backtests concurrently.
+ */
+public class BacktestEngine {
+
+    private final PriceMatrix prices;
+
+    /**
+     * Creates an engine over the given historical prices.
+     *
+     * @param prices aligned closing prices to replay
+     */
+    public BacktestEngine(PriceMatrix prices) {
+        this.prices = prices;
+    }
+
+    /**
+     * Returns the price matrix the engine replays.
+     *
+     * @return the shared price matrix
+     */
+    public PriceMatrix getPrices() {
+        return prices;
+    }
+
+    /**
+     * Backtests a portfolio that starts in cash and trades to fixed target weights.
+     *
+     * @param targetWeights  weight per ticker; any remainder below 1 is held as cash
+     * @param initialCapital starting cash
+     * @param rebalanceEvery trading days between rebalances, or 0 to buy and hold
+     * @param start          first date of the backtest (rolled forward to a trading day)
+     * @param end            last date of the backtest (rolled back to a trading day)
+     * @return the daily backtest series
+     * @throws IllegalArgumentException if the weights or the date range are invalid
+     */
+    public BacktestResult run(Map<StockName, Double> targetWeights, double initialCapital,
+                              int rebalanceEvery, LocalDate start, LocalDate end) {
+        return run(new TargetWeightRebalance(targetWeights, rebalanceEvery), initialCapital, 0.0, start, end);
+    }
+
+    /**
+     * Backtests a portfolio that starts in cash and trades as the rule decides.
+     *
+     * @param rule            decides when to trade and to which weights
+     * @param initialCapital  starting cash
+     * @param transactionCost cost charged per unit of value traded (e.g. 0.001 for 10 basis points)
+     * @param start           first date of the backtest (rolled forward to a trading day)
+     * @param end             last date of the backtest (rolled back to a trading day)
+     * @return the daily backtest series
+     * @throws IllegalArgumentException if the date range contains no trading days
+     */
+    public BacktestResult run(RebalanceRule rule, double initialCapital, double transactionCost,
+                              LocalDate start, LocalDate end) {
+        int from = prices.indexOnOrAfter(start);
+        int to = prices.indexOnOrBefore(end);
+        return replay(new double[prices.tickerCount()], initialCapital, rule, transactionCost, from, to);
+    }
+
+    /**
+     * Replays existing holdings unchanged over a historical window.
+     * Each holding keeps its share count for the whole backtest.
+     *
+     * @param holdings the positions to replay
+     * @param cash     cash held alongside the positions
+     * @param start    first date of the backtest (rolled forward to a trading day)
+     * @param end      last date of the backtest (rolled back to a trading day)
+     * @return the daily backtest series
+     * @throws IllegalArgumentException if a holding has no price data or the range has no trading days
+     */
+    public BacktestResult replay(List<PortfolioEntry> holdings, double cash, LocalDate start, LocalDate end) {
+        double[] shares = new double[prices.tickerCount()];
+        for (PortfolioEntry entry : holdings) {
+            int i = prices.indexOf(entry.getStock());
+            if (i < 0) {
+                throw new IllegalArgumentException("No price data for " + entry.getStock().getSymbol());
+            }
+            shares[i] += entry.getQuantity();
+        }
+        int from = prices.indexOnOrAfter(start);
+        int to = prices.indexOnOrBefore(end);
+        return replay(shares, cash, RebalanceRule.NEVER, 0.0, from, to);
+    }
+
+    private BacktestResult replay(double[] shares, double cash, RebalanceRule rule,
+                                  double transactionCost, int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("No trading days in the requested range");
+        }
+        int n = prices.tickerCount();
+        int length = to - from + 1;
+
+        double[][] closes = new double[n][];
+        for (int i = 0; i < n; i++) {
+            closes[i] = prices.closes(i);
+        }
+
+        double[] weights = new double[n];
+        double[] equity = new double[length];
+        double[] turnover = new double[length];
+        double[] drawdown = new double[length];
+        double peak = 0.0;
+
+        for (int step = 0, day = from; day <= to; step++, day++) {
+            double value = cash;
+            for (int i = 0; i < n; i++) {
+                value += shares[i] * closes[i][day];
+            }
+
+            if (rule.rebalance(day, step, prices, weights)) {
+                double traded = 0.0;
+                double invested = 0.0;
+                for (int i = 0; i < n; i++) {
+                    double px = closes[i][day];
+                    double target = value * weights[i] / px;
+                    traded += Math.abs(target - shares[i]) * px;
+                    invested += target * px;
+                    shares[i] = target;
+                }
+                // costs come out of cash so the positions keep their target weights
+                double costs = traded * transactionCost;
+                cash = value - invested - costs;
+                value -= costs;
+                turnover[step] = value > 0 ? traded / value : 0.0;
+            }
+
+            equity[step] = value;
+            peak = Math.max(peak, value);
+            drawdown[step] = peak > 0 ? value / peak - 1.0 : 0.0;
+        }
+
+        List<LocalDate> dates = new ArrayList<>(length);
+        for (int day = from; day <= to; day++) {
+            dates.add(prices.date(day));
+        }
+        return new BacktestResult(dates, equity, turnover, drawdown);
+    }
+}
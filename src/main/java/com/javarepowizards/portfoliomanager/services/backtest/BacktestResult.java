@@ -0,0 +1,68 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Daily series produced by a backtest.
+ * All arrays are indexed by day and line up with {@code dates}.
+ *
+ * @param dates    trading day of each entry
+ * @param equity   portfolio value at each day's close, after any rebalance
+ * @param turnover value traded on each day divided by that day's equity (0 on non-trading days)
+ * @param drawdown fall from the running equity peak, as a non-positive fraction (e.g. -0.12)
+ */
+public record BacktestResult(List<LocalDate> dates,
+                             double[] equity,
+                             double[] turnover,
+                             double[] drawdown) {
+
+    /**
+     * Returns the equity at the last day of the backtest.
+     *
+     * @return final portfolio value
+     */
+    public double finalEquity() {
+        return equity[equity.length - 1];
+    }
+
+    /**
+     * Returns the deepest drawdown seen over the backtest.
+     *
+     * @return the most negative drawdown, or 0 if equity never fell below a peak
+     */
+    public double maxDrawdown() {
+        double worst = 0.0;
+        for (double d : drawdown) {
+            worst = Math.min(worst, d);
+        }
+        return worst;
+    }
+
+    /**
+     * Returns the sum of daily turnover over the backtest.
+     *
+     * @return total turnover as a multiple of equity
+     */
+    public double totalTurnover() {
+        double sum = 0.0;
+        for (double t : turnover) {
+            sum += t;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the equity series boxed as a list, for code that works with simulated paths.
+     *
+     * @return equity by day (index 0 = start)
+     */
+    public List<Double> equityCurve() {
+        List<Double> out = new ArrayList<>(equity.length);
+        for (double v : equity) {
+            out.add(v);
+        }
+        return out;
+    }
+}
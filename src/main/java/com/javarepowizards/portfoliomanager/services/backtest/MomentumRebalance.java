@@ -0,0 +1,45 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+/**
+ * Momentum strategy that holds, in equal weights, every ticker whose recent drift is high enough.
+ * On each rebalance day it measures each ticker's mean daily return over the look-back
+ * (the same drift {@link com.javarepowizards.portfoliomanager.services.simulation.StockStatistics}
+ * estimates) and buys those at or above the threshold. If none qualify the portfolio moves to cash.
+ */
+public class MomentumRebalance implements RebalanceRule {
+
+    private final StrategyParameters params;
+
+    /**
+     * Creates the strategy for one parameter set.
+     *
+     * @param params rebalance period, look-back and momentum threshold
+     */
+    public MomentumRebalance(StrategyParameters params) {
+        this.params = params;
+    }
+
+    @Override
+    public boolean rebalance(int day, int step, PriceMatrix prices, double[] weights) {
+        if (step % params.rebalancePeriod() != 0) {
+            return false;
+        }
+        int from = Math.max(0, day - params.lookback());
+        int selected = 0;
+        for (int i = 0; i < weights.length; i++) {
+            boolean hold = day > from && prices.meanReturn(i, from, day) >= params.momentumThreshold();
+            weights[i] = hold ? 1.0 : 0.0;
+            if (hold) {
+                selected++;
+            }
+        }
+        if (selected > 0) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= selected;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import com.javarepowizards.portfoliomanager.services.simulation.StreamingPortfolioStatistics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Backtests the momentum strategy over many parameter sets in parallel and ranks the results.
+ * Every configuration replays the same read-only {@link com.javarepowizards.portfoliomanager.services.utility.PriceMatrix}
+ * through a shared {@link BacktestEngine}, so workers allocate only their own output arrays.
+ */
+public class ParameterSweep {
+
+    /** Trading days per year, used to annualise the backtest statistics. */
+    public static final int TRADING_DAYS_PER_YEAR = 252;
+
+    private final BacktestEngine engine;
+    private final double initialCapital;
+    private final double transactionCost;
+
+    /**
+     * Creates a sweep over the given engine.
+     *
+     * @param engine          the engine holding the historical prices
+     * @param initialCapital  starting cash for every backtest
+     * @param transactionCost cost charged per unit of value traded
+     */
+    public ParameterSweep(BacktestEngine engine, double initialCapital, double transactionCost) {
+        this.engine = engine;
+        this.initialCapital = initialCapital;
+        this.transactionCost = transactionCost;
+    }
+
+    /**
+     * Builds every combination of the given parameter values.
+     *
+     * @param periods    rebalance periods to try
+     * @param lookbacks  look-back lengths to try
+     * @param thresholds momentum thresholds to try
+     * @return the full grid of configurations
+     */
+    public static List<StrategyParameters> grid(int[] periods, int[] lookbacks, double[] thresholds) {
+        List<StrategyParameters> out = new ArrayList<>(periods.length * lookbacks.length * thresholds.length);
+        for (int period : periods) {
+            for (int lookback : lookbacks) {
+                for (double threshold : thresholds) {
+                    out.add(new StrategyParameters(period, lookback, threshold));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Draws configurations uniformly at random.
+     *
+     * @param count        number of configurations to draw
+     * @param seed         random seed, so a sweep can be repeated
+     * @param maxPeriod    largest rebalance period to draw
+     * @param maxLookback  largest look-back to draw
+     * @param minThreshold smallest momentum threshold to draw
+     * @param maxThreshold largest momentum threshold to draw
+     * @return the sampled configurations
+     */
+    public static List<StrategyParameters> random(int count, long seed, int maxPeriod, int maxLookback,
+                                                  double minThreshold, double maxThreshold) {
+        Random rnd = new Random(seed);
+        List<StrategyParameters> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(new StrategyParameters(
+                    1 + rnd.nextInt(maxPeriod),
+                    1 + rnd.nextInt(maxLookback),
+                    minThreshold + rnd.nextDouble() * (maxThreshold - minThreshold)));
+        }
+        return out;
+    }
+
+    /**
+     * Backtests every configuration across all available cores and ranks the results.
+     *
+     * @param configs configurations to evaluate
+     * @param start   first date of each backtest
+     * @param end     last date of each backtest
+     * @param ranking order of the returned list, e.g. {@link SweepResult#BY_SHARPE}
+     * @return one result per configuration, best first
+     */
+    public List<SweepResult> run(List<StrategyParameters> configs, LocalDate start, LocalDate end,
+                                 Comparator<SweepResult> ranking) {
+        return configs.parallelStream()
+                .map(p -> evaluate(p, start, end))
+                .sorted(ranking)
+                .toList();
+    }
+
+    /**
+     * Backtests a single configuration.
+     *
+     * @param params the configuration to evaluate
+     * @param start  first date of the backtest
+     * @param end    last date of the backtest
+     * @return the backtest's statistics
+     */
+    public SweepResult evaluate(StrategyParameters params, LocalDate start, LocalDate end) {
+        BacktestResult r = engine.run(new MomentumRebalance(params), initialCapital, transactionCost, start, end);
+        StreamingPortfolioStatistics stats = new StreamingPortfolioStatistics(TRADING_DAYS_PER_YEAR);
+        stats.acceptAll(r.equity());
+        return new SweepResult(params, stats.summary().toMetrics(), r.maxDrawdown(), r.totalTurnover());
+    }
+}
@@ -0,0 +1,27 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+/**
+ * Decides when a backtest trades and what it trades to.
+ * Rules are consulted once per simulated day, before the day's equity is recorded.
+ */
+@FunctionalInterface
+public interface RebalanceRule {
+
+    /** Rule that never trades, leaving the starting positions untouched. */
+    RebalanceRule NEVER = (day, step, prices, weights) -> false;
+
+    /**
+     * Chooses whether to rebalance on a day and, if so, the target weights.
+     * When returning {@code true} the rule must set every entry of {@code weights};
+     * any weight left over below 1.0 is held as cash.
+     *
+     * @param day     index of the day in the price matrix
+     * @param step    number of days since the backtest started (0 on the first day)
+     * @param prices  the price matrix being replayed
+     * @param weights output buffer, one target weight per price-matrix column
+     * @return {@code true} to trade to {@code weights} at today's close
+     */
+    boolean rebalance(int day, int step, PriceMatrix prices, double[] weights);
+}
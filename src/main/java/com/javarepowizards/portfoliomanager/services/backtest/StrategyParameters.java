@@ -0,0 +1,22 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+/**
+ * One configuration of the momentum strategy explored by a {@link ParameterSweep}.
+ *
+ * @param rebalancePeriod   trading days between rebalances (at least 1)
+ * @param lookback          trading days of history used to measure momentum (at least 1)
+ * @param momentumThreshold minimum mean daily return over the look-back for a ticker to be held
+ */
+public record StrategyParameters(int rebalancePeriod, int lookback, double momentumThreshold) {
+
+    /**
+     * Validates the parameters.
+     *
+     * @throws IllegalArgumentException if the period or look-back is below 1
+     */
+    public StrategyParameters {
+        if (rebalancePeriod < 1 || lookback < 1) {
+            throw new IllegalArgumentException("Rebalance period and look-back must be at least 1 day");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import com.javarepowizards.portfoliomanager.services.simulation.PortfolioStatistics;
+
+import java.util.Comparator;
+
+/**
+ * Outcome of backtesting one strategy configuration.
+ *
+ * @param params      the configuration that was backtested
+ * @param metrics     return, volatility and Sharpe of the equity curve
+ * @param maxDrawdown deepest fall from a peak, as a non-positive fraction
+ * @param turnover    total turnover as a multiple of equity
+ */
+public record SweepResult(StrategyParameters params,
+                          PortfolioStatistics.Metrics metrics,
+                          double maxDrawdown,
+                          double turnover) {
+
+    /** Highest Sharpe first; configurations with undefined Sharpe (no volatility) rank last. */
+    public static final Comparator<SweepResult> BY_SHARPE =
+            Comparator.comparingDouble(SweepResult::sharpeOrWorst).reversed();
+
+    /** Shallowest maximum drawdown first. */
+    public static final Comparator<SweepResult> BY_DRAWDOWN =
+            Comparator.comparingDouble(SweepResult::maxDrawdown).reversed();
+
+    private double sharpeOrWorst() {
+        double sharpe = metrics.annualisedSharpe();
+        return Double.isNaN(sharpe) ? Double.NEGATIVE_INFINITY : sharpe;
+    }
+}
@@ -0,0 +1,85 @@
+package com.javarepowizards.portfoliomanager.services.backtest;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.util.Map;
+
+/**
+ * Rebalances to fixed target weights on the first day and then every {@code period} trading days.
+ * A period of zero buys the targets once and holds them for the rest of the backtest.
+ */
+public class TargetWeightRebalance implements RebalanceRule {
+
+    private final Map<StockName, Double> targets;
+    private final int period;
+
+    // target weights laid out for the last price matrix seen
+    private PriceMatrix resolvedFor;
+    private double[] resolved;
+
+    /**
+     * Creates a rule that trades back to the given weights on a fixed schedule.
+     *
+     * @param targets weight per ticker; weights must be non-negative and sum to at most 1
+     * @param period  trading days between rebalances, or 0 to buy and hold
+     * @throws IllegalArgumentException if a weight is negative, the weights sum above 1,
+     *                                  or the period is negative
+     */
+    public TargetWeightRebalance(Map<StockName, Double> targets, int period) {
+        double sum = 0.0;
+        for (double w : targets.values()) {
+            if (w < 0) {
+                throw new IllegalArgumentException("Target weights cannot be negative");
+            }
+            sum += w;
+        }
+        if (sum > 1.0 + 1e-9) {
+            throw new IllegalArgumentException("Target weights cannot sum to more than 1");
+        }
+        if (period < 0) {
+            throw new IllegalArgumentException("Rebalance period cannot be negative");
+        }
+        this.targets = Map.copyOf(targets);
+        this.period = period;
+    }
+
+    /**
+     * Returns the number of trading days between rebalances.
+     *
+     * @return the rebalance period, 0 for buy and hold
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Trades to the target weights on the first day and on every multiple of the period.
+     *
+     * @throws IllegalArgumentException if a target ticker has no price data
+     */
+    @Override
+    public boolean rebalance(int day, int step, PriceMatrix prices, double[] weights) {
+        if (step != 0 && (period == 0 || step % period != 0)) {
+            return false;
+        }
+        System.arraycopy(resolve(prices), 0, weights, 0, weights.length);
+        return true;
+    }
+
+    private synchronized double[] resolve(PriceMatrix prices) {
+        if (resolvedFor != prices) {
+            double[] w = new double[prices.tickerCount()];
+            for (Map.Entry<StockName, Double> e : targets.entrySet()) {
+                int i = prices.indexOf(e.getKey());
+                if (i < 0) {
+                    throw new IllegalArgumentException("No price data for " + e.getKey().getSymbol());
+                }
+                w[i] = e.getValue();
+            }
+            resolved = w;
+            resolvedFor = prices;
+        }
+        return resolved;
+    }
+}
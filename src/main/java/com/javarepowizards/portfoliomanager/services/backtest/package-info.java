@@ -0,0 +1,5 @@
+/**
+ * Services for backtesting portfolios against stored historical prices.
+ * Contains the replay engine, rebalancing rules and backtest results.
+ */
+package com.javarepowizards.portfoliomanager.services.backtest;
@@ -0,0 +1,39 @@
+package com.javarepowizards.portfoliomanager.services.optimisation;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fully invested, long-only portfolio and its expected risk and return.
+ *
+ * @param tickers        the universe the weights refer to
+ * @param weights        weight per ticker, non-negative and summing to 1
+ * @param expectedReturn annualised expected return
+ * @param volatility     annualised standard deviation of returns
+ * @param sharpe         excess return over volatility
+ */
+public record Allocation(List<StockName> tickers,
+                         double[] weights,
+                         double expectedReturn,
+                         double volatility,
+                         double sharpe) {
+
+    /**
+     * Returns the non-zero weights keyed by ticker.
+     *
+     * @param minWeight weights below this are treated as zero
+     * @return weights of the held tickers
+     */
+    public Map<StockName, Double> weightsByTicker(double minWeight) {
+        Map<StockName, Double> out = new EnumMap<>(StockName.class);
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] >= minWeight) {
+                out.put(tickers.get(i), weights[i]);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,12 @@
+package com.javarepowizards.portfoliomanager.services.optimisation;
+
+import java.util.List;
+
+/**
+ * Points along the long-only efficient frontier together with its two landmark portfolios.
+ *
+ * @param points        efficient portfolios in order of increasing expected return
+ * @param minVariance   the lowest-volatility portfolio
+ * @param maxSharpe     the portfolio with the highest Sharpe ratio
+ */
+public record EfficientFrontier(List<Allocation> points, Allocation minVariance, Allocation maxSharpe) { }
@@ -0,0 +1,403 @@
+package com.javarepowizards.portfoliomanager.services.optimisation;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.Kernels;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Long-only, fully invested mean-variance optimiser.
+ *
+ * Every efficient portfolio solves {@code min ½wᵀΣw − t·μᵀw} over the simplex
+ * ({@code w ≥ 0, Σw = 1}) for some risk tolerance {@code t ≥ 0}; {@code t = 0} is the
+ * minimum-variance portfolio and expected return rises with {@code t}. Each of these
+ * problems is solved by accelerated projected gradient descent (FISTA) with an exact
+ * projection onto the simplex. A portfolio with a given target return is found by regula falsi
+ * on {@code t}, and frontier points for different targets are solved in parallel.
+ * Instances are immutable and safe to share between threads.
+ */
+public class MeanVarianceOptimiser {
+
+    /** Trading days per year, used to annualise daily means and covariances. */
+    public static final int TRADING_DAYS_PER_YEAR = 252;
+
+    private static final int MAX_ITERATIONS = 5_000;
+    private static final double TOLERANCE = 1e-11;
+    private static final int SEARCH_STEPS = 60;
+
+    private final List<StockName> tickers;
+    private final double[] mu;
+    private final double[][] cov;
+    private final double riskFreeRate;
+    private final double step;      // 1 / largest eigenvalue of Σ
+    private final double maxTolerance; // t beyond which the solution stops changing
+
+    /**
+     * Creates an optimiser from annualised expected returns and covariances.
+     *
+     * @param tickers      the universe, one per row/column
+     * @param mu           annualised expected return per ticker
+     * @param cov          annualised covariance matrix
+     * @param riskFreeRate annualised risk-free rate used for Sharpe ratios
+     * @throws IllegalArgumentException if the dimensions do not match or the universe is empty
+     */
+    public MeanVarianceOptimiser(List<StockName> tickers, double[] mu, double[][] cov, double riskFreeRate) {
+        int n = tickers.size();
+        if (n == 0 || mu.length != n || cov.length != n) {
+            throw new IllegalArgumentException("Expected returns and covariance must match the universe");
+        }
+        this.tickers = List.copyOf(tickers);
+        this.mu = mu.clone();
+        this.cov = new double[n][];
+        for (int i = 0; i < n; i++) {
+            if (cov[i].length != n) {
+                throw new IllegalArgumentException("Covariance matrix must be square");
+            }
+            this.cov[i] = cov[i].clone();
+        }
+        this.riskFreeRate = riskFreeRate;
+        this.step = 1.0 / largestEigenvalue(this.cov);
+        this.maxTolerance = vertexTolerance(this.mu, this.cov);
+    }
+
+    /**
+     * Estimates expected returns and covariances from historical daily returns.
+     *
+     * @param prices       historical prices
+     * @param universe     tickers to allocate between
+     * @param asOf         last date of the estimation window
+     * @param lookbackDays number of daily returns in the window
+     * @param riskFreeRate annualised risk-free rate used for Sharpe ratios
+     * @return the optimiser
+     * @throws IllegalArgumentException if a ticker has no prices or the window has fewer than two returns
+     */
+    public static MeanVarianceOptimiser fromHistory(PriceMatrix prices, List<StockName> universe, LocalDate asOf,
+                                                    int lookbackDays, double riskFreeRate) {
+        int n = universe.size();
+        int end = prices.indexOnOrBefore(asOf);
+        int start = Math.max(1, end - lookbackDays + 1);
+        int days = end - start + 1;
+        if (days < 2) {
+            throw new IllegalArgumentException("Not enough price history before " + asOf);
+        }
+
+        double[][] r = new double[n][];
+        for (int i = 0; i < n; i++) {
+            int column = prices.indexOf(universe.get(i));
+            if (column < 0) {
+                throw new IllegalArgumentException("No price data for " + universe.get(i).getSymbol());
+            }
+            r[i] = prices.returns(column);
+        }
+
+        double[][] cov = Kernels.covariance(r, start, end + 1);
+        double[] mu = new double[n];
+        for (int i = 0; i < n; i++) {
+            mu[i] = Kernels.sum(r[i], start, end + 1) / days * TRADING_DAYS_PER_YEAR;
+            for (int j = 0; j < n; j++) {
+                cov[i][j] *= TRADING_DAYS_PER_YEAR;
+            }
+        }
+        return new MeanVarianceOptimiser(universe, mu, cov, riskFreeRate);
+    }
+
+    /**
+     * Returns the universe the optimiser allocates between.
+     *
+     * @return tickers in weight order
+     */
+    public List<StockName> getTickers() {
+        return tickers;
+    }
+
+    /**
+     * Finds the lowest-volatility long-only portfolio.
+     *
+     * @return the minimum-variance allocation
+     */
+    public Allocation minVariance() {
+        return allocation(solve(0.0, equalWeights()));
+    }
+
+    /**
+     * Finds the long-only portfolio with the highest Sharpe ratio.
+     * The Sharpe ratio is unimodal along the frontier, so a golden-section search over the
+     * risk tolerance finds its peak.
+     *
+     * @return the maximum-Sharpe allocation
+     */
+    public Allocation maxSharpe() {
+        double g = (Math.sqrt(5) - 1) / 2;
+        double lo = 0.0;
+        double hi = maxTolerance;
+        double[] warm = solve(0.0, equalWeights());
+        double a = hi - g * (hi - lo);
+        double b = lo + g * (hi - lo);
+        double[] wa = solve(a, warm);
+        double[] wb = solve(b, wa);
+        double sa = sharpe(wa);
+        double sb = sharpe(wb);
+        for (int k = 0; k < SEARCH_STEPS && hi - lo > 1e-12 * (1 + maxTolerance); k++) {
+            if (sa < sb) {
+                lo = a;
+                a = b;
+                wa = wb;
+                sa = sb;
+                b = lo + g * (hi - lo);
+                wb = solve(b, wa);
+                sb = sharpe(wb);
+            } else {
+                hi = b;
+                b = a;
+                wb = wa;
+                sb = sa;
+                a = hi - g * (hi - lo);
+                wa = solve(a, wb);
+                sa = sharpe(wa);
+            }
+        }
+        Allocation best = allocation(sa >= sb ? wa : wb);
+        // the peak can sit exactly at an end of the frontier
+        for (double[] end : new double[][] {solve(0.0, warm), solve(maxTolerance, wa)}) {
+            Allocation candidate = allocation(end);
+            if (candidate.sharpe() > best.sharpe()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the lowest-volatility long-only portfolio with a given expected return.
+     * Targets below the minimum-variance return give the minimum-variance portfolio and
+     * targets above the best single ticker give the highest-return portfolio.
+     *
+     * @param target annualised expected return to aim for
+     * @return the efficient allocation closest to the target
+     */
+    public Allocation forTargetReturn(double target) {
+        double[] start = solve(0.0, equalWeights());
+        return allocation(solveForReturn(target, start));
+    }
+
+    /**
+     * Traces the efficient frontier from the minimum-variance portfolio to the highest-return one.
+     * Target returns are spaced evenly and solved in parallel.
+     *
+     * @param points number of frontier points (at least 2)
+     * @return the frontier and its landmark portfolios
+     * @throws IllegalArgumentException if {@code points} is less than 2
+     */
+    public EfficientFrontier frontier(int points) {
+        if (points < 2) {
+            throw new IllegalArgumentException("A frontier needs at least 2 points");
+        }
+        double[] minVar = solve(0.0, equalWeights());
+        double lowest = dot(mu, minVar);
+        double highest = dot(mu, solve(maxTolerance, minVar));
+
+        List<Allocation> frontier = IntStream.range(0, points)
+                .parallel()
+                .mapToObj(k -> {
+                    double target = lowest + (highest - lowest) * k / (points - 1);
+                    return allocation(solveForReturn(target, minVar));
+                })
+                .toList();
+        return new EfficientFrontier(frontier, allocation(minVar), maxSharpe());
+    }
+
+    private double[] solveForReturn(double target, double[] minVar) {
+        double fLo = dot(mu, minVar) - target;
+        if (fLo >= 0) {
+            return minVar;
+        }
+        double[] top = solve(maxTolerance, minVar);
+        double fHi = dot(mu, top) - target;
+        if (fHi <= 0) {
+            return top;
+        }
+        // Return is piecewise linear in t, so regula falsi (Illinois variant) lands on
+        // the target in a handful of solves where plain bisection would need dozens.
+        double lo = 0.0;
+        double hi = maxTolerance;
+        double[] wLo = minVar;
+        double[] wHi = top;
+        int side = 0;
+        for (int k = 0; k < SEARCH_STEPS && hi - lo > 1e-12 * (1 + maxTolerance); k++) {
+            double t = (lo * fHi - hi * fLo) / (fHi - fLo);
+            double[] w = solve(t, fHi < -fLo ? wHi : wLo);
+            double f = dot(mu, w) - target;
+            if (Math.abs(f) < 1e-10) {
+                return w;
+            }
+            if (f < 0) {
+                lo = t;
+                fLo = f;
+                wLo = w;
+                if (side == -1) {
+                    fHi /= 2;
+                }
+                side = -1;
+            } else {
+                hi = t;
+                fHi = f;
+                wHi = w;
+                if (side == 1) {
+                    fLo /= 2;
+                }
+                side = 1;
+            }
+        }
+        return -fLo < fHi ? wLo : wHi;
+    }
+
+    /** FISTA for {@code min ½wᵀΣw − t·μᵀw} over the simplex, warm-started from {@code start}. */
+    private double[] solve(double t, double[] start) {
+        int n = mu.length;
+        double[] w = start.clone();
+        double[] y = start.clone();
+        double[] next = new double[n];
+        double theta = 1.0;
+        for (int it = 0; it < MAX_ITERATIONS; it++) {
+            for (int i = 0; i < n; i++) {
+                double[] row = cov[i];
+                double g = -t * mu[i];
+                for (int j = 0; j < n; j++) {
+                    g += row[j] * y[j];
+                }
+                next[i] = y[i] - step * g;
+            }
+            projectOntoSimplex(next);
+
+            // restart the momentum whenever it points against the latest step
+            double change = 0.0;
+            double alignment = 0.0;
+            for (int i = 0; i < n; i++) {
+                double d = next[i] - w[i];
+                change = Math.max(change, Math.abs(d));
+                alignment += (y[i] - next[i]) * d;
+            }
+            if (alignment > 0) {
+                theta = 1.0;
+            }
+            double thetaNext = (1 + Math.sqrt(1 + 4 * theta * theta)) / 2;
+            double momentum = (theta - 1) / thetaNext;
+            for (int i = 0; i < n; i++) {
+                double d = next[i] - w[i];
+                y[i] = next[i] + momentum * d;
+                w[i] = next[i];
+            }
+            theta = thetaNext;
+            if (change < TOLERANCE) {
+                break;
+            }
+        }
+        return w;
+    }
+
+    /**
+     * Projects a vector onto the probability simplex in place (Duchi et al., 2008).
+     *
+     * @param v the vector to project
+     */
+    static void projectOntoSimplex(double[] v) {
+        double[] u = v.clone();
+        Arrays.sort(u);
+        double cumulative = 0.0;
+        double threshold = 0.0;
+        for (int k = u.length - 1, count = 1; k >= 0; k--, count++) {
+            cumulative += u[k];
+            double candidate = (cumulative - 1.0) / count;
+            if (u[k] - candidate > 0) {
+                threshold = candidate;
+            }
+        }
+        for (int i = 0; i < v.length; i++) {
+            v[i] = Math.max(0.0, v[i] - threshold);
+        }
+    }
+
+    private Allocation allocation(double[] w) {
+        double ret = dot(mu, w);
+        double vol = Math.sqrt(Math.max(0.0, quadratic(w)));
+        return new Allocation(tickers, w.clone(), ret, vol, (ret - riskFreeRate) / vol);
+    }
+
+    private double sharpe(double[] w) {
+        return (dot(mu, w) - riskFreeRate) / Math.sqrt(Math.max(0.0, quadratic(w)));
+    }
+
+    private double quadratic(double[] w) {
+        double sum = 0.0;
+        for (int i = 0; i < w.length; i++) {
+            sum += w[i] * dot(cov[i], w);
+        }
+        return sum;
+    }
+
+    private double[] equalWeights() {
+        double[] w = new double[mu.length];
+        Arrays.fill(w, 1.0 / mu.length);
+        return w;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /** Largest eigenvalue of a symmetric positive semi-definite matrix, by power iteration. */
+    private static double largestEigenvalue(double[][] m) {
+        int n = m.length;
+        double[] v = new double[n];
+        Arrays.fill(v, 1.0 / Math.sqrt(n));
+        double lambda = 0.0;
+        for (int it = 0; it < 200; it++) {
+            double[] mv = new double[n];
+            for (int i = 0; i < n; i++) {
+                mv[i] = dot(m[i], v);
+            }
+            double norm = Math.sqrt(dot(mv, mv));
+            if (norm == 0.0) {
+                return 1.0;
+            }
+            for (int i = 0; i < n; i++) {
+                v[i] = mv[i] / norm;
+            }
+            if (Math.abs(norm - lambda) < 1e-12 * norm) {
+                lambda = norm;
+                break;
+            }
+            lambda = norm;
+        }
+        // small margin so the step stays below 1/L despite power-iteration error
+        return lambda * 1.05;
+    }
+
+    /**
+     * Smallest risk tolerance at which the highest-return ticker alone is optimal,
+     * from the KKT conditions at that vertex of the simplex.
+     */
+    private static double vertexTolerance(double[] mu, double[][] cov) {
+        int best = 0;
+        for (int i = 1; i < mu.length; i++) {
+            if (mu[i] > mu[best]) {
+                best = i;
+            }
+        }
+        double t = 0.0;
+        for (int i = 0; i < mu.length; i++) {
+            if (mu[i] < mu[best]) {
+                t = Math.max(t, (cov[best][best] - cov[i][best]) / (mu[best] - mu[i]));
+            }
+        }
+        return t * 1.01 + 1e-12;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Services for optimising portfolio weights.
+ * Contains the long-only mean-variance optimiser and its efficient-frontier results.
+ */
+package com.javarepowizards.portfoliomanager.services.optimisation;
@@ -3,6 +3,7 @@ package com.javarepowizards.portfoliomanager.services.portfolio;
 import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
 import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
 import com.javarepowizards.portfoliomanager.services.session.Session;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tooltip;
@@ -10,9 +11,9 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 
-import java.sql.SQLException;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Presenter for a stacked‐bar visualization of a portfolio,
@@ -42,18 +43,23 @@ public class PortfolioBarPresenter {
     }
 
     /**
-     * Draws the bar and populates the legend.
+     * Loads the current user's holdings off the FX thread, then draws the bar and populates the legend.
      *
-     * @throws SQLException if fetching holdings fails
+     * @return a future completed on the FX thread once the bar is drawn,
+     *         or exceptionally if fetching holdings fails
      */
-    public void refresh() throws SQLException {
+    public CompletableFuture<Void> refresh() {
+        return dao.getHoldingsForUserAsync(Session.getCurrentUser().getUserId())
+                .thenAcceptAsync(this::draw, Platform::runLater);
+    }
+
+    private void draw(List<PortfolioEntry> unsorted) {
         chartTarget.getChildren().clear();
         if (portfolioLegendContainer != null) {
             portfolioLegendContainer.getChildren().clear();
         }
 
-        List<PortfolioEntry> holdings = dao
-                .getHoldingsForUser(Session.getCurrentUser().getUserId())
+        List<PortfolioEntry> holdings = unsorted
                 .stream()
                 .sorted(Comparator.comparingDouble(
                         PortfolioEntry::getMarketValue).reversed())
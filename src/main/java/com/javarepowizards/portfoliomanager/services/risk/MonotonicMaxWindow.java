@@ -0,0 +1,53 @@
+package com.javarepowizards.portfoliomanager.services.risk;
+
+/**
+ * Sliding-window maximum over the last {@code length} values pushed.
+ * Candidates are kept in a monotonic deque, so each push costs O(1) amortised.
+ */
+final class MonotonicMaxWindow {
+
+    private final int length;
+    private final double[] values;
+    private final long[] positions;
+    private int head;
+    private int size;
+    private long pushed;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param length number of most recent values the maximum covers
+     */
+    MonotonicMaxWindow(int length) {
+        this.length = length;
+        this.values = new double[length];
+        this.positions = new long[length];
+    }
+
+    /**
+     * Adds a value and drops any that have left the window.
+     *
+     * @param value the newest value
+     * @return the maximum of the window including the new value
+     */
+    double push(double value) {
+        // expire first so the deque always has room for the newcomer
+        while (size > 0 && positions[head] <= pushed - length) {
+            head = (head + 1) % length;
+            size--;
+        }
+        // smaller values behind the newcomer can never be the maximum again
+        while (size > 0 && values[slot(size - 1)] <= value) {
+            size--;
+        }
+        values[slot(size)] = value;
+        positions[slot(size)] = pushed;
+        size++;
+        pushed++;
+        return values[head];
+    }
+
+    private int slot(int offset) {
+        return (head + offset) % length;
+    }
+}
@@ -0,0 +1,219 @@
+package com.javarepowizards.portfoliomanager.services.risk;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.lang.System.Logger.Level;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps rolling risk metrics for every ticker and for tracked users' portfolios.
+ *
+ * The engine walks the shared {@link PriceMatrix} one bar at a time and feeds each close,
+ * and each tracked portfolio's market value, into a {@link RiskWindow}. Every bar costs
+ * O(log n) per series, so the metrics can be read after each step and shown live.
+ *
+ * Beta and correlation are measured against the S&amp;P/ASX 200 when it has prices.
+ * The bundled CSV has ^AXJO.AX columns but every value in them is empty, so
+ * {@link PriceMatrix} drops the index and an equal-weighted index of every loaded ticker
+ * stands in for the market. A warning is logged when that happens, and
+ * {@link #usesIndexBenchmark()} tells callers which benchmark the figures are against.
+ * Methods are synchronised, so one engine can be shared between threads.
+ */
+public class RiskEngine {
+
+    private static final System.Logger LOG = System.getLogger(RiskEngine.class.getName());
+
+    /** Default window of roughly one trading year. */
+    public static final int DEFAULT_WINDOW = 250;
+
+    /** Default VaR confidence level. */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    private final PriceMatrix prices;
+    private final int window;
+    private final double confidence;
+    private final boolean indexBenchmark;
+    private final double[] benchmarkReturns;
+    private final RiskWindow[] tickerWindows;
+    private final Map<Integer, TrackedPortfolio> portfolios = new HashMap<>();
+    private int day = -1;
+
+    private record TrackedPortfolio(double[] quantities, RiskWindow window) { }
+
+    /**
+     * Creates an engine positioned before the first trading day.
+     *
+     * @param prices     historical prices to walk through
+     * @param window     number of daily returns each metric covers
+     * @param confidence VaR confidence level, e.g. 0.95
+     */
+    public RiskEngine(PriceMatrix prices, int window, double confidence) {
+        this.prices = prices;
+        this.window = window;
+        this.confidence = confidence;
+
+        int n = prices.tickerCount();
+        int index = prices.indexOf(StockName.AXJO_AX);
+        this.indexBenchmark = index >= 0;
+        if (indexBenchmark) {
+            this.benchmarkReturns = prices.returns(index);
+        } else {
+            LOG.log(Level.WARNING, "No prices for {0}; beta and correlation are measured against "
+                    + "an equal-weighted index of the {1} loaded tickers", StockName.AXJO_AX.getSymbol(), n);
+            this.benchmarkReturns = new double[prices.days()];
+            for (int i = 0; i < n; i++) {
+                double[] r = prices.returns(i);
+                for (int d = 0; d < r.length; d++) {
+                    benchmarkReturns[d] += r[d] / n;
+                }
+            }
+        }
+
+        this.tickerWindows = new RiskWindow[n];
+        for (int i = 0; i < n; i++) {
+            tickerWindows[i] = new RiskWindow(window, confidence);
+        }
+    }
+
+    /**
+     * Tells whether beta and correlation are measured against the ASX 200 itself.
+     *
+     * @return true for the index, false for the equal-weighted proxy
+     */
+    public boolean usesIndexBenchmark() {
+        return indexBenchmark;
+    }
+
+    /**
+     * Returns the last trading day fed into the metrics.
+     *
+     * @return the current date, or null before the first bar
+     */
+    public synchronized LocalDate getCurrentDate() {
+        return day < 0 ? null : prices.date(day);
+    }
+
+    /**
+     * Feeds the next trading day into every series.
+     *
+     * @return false if the price history is exhausted
+     */
+    public synchronized boolean step() {
+        if (day + 1 >= prices.days()) {
+            return false;
+        }
+        day++;
+        double b = benchmarkReturns[day];
+        for (int i = 0; i < tickerWindows.length; i++) {
+            tickerWindows[i].update(prices.closes(i)[day], b);
+        }
+        for (TrackedPortfolio p : portfolios.values()) {
+            p.window().update(marketValue(p.quantities(), day), b);
+        }
+        return true;
+    }
+
+    /**
+     * Feeds every trading day up to and including a date.
+     *
+     * @param date the last date to process
+     */
+    public synchronized void advanceTo(LocalDate date) {
+        int target = Math.min(prices.indexOnOrBefore(date), prices.days() - 1);
+        while (day < target) {
+            step();
+        }
+    }
+
+    /**
+     * Starts tracking a user's portfolio, replaying the history up to the current day
+     * as if the holdings had been held throughout. Replaces any earlier holdings for the user.
+     *
+     * @param userId   owner of the holdings
+     * @param holdings the user's current holdings; tickers without prices are ignored
+     */
+    public synchronized void trackPortfolio(int userId, List<PortfolioEntry> holdings) {
+        double[] quantities = new double[prices.tickerCount()];
+        for (PortfolioEntry entry : holdings) {
+            int i = prices.indexOf(entry.getStock());
+            if (i >= 0) {
+                quantities[i] += entry.getQuantity();
+            }
+        }
+        RiskWindow w = new RiskWindow(window, confidence);
+        // the worst drawdown looks back one window from peaks that look back another,
+        // so older bars cannot affect the metrics
+        for (int d = Math.max(0, day - 2 * window); d <= day; d++) {
+            w.update(marketValue(quantities, d), benchmarkReturns[d]);
+        }
+        portfolios.put(userId, new TrackedPortfolio(quantities, w));
+    }
+
+    /**
+     * Starts tracking every user's portfolio from the portfolio store.
+     *
+     * @param portfolioDAO source of all users' holdings
+     * @throws SQLException if the holdings cannot be read
+     */
+    public synchronized void trackAllUsers(IPortfolioDAO portfolioDAO) throws SQLException {
+        for (Map.Entry<Integer, List<PortfolioEntry>> e : portfolioDAO.getHoldingsForAllUsers().entrySet()) {
+            trackPortfolio(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Stops tracking a user's portfolio.
+     *
+     * @param userId owner of the holdings
+     */
+    public synchronized void untrackPortfolio(int userId) {
+        portfolios.remove(userId);
+    }
+
+    /**
+     * Returns the current risk of a single ticker.
+     *
+     * @param ticker the stock
+     * @return its rolling metrics
+     * @throws IllegalArgumentException if the ticker has no price data
+     */
+    public synchronized RiskMetrics tickerMetrics(StockName ticker) {
+        int i = prices.indexOf(ticker);
+        if (i < 0) {
+            throw new IllegalArgumentException("No price data for " + ticker.getSymbol());
+        }
+        return tickerWindows[i].metrics();
+    }
+
+    /**
+     * Returns the current risk of a tracked portfolio.
+     *
+     * @param userId owner of the holdings
+     * @return its rolling metrics
+     * @throws IllegalArgumentException if the portfolio is not tracked
+     */
+    public synchronized RiskMetrics portfolioMetrics(int userId) {
+        TrackedPortfolio p = portfolios.get(userId);
+        if (p == null) {
+            throw new IllegalArgumentException("Portfolio not tracked for user " + userId);
+        }
+        return p.window().metrics();
+    }
+
+    private double marketValue(double[] quantities, int d) {
+        double value = 0.0;
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] != 0.0) {
+                value += quantities[i] * prices.closes(i)[d];
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,22 @@
+package com.javarepowizards.portfoliomanager.services.risk;
+
+/**
+ * Snapshot of the rolling risk of one ticker or portfolio.
+ * Losses are reported as positive fractions, so a VaR of 0.03 means a 3% one-day loss.
+ *
+ * @param observations      number of daily returns in the window
+ * @param valueAtRisk       historical one-day value at risk at the window's confidence level
+ * @param expectedShortfall mean loss on the days at or beyond the VaR (CVaR)
+ * @param beta              sensitivity of returns to the benchmark
+ * @param correlation       correlation of returns with the benchmark
+ * @param drawdown          current fall from the highest level in the window
+ * @param maxDrawdown       largest such fall seen over the window
+ */
+public record RiskMetrics(int observations,
+                          double valueAtRisk,
+                          double expectedShortfall,
+                          double beta,
+                          double correlation,
+                          double drawdown,
+                          double maxDrawdown) {
+}
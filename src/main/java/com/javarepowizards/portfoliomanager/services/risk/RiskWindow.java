@@ -0,0 +1,202 @@
+package com.javarepowizards.portfoliomanager.services.risk;
+
+import java.util.TreeMap;
+
+/**
+ * Rolling risk of a single price or portfolio-value series against a benchmark.
+ *
+ * Each new bar updates every metric without rescanning the window:
+ * <ul>
+ *   <li>VaR and CVaR split the window's returns into two ordered multisets, the worst
+ *       {@code ceil((1 - confidence) · n)} and the rest, so the tail boundary and tail sum
+ *       move in O(log n).</li>
+ *   <li>Beta and correlation come from running sums of x, y, x², y² and xy, which are
+ *       recomputed from the ring buffer once per lap to stop rounding drift.</li>
+ *   <li>Drawdown is measured from a sliding-window high kept in a monotonic deque, and its
+ *       worst value over the window comes from a second deque.</li>
+ * </ul>
+ * Not thread-safe; {@link RiskEngine} serialises access.
+ */
+public class RiskWindow {
+
+    private final int length;
+    private final double confidence;
+
+    private final double[] returns;
+    private final double[] benchmark;
+    private int next;
+    private int count;
+
+    private final TreeMap<Double, Integer> tail = new TreeMap<>();
+    private final TreeMap<Double, Integer> rest = new TreeMap<>();
+    private int tailSize;
+    private double tailSum;
+
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumYY;
+    private double sumXY;
+
+    private final MonotonicMaxWindow peak;
+    private final MonotonicMaxWindow worstDrawdown;
+    private double previousLevel = Double.NaN;
+    private double drawdown;
+    private double maxDrawdown;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param length     number of daily returns the metrics cover
+     * @param confidence VaR confidence level, e.g. 0.95
+     * @throws IllegalArgumentException if the length is below 2 or the confidence is not in (0, 1)
+     */
+    public RiskWindow(int length, double confidence) {
+        if (length < 2) {
+            throw new IllegalArgumentException("Window length must be at least 2");
+        }
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1");
+        }
+        this.length = length;
+        this.confidence = confidence;
+        this.returns = new double[length];
+        this.benchmark = new double[length];
+        this.peak = new MonotonicMaxWindow(length);
+        this.worstDrawdown = new MonotonicMaxWindow(length);
+    }
+
+    /**
+     * Adds the next bar. The first bar only sets the starting level.
+     *
+     * @param level           closing price or portfolio value
+     * @param benchmarkReturn benchmark's simple return into this bar
+     */
+    public void update(double level, double benchmarkReturn) {
+        double high = peak.push(level);
+        drawdown = high > 0 ? 1.0 - level / high : 0.0;
+        maxDrawdown = worstDrawdown.push(drawdown);
+
+        if (Double.isNaN(previousLevel) || previousLevel <= 0) {
+            previousLevel = level;
+            return;
+        }
+        double r = (level - previousLevel) / previousLevel;
+        previousLevel = level;
+
+        if (count == length) {
+            double oldX = returns[next];
+            double oldY = benchmark[next];
+            removeFromTail(oldX);
+            sumX -= oldX;
+            sumY -= oldY;
+            sumXX -= oldX * oldX;
+            sumYY -= oldY * oldY;
+            sumXY -= oldX * oldY;
+        } else {
+            count++;
+        }
+        returns[next] = r;
+        benchmark[next] = benchmarkReturn;
+        next = (next + 1) % length;
+
+        addToTail(r);
+        sumX += r;
+        sumY += benchmarkReturn;
+        sumXX += r * r;
+        sumYY += benchmarkReturn * benchmarkReturn;
+        sumXY += r * benchmarkReturn;
+        if (next == 0) {
+            resum();
+        }
+    }
+
+    /**
+     * Returns the current metrics.
+     *
+     * @return a snapshot of the window's risk
+     */
+    public RiskMetrics metrics() {
+        if (count == 0) {
+            return new RiskMetrics(0, 0.0, 0.0, 0.0, 0.0, drawdown, maxDrawdown);
+        }
+        double var = -tail.lastKey();
+        double cvar = -tailSum / tailSize;
+
+        double n = count;
+        double covariance = sumXY / n - (sumX / n) * (sumY / n);
+        double varianceX = Math.max(0.0, sumXX / n - (sumX / n) * (sumX / n));
+        double varianceY = Math.max(0.0, sumYY / n - (sumY / n) * (sumY / n));
+        double beta = varianceY > 0 ? covariance / varianceY : 0.0;
+        double correlation = varianceX > 0 && varianceY > 0
+                ? covariance / Math.sqrt(varianceX * varianceY) : 0.0;
+        return new RiskMetrics(count, var, cvar, beta, correlation, drawdown, maxDrawdown);
+    }
+
+    private void addToTail(double r) {
+        if (tailSize > 0 && r <= tail.lastKey()) {
+            tail.merge(r, 1, Integer::sum);
+            tailSize++;
+            tailSum += r;
+        } else {
+            rest.merge(r, 1, Integer::sum);
+        }
+        rebalance();
+    }
+
+    private void removeFromTail(double r) {
+        if (tail.containsKey(r)) {
+            decrement(tail, r);
+            tailSize--;
+            tailSum -= r;
+        } else {
+            decrement(rest, r);
+        }
+        // every value in the tail is at most every value in the rest, so the add that
+        // always follows a removal restores the tail size without reordering
+    }
+
+    /** Moves boundary values until the tail holds exactly the worst {@code ceil((1 - c) · n)} returns. */
+    private void rebalance() {
+        int wanted = Math.max(1, (int) Math.ceil((1.0 - confidence) * count - 1e-9));
+        while (tailSize > wanted) {
+            double r = tail.lastKey();
+            decrement(tail, r);
+            tailSize--;
+            tailSum -= r;
+            rest.merge(r, 1, Integer::sum);
+        }
+        while (tailSize < wanted && !rest.isEmpty()) {
+            double r = rest.firstKey();
+            decrement(rest, r);
+            tail.merge(r, 1, Integer::sum);
+            tailSize++;
+            tailSum += r;
+        }
+    }
+
+    private static void decrement(TreeMap<Double, Integer> multiset, double r) {
+        multiset.computeIfPresent(r, (k, c) -> c == 1 ? null : c - 1);
+    }
+
+    private void resum() {
+        sumX = 0.0;
+        sumY = 0.0;
+        sumXX = 0.0;
+        sumYY = 0.0;
+        sumXY = 0.0;
+        tailSum = 0.0;
+        for (int i = 0; i < count; i++) {
+            double x = returns[i];
+            double y = benchmark[i];
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumYY += y * y;
+            sumXY += x * y;
+        }
+        for (var e : tail.entrySet()) {
+            tailSum += e.getKey() * e.getValue();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Services for live risk monitoring.
+ * Contains the incremental rolling-window risk engine and the metrics it reports
+ * for individual tickers and users' portfolios.
+ */
+package com.javarepowizards.portfoliomanager.services.risk;
@@ -2,16 +2,96 @@ package com.javarepowizards.portfoliomanager.services.session;
 
 import com.javarepowizards.portfoliomanager.models.User;
 
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Holds the current user session state.
- * Provides static methods to set and retrieve the authenticated user.
+ * The user is loaded once at login and kept until they log out, so looking them up
+ * does not touch the database. Changes to their account details mark the session
+ * stale, and the next {@link #currentUser(Reloader)} reloads it once.
+ * Safe to use from any thread.
  */
 public class Session {
-    private static User currentUser;
+
+    private static final AtomicReference<Entry> current = new AtomicReference<>();
+
+    /**
+     * Starts a session for the given user, or ends the current one.
+     *
+     * @param user the authenticated user, or {@code null} to log out
+     */
     public static void setCurrentUser(User user) {
-        currentUser = user;
+        current.set(user == null ? null : new Entry(user, false));
     }
+
+    /**
+     * Returns the logged-in user as loaded at login or at the last reload.
+     * The user ID is always current; other details may be stale after an update.
+     *
+     * @return the current user, or {@code null} if no one is logged in
+     */
     public static User getCurrentUser() {
-        return currentUser;
+        Entry entry = current.get();
+        return entry == null ? null : entry.user();
+    }
+
+    /**
+     * Marks the session stale if the given user is the one logged in,
+     * so their details are reloaded on the next {@link #currentUser(Reloader)}.
+     * A new entry is installed even if the session is already stale, so a reload
+     * that started before this change cannot install what it read as fresh.
+     *
+     * @param userId the user whose account details changed
+     */
+    public static void invalidate(int userId) {
+        current.updateAndGet(entry -> entry != null && entry.user().getUserId() == userId
+                ? new Entry(entry.user(), true)
+                : entry);
+    }
+
+    /**
+     * Returns the logged-in user, reloading them first if the session is stale.
+     * A reload only replaces the session if no one logged in, out or invalidated it meanwhile.
+     *
+     * @param reloader loads a user by ID
+     * @param <E> the type of exception the reloader throws
+     * @return the current user, or empty if they no longer exist
+     * @throws NullPointerException if no one is logged in
+     * @throws E if the reload fails
+     */
+    public static <E extends Exception> Optional<User> currentUser(Reloader<E> reloader) throws E {
+        Entry entry = Objects.requireNonNull(current.get(), "No user logged in");
+        if (!entry.stale()) {
+            return Optional.of(entry.user());
+        }
+        Optional<User> fresh = reloader.load(entry.user().getUserId());
+        fresh.ifPresent(user -> current.compareAndSet(entry, new Entry(user, false)));
+        return fresh;
+    }
+
+    /**
+     * Loads a user by ID.
+     *
+     * @param <E> the type of exception thrown on failure
+     */
+    @FunctionalInterface
+    public interface Reloader<E extends Exception> {
+
+        /**
+         * Loads the user with the given ID.
+         *
+         * @param userId the user to load
+         * @return the user, or empty if they do not exist
+         * @throws E if loading fails
+         */
+        Optional<User> load(int userId) throws E;
+    }
+
+    /**
+     * The logged-in user and whether their details need reloading.
+     */
+    private record Entry(User user, boolean stale) {
     }
 }
@@ -0,0 +1,135 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulates future prices by replaying blocks of actual historical daily returns.
+ *
+ * Each step takes one historical day's returns for every ticker on the path, so the
+ * cross-correlation between holdings and the fat tails of real returns carry over
+ * without fitting any model. Days are drawn in contiguous blocks starting at a random day
+ * of the sample, wrapping from the end of the sample back to its start (a circular block
+ * bootstrap), which also preserves short-range autocorrelation such as volatility clustering.
+ * Stepping a path is index arithmetic over the precomputed return columns of a {@link PriceMatrix}.
+ */
+public class BlockBootstrapSimulator {
+
+    /** Default block length: two trading weeks. */
+    public static final int DEFAULT_BLOCK_LENGTH = 10;
+
+    private final PriceMatrix prices;
+    private final int first;        // first sampled day (its return is the move into it)
+    private final int last;         // last sampled day, also the day paths start from
+    private final int blockLength;
+
+    /**
+     * Creates a simulator that samples the returns between two dates.
+     *
+     * @param prices      aligned historical prices
+     * @param from        first date whose return may be sampled
+     * @param to          last date whose return may be sampled; paths start at this day's closes
+     * @param blockLength number of consecutive days drawn per block
+     * @throws IllegalArgumentException if the block length is below 1 or the range has no returns
+     */
+    public BlockBootstrapSimulator(PriceMatrix prices, LocalDate from, LocalDate to, int blockLength) {
+        if (blockLength < 1) {
+            throw new IllegalArgumentException("Block length must be at least 1 day");
+        }
+        this.prices = prices;
+        this.first = Math.max(1, prices.indexOnOrAfter(from));
+        this.last = prices.indexOnOrBefore(to);
+        this.blockLength = blockLength;
+        if (last < first) {
+            throw new IllegalArgumentException("No historical returns between " + from + " and " + to);
+        }
+    }
+
+    /**
+     * Returns the number of historical days being resampled.
+     *
+     * @return sample size in trading days
+     */
+    public int sampleDays() {
+        return last - first + 1;
+    }
+
+    /**
+     * Starts a path for the given tickers using a fresh random generator.
+     *
+     * @param tickers the tickers to simulate together; duplicates are allowed
+     * @return a path positioned at the closes of the last sampled day
+     */
+    public JointPath newPath(List<StockName> tickers) {
+        return newPath(tickers, new Random());
+    }
+
+    /**
+     * Starts a path for the given tickers.
+     *
+     * @param tickers the tickers to simulate together; duplicates are allowed
+     * @param random  source of the block start days
+     * @return a path positioned at the closes of the last sampled day
+     * @throws IllegalArgumentException if a ticker has no price data
+     */
+    public JointPath newPath(List<StockName> tickers, Random random) {
+        double[][] returns = new double[tickers.size()][];
+        double[] start = new double[tickers.size()];
+        for (int i = 0; i < tickers.size(); i++) {
+            int column = prices.indexOf(tickers.get(i));
+            if (column < 0) {
+                throw new IllegalArgumentException("No price data for " + tickers.get(i).getSymbol());
+            }
+            returns[i] = prices.returns(column);
+            start[i] = prices.closes(column)[last];
+        }
+        return new JointPath(returns, start, random);
+    }
+
+    /**
+     * A simulated path for several tickers that advances one day per call to {@link #next()}.
+     */
+    public final class JointPath {
+
+        private final double[][] returns;
+        private final double[] current;
+        private final Random random;
+        private int day;          // historical day whose returns are applied next
+        private int remaining;    // days left in the current block
+
+        private JointPath(double[][] returns, double[] start, Random random) {
+            this.returns = returns;
+            this.current = start;
+            this.random = random;
+        }
+
+        /**
+         * Returns the current simulated price of one ticker on the path.
+         *
+         * @param index position of the ticker in the list the path was started with
+         * @return its current price
+         */
+        public double price(int index) {
+            return current[index];
+        }
+
+        /**
+         * Advances every ticker by the same historical day's returns.
+         */
+        public void next() {
+            if (remaining == 0) {
+                day = first + random.nextInt(last - first + 1);
+                remaining = blockLength;
+            }
+            for (int i = 0; i < current.length; i++) {
+                current[i] *= 1.0 + returns[i][day];
+            }
+            day = day == last ? first : day + 1;
+            remaining--;
+        }
+    }
+}
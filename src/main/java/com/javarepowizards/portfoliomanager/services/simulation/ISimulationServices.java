@@ -1,5 +1,7 @@
 package com.javarepowizards.portfoliomanager.services.simulation;
 
+import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
+
 /**
  * Defines operations for creating and processing portfolio simulations.
  * Implementations build simulation engines, generate AI prompts based on results,
@@ -9,6 +11,12 @@ public interface ISimulationServices {
 
     PortfolioSimulation buildSimEngine(int days);
 
+    PortfolioSimulation buildSimEngine(int days, SimulationModel model);
+
+    PortfolioSimulation buildSimEngine(IPortfolioDAO portfolio, int days, SimulationModel model);
+
+    SensitivityAnalysis.Report analyseSensitivity(int days, int paths);
+
     String extractCore(String raw);
 
     String buildPrompt(PortfolioStatistics.Metrics m, double finalBalance);
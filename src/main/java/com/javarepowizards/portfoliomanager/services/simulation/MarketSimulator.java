@@ -34,6 +34,24 @@ public class MarketSimulator {
      * @param smoothingFactor  the factor (α) for smoothing momentum updates
      */
     public MarketSimulator(double initialPrice, double drift, double volatility, double momentum, double kMultiplier, double maxDailyMovement, double smoothingFactor) {
+        this(initialPrice, drift, volatility, momentum, kMultiplier, maxDailyMovement, smoothingFactor, new Random());
+    }
+
+    /**
+     * Constructs a MarketSimulator that draws its shocks from the given generator.
+     * Passing identically seeded generators makes runs with different parameters
+     * share the same random shocks, so their outputs can be compared directly.
+     *
+     * @param initialPrice     the starting price for the simulation
+     * @param drift            the expected daily return component
+     * @param volatility       the daily return volatility (standard deviation)
+     * @param momentum         the baseline momentum factor for dynamic drift
+     * @param kMultiplier      multiplier for dynamic upper/lower volatility bounds
+     * @param maxDailyMovement the maximum fractional change allowed in one day
+     * @param smoothingFactor  the factor (α) for smoothing momentum updates
+     * @param random           source of the random shocks
+     */
+    public MarketSimulator(double initialPrice, double drift, double volatility, double momentum, double kMultiplier, double maxDailyMovement, double smoothingFactor, Random random) {
         this.initialPrice = initialPrice;
         this.drift = drift;
         this.volatility = volatility;
@@ -41,7 +59,7 @@ public class MarketSimulator {
         this.kMultiplier = kMultiplier;
         this.maxDailyMovement = maxDailyMovement;
         this.smoothingFactor = smoothingFactor;
-        this.random = new Random();
+        this.random = random;
     }
 
     /**
@@ -51,16 +69,72 @@ public class MarketSimulator {
      * @return A list of simulated prices. (starting with initial price
      */
     public List<Double> simulate(int days) {
-        List<Double> prices = new ArrayList<>();
-        double currentPrice = initialPrice;
-        prices.add(currentPrice);
+        List<Double> prices = new ArrayList<>(days + 1);
+        PricePath path = newPath();
+        prices.add(path.currentPrice());
+
+        // For each day, compute the next price.
+        for (int i = 0; i < days; i++) {
+            prices.add(path.next());
+        }
+
+        return prices;
+    }
+
+    /**
+     * Starts a new price path at the initial price with the baseline momentum.
+     * Callers that need to observe or interrupt a simulation part way through
+     * can step the returned path one day at a time instead of calling {@link #simulate(int)}.
+     *
+     * @return a fresh price path positioned at day 0
+     */
+    public PricePath newPath() {
+        return new PricePath(random);
+    }
+
+    /**
+     * Starts a new price path that draws its shocks from the given generator.
+     * Lets many paths be simulated from one simulator on different threads,
+     * each with its own generator.
+     *
+     * @param random source of the daily shocks for this path
+     * @return a fresh price path positioned at day 0
+     */
+    public PricePath newPath(Random random) {
+        return new PricePath(random);
+    }
+
+    /**
+     * A single simulated price path that advances one day per call to {@link #next()}.
+     * Holds the running price and dynamic momentum for that path.
+     */
+    public final class PricePath {
 
+        private double currentPrice = initialPrice;
         // Initialize dynamic momentum with the baseline value.
-        double currentMomentum = momentum;
+        private double currentMomentum = momentum;
 
+        private final Random random;
 
-        // For each day, compute the next price.
-        for (int i = 0; i < days; i++) {
+        private PricePath(Random random) {
+            this.random = random;
+        }
+
+        /**
+         * Returns the most recently simulated price (the initial price before the first step).
+         *
+         * @return the current price on this path
+         */
+        public double currentPrice() {
+            return currentPrice;
+        }
+
+        /**
+         * Advances the path by one day and returns the new price.
+         *
+         * @return the simulated price for the next day
+         */
+        public double next() {
             // Generate a random shock from a standard normal distribution.
             double epsilon = random.nextGaussian();
 
@@ -95,10 +169,8 @@ public class MarketSimulator {
 
             // Set the current price to the new price.
             currentPrice = newPrice;
-            prices.add(currentPrice);
+            return currentPrice;
         }
-
-        return prices;
     }
 
 
@@ -0,0 +1,70 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulates a contiguous range of momentum GBM paths and summarises them.
+ *
+ * Path {@code p} always draws its shocks from a generator seeded with {@code seed + p},
+ * consuming one shock per holding per day in holding order. A range of paths therefore
+ * gives the same values however the full run is split up, which lets bumped runs share
+ * their noise and lets shards be retried or reassigned without changing the result.
+ */
+final class PathBatch {
+
+    /**
+     * Summary of a range of paths.
+     *
+     * @param terminalSum sum of every path's final portfolio value
+     * @param statistics  mergeable performance statistics of the paths
+     */
+    record Result(double terminalSum, StreamingPortfolioStatistics statistics) { }
+
+    private PathBatch() { }    // static helpers only
+
+    /**
+     * Simulates paths {@code firstPath} to {@code firstPath + pathCount - 1}.
+     *
+     * @param models        per-holding model inputs
+     * @param startingValue day 0 portfolio value
+     * @param cash          cash held throughout
+     * @param days          number of simulated days per path
+     * @param seed          seed of the common random numbers
+     * @param firstPath     index of the first path in the range
+     * @param pathCount     number of paths in the range
+     * @return the range's summary
+     */
+    static Result run(List<PortfolioSimulation.HoldingModel> models, double startingValue, double cash,
+                      int days, long seed, int firstPath, int pathCount) {
+        int n = models.size();
+        MarketSimulator[] simulators = new MarketSimulator[n];
+        double[] shares = new double[n];
+        for (int i = 0; i < n; i++) {
+            simulators[i] = models.get(i).simulator();
+            shares[i] = models.get(i).shares();
+        }
+
+        StreamingPortfolioStatistics stats = new StreamingPortfolioStatistics(days);
+        MarketSimulator.PricePath[] prices = new MarketSimulator.PricePath[n];
+        double terminalSum = 0.0;
+        for (int p = firstPath; p < firstPath + pathCount; p++) {
+            Random random = new Random(seed + p);
+            for (int i = 0; i < n; i++) {
+                prices[i] = simulators[i].newPath(random);
+            }
+            double value = startingValue;
+            stats.accept(value);
+            for (int day = 1; day <= days; day++) {
+                value = cash;
+                for (int i = 0; i < n; i++) {
+                    value += prices[i].next() * shares[i];
+                }
+                stats.accept(value);
+            }
+            stats.endPath();
+            terminalSum += value;
+        }
+        return new Result(terminalSum, stats);
+    }
+}
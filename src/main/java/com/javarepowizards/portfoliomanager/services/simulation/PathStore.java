@@ -0,0 +1,182 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Compact store of many simulated portfolio paths that can be queried after the run.
+ *
+ * Values are kept as {@code float}s in direct (off-heap) buffers, path by path, so
+ * 100,000 paths of 1,000 days take about 400 MB outside the Java heap instead of
+ * several gigabytes of boxed {@code Double}s. The buffers are split into chunks of whole
+ * paths because a single buffer cannot exceed 2 GB.
+ *
+ * Each path holds {@code days + 1} values, day 0 being the starting value. Different paths
+ * may be written from different threads at once; queries should only run once writing has
+ * finished. Queries scan paths in parallel.
+ */
+public class PathStore {
+
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final int paths;
+    private final int values;
+    private final int pathsPerChunk;
+    private final FloatBuffer[] chunks;
+
+    /**
+     * Allocates off-heap space for the given number of paths.
+     *
+     * @param paths number of simulated paths
+     * @param days  number of simulated days per path, excluding day 0
+     * @throws IllegalArgumentException if either count is not positive
+     */
+    public PathStore(int paths, int days) {
+        if (paths < 1 || days < 1) {
+            throw new IllegalArgumentException("A path store needs at least one path and one day");
+        }
+        this.paths = paths;
+        this.values = days + 1;
+        long pathBytes = (long) values * Float.BYTES;
+        this.pathsPerChunk = (int) Math.max(1, Math.min(paths, MAX_CHUNK_BYTES / pathBytes));
+        int chunkCount = (paths + pathsPerChunk - 1) / pathsPerChunk;
+        this.chunks = new FloatBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            int inChunk = Math.min(pathsPerChunk, paths - c * pathsPerChunk);
+            chunks[c] = ByteBuffer.allocateDirect((int) (inChunk * pathBytes))
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+    }
+
+    /**
+     * Returns the number of paths in the store.
+     *
+     * @return number of paths
+     */
+    public int paths() {
+        return paths;
+    }
+
+    /**
+     * Returns the number of simulated days per path.
+     *
+     * @return number of days, excluding day 0
+     */
+    public int days() {
+        return values - 1;
+    }
+
+    /**
+     * Stores one value of a path.
+     *
+     * @param path  path index
+     * @param day   day index, 0 being the starting value
+     * @param value portfolio value on that day
+     */
+    public void set(int path, int day, double value) {
+        chunks[path / pathsPerChunk].put(offset(path, day), (float) value);
+    }
+
+    /**
+     * Reads one value of a path.
+     *
+     * @param path path index
+     * @param day  day index, 0 being the starting value
+     * @return the stored value
+     */
+    public float get(int path, int day) {
+        return chunks[path / pathsPerChunk].get(offset(path, day));
+    }
+
+    /**
+     * Estimates the probability that the portfolio ends above a level.
+     *
+     * @param level portfolio value to beat on the final day
+     * @return fraction of paths ending strictly above the level
+     */
+    public double probabilityEndsAbove(double level) {
+        return probabilityAbove(days(), level);
+    }
+
+    /**
+     * Estimates the probability that the portfolio is above a level on a given day.
+     *
+     * @param day   day index
+     * @param level portfolio value to beat
+     * @return fraction of paths strictly above the level on that day
+     */
+    public double probabilityAbove(int day, double level) {
+        long count = IntStream.range(0, paths).parallel()
+                .filter(p -> get(p, day) > level)
+                .count();
+        return (double) count / paths;
+    }
+
+    /**
+     * Estimates the probability that the portfolio falls below a level on any day.
+     *
+     * @param level portfolio value acting as a barrier
+     * @return fraction of paths that touch a value strictly below the level
+     */
+    public double probabilityFallsBelow(double level) {
+        long count = IntStream.range(0, paths).parallel()
+                .filter(p -> {
+                    FloatBuffer chunk = chunks[p / pathsPerChunk];
+                    int start = offset(p, 0);
+                    for (int d = 0; d < values; d++) {
+                        if (chunk.get(start + d) < level) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .count();
+        return (double) count / paths;
+    }
+
+    /**
+     * Copies every path's value on one day, sorted ascending, to describe its distribution.
+     *
+     * @param day day index
+     * @return the day's values in ascending order
+     */
+    public float[] distribution(int day) {
+        float[] out = new float[paths];
+        IntStream.range(0, paths).parallel().forEach(p -> out[p] = get(p, day));
+        Arrays.parallelSort(out);
+        return out;
+    }
+
+    /**
+     * Returns a quantile of the portfolio value on one day.
+     *
+     * @param day      day index
+     * @param quantile probability between 0 and 1
+     * @return the value below which that fraction of paths fall (nearest rank)
+     */
+    public double quantile(int day, double quantile) {
+        float[] sorted = distribution(day);
+        int rank = (int) Math.ceil(quantile * paths) - 1;
+        return sorted[Math.max(0, Math.min(paths - 1, rank))];
+    }
+
+    /**
+     * Returns the mean portfolio value across paths on one day.
+     *
+     * @param day day index
+     * @return the mean value
+     */
+    public double mean(int day) {
+        return IntStream.range(0, paths).parallel()
+                .mapToDouble(p -> get(p, day))
+                .sum() / paths;
+    }
+
+    private int offset(int path, int day) {
+        return (path % pathsPerChunk) * values + day;
+    }
+}
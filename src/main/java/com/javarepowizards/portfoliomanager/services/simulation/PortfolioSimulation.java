@@ -3,34 +3,44 @@ package com.javarepowizards.portfoliomanager.services.simulation;
 
 import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
 import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
 import com.javarepowizards.portfoliomanager.models.StockData;
-import com.javarepowizards.portfoliomanager.services.utility.StockDataFilter;
+import com.javarepowizards.portfoliomanager.models.StockName;
 
 import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * PortfolioSimulationEngine aggregates simulations for all stocks in a portfolio.
  * For each portfolio holding, it:
- *  - Retrieves historical data using StockDAO,
- *  - Filters the data for the last year (using a given mostRecentDate),
- *  - Computes unique simulation parameters (drift, volatility, momentum) from StockStatistics,
+ *  - Looks up its unique simulation parameters (drift, volatility, momentum) for the year
+ *    ending at mostRecentDate from the shared StockStatisticsCache,
  *  - Creates a SimulationEngine for that stock and simulates its price path,
  *  - Finally, it aggregates the daily simulated values (multiplied by shares held)
  *    along with available cash from the PortfolioDAO.
+ * Alternatively, a simulation built with a {@link BlockBootstrapSimulator} steps every holding
+ * through the same resampled historical days instead of per-stock GBM paths.
  */
 public class PortfolioSimulation {
 
     private final IPortfolioDAO portfolio;
     private final IStockDAO stockDAO;          // Needed to fetch historical data for each stock
+    private final StockStatisticsCache statsCache; // Shared per-ticker drift/volatility/momentum
     private final LocalDate mostRecentDate;   // e.g., 2023-12-29
     private final int simulationDays;         // Number of simulation days to run
     private final double kMultiplier;         // Multiplier for dynamic boundaries (e.g., 2.0)
     private final double maxDailyMovement;    // Maximum allowed daily movement (e.g., 0.05 for ±5%)
     private final double smoothingFactor;     // Smoothing factor for dynamic momentum updates
+    private final Map<StockName, SimulationParameters> calibrated; // Fitted per-ticker overrides of the three above
+    private final BlockBootstrapSimulator bootstrap; // Historical model; null when simulating with GBM
 
     /**
      * Constructor for PortfolioSimulationEngine.
@@ -46,78 +56,320 @@ public class PortfolioSimulation {
     public PortfolioSimulation(IPortfolioDAO portfolio, IStockDAO stockDAO, LocalDate mostRecentDate,
                                      int simulationDays, double kMultiplier, double maxDailyMovement,
                                      double smoothingFactor) {
+        this(portfolio, stockDAO, new StockStatisticsCache(stockDAO), mostRecentDate,
+                simulationDays, kMultiplier, maxDailyMovement, smoothingFactor);
+    }
+
+    /**
+     * Constructor for PortfolioSimulationEngine that reuses a shared statistics cache.
+     *
+     * @param portfolio the PortfolioDAO containing holdings and available cash.
+     * @param stockDAO  the StockDAO to retrieve historical stock data.
+     * @param statsCache cache of per-ticker simulation parameters shared between simulations.
+     * @param mostRecentDate the most recent date (used to filter historical data, e.g., 2023-12-29).
+     * @param simulationDays the number of days to simulate.
+     * @param kMultiplier multiplier for dynamic boundaries.
+     * @param maxDailyMovement maximum daily movement as a decimal.
+     * @param smoothingFactor smoothing factor (α) for dynamic momentum updates.
+     */
+    public PortfolioSimulation(IPortfolioDAO portfolio, IStockDAO stockDAO, StockStatisticsCache statsCache,
+                               LocalDate mostRecentDate, int simulationDays, double kMultiplier,
+                               double maxDailyMovement, double smoothingFactor) {
+        this(portfolio, stockDAO, statsCache, mostRecentDate, simulationDays,
+                kMultiplier, maxDailyMovement, smoothingFactor, Map.of());
+    }
+
+    /**
+     * Constructor for PortfolioSimulationEngine that uses calibrated hyper-parameters where available.
+     * Holdings whose ticker has no calibrated parameters fall back to the given k, maxΔ and α.
+     *
+     * @param portfolio the PortfolioDAO containing holdings and available cash.
+     * @param stockDAO  the StockDAO to retrieve historical stock data.
+     * @param statsCache cache of per-ticker simulation parameters shared between simulations.
+     * @param mostRecentDate the most recent date (used to filter historical data, e.g., 2023-12-29).
+     * @param simulationDays the number of days to simulate.
+     * @param kMultiplier default multiplier for dynamic boundaries.
+     * @param maxDailyMovement default maximum daily movement as a decimal.
+     * @param smoothingFactor default smoothing factor (α) for dynamic momentum updates.
+     * @param calibrated per-ticker hyper-parameters fitted by {@link SimulationCalibrator}.
+     */
+    public PortfolioSimulation(IPortfolioDAO portfolio, IStockDAO stockDAO, StockStatisticsCache statsCache,
+                               LocalDate mostRecentDate, int simulationDays, double kMultiplier,
+                               double maxDailyMovement, double smoothingFactor,
+                               Map<StockName, SimulationParameters> calibrated) {
         this.portfolio = portfolio;
         this.stockDAO = stockDAO;
+        this.statsCache = statsCache;
         this.mostRecentDate = mostRecentDate;
         this.simulationDays = simulationDays;
         this.kMultiplier = kMultiplier;
         this.maxDailyMovement = maxDailyMovement;
         this.smoothingFactor = smoothingFactor;
+        this.calibrated = Map.copyOf(calibrated);
+        this.bootstrap = null;
+    }
+
+    /**
+     * Constructor for a simulation that resamples historical returns instead of using GBM.
+     * Prices start from the closes of the last day in the bootstrap's sample.
+     *
+     * @param portfolio the PortfolioDAO containing holdings and available cash.
+     * @param bootstrap the block bootstrap drawing joint historical returns.
+     * @param simulationDays the number of days to simulate.
+     */
+    public PortfolioSimulation(IPortfolioDAO portfolio, BlockBootstrapSimulator bootstrap, int simulationDays) {
+        this.portfolio = portfolio;
+        this.stockDAO = null;
+        this.statsCache = null;
+        this.mostRecentDate = null;
+        this.simulationDays = simulationDays;
+        this.kMultiplier = 0.0;
+        this.maxDailyMovement = 0.0;
+        this.smoothingFactor = 0.0;
+        this.calibrated = Map.of();
+        this.bootstrap = bootstrap;
+    }
+
+    /**
+     * Simulated prices for every holding, stepped forward together one day at a time.
+     */
+    private interface HoldingPaths {
+        void next();
+
+        double price(int holding);
     }
 
     /**
      * Simulates the portfolio’s total value over the set simulation period.
      *
      * For each portfolio entry:
-     *  - Its unique historical data is retrieved and filtered to the last year.
-     *  - Unique simulation parameters are computed.
+     *  - Its unique simulation parameters for the last year are taken from the statistics cache.
      *  - A SimulationEngine instance is created to simulate that stock's price path.
      * Finally, the portfolio value is aggregated day-by-day, incorporating available cash.
      *
      * @return a list of total portfolio values for each simulation day (starting with day 0).
      */
     public List<Double> simulatePortfolio() {
-        List<List<Double>> individualSimulations = new ArrayList<>();
-
-        // For each stock in the portfolio, compute its unique simulation parameters and simulate its price path.
-        for (PortfolioEntry entry : portfolio.getHoldings()) {
-            // Retrieve all historical data for the stock.
-            List<StockData> allData = stockDAO.getStockData(entry.getStock());
-            // Filter the data for the last year (e.g., from mostRecentDate.minusYears(1) to mostRecentDate).
-            List<StockData> filteredData = new StockDataFilter().getDataFromLastYear(allData, mostRecentDate);
-            // Compute unique simulation parameters using StockStatistics.
-            StockStatistics stats = new StockStatistics(filteredData);
+        return simulatePortfolio(SimulationProgress.NONE);
+    }
+
+    /**
+     * Simulates the portfolio’s total value, reporting each completed day to the given listener.
+     * All holdings are stepped forward together one day at a time, so partial results are
+     * available as soon as each day is aggregated.
+     * The calling thread's interrupt flag is checked between days; if it is set the
+     * simulation stops and a {@link CancellationException} is thrown.
+     *
+     * @param progress listener notified after every simulated day
+     * @return a list of total portfolio values for each simulation day (starting with day 0).
+     * @throws CancellationException if the calling thread is interrupted mid-run
+     */
+    public List<Double> simulatePortfolio(SimulationProgress progress) {
+        List<PortfolioEntry> holdings = portfolio.getHoldings();
+        HoldingPaths paths = pathFactory(holdings).apply(new Random());
+
+        //  aggregate the simulated prices of each stock into a portfolio value per day.
+        List<Double> portfolioValues = new ArrayList<>(simulationDays + 1);
+        double cash = portfolio.getAvailableBalance(); // Cash remains constant.
+
+        // Calculate Day 0 portfolio value (cash + each stock's initial value).
+        portfolioValues.add(initialValue(holdings, cash));
+        progress.onProgress(0, simulationDays, portfolioValues);
+
+        // For each simulation day (1 to simulationDays), step every path and aggregate.
+        for (int day = 1; day <= simulationDays; day++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Simulation cancelled after " + (day - 1) + " days");
+            }
+            paths.next();
+            portfolioValues.add(value(paths, holdings, cash));
+            progress.onProgress(day, simulationDays, portfolioValues);
+        }
+
+        return portfolioValues;
+    }
+
+    /**
+     * Simulates many independent paths of the portfolio’s total value in parallel.
+     * Per-holding parameters are looked up once and shared by every path, and the values are
+     * written straight into an off-heap {@link PathStore} that can be queried afterwards.
+     *
+     * @param pathCount number of paths to simulate
+     * @return the simulated paths, each starting with the day 0 value
+     */
+    public PathStore simulatePaths(int pathCount) {
+        List<PortfolioEntry> holdings = portfolio.getHoldings();
+        Function<Random, HoldingPaths> factory = pathFactory(holdings);
+        double cash = portfolio.getAvailableBalance();
+        double initial = initialValue(holdings, cash);
+
+        PathStore store = new PathStore(pathCount, simulationDays);
+        IntStream.range(0, pathCount).parallel().forEach(p -> {
+            HoldingPaths paths = factory.apply(new Random());
+            store.set(p, 0, initial);
+            for (int day = 1; day <= simulationDays; day++) {
+                paths.next();
+                store.set(p, day, value(paths, holdings, cash));
+            }
+        });
+        return store;
+    }
+
+    private static double initialValue(List<PortfolioEntry> holdings, double cash) {
+        double value = cash;
+        for (PortfolioEntry entry : holdings) {
+            value += entry.getPurchasePrice() * entry.getAmountHeld();
+        }
+        return value;
+    }
+
+    private static double value(HoldingPaths paths, List<PortfolioEntry> holdings, double cash) {
+        double value = cash;
+        for (int i = 0; i < holdings.size(); i++) {
+            value += paths.price(i) * holdings.get(i).getAmountHeld();
+        }
+        return value;
+    }
+
+    /** Prepares the per-holding models once and returns a way to start paths from them. */
+    private Function<Random, HoldingPaths> pathFactory(List<PortfolioEntry> holdings) {
+        return bootstrap != null ? bootstrapPaths(holdings) : momentumPaths(holdings);
+    }
+
+    /**
+     * Inputs of the momentum GBM model for one holding, as the simulation would use them.
+     *
+     * @param ticker       the stock held
+     * @param shares       number of shares held
+     * @param initialPrice close on the most recent date, where every path starts
+     * @param drift        average daily return over the last year
+     * @param volatility   daily volatility over the last year
+     * @param momentum     baseline momentum over the last year
+     * @param params       k, maxΔ and α for this ticker
+     */
+    record HoldingModel(StockName ticker, int shares, double initialPrice, double drift,
+                        double volatility, double momentum, SimulationParameters params) {
+
+        HoldingModel withParams(SimulationParameters params) {
+            return new HoldingModel(ticker, shares, initialPrice, drift, volatility, momentum, params);
+        }
+
+        MarketSimulator simulator() {
+            return new MarketSimulator(initialPrice, drift, volatility, momentum,
+                    params.kMultiplier(), params.maxDailyMovement(), params.smoothingFactor());
+        }
+    }
+
+    /**
+     * Looks up the model inputs of every holding.
+     *
+     * @return one model per holding, in holding order
+     * @throws IllegalStateException if this simulation uses the historical bootstrap
+     */
+    List<HoldingModel> holdingModels() {
+        return holdingModels(portfolio.getHoldings());
+    }
+
+    private List<HoldingModel> holdingModels(List<PortfolioEntry> holdings) {
+        if (bootstrap != null) {
+            throw new IllegalStateException("The historical bootstrap has no per-holding parameters");
+        }
+        List<HoldingModel> models = new ArrayList<>();
+        SimulationParameters defaults = new SimulationParameters(kMultiplier, maxDailyMovement, smoothingFactor);
+
+        // For each stock in the portfolio, compute its unique simulation parameters.
+        for (PortfolioEntry entry : holdings) {
+            // Unique simulation parameters over the last year (mostRecentDate.minusYears(1) to mostRecentDate).
+            StockStatistics stats = statsCache.getLastYear(entry.getStock(), mostRecentDate);
             // Get the latest closing price for the stock at the most recent date.
             StockData latestData = stockDAO.getStockData(entry.getStock(), mostRecentDate);
-            double initialPrice = latestData.getClose();
-            // Create a SimulationEngine for this stock with its unique parameters.
-            MarketSimulator engine = new MarketSimulator(
-                    initialPrice,
+            // Calibrated k, maxΔ and α for this ticker, or the defaults if it was never calibrated.
+            SimulationParameters params = calibrated.getOrDefault(entry.getStock(), defaults);
+            models.add(new HoldingModel(
+                    entry.getStock(),
+                    entry.getAmountHeld(),
+                    latestData.getClose(),
                     stats.getAverageDailyReturn(),  // Unique drift.
                     stats.getVolatility(),            // Unique volatility.
                     stats.getMomentum(),              // Unique baseline momentum.
-                    kMultiplier,
-                    maxDailyMovement,
-                    smoothingFactor                   // Smoothing factor for dynamic momentum updates.
-            );
-            // Run the simulation for the specified number of days.
-            List<Double> simPrices = engine.simulate(simulationDays);
-            individualSimulations.add(simPrices);
+                    params));
         }
+        return models;
+    }
 
-        //  aggregate the simulated prices of each stock into a portfolio value per day.
-        List<Double> portfolioValues = new ArrayList<>();
+    /**
+     * Returns the day 0 portfolio value: cash plus every holding at its purchase price.
+     *
+     * @return the starting value of every path
+     */
+    double startingValue() {
+        return initialValue(portfolio.getHoldings(), portfolio.getAvailableBalance());
+    }
 
-        // Calculate Day 0 portfolio value (cash + each stock's initial value).
-        double initialPortfolioValue = portfolio.getAvailableBalance();
-        for (PortfolioEntry entry : portfolio.getHoldings()) {
-            initialPortfolioValue += entry.getPurchasePrice() * entry.getAmountHeld();
+    /**
+     * Returns the cash balance, which stays constant through the simulation.
+     *
+     * @return available cash
+     */
+    double cash() {
+        return portfolio.getAvailableBalance();
+    }
+
+    /**
+     * Returns the number of days each path runs for.
+     *
+     * @return simulated days
+     */
+    int simulationDays() {
+        return simulationDays;
+    }
+
+    private Function<Random, HoldingPaths> momentumPaths(List<PortfolioEntry> holdings) {
+        List<MarketSimulator> simulators = new ArrayList<>(holdings.size());
+        for (HoldingModel model : holdingModels(holdings)) {
+            simulators.add(model.simulator());
         }
-        portfolioValues.add(initialPortfolioValue);
 
-        // For each simulation day (1 to simulationDays), aggregate individual stock values.
-        for (int day = 1; day <= simulationDays; day++) {
-            double dayPortfolioValue = portfolio.getAvailableBalance(); // Cash remains constant.
-            for (int i = 0; i < portfolio.getHoldings().size(); i++) {
-                PortfolioEntry entry = portfolio.getHoldings().get(i);
-                List<Double> simPrices = individualSimulations.get(i);
-                // Each simulation returns simulationDays+1 entries (day 0 is initial price).
-                double simulatedPrice = simPrices.get(day);
-                dayPortfolioValue += simulatedPrice * entry.getAmountHeld();
+        return random -> {
+            List<MarketSimulator.PricePath> paths = new ArrayList<>(simulators.size());
+            for (MarketSimulator simulator : simulators) {
+                paths.add(simulator.newPath(random));
             }
-            portfolioValues.add(dayPortfolioValue);
+            return new HoldingPaths() {
+                @Override
+                public void next() {
+                    for (MarketSimulator.PricePath path : paths) {
+                        path.next();
+                    }
+                }
+
+                @Override
+                public double price(int holding) {
+                    return paths.get(holding).currentPrice();
+                }
+            };
+        };
+    }
+
+    private Function<Random, HoldingPaths> bootstrapPaths(List<PortfolioEntry> holdings) {
+        List<StockName> tickers = new ArrayList<>(holdings.size());
+        for (PortfolioEntry entry : holdings) {
+            tickers.add(entry.getStock());
         }
 
-        return portfolioValues;
+        return random -> {
+            BlockBootstrapSimulator.JointPath path = bootstrap.newPath(tickers, random);
+            return new HoldingPaths() {
+                @Override
+                public void next() {
+                    path.next();
+                }
+
+                @Override
+                public double price(int holding) {
+                    return path.price(holding);
+                }
+            };
+        };
     }
 }
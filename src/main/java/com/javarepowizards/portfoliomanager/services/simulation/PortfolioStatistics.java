@@ -1,8 +1,6 @@
 package com.javarepowizards.portfoliomanager.services.simulation;
 
 
-
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -20,39 +18,17 @@ public class PortfolioStatistics {
 
     /**
      * Compute cumulative return, annualised σ (volatility) and Sharpe.
+     * The values are streamed once through a {@link StreamingPortfolioStatistics}.
      *
      * @param values  portfolio value for each simulated day (index 0 = start)
      * @param days    number of simulated days (slider value)
+     * @return the three metrics, or all zero if fewer than two values are given
      */
     public static Metrics compute(List<Double> values, int days) {
-        if (values.size() < 2) {
-            return new Metrics(0, 0, 0);
-        }
-
-        double start = values.get(0);
-        double end   = values.get(values.size() - 1);
-        double cumRet = (end - start) / start * 100.0;
-
-        double[] daily = new double[values.size() - 1];
-        for (int i = 1; i < values.size(); i++) {
-            daily[i - 1] = (values.get(i) - values.get(i - 1)) / values.get(i - 1);
+        StreamingPortfolioStatistics stats = new StreamingPortfolioStatistics(days);
+        for (double v : values) {
+            stats.accept(v);
         }
-
-        double mean = Arrays.stream(daily).average().orElse(0);
-        double var  = Arrays.stream(daily)
-                .map(r -> (r - mean) * (r - mean))
-                .average().orElse(0);
-        double σ      = Math.sqrt(var);
-        double annVol = σ * Math.sqrt(days) * 100.0;      // %
-        double annSharpe = (mean * days) / σ;
-
-        return new Metrics(cumRet, annVol, annSharpe);
-    }
+        return stats.summary().toMetrics();
     }
-
-
-
-
-
-
-
+}
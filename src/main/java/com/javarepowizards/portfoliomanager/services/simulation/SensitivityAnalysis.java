@@ -0,0 +1,264 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Measures how much a momentum GBM simulation's mean terminal value and Sharpe ratio depend
+ * on each model input, by bumping one input down and up and re-running the simulation.
+ *
+ * Every run uses common random numbers: {@link PathBatch} always draws path {@code p}'s
+ * shocks from a generator seeded with {@code seed + p}, one shock per holding per day in the
+ * same order. The bumped runs therefore see exactly the same noise as the base run, so the
+ * differences between them reflect the bump alone rather than Monte Carlo error.
+ * All bumped runs are independent and are evaluated in parallel.
+ */
+public class SensitivityAnalysis {
+
+    /** Default size of each bump relative to the input's value. */
+    public static final double DEFAULT_BUMP = 0.10;
+
+    /** Default number of paths per run. */
+    public static final int DEFAULT_PATHS = 500;
+
+    /** A model input that can be bumped. */
+    public enum Parameter {
+        DRIFT("Drift", true, 1e-4),
+        VOLATILITY("Volatility", true, 1e-3),
+        MOMENTUM("Momentum", true, 1e-4),
+        K_MULTIPLIER("Boundary multiplier k", false, 0.1),
+        MAX_DAILY_MOVEMENT("Max daily movement", false, 1e-3),
+        SMOOTHING_FACTOR("Momentum smoothing α", false, 0.01);
+
+        private final String displayName;
+        private final boolean perTicker;
+        private final double floor;
+
+        Parameter(String displayName, boolean perTicker, double floor) {
+            this.displayName = displayName;
+            this.perTicker = perTicker;
+            this.floor = floor;
+        }
+
+        /**
+         * Tells whether the input is bumped separately for each holding.
+         *
+         * @return true for per-ticker inputs, false for inputs bumped on every holding at once
+         */
+        public boolean isPerTicker() {
+            return perTicker;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * One bar of the tornado chart: the outputs with an input bumped down and up.
+     *
+     * @param parameter    the bumped input
+     * @param ticker       the holding whose input was bumped, or null if bumped on every holding
+     * @param baseValue    the input's value (averaged over holdings for model-wide inputs)
+     * @param lowValue     the input's value after bumping down
+     * @param highValue    the input's value after bumping up
+     * @param lowTerminal  mean terminal portfolio value with the input bumped down
+     * @param highTerminal mean terminal portfolio value with the input bumped up
+     * @param lowSharpe    annualised Sharpe with the input bumped down
+     * @param highSharpe   annualised Sharpe with the input bumped up
+     */
+    public record Sensitivity(Parameter parameter, StockName ticker, double baseValue,
+                              double lowValue, double highValue,
+                              double lowTerminal, double highTerminal,
+                              double lowSharpe, double highSharpe) {
+
+        /**
+         * Returns a label for the chart axis.
+         *
+         * @return the input name, prefixed with the ticker for per-ticker inputs
+         */
+        public String label() {
+            return ticker == null ? parameter.toString() : ticker.getSymbol() + " " + parameter;
+        }
+
+        /**
+         * Returns the change in mean terminal value from the low to the high bump.
+         *
+         * @return the width of the terminal-value bar
+         */
+        public double terminalSwing() {
+            return highTerminal - lowTerminal;
+        }
+
+        /**
+         * Returns the change in Sharpe ratio from the low to the high bump.
+         *
+         * @return the width of the Sharpe bar
+         */
+        public double sharpeSwing() {
+            return highSharpe - lowSharpe;
+        }
+
+        /**
+         * Estimates the derivative of the mean terminal value with respect to the input
+         * by central difference.
+         *
+         * @return terminal value change per unit change of the input
+         */
+        public double terminalSensitivity() {
+            return highValue == lowValue ? 0.0 : terminalSwing() / (highValue - lowValue);
+        }
+    }
+
+    /**
+     * The base run and one bar per bumped input, widest terminal-value swing first.
+     *
+     * @param baseTerminal mean terminal portfolio value of the unbumped run
+     * @param baseSharpe   annualised Sharpe of the unbumped run
+     * @param tornado      bars ordered by absolute terminal swing, largest first
+     */
+    public record Report(double baseTerminal, double baseSharpe, List<Sensitivity> tornado) {
+
+        /**
+         * Returns the bars reordered by their effect on the Sharpe ratio.
+         *
+         * @return bars ordered by absolute Sharpe swing, largest first
+         */
+        public List<Sensitivity> bySharpe() {
+            return tornado.stream()
+                    .sorted(Comparator.comparingDouble((Sensitivity s) -> Math.abs(s.sharpeSwing())).reversed())
+                    .toList();
+        }
+    }
+
+    private record Outcome(double terminal, double sharpe) { }
+
+    private record Bump(Parameter parameter, int holding, List<PortfolioSimulation.HoldingModel> low,
+                        List<PortfolioSimulation.HoldingModel> high) { }
+
+    private final List<PortfolioSimulation.HoldingModel> models;
+    private final double startingValue;
+    private final double cash;
+    private final int days;
+    private final int paths;
+    private final double relativeBump;
+    private final long seed;
+
+    /**
+     * Prepares an analysis of a momentum GBM simulation.
+     *
+     * @param simulation   the simulation whose inputs are bumped
+     * @param paths        number of paths per run
+     * @param relativeBump bump size relative to each input's value, e.g. 0.1 for ±10%
+     * @param seed         seed of the common random numbers
+     * @throws IllegalStateException if the simulation uses the historical bootstrap
+     */
+    public SensitivityAnalysis(PortfolioSimulation simulation, int paths, double relativeBump, long seed) {
+        this.models = simulation.holdingModels();
+        this.startingValue = simulation.startingValue();
+        this.cash = simulation.cash();
+        this.days = simulation.simulationDays();
+        this.paths = paths;
+        this.relativeBump = relativeBump;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the base simulation and every bumped simulation.
+     *
+     * @return the tornado-chart dataset
+     */
+    public Report run() {
+        List<Bump> bumps = new ArrayList<>();
+        for (Parameter parameter : Parameter.values()) {
+            if (parameter.isPerTicker()) {
+                for (int h = 0; h < models.size(); h++) {
+                    bumps.add(new Bump(parameter, h, bumped(parameter, h, -1), bumped(parameter, h, 1)));
+                }
+            } else if (!models.isEmpty()) {
+                bumps.add(new Bump(parameter, -1, bumped(parameter, -1, -1), bumped(parameter, -1, 1)));
+            }
+        }
+
+        Outcome base = evaluate(models);
+        List<Sensitivity> bars = bumps.parallelStream()
+                .map(b -> {
+                    Outcome low = evaluate(b.low());
+                    Outcome high = evaluate(b.high());
+                    return new Sensitivity(b.parameter(),
+                            b.holding() < 0 ? null : models.get(b.holding()).ticker(),
+                            average(models, b.parameter(), b.holding()),
+                            average(b.low(), b.parameter(), b.holding()),
+                            average(b.high(), b.parameter(), b.holding()),
+                            low.terminal(), high.terminal(), low.sharpe(), high.sharpe());
+                })
+                .sorted(Comparator.comparingDouble((Sensitivity s) -> Math.abs(s.terminalSwing())).reversed())
+                .toList();
+        return new Report(base.terminal(), base.sharpe(), bars);
+    }
+
+    /** Simulates every path with the given inputs and the common random numbers. */
+    private Outcome evaluate(List<PortfolioSimulation.HoldingModel> inputs) {
+        PathBatch.Result result = PathBatch.run(inputs, startingValue, cash, days, seed, 0, paths);
+        return new Outcome(result.terminalSum() / paths, result.statistics().summary().annualisedSharpe());
+    }
+
+    /** Copies the base inputs with one input moved by one bump in the given direction. */
+    private List<PortfolioSimulation.HoldingModel> bumped(Parameter parameter, int holding, int direction) {
+        List<PortfolioSimulation.HoldingModel> out = new ArrayList<>(models);
+        for (int h = 0; h < out.size(); h++) {
+            if (holding < 0 || h == holding) {
+                out.set(h, bump(out.get(h), parameter, direction));
+            }
+        }
+        return out;
+    }
+
+    private PortfolioSimulation.HoldingModel bump(PortfolioSimulation.HoldingModel m, Parameter parameter,
+                                                  int direction) {
+        double value = value(m, parameter);
+        double moved = value + direction * relativeBump * Math.max(Math.abs(value), parameter.floor);
+        SimulationParameters p = m.params();
+        return switch (parameter) {
+            case DRIFT -> new PortfolioSimulation.HoldingModel(m.ticker(), m.shares(), m.initialPrice(),
+                    moved, m.volatility(), m.momentum(), p);
+            case VOLATILITY -> new PortfolioSimulation.HoldingModel(m.ticker(), m.shares(), m.initialPrice(),
+                    m.drift(), Math.max(0.0, moved), m.momentum(), p);
+            case MOMENTUM -> new PortfolioSimulation.HoldingModel(m.ticker(), m.shares(), m.initialPrice(),
+                    m.drift(), m.volatility(), moved, p);
+            case K_MULTIPLIER -> m.withParams(new SimulationParameters(
+                    Math.max(0.0, moved), p.maxDailyMovement(), p.smoothingFactor()));
+            case MAX_DAILY_MOVEMENT -> m.withParams(new SimulationParameters(
+                    p.kMultiplier(), Math.max(0.0, moved), p.smoothingFactor()));
+            case SMOOTHING_FACTOR -> m.withParams(new SimulationParameters(
+                    p.kMultiplier(), p.maxDailyMovement(), Math.min(1.0, Math.max(0.0, moved))));
+        };
+    }
+
+    private static double value(PortfolioSimulation.HoldingModel m, Parameter parameter) {
+        return switch (parameter) {
+            case DRIFT -> m.drift();
+            case VOLATILITY -> m.volatility();
+            case MOMENTUM -> m.momentum();
+            case K_MULTIPLIER -> m.params().kMultiplier();
+            case MAX_DAILY_MOVEMENT -> m.params().maxDailyMovement();
+            case SMOOTHING_FACTOR -> m.params().smoothingFactor();
+        };
+    }
+
+    private static double average(List<PortfolioSimulation.HoldingModel> inputs, Parameter parameter, int holding) {
+        if (holding >= 0) {
+            return value(inputs.get(holding), parameter);
+        }
+        double sum = 0.0;
+        for (PortfolioSimulation.HoldingModel m : inputs) {
+            sum += value(m, parameter);
+        }
+        return sum / inputs.size();
+    }
+}
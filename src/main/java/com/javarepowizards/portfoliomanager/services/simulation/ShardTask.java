@@ -0,0 +1,79 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A slice of a sharded Monte Carlo run, as sent from the coordinator to a worker.
+ * Carries every model input, so a worker needs no price data or database of its own.
+ *
+ * @param seed          seed of the common random numbers
+ * @param firstPath     index of the first path in the slice
+ * @param pathCount     number of paths in the slice
+ * @param days          number of simulated days per path
+ * @param cash          cash held throughout
+ * @param startingValue day 0 portfolio value
+ * @param models        per-holding model inputs
+ */
+record ShardTask(long seed, int firstPath, int pathCount, int days, double cash, double startingValue,
+                 List<PortfolioSimulation.HoldingModel> models) {
+
+    /**
+     * Simulates the slice.
+     *
+     * @return the slice's summary
+     */
+    PathBatch.Result run() {
+        return PathBatch.run(models, startingValue, cash, days, seed, firstPath, pathCount);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeInt(firstPath);
+        out.writeInt(pathCount);
+        out.writeInt(days);
+        out.writeDouble(cash);
+        out.writeDouble(startingValue);
+        out.writeInt(models.size());
+        for (PortfolioSimulation.HoldingModel m : models) {
+            out.writeUTF(m.ticker().name());
+            out.writeInt(m.shares());
+            out.writeDouble(m.initialPrice());
+            out.writeDouble(m.drift());
+            out.writeDouble(m.volatility());
+            out.writeDouble(m.momentum());
+            out.writeDouble(m.params().kMultiplier());
+            out.writeDouble(m.params().maxDailyMovement());
+            out.writeDouble(m.params().smoothingFactor());
+        }
+    }
+
+    static ShardTask readFrom(DataInput in) throws IOException {
+        long seed = in.readLong();
+        int firstPath = in.readInt();
+        int pathCount = in.readInt();
+        int days = in.readInt();
+        double cash = in.readDouble();
+        double startingValue = in.readDouble();
+        int count = in.readInt();
+        List<PortfolioSimulation.HoldingModel> models = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StockName ticker = StockName.valueOf(in.readUTF());
+            int shares = in.readInt();
+            double initialPrice = in.readDouble();
+            double drift = in.readDouble();
+            double volatility = in.readDouble();
+            double momentum = in.readDouble();
+            SimulationParameters params = new SimulationParameters(in.readDouble(), in.readDouble(), in.readDouble());
+            models.add(new PortfolioSimulation.HoldingModel(
+                    ticker, shares, initialPrice, drift, volatility, momentum, params));
+        }
+        return new ShardTask(seed, firstPath, pathCount, days, cash, startingValue, models);
+    }
+}
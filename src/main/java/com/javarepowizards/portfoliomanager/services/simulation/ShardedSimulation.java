@@ -0,0 +1,264 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a very large momentum GBM Monte Carlo batch across several worker processes.
+ *
+ * The paths are cut into shards, a few per worker, which are handed out over loopback
+ * sockets to {@link SimulationWorker}s as each becomes free. Workers reply with mergeable
+ * {@link StreamingPortfolioStatistics}, so no path ever crosses the wire and each worker's
+ * heap only holds one path at a time. If a worker dies or hangs mid-shard, or cannot be
+ * launched, the coordinator relaunches it and requeues the shard. Because path {@code p} always uses the seed {@code seed + p},
+ * the result does not depend on how shards were split, assigned or retried.
+ */
+public class ShardedSimulation {
+
+    /** Default number of times a shard or worker may fail before the run is abandoned. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Default time a worker may take to return one shard before it is treated as hung. */
+    public static final Duration DEFAULT_SHARD_TIMEOUT = Duration.ofMinutes(10);
+
+    private static final int SHARDS_PER_WORKER = 4;
+    private static final int CONNECT_TIMEOUT_MS = 30_000;
+
+    /**
+     * Outcome of a sharded run.
+     *
+     * @param paths             number of paths simulated
+     * @param meanTerminalValue mean final portfolio value across paths
+     * @param summary           performance statistics pooled over every path
+     * @param retries           number of shards that had to be rerun after a worker failed
+     */
+    public record Result(int paths, double meanTerminalValue,
+                         StreamingPortfolioStatistics.Summary summary, int retries) { }
+
+    private final PortfolioSimulation simulation;
+    private final WorkerLauncher launcher;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration shardTimeout;
+
+    /**
+     * Creates a coordinator with the default retry limit and shard timeout.
+     *
+     * @param simulation the momentum GBM simulation whose inputs are sharded
+     * @param launcher   starts the worker processes
+     * @param workers    number of workers to run at once
+     */
+    public ShardedSimulation(PortfolioSimulation simulation, WorkerLauncher launcher, int workers) {
+        this(simulation, launcher, workers, DEFAULT_MAX_ATTEMPTS, DEFAULT_SHARD_TIMEOUT);
+    }
+
+    /**
+     * Creates a coordinator.
+     *
+     * @param simulation   the momentum GBM simulation whose inputs are sharded
+     * @param launcher     starts the worker processes
+     * @param workers      number of workers to run at once
+     * @param maxAttempts  times a shard, or a worker in a row, may fail before giving up
+     * @param shardTimeout time a worker may take to return one shard before it counts as failed
+     * @throws IllegalArgumentException if workers, maxAttempts or shardTimeout is not positive,
+     *                                  or shardTimeout is too long to set on a socket
+     */
+    public ShardedSimulation(PortfolioSimulation simulation, WorkerLauncher launcher, int workers,
+                             int maxAttempts, Duration shardTimeout) {
+        if (workers < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Workers and attempts must be positive");
+        }
+        if (shardTimeout.toMillis() < 1 || shardTimeout.toMillis() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Shard timeout must be between 1 ms and " + Integer.MAX_VALUE + " ms");
+        }
+        this.simulation = simulation;
+        this.launcher = launcher;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.shardTimeout = shardTimeout;
+    }
+
+    /**
+     * Simulates the given number of paths across the workers.
+     *
+     * @param paths number of paths
+     * @param seed  seed of the common random numbers
+     * @return the merged result
+     * @throws IOException          if a shard or worker keeps failing
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public Result run(int paths, long seed) throws IOException, InterruptedException {
+        List<PortfolioSimulation.HoldingModel> models = simulation.holdingModels();
+        int shardCount = Math.max(1, Math.min(paths, workers * SHARDS_PER_WORKER));
+        List<ShardTask> tasks = new ArrayList<>(shardCount);
+        for (int s = 0; s < shardCount; s++) {
+            int first = (int) ((long) paths * s / shardCount);
+            int next = (int) ((long) paths * (s + 1) / shardCount);
+            tasks.add(new ShardTask(seed, first, next - first, simulation.simulationDays(),
+                    simulation.cash(), simulation.startingValue(), models));
+        }
+
+        Run run = new Run(tasks);
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MS);
+            ExecutorService pool = Executors.newFixedThreadPool(workers);
+            try {
+                for (int w = 0; w < workers; w++) {
+                    pool.execute(() -> run.driveWorkers(server));
+                }
+                while (!run.done.await(100, TimeUnit.MILLISECONDS)) {
+                    if (run.failure.get() != null) {
+                        throw run.failure.get();
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        // merge in shard order so the rounding is the same on every run
+        StreamingPortfolioStatistics stats = new StreamingPortfolioStatistics(simulation.simulationDays());
+        double terminalSum = 0.0;
+        for (PathBatch.Result r : run.results) {
+            terminalSum += r.terminalSum();
+            stats.merge(r.statistics());
+        }
+        return new Result(paths, terminalSum / paths, stats.summary(), run.retries.get());
+    }
+
+    /** Shared state of one run, driven by one thread per worker slot. */
+    private final class Run {
+        private final List<ShardTask> tasks;
+        private final PathBatch.Result[] results;
+        private final int[] attempts;
+        private final BlockingQueue<Integer> pending = new LinkedBlockingQueue<>();
+        private final CountDownLatch done;
+        private final AtomicReference<IOException> failure = new AtomicReference<>();
+        private final AtomicInteger retries = new AtomicInteger();
+
+        Run(List<ShardTask> tasks) {
+            this.tasks = tasks;
+            this.results = new PathBatch.Result[tasks.size()];
+            this.attempts = new int[tasks.size()];
+            this.done = new CountDownLatch(tasks.size());
+            for (int s = 0; s < tasks.size(); s++) {
+                pending.add(s);
+            }
+        }
+
+        /**
+         * Keeps one worker alive in this slot, relaunching it whenever it fails.
+         * Every failure, including an unchecked one from the launcher, counts towards
+         * {@code maxAttempts}, so the run always ends in a result or a failure.
+         */
+        void driveWorkers(ServerSocket server) {
+            int failuresInARow = 0;
+            while (done.getCount() > 0 && failure.get() == null && !Thread.currentThread().isInterrupted()) {
+                AutoCloseable handle = null;
+                try {
+                    Socket socket;
+                    // launch and accept together so each slot talks to the worker it started
+                    synchronized (server) {
+                        handle = launcher.launch(
+                                new InetSocketAddress(server.getInetAddress(), server.getLocalPort()));
+                        socket = server.accept();
+                    }
+                    try (socket) {
+                        if (serve(socket)) {
+                            failuresInARow = 0;
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    if (++failuresInARow >= maxAttempts) {
+                        failure.compareAndSet(null, new IOException("Worker failed " + failuresInARow + " times", e));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    close(handle);
+                }
+            }
+        }
+
+        /**
+         * Feeds shards to one connected worker until none are left.
+         *
+         * @return true if the worker completed at least one shard
+         */
+        private boolean serve(Socket socket) throws IOException, InterruptedException {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout((int) shardTimeout.toMillis());   // a hung worker fails its shard
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(SimulationWorker.MAGIC);
+            boolean completed = false;
+            while (true) {
+                Integer shard = pending.poll(50, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    if (done.getCount() == 0 || failure.get() != null) {
+                        out.writeByte(SimulationWorker.SHUTDOWN);
+                        out.flush();
+                        return completed;
+                    }
+                    continue; // another worker may still fail and hand its shard back
+                }
+                ShardTask task = tasks.get(shard);
+                try {
+                    out.writeByte(SimulationWorker.TASK);
+                    task.writeTo(out);
+                    out.flush();
+                    if (in.readByte() != SimulationWorker.RESULT || in.readInt() != task.firstPath()) {
+                        throw new IOException("Unexpected reply from worker");
+                    }
+                    double terminalSum = in.readDouble();
+                    StreamingPortfolioStatistics stats = StreamingPortfolioStatistics.readFrom(in);
+                    results[shard] = new PathBatch.Result(terminalSum, stats);
+                    completed = true;
+                    done.countDown();
+                } catch (IOException | RuntimeException e) {
+                    requeue(shard, e);
+                    throw e;
+                }
+            }
+        }
+
+        private synchronized void requeue(int shard, Exception cause) {
+            if (++attempts[shard] >= maxAttempts) {
+                failure.compareAndSet(null,
+                        new IOException("Shard " + shard + " failed " + attempts[shard] + " times", cause));
+            } else {
+                retries.incrementAndGet();
+                pending.add(shard);
+            }
+        }
+
+        private void close(AutoCloseable handle) {
+            if (handle == null) {
+                return;
+            }
+            try {
+                handle.close();
+            } catch (Exception e) {
+                // the worker is being discarded either way
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import com.javarepowizards.portfoliomanager.dao.simulation.ISimulationParameterDAO;
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.NelderMead;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Fits the {@link MarketSimulator} hyper-parameters (k, maxΔ and α) to each ticker's history.
+ *
+ * For a candidate parameter set the calibrator simulates a fixed batch of paths with the
+ * ticker's own drift, volatility and momentum, pools their daily returns and measures the
+ * Kolmogorov–Smirnov distance to the historical daily returns over the same year.
+ * Every candidate is simulated with the same seeded shocks, so the objective is deterministic
+ * and Nelder–Mead can minimise it. Tickers are calibrated in parallel on a ForkJoinPool.
+ */
+public class SimulationCalibrator {
+
+    /** Number of simulated paths pooled per objective evaluation. */
+    public static final int PATHS = 32;
+
+    // search bounds for k, maxΔ and α
+    private static final double[] LOWER = {0.5, 0.002, 0.0};
+    private static final double[] UPPER = {6.0, 0.20, 1.0};
+    private static final double[] STEP = {0.5, 0.01, 0.1};
+    private static final double TOLERANCE = 1e-4;
+    private static final int MAX_EVALUATIONS = 150;
+
+    /**
+     * Fitted parameters for one ticker and how well they match history.
+     *
+     * @param ticker          the calibrated stock
+     * @param params          the fitted hyper-parameters
+     * @param distance        KS distance between simulated and historical returns with {@code params}
+     * @param defaultDistance KS distance with {@link SimulationParameters#DEFAULT}, for comparison
+     */
+    public record Calibration(StockName ticker, SimulationParameters params,
+                              double distance, double defaultDistance) { }
+
+    private final StockStatisticsCache statsCache;
+    private final LocalDate asOf;
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    /**
+     * Creates a calibrator that uses the common pool and a fixed seed.
+     *
+     * @param statsCache source of each ticker's statistics and historical returns
+     * @param asOf       last date of the year of history to fit against
+     */
+    public SimulationCalibrator(StockStatisticsCache statsCache, LocalDate asOf) {
+        this(statsCache, asOf, ForkJoinPool.commonPool(), 42L);
+    }
+
+    /**
+     * Creates a calibrator with an explicit pool and seed.
+     *
+     * @param statsCache source of each ticker's statistics and historical returns
+     * @param asOf       last date of the year of history to fit against
+     * @param pool       pool the per-ticker calibrations run on
+     * @param seed       seed for the simulated shocks
+     */
+    public SimulationCalibrator(StockStatisticsCache statsCache, LocalDate asOf, ForkJoinPool pool, long seed) {
+        this.statsCache = statsCache;
+        this.asOf = asOf;
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * Fits the hyper-parameters for a single ticker, starting from the defaults.
+     *
+     * @param ticker the stock to calibrate
+     * @return the fitted parameters and their fit
+     * @throws IllegalArgumentException if the ticker has too little history in the year to {@code asOf}
+     */
+    public Calibration calibrate(StockName ticker) {
+        StockStatistics stats = statsCache.getLastYear(ticker, asOf);
+        double[] historical = statsCache.returns(ticker, asOf, StockStatisticsCache.ONE_YEAR);
+        Arrays.sort(historical);
+
+        SimulationParameters d = SimulationParameters.DEFAULT;
+        double[] start = {d.kMultiplier(), d.maxDailyMovement(), d.smoothingFactor()};
+        double[] best = NelderMead.minimize(
+                x -> distance(historical, stats, toParameters(x)),
+                start, STEP, TOLERANCE, MAX_EVALUATIONS);
+
+        SimulationParameters fitted = toParameters(best);
+        double fittedDistance = distance(historical, stats, fitted);
+        double defaultDistance = distance(historical, stats, d);
+        // Nelder–Mead starts at the defaults, but keep them if the search only found ties
+        if (fittedDistance >= defaultDistance) {
+            return new Calibration(ticker, d, defaultDistance, defaultDistance);
+        }
+        return new Calibration(ticker, fitted, fittedDistance, defaultDistance);
+    }
+
+    /**
+     * Calibrates several tickers in parallel.
+     * Tickers without enough history are left out of the result.
+     *
+     * @param tickers the stocks to calibrate
+     * @return calibrations keyed by ticker
+     */
+    public Map<StockName, Calibration> calibrateAll(Collection<StockName> tickers) {
+        List<Callable<Calibration>> jobs = new ArrayList<>(tickers.size());
+        for (StockName ticker : tickers) {
+            jobs.add(() -> {
+                try {
+                    return calibrate(ticker);
+                } catch (IllegalArgumentException e) {
+                    return null;    // not enough data for this ticker
+                }
+            });
+        }
+
+        Map<StockName, Calibration> out = new EnumMap<>(StockName.class);
+        for (Future<Calibration> f : pool.invokeAll(jobs)) {
+            try {
+                Calibration c = f.get();
+                if (c != null) {
+                    out.put(c.ticker(), c);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Calibration interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Calibration failed", e.getCause());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Calibrates the tickers and stores the fitted parameters for later simulations.
+     *
+     * @param tickers      the stocks to calibrate
+     * @param parameterDAO where the fitted parameters are persisted
+     * @return the fitted parameters keyed by ticker
+     * @throws SQLException if the parameters cannot be saved
+     */
+    public Map<StockName, SimulationParameters> calibrateAndSave(Collection<StockName> tickers,
+                                                                 ISimulationParameterDAO parameterDAO)
+            throws SQLException {
+        Map<StockName, SimulationParameters> fitted = new EnumMap<>(StockName.class);
+        calibrateAll(tickers).forEach((ticker, c) -> fitted.put(ticker, c.params()));
+        parameterDAO.saveAll(fitted);
+        return fitted;
+    }
+
+    /**
+     * Simulates {@link #PATHS} paths of the same length as the history and returns the
+     * Kolmogorov–Smirnov distance between the pooled simulated returns and the history.
+     *
+     * @param sortedHistorical historical daily returns in ascending order
+     * @param stats            the ticker's drift, volatility and momentum
+     * @param params           the hyper-parameters to evaluate
+     * @return the KS distance, between 0 and 1
+     */
+    double distance(double[] sortedHistorical, StockStatistics stats, SimulationParameters params) {
+        int days = sortedHistorical.length;
+        double[] simulated = new double[PATHS * days];
+        int n = 0;
+        for (int p = 0; p < PATHS; p++) {
+            MarketSimulator sim = new MarketSimulator(1.0,
+                    stats.getAverageDailyReturn(), stats.getVolatility(), stats.getMomentum(),
+                    params.kMultiplier(), params.maxDailyMovement(), params.smoothingFactor(),
+                    new Random(seed + p));
+            MarketSimulator.PricePath path = sim.newPath();
+            double previous = path.currentPrice();
+            for (int d = 0; d < days; d++) {
+                double next = path.next();
+                simulated[n++] = (next - previous) / previous;
+                previous = next;
+            }
+        }
+        Arrays.sort(simulated);
+        return ksDistance(sortedHistorical, simulated);
+    }
+
+    /** Largest gap between the empirical CDFs of two sorted samples. */
+    static double ksDistance(double[] a, double[] b) {
+        int i = 0;
+        int j = 0;
+        double max = 0.0;
+        while (i < a.length && j < b.length) {
+            double x = Math.min(a[i], b[j]);
+            while (i < a.length && a[i] <= x) {
+                i++;
+            }
+            while (j < b.length && b[j] <= x) {
+                j++;
+            }
+            max = Math.max(max, Math.abs((double) i / a.length - (double) j / b.length));
+        }
+        return max;
+    }
+
+    private static SimulationParameters toParameters(double[] x) {
+        return new SimulationParameters(clamp(x[0], 0), clamp(x[1], 1), clamp(x[2], 2));
+    }
+
+    private static double clamp(double v, int axis) {
+        return Math.max(LOWER[axis], Math.min(UPPER[axis], v));
+    }
+}
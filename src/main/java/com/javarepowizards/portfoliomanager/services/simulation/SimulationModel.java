@@ -0,0 +1,36 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+/**
+ * The price models a portfolio simulation can be run with.
+ */
+public enum SimulationModel {
+    /**
+     * Per-ticker geometric Brownian motion with dynamic momentum and daily clamps.
+     */
+    MOMENTUM_GBM("Momentum GBM"),
+    /**
+     * Blocks of actual historical daily returns resampled jointly across all holdings.
+     */
+    HISTORICAL_BOOTSTRAP("Historical bootstrap");
+
+    private final String displayName;
+
+    /**
+     * Constructs a SimulationModel with its user-facing name.
+     *
+     * @param displayName the name shown in the UI
+     */
+    SimulationModel(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the user-facing name of the model.
+     *
+     * @return the display name
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,25 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.util.List;
+
+/**
+ * Callback notified as a portfolio simulation completes each day.
+ * Lets the UI draw partial results while a long simulation is still running.
+ */
+@FunctionalInterface
+public interface SimulationProgress {
+
+    /** Listener that ignores all progress updates. */
+    SimulationProgress NONE = (completedDays, totalDays, values) -> { };
+
+    /**
+     * Called after each simulated day has been aggregated into a portfolio value.
+     * The supplied list is owned by the simulation and keeps growing;
+     * implementations that hand it to another thread must copy it first.
+     *
+     * @param completedDays number of days simulated so far
+     * @param totalDays     number of days the simulation will run for
+     * @param values        portfolio values computed so far (index 0 = start)
+     */
+    void onProgress(int completedDays, int totalDays, List<Double> values);
+}
@@ -1,10 +1,15 @@
 package com.javarepowizards.portfoliomanager.services.simulation;
 
 import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.simulation.ISimulationParameterDAO;
 import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockName;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -16,7 +21,10 @@ public class SimulationServices implements ISimulationServices {
 
     private final IPortfolioDAO  portfolioDAO;
     private final IStockDAO       stockDAO;
+    private final StockStatisticsCache statsCache;
     private final LocalDate      mostRecentDate;
+    private final ISimulationParameterDAO parameterDAO; // null when no calibration is stored
+    private final BlockBootstrapSimulator bootstrap;   // null when no historical model is available
 
     private static final String PROMPT_TEMPLATE= """
             You are an AI tutor/grader built into a student investment-simulator. After I running the simulation, you use these results:
@@ -59,25 +67,123 @@ public class SimulationServices implements ISimulationServices {
     public SimulationServices(IPortfolioDAO portfolioDAO,
                              IStockDAO stockDAO,
                              LocalDate mostRecentDate) {
+        this(portfolioDAO, stockDAO, new StockStatisticsCache(stockDAO), mostRecentDate);
+    }
+
+    /**
+     * Constructor for SimulationServices sharing an existing statistics cache.
+     *
+     * @param portfolioDAO the PortfolioDAO to access portfolio data
+     * @param stockDAO the StockDAO to access stock data
+     * @param statsCache per-ticker statistics shared by every simulation built here
+     * @param mostRecentDate the most recent date for simulation context (e.g., 2023-12-29)
+     */
+    public SimulationServices(IPortfolioDAO portfolioDAO,
+                              IStockDAO stockDAO,
+                              StockStatisticsCache statsCache,
+                              LocalDate mostRecentDate) {
+        this(portfolioDAO, stockDAO, statsCache, null, null, mostRecentDate);
+    }
+
+    /**
+     * Constructor for SimulationServices that simulates with calibrated hyper-parameters.
+     *
+     * @param portfolioDAO the PortfolioDAO to access portfolio data
+     * @param stockDAO the StockDAO to access stock data
+     * @param statsCache per-ticker statistics shared by every simulation built here
+     * @param parameterDAO store of per-ticker k, maxΔ and α fitted by {@link SimulationCalibrator}
+     * @param bootstrap historical block bootstrap used for {@link SimulationModel#HISTORICAL_BOOTSTRAP}
+     * @param mostRecentDate the most recent date for simulation context (e.g., 2023-12-29)
+     */
+    public SimulationServices(IPortfolioDAO portfolioDAO,
+                              IStockDAO stockDAO,
+                              StockStatisticsCache statsCache,
+                              ISimulationParameterDAO parameterDAO,
+                              BlockBootstrapSimulator bootstrap,
+                              LocalDate mostRecentDate) {
         this.portfolioDAO   = portfolioDAO;
         this.stockDAO       = stockDAO;
+        this.statsCache     = statsCache;
         this.mostRecentDate = mostRecentDate;
-
+        this.parameterDAO   = parameterDAO;
+        this.bootstrap      = bootstrap;
     }
 
 
     /**
      * Builds a PortfolioSimulation instance with the specified parameters.
+     * Tickers with stored calibrated hyper-parameters use them; the rest use the defaults.
      *
      * @param days the number of days to simulate
      * @return a PortfolioSimulation instance configured with the portfolio, stock data, and simulation parameters
+     * @throws IllegalStateException if the stored calibrated parameters cannot be read
      */
 
     public PortfolioSimulation buildSimEngine(int days) {
-        double k  = 2.0, maxΔ = 0.02, α = 0.3;
-        return new PortfolioSimulation(
-                portfolioDAO, stockDAO, mostRecentDate,
-                days, k, maxΔ, α);
+        return buildSimEngine(portfolioDAO, days, SimulationModel.MOMENTUM_GBM);
+    }
+
+    /**
+     * Builds a PortfolioSimulation that uses the given price model.
+     *
+     * @param days the number of days to simulate
+     * @param model the price model to simulate with
+     * @return a PortfolioSimulation instance configured for the chosen model
+     * @throws IllegalStateException if the historical model was requested but no bootstrap was configured,
+     *                               or if the stored calibrated parameters cannot be read
+     */
+    public PortfolioSimulation buildSimEngine(int days, SimulationModel model) {
+        return buildSimEngine(portfolioDAO, days, model);
+    }
+
+    /**
+     * Builds a PortfolioSimulation of an arbitrary portfolio rather than the logged-in user's,
+     * e.g. a snapshot of another user's holdings loaded by a batch job.
+     *
+     * @param portfolio the holdings and cash to simulate
+     * @param days the number of days to simulate
+     * @param model the price model to simulate with
+     * @return a PortfolioSimulation instance configured for the chosen model
+     * @throws IllegalStateException if the historical model was requested but no bootstrap was configured,
+     *                               or if the stored calibrated parameters cannot be read
+     */
+    public PortfolioSimulation buildSimEngine(IPortfolioDAO portfolio, int days, SimulationModel model) {
+        if (model == SimulationModel.MOMENTUM_GBM) {
+            SimulationParameters d = SimulationParameters.DEFAULT;
+            return new PortfolioSimulation(
+                    portfolio, stockDAO, statsCache, mostRecentDate,
+                    days, d.kMultiplier(), d.maxDailyMovement(), d.smoothingFactor(),
+                    loadCalibratedParameters());
+        }
+        if (bootstrap == null) {
+            throw new IllegalStateException("Historical bootstrap model is not available");
+        }
+        return new PortfolioSimulation(portfolio, bootstrap, days);
+    }
+
+    /**
+     * Bumps each input of the momentum GBM simulation and reports how the outcome responds.
+     *
+     * @param days the number of days to simulate
+     * @param paths the number of paths per bumped run
+     * @return the tornado-chart dataset, widest terminal-value swing first
+     * @throws IllegalStateException if the stored calibrated parameters cannot be read
+     */
+    public SensitivityAnalysis.Report analyseSensitivity(int days, int paths) {
+        return new SensitivityAnalysis(buildSimEngine(days), paths,
+                SensitivityAnalysis.DEFAULT_BUMP, System.nanoTime()).run();
+    }
+
+    private Map<StockName, SimulationParameters> loadCalibratedParameters() {
+        if (parameterDAO == null) {
+            return Map.of();
+        }
+        try {
+            return parameterDAO.findAll();
+        } catch (SQLException e) {
+            // silently simulating with the defaults would report figures the user did not ask for
+            throw new IllegalStateException("Could not load calibrated simulation parameters: " + e.getMessage(), e);
+        }
     }
 
     /**
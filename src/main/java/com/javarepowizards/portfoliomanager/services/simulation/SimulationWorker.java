@@ -0,0 +1,80 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Worker process of a {@link ShardedSimulation}.
+ *
+ * A worker connects back to its coordinator, then repeatedly reads a {@link ShardTask},
+ * simulates it and replies with the slice's terminal-value sum and serialised
+ * {@link StreamingPortfolioStatistics}, until told to shut down or the connection closes.
+ * The protocol is plain {@link java.io.DataInput}/{@link java.io.DataOutput} over a stream
+ * socket, so coordinator and worker may run on different hosts.
+ */
+public final class SimulationWorker {
+
+    /** First value on every connection, identifying the protocol and its version. */
+    static final int MAGIC = 0x504D5331; // "PMS1"
+
+    /** Message types. */
+    static final byte TASK = 1;
+    static final byte SHUTDOWN = 0;
+    static final byte RESULT = 1;
+
+    private SimulationWorker() { }
+
+    /**
+     * Starts a worker process.
+     *
+     * @param args coordinator host and port
+     * @throws IOException if the coordinator cannot be reached
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SimulationWorker <host> <port>");
+            System.exit(2);
+        }
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            serve(socket);
+        }
+    }
+
+    /**
+     * Answers tasks on an open connection until the coordinator shuts the worker down.
+     *
+     * @param socket connection to the coordinator
+     * @throws IOException if the connection fails or the coordinator speaks another protocol
+     */
+    static void serve(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Unexpected protocol from coordinator");
+        }
+        while (true) {
+            byte type;
+            try {
+                type = in.readByte();
+            } catch (EOFException e) {
+                return; // coordinator went away
+            }
+            if (type == SHUTDOWN) {
+                return;
+            }
+            ShardTask task = ShardTask.readFrom(in);
+            PathBatch.Result result = task.run();
+            out.writeByte(RESULT);
+            out.writeInt(task.firstPath());
+            out.writeDouble(result.terminalSum());
+            result.statistics().writeTo(out);
+            out.flush();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.javarepowizards.portfoliomanager.services.simulation;
 
 import com.javarepowizards.portfoliomanager.models.StockData;
-import java.util.Collections;
+import com.javarepowizards.portfoliomanager.services.utility.Kernels;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -17,59 +20,82 @@ public class StockStatistics {
 
     private final double momentum;
 
+    // number of most recent returns averaged for the baseline momentum.
+    static final int MOMENTUM_PERIOD = 10;
+
     /**
      * Constructs statistics from a list of StockData.
-     * Sorts the data by date, computes daily returns,
+     * Sorts a copy of the data by date, computes daily returns,
      * then calculates mean return, standard deviation, and momentum.
+     * The caller's list is left untouched.
      *
      * @param stockDataList list of StockData entries, must contain at least two records
      * @throws IllegalArgumentException if fewer than two data points are provided
      */
     public StockStatistics(List<StockData> stockDataList){
-        // ensure the list is sorted by date in ascending order.
-
-        Collections.sort(stockDataList, Comparator.comparing(StockData::getDate));
-
         int size = stockDataList.size();
         if (size < 2){
             throw new IllegalArgumentException("Not enough data to calculate statistics");
         }
 
+        // work on a date-sorted copy so the caller's list is not reordered.
+        List<StockData> sorted = new ArrayList<>(stockDataList);
+        sorted.sort(Comparator.comparing(StockData::getDate));
+
         //calculate daily returns using simple return calculation
         // daily return = current close - previous close / previous close
-
-        double sumReturns = 0.0;
-        double sumSquaredReturns = 0.0;
-        double[] returns = new double[size - 1];
-
-        for (int i = 1; i < size; i++){
-            double previousClose = stockDataList.get(i - 1).getClose();
-            double currentClose = stockDataList.get(i).getClose();
-
-            double dailyReturn = (currentClose - previousClose) / previousClose;
-            returns[i - 1] = dailyReturn;
-            sumReturns += dailyReturn;
-            sumSquaredReturns += dailyReturn * dailyReturn;
+        // the mean is taken first and squared deviations summed in a second pass, which
+        // stays accurate where E[x²] - E[x]² would cancel catastrophically.
+        double[] closes = new double[size];
+        for (int i = 0; i < size; i++) {
+            closes[i] = sorted.get(i).getClose();
         }
+        double[] allReturns = new double[size];
+        Kernels.returns(closes, allReturns, 1, size);
+        double[] returns = Arrays.copyOfRange(allReturns, 1, size);
+
+        double mean = Kernels.sum(returns, 0, returns.length) / returns.length;
+        double m2 = Kernels.centredDot(returns, mean, returns, mean, 0, returns.length);
 
         int n = returns.length;
-        this.averageDailyReturn = sumReturns / n;
+        this.averageDailyReturn = mean;
 
-        // calculate volatility (standard deviation) using the variance formula.
-        double variance = (sumSquaredReturns / n) - (averageDailyReturn * averageDailyReturn);
-        this.volatility = Math.sqrt(variance);
+        // calculate volatility (population standard deviation).
+        this.volatility = Math.sqrt(Math.max(0.0, m2 / n));
 
         // baseline momentum: average of most recent momentum period returns.
-        int momentumPeriod = 10;
-        if(n < momentumPeriod){
-            momentum = averageDailyReturn;
-        } else{
-            double sumMomentum = 0.0;
-            for (int i = n - momentumPeriod; i < n; i++){
-                sumMomentum += returns[i];
-            }
-            this.momentum = sumMomentum / momentumPeriod;
+        this.momentum = momentum(returns, n, n, averageDailyReturn);
+    }
+
+    /**
+     * Creates statistics from values that were already computed elsewhere,
+     * for example by a rolling window in {@link StockStatisticsCache}.
+     *
+     * @param averageDailyReturn mean of daily returns
+     * @param volatility         standard deviation of daily returns
+     * @param momentum           baseline momentum
+     */
+    StockStatistics(double averageDailyReturn, double volatility, double momentum) {
+        this.averageDailyReturn = averageDailyReturn;
+        this.volatility = volatility;
+        this.momentum = momentum;
+    }
+
+    /**
+     * Averages the last {@link #MOMENTUM_PERIOD} returns ending just before {@code end},
+     * falling back to the overall mean when fewer returns are available.
+     *
+     * @param returns daily returns in date order
+     * @param end     exclusive index of the last return in the window
+     * @param count   number of returns in the window ending at {@code end}
+     * @param mean    mean return of the window, used as the fallback
+     * @return baseline momentum
+     */
+    static double momentum(double[] returns, int end, int count, double mean) {
+        if (count < MOMENTUM_PERIOD) {
+            return mean;
         }
+        return Kernels.sum(returns, end - MOMENTUM_PERIOD, end) / MOMENTUM_PERIOD;
     }
 
     /**
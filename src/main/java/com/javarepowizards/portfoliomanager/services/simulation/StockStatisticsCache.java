@@ -0,0 +1,215 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.StockData;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of per-ticker simulation parameters (drift, volatility and momentum).
+ * Results are keyed by ticker, as-of date and look-back window, so repeated simulations
+ * of the same holdings reuse them instead of re-filtering and re-sorting the price history.
+ *
+ * Each ticker's closes are loaded once into primitive arrays. For every (ticker, window)
+ * pair a rolling Welford accumulator is kept, so moving the as-of date forward by a day
+ * only adds the new return and drops the expired one rather than rescanning the window.
+ * Safe to share between threads.
+ */
+public class StockStatisticsCache {
+
+    /** Look-back window used by the portfolio simulation. */
+    public static final Period ONE_YEAR = Period.ofYears(1);
+
+    private record Key(StockName ticker, LocalDate asOf, Period window) { }
+
+    private record WindowKey(StockName ticker, Period window) { }
+
+    private final IStockDAO stockDAO;
+    private final Map<StockName, Series> series = new ConcurrentHashMap<>();
+    private final Map<WindowKey, RollingWindow> windows = new ConcurrentHashMap<>();
+    private final Map<Key, StockStatistics> results = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty cache backed by the given stock data source.
+     *
+     * @param stockDAO the StockDAO used to load each ticker's history on first use
+     */
+    public StockStatisticsCache(IStockDAO stockDAO) {
+        this.stockDAO = stockDAO;
+    }
+
+    /**
+     * Returns the statistics of a ticker's daily returns over the window ending at {@code asOf}.
+     * The window covers every trading day from {@code asOf - window} to {@code asOf}, inclusive,
+     * matching {@link com.javarepowizards.portfoliomanager.services.utility.StockDataFilter}.
+     *
+     * @param ticker the stock to compute statistics for
+     * @param asOf   the last date included in the window
+     * @param window the look-back period
+     * @return the cached or newly computed statistics
+     * @throws IllegalArgumentException if fewer than two closes fall inside the window
+     */
+    public StockStatistics get(StockName ticker, LocalDate asOf, Period window) {
+        return results.computeIfAbsent(new Key(ticker, asOf, window), this::compute);
+    }
+
+    /**
+     * Returns the statistics over the year ending at {@code asOf}.
+     *
+     * @param ticker the stock to compute statistics for
+     * @param asOf   the last date included in the window
+     * @return the cached or newly computed statistics
+     */
+    public StockStatistics getLastYear(StockName ticker, LocalDate asOf) {
+        return get(ticker, asOf, ONE_YEAR);
+    }
+
+    /**
+     * Returns a copy of the ticker's daily returns inside the window ending at {@code asOf},
+     * i.e. the sample the statistics from {@link #get} are computed over.
+     *
+     * @param ticker the stock whose returns are wanted
+     * @param asOf   the last date included in the window
+     * @param window the look-back period
+     * @return the daily returns in date order
+     */
+    public double[] returns(StockName ticker, LocalDate asOf, Period window) {
+        Series s = series.computeIfAbsent(ticker, this::loadSeries);
+        int lo = s.firstIndexOnOrAfter(asOf.minus(window));
+        int hi = s.lastIndexOnOrBefore(asOf);
+        return hi > lo ? Arrays.copyOfRange(s.returns, lo + 1, hi + 1) : new double[0];
+    }
+
+    /**
+     * Drops every cached series, window and result.
+     * Call after the underlying price data has been reloaded.
+     */
+    public void clear() {
+        results.clear();
+        windows.clear();
+        series.clear();
+    }
+
+    private StockStatistics compute(Key key) {
+        Series s = series.computeIfAbsent(key.ticker(), this::loadSeries);
+        int lo = s.firstIndexOnOrAfter(key.asOf().minus(key.window()));
+        int hi = s.lastIndexOnOrBefore(key.asOf());
+        if (hi - lo < 1) {
+            throw new IllegalArgumentException("Not enough data to calculate statistics");
+        }
+        RollingWindow w = windows.computeIfAbsent(
+                new WindowKey(key.ticker(), key.window()), k -> new RollingWindow(s.returns));
+        return w.moveTo(lo, hi);
+    }
+
+    private Series loadSeries(StockName ticker) {
+        List<StockData> data = new ArrayList<>();
+        for (StockData sd : stockDAO.getStockData(ticker)) {
+            if (sd.getClose() != null) {
+                data.add(sd);
+            }
+        }
+        data.sort(Comparator.comparing(StockData::getDate));
+
+        int n = data.size();
+        long[] days = new long[n];
+        double[] returns = new double[n];
+        for (int i = 0; i < n; i++) {
+            days[i] = data.get(i).getDate().toEpochDay();
+            if (i > 0) {
+                double previousClose = data.get(i - 1).getClose();
+                returns[i] = (data.get(i).getClose() - previousClose) / previousClose;
+            }
+        }
+        return new Series(days, returns);
+    }
+
+    /**
+     * A ticker's trading days and the return into each day (index 0 has no return).
+     */
+    private record Series(long[] epochDays, double[] returns) {
+
+        int firstIndexOnOrAfter(LocalDate date) {
+            int i = Arrays.binarySearch(epochDays, date.toEpochDay());
+            return i >= 0 ? i : -i - 1;
+        }
+
+        int lastIndexOnOrBefore(LocalDate date) {
+            int i = Arrays.binarySearch(epochDays, date.toEpochDay());
+            return i >= 0 ? i : -i - 2;
+        }
+    }
+
+    /**
+     * Running mean and sum of squared deviations over the returns of days {@code lo+1..hi}.
+     * Moving the window adds and removes returns with Welford's update, which stays
+     * numerically stable in both directions.
+     */
+    private static final class RollingWindow {
+        private final double[] returns;
+        private int lo = -1;
+        private int hi = -1;
+        private int n;
+        private double mean;
+        private double m2;
+
+        RollingWindow(double[] returns) {
+            this.returns = returns;
+        }
+
+        synchronized StockStatistics moveTo(int newLo, int newHi) {
+            boolean slidesForward = lo >= 0 && newLo >= lo && newHi >= hi;
+            if (!slidesForward || (newLo - lo) + (newHi - hi) > newHi - newLo) {
+                // moving backwards or jumping further than a rebuild costs
+                n = 0;
+                mean = 0.0;
+                m2 = 0.0;
+                for (int i = newLo + 1; i <= newHi; i++) {
+                    add(returns[i]);
+                }
+            } else {
+                // add the new days first so the window never empties part way
+                for (int i = hi + 1; i <= newHi; i++) {
+                    add(returns[i]);
+                }
+                for (int i = lo + 1; i <= newLo; i++) {
+                    remove(returns[i]);
+                }
+            }
+            lo = newLo;
+            hi = newHi;
+
+            double volatility = Math.sqrt(Math.max(0.0, m2 / n));
+            double momentum = StockStatistics.momentum(returns, newHi + 1, n, mean);
+            return new StockStatistics(mean, volatility, momentum);
+        }
+
+        private void add(double x) {
+            n++;
+            double delta = x - mean;
+            mean += delta / n;
+            m2 += delta * (x - mean);
+        }
+
+        private void remove(double x) {
+            if (n == 1) {
+                n = 0;
+                mean = 0.0;
+                m2 = 0.0;
+                return;
+            }
+            double oldMean = mean;
+            mean = (n * oldMean - x) / (n - 1);
+            m2 -= (x - oldMean) * (x - mean);
+            n--;
+        }
+    }
+}
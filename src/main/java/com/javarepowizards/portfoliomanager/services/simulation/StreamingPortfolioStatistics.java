@@ -0,0 +1,269 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Single-pass accumulator of portfolio performance statistics.
+ *
+ * Portfolio values are fed in as a simulation or backtest produces them, so no path has to be
+ * kept in memory. Daily returns are accumulated with Welford's method, and the running peak,
+ * drawdown depth and drawdown duration are tracked as values arrive.
+ *
+ * An accumulator can hold many paths: {@link #endPath()} closes the current path, and
+ * {@link #merge(StreamingPortfolioStatistics)} folds in the paths collected by another
+ * accumulator, so Monte Carlo workers can each summarise their own paths and combine the
+ * results at the end. Daily-return moments are pooled across all paths; per-path figures
+ * (cumulative return and drawdown) are averaged, with the worst drawdown and longest
+ * drawdown also reported.
+ *
+ * Annualisation follows {@link PortfolioStatistics#compute}, so a single path gives the same
+ * return, volatility and Sharpe as that method. Not thread-safe; use one per worker.
+ */
+public class StreamingPortfolioStatistics {
+
+    /**
+     * Statistics summarised over every path seen.
+     *
+     * @param paths                   number of paths summarised
+     * @param cumulativeReturnPct     mean cumulative return per path, in percent
+     * @param annualisedVolatilityPct annualised volatility of the pooled daily returns, in percent
+     * @param annualisedSharpe        annualised mean daily return over its standard deviation
+     * @param annualisedSortino       annualised mean daily return over its downside deviation
+     * @param maxDrawdownPct          mean of each path's maximum drawdown, in percent (non-positive)
+     * @param worstDrawdownPct        deepest drawdown on any path, in percent (non-positive)
+     * @param longestDrawdownDays     most consecutive days any path spent below its running peak
+     * @param calmar                  annualised mean daily return over the mean maximum drawdown
+     */
+    public record Summary(int paths,
+                          double cumulativeReturnPct,
+                          double annualisedVolatilityPct,
+                          double annualisedSharpe,
+                          double annualisedSortino,
+                          double maxDrawdownPct,
+                          double worstDrawdownPct,
+                          int longestDrawdownDays,
+                          double calmar) {
+
+        /**
+         * Returns the three metrics shown by the simulation view.
+         *
+         * @return cumulative return, volatility and Sharpe
+         */
+        public PortfolioStatistics.Metrics toMetrics() {
+            return new PortfolioStatistics.Metrics(cumulativeReturnPct, annualisedVolatilityPct, annualisedSharpe);
+        }
+    }
+
+    private final int days;
+
+    // daily returns pooled across every closed path
+    private long n;
+    private double mean;
+    private double m2;
+    private double downsideSquares;
+
+    // per-path figures of every closed path
+    private int paths;
+    private double sumCumulativeReturn;
+    private double sumMaxDrawdown;
+    private double worstDrawdown;
+    private int longestDrawdown;
+
+    // the path currently being fed
+    private boolean open;
+    private double first;
+    private double previous;
+    private double peak;
+    private double pathMaxDrawdown;
+    private int drawdownRun;
+    private int pathLongestDrawdown;
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @param days annualisation factor, as passed to {@link PortfolioStatistics#compute}
+     */
+    public StreamingPortfolioStatistics(int days) {
+        this.days = days;
+    }
+
+    /**
+     * Adds the next portfolio value of the current path, starting a new path if none is open.
+     *
+     * @param value portfolio value for the next day (the first call gives the starting value)
+     */
+    public void accept(double value) {
+        if (!open) {
+            open = true;
+            first = value;
+            peak = value;
+            pathMaxDrawdown = 0.0;
+            drawdownRun = 0;
+            pathLongestDrawdown = 0;
+        } else {
+            double r = (value - previous) / previous;
+            n++;
+            double delta = r - mean;
+            mean += delta / n;
+            m2 += delta * (r - mean);
+            if (r < 0) {
+                downsideSquares += r * r;
+            }
+
+            if (value >= peak) {
+                peak = value;
+                drawdownRun = 0;
+            } else {
+                pathMaxDrawdown = Math.min(pathMaxDrawdown, value / peak - 1.0);
+                drawdownRun++;
+                pathLongestDrawdown = Math.max(pathLongestDrawdown, drawdownRun);
+            }
+        }
+        previous = value;
+    }
+
+    /**
+     * Adds a whole series of values as the current path.
+     *
+     * @param values portfolio values by day (index 0 = start)
+     */
+    public void acceptAll(double[] values) {
+        for (double v : values) {
+            accept(v);
+        }
+    }
+
+    /**
+     * Closes the current path so the next value starts a new one.
+     * Does nothing if no path is open.
+     */
+    public void endPath() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        paths++;
+        sumCumulativeReturn += (previous - first) / first;
+        sumMaxDrawdown += pathMaxDrawdown;
+        worstDrawdown = Math.min(worstDrawdown, pathMaxDrawdown);
+        longestDrawdown = Math.max(longestDrawdown, pathLongestDrawdown);
+    }
+
+    /**
+     * Folds the paths of another accumulator into this one.
+     * Both accumulators' open paths are closed first.
+     *
+     * @param other accumulator holding another partition of the paths
+     * @return this accumulator
+     */
+    public StreamingPortfolioStatistics merge(StreamingPortfolioStatistics other) {
+        endPath();
+        other.endPath();
+        if (other.n > 0) {
+            long total = n + other.n;
+            double delta = other.mean - mean;
+            mean += delta * other.n / total;
+            m2 += other.m2 + delta * delta * ((double) n * other.n / total);
+            n = total;
+            downsideSquares += other.downsideSquares;
+        }
+        paths += other.paths;
+        sumCumulativeReturn += other.sumCumulativeReturn;
+        sumMaxDrawdown += other.sumMaxDrawdown;
+        worstDrawdown = Math.min(worstDrawdown, other.worstDrawdown);
+        longestDrawdown = Math.max(longestDrawdown, other.longestDrawdown);
+        return this;
+    }
+
+    /**
+     * Summarises every closed path plus the open one, if any, without closing it.
+     *
+     * @return the statistics so far; all zero if fewer than two values were seen
+     */
+    public Summary summary() {
+        StreamingPortfolioStatistics s = copy();
+        s.endPath();
+        if (s.n == 0) {
+            return new Summary(s.paths, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        double σ = Math.sqrt(s.m2 / s.n);
+        double downside = Math.sqrt(s.downsideSquares / s.n);
+        double annualReturn = s.mean * days;
+        double meanDrawdown = s.sumMaxDrawdown / s.paths;
+        return new Summary(
+                s.paths,
+                s.sumCumulativeReturn / s.paths * 100.0,
+                σ * Math.sqrt(days) * 100.0,
+                annualReturn / σ,
+                annualReturn / downside,
+                meanDrawdown * 100.0,
+                s.worstDrawdown * 100.0,
+                s.longestDrawdown,
+                annualReturn / Math.abs(meanDrawdown));
+    }
+
+    /**
+     * Writes the closed paths' state so another process can {@link #readFrom read} and merge it.
+     * The open path, if any, is closed first.
+     *
+     * @param out destination stream
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        endPath();
+        out.writeInt(days);
+        out.writeLong(n);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(downsideSquares);
+        out.writeInt(paths);
+        out.writeDouble(sumCumulativeReturn);
+        out.writeDouble(sumMaxDrawdown);
+        out.writeDouble(worstDrawdown);
+        out.writeInt(longestDrawdown);
+    }
+
+    /**
+     * Reads an accumulator written by {@link #writeTo}.
+     *
+     * @param in source stream
+     * @return an accumulator holding the written paths, with no open path
+     * @throws IOException if reading fails
+     */
+    public static StreamingPortfolioStatistics readFrom(DataInput in) throws IOException {
+        StreamingPortfolioStatistics s = new StreamingPortfolioStatistics(in.readInt());
+        s.n = in.readLong();
+        s.mean = in.readDouble();
+        s.m2 = in.readDouble();
+        s.downsideSquares = in.readDouble();
+        s.paths = in.readInt();
+        s.sumCumulativeReturn = in.readDouble();
+        s.sumMaxDrawdown = in.readDouble();
+        s.worstDrawdown = in.readDouble();
+        s.longestDrawdown = in.readInt();
+        return s;
+    }
+
+    private StreamingPortfolioStatistics copy() {
+        StreamingPortfolioStatistics c = new StreamingPortfolioStatistics(days);
+        c.n = n;
+        c.mean = mean;
+        c.m2 = m2;
+        c.downsideSquares = downsideSquares;
+        c.paths = paths;
+        c.sumCumulativeReturn = sumCumulativeReturn;
+        c.sumMaxDrawdown = sumMaxDrawdown;
+        c.worstDrawdown = worstDrawdown;
+        c.longestDrawdown = longestDrawdown;
+        c.open = open;
+        c.first = first;
+        c.previous = previous;
+        c.peak = peak;
+        c.pathMaxDrawdown = pathMaxDrawdown;
+        c.drawdownRun = drawdownRun;
+        c.pathLongestDrawdown = pathLongestDrawdown;
+        return c;
+    }
+}
@@ -0,0 +1,82 @@
+package com.javarepowizards.portfoliomanager.services.simulation;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts {@link SimulationWorker}s for a {@link ShardedSimulation}.
+ * A launched worker must connect back to the coordinator's address by itself.
+ */
+@FunctionalInterface
+public interface WorkerLauncher {
+
+    /**
+     * Starts one worker.
+     *
+     * @param coordinator address the worker should connect to
+     * @return a handle whose {@code close()} stops the worker
+     * @throws IOException if the worker cannot be started
+     */
+    AutoCloseable launch(InetSocketAddress coordinator) throws IOException;
+
+    /**
+     * Launches each worker as a separate JVM on this host, with the same Java runtime and
+     * class or module path as the current process. Each worker gets its own heap.
+     *
+     * @param jvmOptions extra JVM options for the workers, e.g. {@code -Xmx512m}
+     * @return the launcher
+     */
+    static WorkerLauncher localJvm(List<String> jvmOptions) {
+        return coordinator -> {
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command()
+                    .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+            command.addAll(jvmOptions);
+            Module module = SimulationWorker.class.getModule();
+            String modulePath = System.getProperty("jdk.module.path");
+            if (module.isNamed() && modulePath != null) {
+                command.add("--module-path");
+                command.add(modulePath);
+                command.add("-m");
+                command.add(module.getName() + "/" + SimulationWorker.class.getName());
+            } else {
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(SimulationWorker.class.getName());
+            }
+            command.add(coordinator.getHostString());
+            command.add(Integer.toString(coordinator.getPort()));
+
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            return process::destroyForcibly;
+        };
+    }
+
+    /**
+     * Runs each worker on a daemon thread of the current JVM.
+     * Exercises the same protocol without separate processes, which is useful for
+     * testing and for machines where spawning JVMs is not allowed.
+     *
+     * @return the launcher
+     */
+    static WorkerLauncher inProcess() {
+        return coordinator -> {
+            Socket socket = new Socket();
+            Thread worker = new Thread(() -> {
+                try (socket) {
+                    socket.connect(coordinator);
+                    SimulationWorker.serve(socket);
+                } catch (IOException e) {
+                    // the coordinator notices the dropped connection and retries the shard
+                }
+            }, "simulation-worker");
+            worker.setDaemon(true);
+            worker.start();
+            return socket::close;
+        };
+    }
+}
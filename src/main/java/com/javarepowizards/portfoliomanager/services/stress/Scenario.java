@@ -0,0 +1,94 @@
+package com.javarepowizards.portfoliomanager.services.stress;
+
+import com.javarepowizards.portfoliomanager.models.Sector;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A market scenario, expressed as an instantaneous fractional price move per ticker.
+ * Tickers without a shock are assumed unchanged.
+ *
+ * @param name   label shown in reports, e.g. "March 2020"
+ * @param shocks price move per ticker, e.g. -0.2 for a 20% fall
+ */
+public record Scenario(String name, Map<StockName, Double> shocks) {
+
+    /** Start of the COVID-19 sell-off on the ASX. */
+    public static final LocalDate MARCH_2020_START = LocalDate.of(2020, 2, 20);
+
+    /** The ASX's COVID-19 low. */
+    public static final LocalDate MARCH_2020_END = LocalDate.of(2020, 3, 23);
+
+    /**
+     * Creates a scenario, copying the shocks.
+     */
+    public Scenario {
+        shocks = Map.copyOf(shocks);
+    }
+
+    /**
+     * Returns the shock applied to a ticker.
+     *
+     * @param ticker the stock
+     * @return its price move, or 0 if the scenario leaves it unchanged
+     */
+    public double shock(StockName ticker) {
+        return shocks.getOrDefault(ticker, 0.0);
+    }
+
+    /**
+     * Builds a scenario that moves every stock in a sector by the same amount.
+     *
+     * @param name          scenario label
+     * @param sectorShocks  price move per sector, e.g. MATERIALS → -0.2
+     * @return the scenario
+     */
+    public static Scenario sectorShock(String name, Map<Sector, Double> sectorShocks) {
+        Map<StockName, Double> shocks = new EnumMap<>(StockName.class);
+        for (StockName ticker : StockName.values()) {
+            Double s = sectorShocks.get(ticker.getSector());
+            if (s != null) {
+                shocks.put(ticker, s);
+            }
+        }
+        return new Scenario(name, shocks);
+    }
+
+    /**
+     * Builds a scenario that replays each ticker's actual move between two historical dates.
+     *
+     * @param name   scenario label
+     * @param prices historical prices
+     * @param from   start of the historical window (rolled back to a trading day)
+     * @param to     end of the historical window (rolled back to a trading day)
+     * @return the scenario
+     * @throws IllegalArgumentException if the window is not inside the price history
+     */
+    public static Scenario historicalReplay(String name, PriceMatrix prices, LocalDate from, LocalDate to) {
+        int start = prices.indexOnOrBefore(from);
+        int end = prices.indexOnOrBefore(to);
+        if (start < 0 || end <= start) {
+            throw new IllegalArgumentException("No price history between " + from + " and " + to);
+        }
+        Map<StockName, Double> shocks = new EnumMap<>(StockName.class);
+        for (int i = 0; i < prices.tickerCount(); i++) {
+            double[] c = prices.closes(i);
+            shocks.put(prices.ticker(i), c[end] / c[start] - 1.0);
+        }
+        return new Scenario(name, shocks);
+    }
+
+    /**
+     * Replays the February–March 2020 COVID-19 crash.
+     *
+     * @param prices historical prices covering early 2020
+     * @return the scenario
+     */
+    public static Scenario march2020(PriceMatrix prices) {
+        return historicalReplay("March 2020", prices, MARCH_2020_START, MARCH_2020_END);
+    }
+}
@@ -0,0 +1,109 @@
+package com.javarepowizards.portfoliomanager.services.stress;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.IPortfolioDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Values many scenarios against many portfolios in one batch.
+ *
+ * Holdings are laid out as a users × tickers matrix of market values at the valuation date
+ * and scenarios as a scenarios × tickers matrix of shocks, so every user's P&amp;L under every
+ * scenario is the product of the two. Rows of the product are computed in parallel.
+ */
+public class StressTestEngine {
+
+    private final PriceMatrix prices;
+    private final int valuationDay;
+
+    /**
+     * Creates an engine that values holdings at the closes of a given date.
+     *
+     * @param prices        historical prices
+     * @param valuationDate date whose closes value the holdings (rolled back to a trading day)
+     * @throws IllegalArgumentException if the date is before the price history
+     */
+    public StressTestEngine(PriceMatrix prices, LocalDate valuationDate) {
+        this.prices = prices;
+        this.valuationDay = prices.indexOnOrBefore(valuationDate);
+        if (valuationDay < 0) {
+            throw new IllegalArgumentException("No prices on or before " + valuationDate);
+        }
+    }
+
+    /**
+     * Runs every scenario against every user's holdings from the portfolio store.
+     *
+     * @param portfolioDAO source of all users' holdings
+     * @param scenarios    the scenarios to evaluate
+     * @return P&amp;L per user and scenario
+     * @throws SQLException if the holdings cannot be read
+     */
+    public StressTestResult runForAllUsers(IPortfolioDAO portfolioDAO, List<Scenario> scenarios)
+            throws SQLException {
+        return run(portfolioDAO.getHoldingsForAllUsers(), scenarios);
+    }
+
+    /**
+     * Runs every scenario against the given holdings.
+     * Holdings in tickers without price data are valued at zero.
+     *
+     * @param holdingsByUser holdings keyed by user ID
+     * @param scenarios      the scenarios to evaluate
+     * @return P&amp;L per user and scenario
+     */
+    public StressTestResult run(Map<Integer, List<PortfolioEntry>> holdingsByUser, List<Scenario> scenarios) {
+        int n = prices.tickerCount();
+        int users = holdingsByUser.size();
+
+        // users × tickers matrix of market values
+        int[] userIds = new int[users];
+        double[][] exposure = new double[users][n];
+        int u = 0;
+        for (Map.Entry<Integer, List<PortfolioEntry>> e : holdingsByUser.entrySet()) {
+            userIds[u] = e.getKey();
+            for (PortfolioEntry entry : e.getValue()) {
+                int i = prices.indexOf(entry.getStock());
+                if (i >= 0) {
+                    exposure[u][i] += entry.getQuantity() * prices.closes(i)[valuationDay];
+                }
+            }
+            u++;
+        }
+
+        // scenarios × tickers matrix of shocks
+        double[][] shocks = new double[scenarios.size()][n];
+        for (int s = 0; s < scenarios.size(); s++) {
+            for (int i = 0; i < n; i++) {
+                shocks[s][i] = scenarios.get(s).shock(prices.ticker(i));
+            }
+        }
+
+        double[] marketValue = new double[users];
+        double[][] pnl = new double[users][scenarios.size()];
+        IntStream.range(0, users).parallel().forEach(row -> {
+            double[] x = exposure[row];
+            double value = 0.0;
+            for (int i = 0; i < n; i++) {
+                value += x[i];
+            }
+            marketValue[row] = value;
+            for (int s = 0; s < shocks.length; s++) {
+                double[] shock = shocks[s];
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += x[i] * shock[i];
+                }
+                pnl[row][s] = sum;
+            }
+        });
+
+        return new StressTestResult(userIds, List.copyOf(scenarios), marketValue, pnl);
+    }
+}
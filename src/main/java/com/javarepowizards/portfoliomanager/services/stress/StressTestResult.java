@@ -0,0 +1,65 @@
+package com.javarepowizards.portfoliomanager.services.stress;
+
+import java.util.List;
+
+/**
+ * Profit and loss of every user's holdings under every scenario.
+ * Row {@code u} of each array belongs to {@code userIds[u]}, and column {@code s} of
+ * {@code pnl} to {@code scenarios.get(s)}.
+ *
+ * @param userIds     user of each row
+ * @param scenarios   scenario of each column
+ * @param marketValue value of each user's holdings before any shock
+ * @param pnl         change in holdings value for each user and scenario
+ */
+public record StressTestResult(int[] userIds,
+                               List<Scenario> scenarios,
+                               double[] marketValue,
+                               double[][] pnl) {
+
+    /**
+     * Returns the row holding a user's results.
+     *
+     * @param userId the user
+     * @return the row index, or -1 if the user had no holdings
+     */
+    public int rowOf(int userId) {
+        for (int u = 0; u < userIds.length; u++) {
+            if (userIds[u] == userId) {
+                return u;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the scenario that hurts a user most.
+     *
+     * @param row the user's row
+     * @return index of the scenario with the lowest P&amp;L
+     */
+    public int worstScenario(int row) {
+        double[] p = pnl[row];
+        int worst = 0;
+        for (int s = 1; s < p.length; s++) {
+            if (p[s] < p[worst]) {
+                worst = s;
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Returns the combined P&amp;L of all users under one scenario.
+     *
+     * @param scenario the scenario's column
+     * @return the total change in holdings value
+     */
+    public double totalPnl(int scenario) {
+        double sum = 0.0;
+        for (double[] row : pnl) {
+            sum += row[scenario];
+        }
+        return sum;
+    }
+}
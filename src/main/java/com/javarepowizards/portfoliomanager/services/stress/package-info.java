@@ -0,0 +1,5 @@
+/**
+ * Services for stress testing portfolios against market scenarios.
+ * Contains scenario definitions and the batch engine that values them across all users.
+ */
+package com.javarepowizards.portfoliomanager.services.stress;
@@ -0,0 +1,34 @@
+package com.javarepowizards.portfoliomanager.services.trading;
+
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeResult;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executes trade orders against user holdings and cash balances.
+ * Every order is applied all-or-nothing and its balance check happens in the same
+ * transaction as its debit, so concurrent orders cannot overdraw an account.
+ */
+public interface ITradeService {
+
+    /**
+     * Queues an order for execution.
+     *
+     * @param order the order to execute
+     * @return a future completed with the result once the order is committed or rejected,
+     *         or completed exceptionally with an {@link SQLException} if it could not be applied
+     * @throws IllegalStateException if the service has been closed
+     */
+    CompletableFuture<TradeResult> submit(TradeOrder order);
+
+    /**
+     * Executes an order and waits for its result.
+     *
+     * @param order the order to execute
+     * @return the result of the order
+     * @throws SQLException if the order could not be applied or the wait was interrupted
+     */
+    TradeResult execute(TradeOrder order) throws SQLException;
+}
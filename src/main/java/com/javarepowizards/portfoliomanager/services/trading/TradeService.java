@@ -0,0 +1,209 @@
+package com.javarepowizards.portfoliomanager.services.trading;
+
+import com.javarepowizards.portfoliomanager.dao.trade.ITradeDAO;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeResult;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Default {@link ITradeService}.
+ * Orders are queued and applied by a single writer thread, which takes every order waiting
+ * when it wakes up (up to a maximum batch size) and applies them in one transaction.
+ * Under load many orders then share a commit, and its fsync, instead of paying for one each.
+ * If a batch fails as a whole, its orders are retried one at a time so that a single
+ * bad order cannot fail the orders batched with it.
+ * After each commit, and before any of its futures complete, the service reports every
+ * user whose holdings or balance changed, so caches of them can be refreshed.
+ */
+public class TradeService implements ITradeService, AutoCloseable {
+
+    /** Most orders applied in one transaction by default. */
+    public static final int DEFAULT_MAX_BATCH = 64;
+
+    private static final Pending STOP = new Pending(null, null);
+
+    private final ITradeDAO tradeDAO;
+    private final int maxBatch;
+    private final IntConsumer onPortfolioChanged;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong orders = new AtomicLong();
+    private boolean closed;
+
+    /**
+     * Creates a trade service with the default batch size and starts its writer thread.
+     *
+     * @param tradeDAO DAO that applies batches of orders
+     */
+    public TradeService(ITradeDAO tradeDAO) {
+        this(tradeDAO, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * Creates a trade service and starts its writer thread.
+     *
+     * @param tradeDAO DAO that applies batches of orders
+     * @param maxBatch most orders applied in one transaction
+     * @throws IllegalArgumentException if {@code maxBatch} is not positive
+     */
+    public TradeService(ITradeDAO tradeDAO, int maxBatch) {
+        this(tradeDAO, maxBatch, userId -> { });
+    }
+
+    /**
+     * Creates a trade service that reports changed portfolios and starts its writer thread.
+     *
+     * @param tradeDAO           DAO that applies batches of orders
+     * @param maxBatch           most orders applied in one transaction
+     * @param onPortfolioChanged called on the writer thread with the ID of each user whose order was executed
+     * @throws IllegalArgumentException if {@code maxBatch} is not positive
+     */
+    public TradeService(ITradeDAO tradeDAO, int maxBatch, IntConsumer onPortfolioChanged) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        }
+        this.tradeDAO = tradeDAO;
+        this.maxBatch = maxBatch;
+        this.onPortfolioChanged = onPortfolioChanged;
+        this.writer = new Thread(this::drain, "trade-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public CompletableFuture<TradeResult> submit(TradeOrder order) {
+        Pending pending = new Pending(order, new CompletableFuture<>());
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("TradeService is closed");
+            }
+            queue.add(pending);
+        }
+        return pending.result;
+    }
+
+    @Override
+    public TradeResult execute(TradeOrder order) throws SQLException {
+        try {
+            return submit(order).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a trade", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new SQLException("Trade failed", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the number of transactions committed so far.
+     *
+     * @return the commit count
+     */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * Returns the number of orders applied so far, whether executed or rejected.
+     *
+     * @return the order count
+     */
+    public long getOrderCount() {
+        return orders.get();
+    }
+
+    /**
+     * Stops accepting orders, applies those already queued and stops the writer thread.
+     * If interrupted while waiting for the queue to drain, returns with the interrupt flag
+     * set; the writer still finishes the queued orders in the background.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            boolean stop = batch.remove(STOP);
+            if (!batch.isEmpty()) {
+                apply(batch);
+            }
+            batch.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    private void apply(List<Pending> batch) {
+        List<TradeOrder> batchOrders = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            batchOrders.add(p.order);
+        }
+        List<TradeResult> results;
+        try {
+            results = tradeDAO.executeBatch(batchOrders);
+        } catch (SQLException | RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            for (Pending p : batch) {
+                apply(List.of(p));
+            }
+            return;
+        }
+
+        commits.incrementAndGet();
+        orders.addAndGet(results.size());
+        try {
+            results.stream()
+                    .filter(TradeResult::executed)
+                    .mapToInt(r -> r.order().userId())
+                    .distinct()
+                    .forEach(onPortfolioChanged);
+        } catch (RuntimeException e) {
+            // the trades are committed; a failing listener must not stop the writer thread
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(results.get(i));
+        }
+    }
+
+    /**
+     * A queued order and the future that receives its result.
+     */
+    private record Pending(TradeOrder order, CompletableFuture<TradeResult> result) {
+    }
+}
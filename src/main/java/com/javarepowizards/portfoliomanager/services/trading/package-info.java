@@ -0,0 +1,5 @@
+/**
+ * Trade execution services.
+ * Applies buy, sell and basket orders atomically, batching concurrent orders into group commits.
+ */
+package com.javarepowizards.portfoliomanager.services.trading;
@@ -0,0 +1,18 @@
+package com.javarepowizards.portfoliomanager.services.utility;
+
+/**
+ * The primitive-column operations behind {@link Kernels}.
+ * Every range is half-open, {@code [from, to)}.
+ */
+interface KernelOps {
+
+    void returns(double[] closes, double[] out, int from, int to);
+
+    double sum(double[] a, int from, int to);
+
+    double sumOfSquares(double[] a, int from, int to);
+
+    double dot(double[] a, double[] b, int from, int to);
+
+    double centredDot(double[] a, double meanA, double[] b, double meanB, int from, int to);
+}
@@ -0,0 +1,135 @@
+package com.javarepowizards.portfoliomanager.services.utility;
+
+/**
+ * Numeric kernels over primitive {@code double} columns, shared by the analytics services.
+ *
+ * When the {@code jdk.incubator.vector} module is resolved at run time (the build adds it
+ * with {@code --add-modules}), the kernels run on the Vector API; otherwise, or when the
+ * {@code portfoliomanager.kernels} system property is set to {@code scalar}, they fall back
+ * to plain loops. Both give the same results up to floating-point summation order.
+ * Every range is half-open, {@code [from, to)}.
+ */
+public final class Kernels {
+
+    private static final KernelOps OPS = select();
+
+    private Kernels() { }    // static helpers only
+
+    private static KernelOps select() {
+        if ("scalar".equals(System.getProperty("portfoliomanager.kernels"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new ScalarKernels();
+        }
+        try {
+            return new VectorKernels();
+        } catch (LinkageError e) {
+            return new ScalarKernels();
+        }
+    }
+
+    /**
+     * Tells whether the kernels are running on the Vector API.
+     *
+     * @return true if vectorised, false if using the scalar fallback
+     */
+    public static boolean isVectorised() {
+        return !(OPS instanceof ScalarKernels);
+    }
+
+    /**
+     * Computes simple daily returns {@code out[d] = (closes[d] - closes[d-1]) / closes[d-1]}.
+     *
+     * @param closes closing prices
+     * @param out    destination, may be the same length as {@code closes}
+     * @param from   first day to compute, at least 1
+     * @param to     day after the last one to compute
+     */
+    public static void returns(double[] closes, double[] out, int from, int to) {
+        OPS.returns(closes, out, from, to);
+    }
+
+    /**
+     * Sums a range of a column.
+     *
+     * @param a    the column
+     * @param from first index
+     * @param to   index after the last
+     * @return the sum
+     */
+    public static double sum(double[] a, int from, int to) {
+        return OPS.sum(a, from, to);
+    }
+
+    /**
+     * Sums the squares of a range of a column.
+     *
+     * @param a    the column
+     * @param from first index
+     * @param to   index after the last
+     * @return the sum of squares
+     */
+    public static double sumOfSquares(double[] a, int from, int to) {
+        return OPS.sumOfSquares(a, from, to);
+    }
+
+    /**
+     * Computes the dot product of two columns over a range.
+     *
+     * @param a    first column
+     * @param b    second column
+     * @param from first index
+     * @param to   index after the last
+     * @return the dot product
+     */
+    public static double dot(double[] a, double[] b, int from, int to) {
+        return OPS.dot(a, b, from, to);
+    }
+
+    /**
+     * Sums {@code (a[i] - meanA) * (b[i] - meanB)} over a range, the numerator of a covariance.
+     * Pass the same column twice for the sum of squared deviations.
+     *
+     * @param a     first column
+     * @param meanA value subtracted from {@code a}
+     * @param b     second column
+     * @param meanB value subtracted from {@code b}
+     * @param from  first index
+     * @param to    index after the last
+     * @return the centred cross sum
+     */
+    public static double centredDot(double[] a, double meanA, double[] b, double meanB, int from, int to) {
+        return OPS.centredDot(a, meanA, b, meanB, from, to);
+    }
+
+    /**
+     * Computes the sample covariance matrix (divided by {@code n - 1}) of many columns over a range.
+     * Means are taken first and deviations summed in a second pass, which avoids the
+     * cancellation of the one-pass {@code E[xy] - E[x]E[y]} form.
+     *
+     * @param columns one array per variable
+     * @param from    first index
+     * @param to      index after the last; at least two values are needed
+     * @return the symmetric covariance matrix
+     * @throws IllegalArgumentException if the range holds fewer than two values
+     */
+    public static double[][] covariance(double[][] columns, int from, int to) {
+        int n = to - from;
+        if (n < 2) {
+            throw new IllegalArgumentException("Covariance needs at least two observations");
+        }
+        int k = columns.length;
+        double[] means = new double[k];
+        for (int i = 0; i < k; i++) {
+            means[i] = sum(columns[i], from, to) / n;
+        }
+        double[][] cov = new double[k][k];
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j <= i; j++) {
+                double c = centredDot(columns[i], means[i], columns[j], means[j], from, to) / (n - 1);
+                cov[i][j] = c;
+                cov[j][i] = c;
+            }
+        }
+        return cov;
+    }
+}
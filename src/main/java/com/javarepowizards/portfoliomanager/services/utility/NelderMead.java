@@ -0,0 +1,123 @@
+package com.javarepowizards.portfoliomanager.services.utility;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Derivative-free minimiser using the Nelder–Mead simplex method.
+ * Suited to small, noisy or non-smooth objectives such as the fit of a simulated
+ * distribution to history, where gradients are unavailable.
+ */
+public final class NelderMead {
+
+    private NelderMead() { }    // static helpers only
+
+    /**
+     * Minimises an objective starting from the given point.
+     * The initial simplex is the start point plus one vertex displaced by {@code step[i]}
+     * along each axis. The search stops once the objective values across the simplex differ
+     * by less than {@code tolerance} or after {@code maxEvaluations} calls.
+     *
+     * @param objective      function to minimise; it must not modify its argument
+     * @param start          starting point
+     * @param step           initial displacement along each axis
+     * @param tolerance      spread of simplex values at which to stop
+     * @param maxEvaluations upper bound on calls to the objective
+     * @return the best point found
+     */
+    public static double[] minimize(ToDoubleFunction<double[]> objective, double[] start, double[] step,
+                                    double tolerance, int maxEvaluations) {
+        int n = start.length;
+        double[][] simplex = new double[n + 1][];
+        double[] values = new double[n + 1];
+        simplex[0] = start.clone();
+        for (int i = 0; i < n; i++) {
+            simplex[i + 1] = start.clone();
+            simplex[i + 1][i] += step[i];
+        }
+        for (int i = 0; i <= n; i++) {
+            values[i] = objective.applyAsDouble(simplex[i]);
+        }
+        int evaluations = n + 1;
+
+        Integer[] order = new Integer[n + 1];
+        double[] centroid = new double[n];
+        while (evaluations < maxEvaluations) {
+            for (int i = 0; i <= n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+            int best = order[0];
+            int worst = order[n];
+            int secondWorst = order[n - 1];
+            if (values[worst] - values[best] < tolerance) {
+                break;
+            }
+
+            Arrays.fill(centroid, 0.0);
+            for (int i = 0; i <= n; i++) {
+                if (i != worst) {
+                    for (int j = 0; j < n; j++) {
+                        centroid[j] += simplex[i][j] / n;
+                    }
+                }
+            }
+
+            double[] reflected = along(centroid, simplex[worst], -1.0);
+            double fr = objective.applyAsDouble(reflected);
+            evaluations++;
+
+            if (fr < values[best]) {
+                double[] expanded = along(centroid, simplex[worst], -2.0);
+                double fe = objective.applyAsDouble(expanded);
+                evaluations++;
+                if (fe < fr) {
+                    simplex[worst] = expanded;
+                    values[worst] = fe;
+                } else {
+                    simplex[worst] = reflected;
+                    values[worst] = fr;
+                }
+            } else if (fr < values[secondWorst]) {
+                simplex[worst] = reflected;
+                values[worst] = fr;
+            } else {
+                // contract towards the better of the worst vertex and its reflection
+                boolean outside = fr < values[worst];
+                double[] contracted = along(centroid, outside ? reflected : simplex[worst], 0.5);
+                double fc = objective.applyAsDouble(contracted);
+                evaluations++;
+                if (fc < Math.min(fr, values[worst])) {
+                    simplex[worst] = contracted;
+                    values[worst] = fc;
+                } else {
+                    // shrink every vertex halfway towards the best one
+                    for (int i = 0; i <= n; i++) {
+                        if (i != best) {
+                            simplex[i] = along(simplex[best], simplex[i], 0.5);
+                            values[i] = objective.applyAsDouble(simplex[i]);
+                            evaluations++;
+                        }
+                    }
+                }
+            }
+        }
+
+        int best = 0;
+        for (int i = 1; i <= n; i++) {
+            if (values[i] < values[best]) {
+                best = i;
+            }
+        }
+        return simplex[best];
+    }
+
+    /** Returns {@code from + t * (to - from)}. */
+    private static double[] along(double[] from, double[] to, double t) {
+        double[] out = new double[from.length];
+        for (int i = 0; i < from.length; i++) {
+            out[i] = from[i] + t * (to[i] - from[i]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,271 @@
+package com.javarepowizards.portfoliomanager.services.utility;
+
+import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.StockData;
+import com.javarepowizards.portfoliomanager.models.StockName;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Closing prices for many tickers aligned on a common trading calendar.
+ * Each ticker's closes and daily simple returns are stored as primitive columns
+ * indexed by day, so analytics can run as tight loops without boxing or date lookups.
+ *
+ * Days on which a ticker did not trade carry its previous close forward.
+ * Tickers with no closes at all are left out, and the calendar starts on the
+ * first day every included ticker has a price.
+ * Instances are immutable and safe to share between threads; the arrays returned
+ * by {@link #closes(int)} and {@link #returns(int)} must be treated as read-only.
+ */
+public final class PriceMatrix {
+
+    private final LocalDate[] dates;
+    private final long[] epochDays;
+    private final StockName[] tickers;
+    private final Map<StockName, Integer> tickerIndex;
+    private final double[][] closes;
+    private final double[][] returns;
+    private final double[][] cumulativeReturns;
+
+    private PriceMatrix(LocalDate[] dates, StockName[] tickers, double[][] closes) {
+        this.dates = dates;
+        this.tickers = tickers;
+        this.closes = closes;
+
+        this.epochDays = new long[dates.length];
+        for (int d = 0; d < dates.length; d++) {
+            epochDays[d] = dates[d].toEpochDay();
+        }
+
+        this.tickerIndex = new HashMap<>();
+        for (int i = 0; i < tickers.length; i++) {
+            tickerIndex.put(tickers[i], i);
+        }
+
+        // returns[i][d] is the simple return from day d-1 to day d; day 0 has none.
+        // cumulativeReturns[i][d] is the sum of returns[i][1..d], so any window sum is one subtraction.
+        this.returns = new double[tickers.length][dates.length];
+        this.cumulativeReturns = new double[tickers.length][dates.length];
+        for (int i = 0; i < tickers.length; i++) {
+            double[] r = returns[i];
+            double[] cr = cumulativeReturns[i];
+            Kernels.returns(closes[i], r, 1, dates.length);
+            for (int d = 1; d < r.length; d++) {
+                cr[d] = cr[d - 1] + r[d];
+            }
+        }
+    }
+
+    /**
+     * Loads every ticker known to {@link StockName} from the given DAO.
+     *
+     * @param stockDAO source of historical stock data
+     * @return the aligned price matrix
+     */
+    public static PriceMatrix load(IStockDAO stockDAO) {
+        return load(stockDAO, Arrays.asList(StockName.values()));
+    }
+
+    /**
+     * Loads the given tickers from the DAO and aligns them on the union of their trading days.
+     *
+     * @param stockDAO source of historical stock data
+     * @param wanted   tickers to include; those without any closing prices are skipped
+     * @return the aligned price matrix
+     * @throws IllegalArgumentException if none of the tickers have price data
+     */
+    public static PriceMatrix load(IStockDAO stockDAO, List<StockName> wanted) {
+        List<StockName> included = new ArrayList<>();
+        List<Map<LocalDate, Double>> series = new ArrayList<>();
+        TreeSet<LocalDate> calendar = new TreeSet<>();
+        LocalDate commonStart = LocalDate.MIN;
+
+        for (StockName ticker : wanted) {
+            Map<LocalDate, Double> byDate = new HashMap<>();
+            LocalDate first = null;
+            for (StockData sd : stockDAO.getStockData(ticker)) {
+                if (sd.getClose() == null) {
+                    continue;
+                }
+                byDate.put(sd.getDate(), sd.getClose());
+                if (first == null || sd.getDate().isBefore(first)) {
+                    first = sd.getDate();
+                }
+            }
+            if (first == null) {
+                continue;
+            }
+            included.add(ticker);
+            series.add(byDate);
+            calendar.addAll(byDate.keySet());
+            if (first.isAfter(commonStart)) {
+                commonStart = first;
+            }
+        }
+        if (included.isEmpty()) {
+            throw new IllegalArgumentException("No price data for any of " + wanted);
+        }
+
+        LocalDate[] dates = calendar.tailSet(commonStart, true).toArray(new LocalDate[0]);
+        double[][] closes = new double[included.size()][dates.length];
+        for (int i = 0; i < included.size(); i++) {
+            Map<LocalDate, Double> byDate = series.get(i);
+            double last = Double.NaN;
+            for (int d = 0; d < dates.length; d++) {
+                Double c = byDate.get(dates[d]);
+                if (c != null) {
+                    last = c;
+                }
+                closes[i][d] = last;
+            }
+        }
+        return new PriceMatrix(dates, included.toArray(new StockName[0]), closes);
+    }
+
+    /**
+     * Builds a matrix directly from already-aligned columns, mainly for tests.
+     *
+     * @param dates   trading days in ascending order
+     * @param tickers tickers, one per column
+     * @param closes  closes[i][d] is ticker i's close on day d
+     * @return the price matrix
+     * @throws IllegalArgumentException if the dimensions do not line up
+     */
+    public static PriceMatrix of(List<LocalDate> dates, List<StockName> tickers, double[][] closes) {
+        if (closes.length != tickers.size()) {
+            throw new IllegalArgumentException("One close column is required per ticker");
+        }
+        for (double[] column : closes) {
+            if (column.length != dates.size()) {
+                throw new IllegalArgumentException("Every close column must have one value per date");
+            }
+        }
+        double[][] copy = new double[closes.length][];
+        for (int i = 0; i < closes.length; i++) {
+            copy[i] = closes[i].clone();
+        }
+        return new PriceMatrix(dates.toArray(new LocalDate[0]), tickers.toArray(new StockName[0]), copy);
+    }
+
+    /**
+     * Returns the number of trading days in the calendar.
+     *
+     * @return number of days
+     */
+    public int days() {
+        return dates.length;
+    }
+
+    /**
+     * Returns the number of tickers that have price data.
+     *
+     * @return number of ticker columns
+     */
+    public int tickerCount() {
+        return tickers.length;
+    }
+
+    /**
+     * Returns the date of a trading day.
+     *
+     * @param day day index
+     * @return the date of that trading day
+     */
+    public LocalDate date(int day) {
+        return dates[day];
+    }
+
+    /**
+     * Returns the ticker stored in a column.
+     *
+     * @param index column index
+     * @return the ticker stored in that column
+     */
+    public StockName ticker(int index) {
+        return tickers[index];
+    }
+
+    /**
+     * Returns the included tickers in column order.
+     *
+     * @return unmodifiable list of tickers
+     */
+    public List<StockName> tickers() {
+        return List.of(tickers);
+    }
+
+    /**
+     * Looks up the column holding a ticker.
+     *
+     * @param ticker a stock symbol
+     * @return its column index, or -1 if the ticker has no price data
+     */
+    public int indexOf(StockName ticker) {
+        Integer i = tickerIndex.get(ticker);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Returns a ticker's closing prices by day.
+     *
+     * @param index column index
+     * @return the close column (read-only)
+     */
+    public double[] closes(int index) {
+        return closes[index];
+    }
+
+    /**
+     * Returns a ticker's daily simple returns by day, with day 0 set to zero.
+     *
+     * @param index column index
+     * @return the return column (read-only)
+     */
+    public double[] returns(int index) {
+        return returns[index];
+    }
+
+    /**
+     * Returns the mean daily return of a ticker over days {@code from+1..to}.
+     *
+     * @param index column index
+     * @param from  day before the first return included
+     * @param to    last day included
+     * @return the mean return, or 0 if the window is empty
+     */
+    public double meanReturn(int index, int from, int to) {
+        if (to <= from) {
+            return 0.0;
+        }
+        double[] cr = cumulativeReturns[index];
+        return (cr[to] - cr[from]) / (to - from);
+    }
+
+    /**
+     * Finds the first trading day on or after a date.
+     *
+     * @param date a calendar date
+     * @return the day index, or {@link #days()} if there is none
+     */
+    public int indexOnOrAfter(LocalDate date) {
+        int i = Arrays.binarySearch(epochDays, date.toEpochDay());
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Finds the last trading day on or before a date.
+     *
+     * @param date a calendar date
+     * @return the day index, or -1 if there is none
+     */
+    public int indexOnOrBefore(LocalDate date) {
+        int i = Arrays.binarySearch(epochDays, date.toEpochDay());
+        return i >= 0 ? i : -i - 2;
+    }
+}
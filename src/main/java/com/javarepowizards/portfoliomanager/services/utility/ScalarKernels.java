@@ -0,0 +1,50 @@
+package com.javarepowizards.portfoliomanager.services.utility;
+
+/**
+ * Plain-loop kernels used when the Vector API is not available.
+ */
+final class ScalarKernels implements KernelOps {
+
+    @Override
+    public void returns(double[] closes, double[] out, int from, int to) {
+        for (int d = from; d < to; d++) {
+            out[d] = (closes[d] - closes[d - 1]) / closes[d - 1];
+        }
+    }
+
+    @Override
+    public double sum(double[] a, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++) {
+            s += a[i];
+        }
+        return s;
+    }
+
+    @Override
+    public double sumOfSquares(double[] a, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++) {
+            s += a[i] * a[i];
+        }
+        return s;
+    }
+
+    @Override
+    public double dot(double[] a, double[] b, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    @Override
+    public double centredDot(double[] a, double meanA, double[] b, double meanB, int from, int to) {
+        double s = 0.0;
+        for (int i = from; i < to; i++) {
+            s += (a[i] - meanA) * (b[i] - meanB);
+        }
+        return s;
+    }
+}
@@ -2,7 +2,7 @@
  * Module definition for the Portfolio Manager application.
  */
 module com.javarepowizards.portfoliomanager {
-    // JavaFX
+    // JavaFX; the headless CLI (cli.PortfolioCli) therefore runs from the class path, not as this module
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.web;
@@ -21,6 +21,9 @@ module com.javarepowizards.portfoliomanager {
     requires java.sql;
     requires spring.security.crypto;
 
+    // SIMD kernels; optional, resolved only when added with --add-modules
+    requires static jdk.incubator.vector;
+
     // --- exported packages ---
     exports com.javarepowizards.portfoliomanager;
     exports com.javarepowizards.portfoliomanager.dao;
@@ -32,9 +35,14 @@ module com.javarepowizards.portfoliomanager {
 
     // Services sub-packages
     exports com.javarepowizards.portfoliomanager.services.Auth;
+    exports com.javarepowizards.portfoliomanager.services.backtest;
+    exports com.javarepowizards.portfoliomanager.services.optimisation;
     exports com.javarepowizards.portfoliomanager.services.portfolio;
+    exports com.javarepowizards.portfoliomanager.services.risk;
     exports com.javarepowizards.portfoliomanager.services.session;
     exports com.javarepowizards.portfoliomanager.services.simulation;
+    exports com.javarepowizards.portfoliomanager.services.stress;
+    exports com.javarepowizards.portfoliomanager.services.trading;
     exports com.javarepowizards.portfoliomanager.services.utility;
     exports com.javarepowizards.portfoliomanager.services.watchlist;
 
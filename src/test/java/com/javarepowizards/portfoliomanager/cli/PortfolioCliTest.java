@@ -0,0 +1,138 @@
+package com.javarepowizards.portfoliomanager.cli;
+
+import com.javarepowizards.portfoliomanager.dao.DatabaseConnection;
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.User;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioCliTest {
+
+    @Test
+    void parse_fillsInDefaults() {
+        CliOptions options = CliOptions.parse(new String[]{"risk"});
+
+        assertEquals(ReportCommand.RISK, options.command());
+        assertTrue(options.userId().isEmpty());
+        assertEquals(ReportFormat.JSON, options.format());
+        assertEquals(Path.of("database.db"), options.database());
+        assertNull(options.out());
+        assertEquals(CliOptions.DEFAULT_PATHS, options.paths());
+    }
+
+    @Test
+    void parse_readsEveryOption() {
+        CliOptions options = CliOptions.parse(new String[]{
+                "simulate", "--user", "7", "--format", "csv", "--days", "30", "--paths", "50",
+                "--model", "historical_bootstrap"});
+
+        assertEquals(7, options.userId().getAsInt());
+        assertEquals(ReportFormat.CSV, options.format());
+        assertEquals(30, options.days());
+        assertEquals(50, options.paths());
+        assertEquals("HISTORICAL_BOOTSTRAP", options.model().name());
+    }
+
+    @Test
+    void parse_rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CliOptions.parse(new String[0]));
+        assertThrows(IllegalArgumentException.class, () -> CliOptions.parse(new String[]{"optimise"}));
+        assertThrows(IllegalArgumentException.class, () -> CliOptions.parse(new String[]{"risk", "--user"}));
+        assertThrows(IllegalArgumentException.class, () -> CliOptions.parse(new String[]{"risk", "--paths", "0"}));
+        assertThrows(IllegalArgumentException.class,
+                () -> CliOptions.parse(new String[]{"backtest", "--from", "2023-06-01", "--to", "2023-01-01"}));
+    }
+
+    @Test
+    void formats_keepColumnOrderAndWriteNonFiniteAsNull() throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("user_id", 3);
+        row.put("beta", Double.NaN);
+        row.put("as_of", LocalDate.of(2023, 12, 29));
+
+        StringWriter json = new StringWriter();
+        ReportFormat.JSON.write(List.of(row), json);
+        assertEquals("[{\"user_id\":3,\"beta\":null,\"as_of\":\"2023-12-29\"}]", json.toString().trim());
+
+        StringWriter csv = new StringWriter();
+        ReportFormat.CSV.write(List.of(row), csv);
+        assertEquals(List.of("user_id,beta,as_of", "3,NaN,2023-12-29"), csv.toString().lines().toList());
+    }
+
+    @Test
+    void main_runsReportsWithoutJavaFxOnTheClassPath(@TempDir Path dir) throws Exception {
+        Path db = dir.resolve("cli.db");
+        DatabaseConnection connection = new DatabaseConnection("jdbc:sqlite:" + db);
+        UserDAO userDAO = new UserDAO(connection);
+        User user = new User("cli", "cli@example.com", "hash");
+        userDAO.createUser(user, 5_000.0);
+        new PortfolioDAO(connection).upsertHolding(user.getUserId(), StockName.BHP_AX, 100, 4_500.0);
+        connection.getConnection().close();
+
+        Process risk = launch(dir, "risk", "--db", db.toString(), "--out", dir.resolve("risk.json").toString());
+        assertEquals(0, risk.waitFor(60, TimeUnit.SECONDS) ? risk.exitValue() : -1,
+                new String(risk.getErrorStream().readAllBytes(), StandardCharsets.UTF_8));
+        JSONArray rows = new JSONArray(Files.readString(dir.resolve("risk.json")));
+        assertEquals(1, rows.length());
+        JSONObject row = rows.getJSONObject(0);
+        assertEquals(user.getUserId(), row.getInt("user_id"));
+        assertTrue(row.getDouble("value_at_risk") > 0.0);
+
+        Process simulate = launch(dir, "simulate", "--db", db.toString(), "--user", String.valueOf(user.getUserId()),
+                "--format", "csv", "--days", "20", "--paths", "200");
+        String csv = new String(simulate.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(simulate.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, simulate.exitValue());
+        List<String> lines = csv.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("user_id,model,days,paths"));
+        assertTrue(lines.get(1).startsWith(user.getUserId() + ",momentum_gbm,20,200,"));
+
+        Process missing = launch(dir, "risk", "--db", db.toString(), "--user", "9999");
+        assertTrue(missing.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(2, missing.exitValue());
+    }
+
+    /**
+     * Starts the CLI in a fresh JVM whose class path is this test's, minus every JavaFX library,
+     * so the run fails if the headless path loads any JavaFX class.
+     */
+    private static Process launch(Path dir, String... args) throws IOException {
+        // under surefire the application is on the module path and the JDBC driver on the class path
+        String path = System.getProperty("jdk.module.path", "") + File.pathSeparator
+                + System.getProperty("java.class.path");
+        String classPath = Arrays.stream(path.split(File.pathSeparator))
+                .filter(entry -> !entry.isEmpty())
+                .filter(entry -> !entry.contains("javafx"))
+                .collect(Collectors.joining(File.pathSeparator));
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(classPath);
+        command.add(PortfolioCli.class.getName());
+        command.addAll(List.of(args));
+        return new ProcessBuilder(command).directory(dir.toFile()).start();
+    }
+}
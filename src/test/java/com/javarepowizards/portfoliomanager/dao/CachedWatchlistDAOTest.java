@@ -0,0 +1,108 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import com.javarepowizards.portfoliomanager.dao.watchlist.CachedWatchlistDAO;
+import com.javarepowizards.portfoliomanager.dao.watchlist.WatchlistDAO;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedWatchlistDAOTest {
+
+    private static final int USER = 1;
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+    private WatchlistDAO stored;
+    private CachedWatchlistDAO cached;
+    private final AtomicInteger notifications = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("watchlist.db"));
+        stored = new WatchlistDAO(db);
+        cached = new CachedWatchlistDAO(stored);
+        cached.addListener(notifications::incrementAndGet);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        db.close();
+    }
+
+    /** Number of statements prepared so far, cached or not. */
+    private long statements() {
+        StatementCacheStats stats = db.getStatementCacheStats();
+        return stats.hits() + stats.misses();
+    }
+
+    @Test
+    void contains_isAnsweredFromMemoryAfterTheFirstLoad() throws SQLException {
+        stored.addForUser(USER, StockName.WES_AX);
+
+        assertTrue(cached.contains(USER, StockName.WES_AX));
+        long before = statements();
+        for (StockName symbol : StockName.values()) {
+            assertEquals(symbol == StockName.WES_AX, cached.contains(USER, symbol));
+        }
+        assertEquals(List.of(StockName.WES_AX), cached.listForUser(USER));
+        assertEquals(before, statements());
+    }
+
+    @Test
+    void batch_isWrittenOnceAndNotifiesOnce() throws SQLException {
+        cached.addForUser(USER, StockName.WES_AX);
+        assertEquals(1, notifications.get());
+
+        cached.updateForUser(USER, List.of(StockName.BHP_AX, StockName.TLS_AX), List.of(StockName.WES_AX));
+        assertEquals(2, notifications.get());
+        List<StockName> expected = List.of(StockName.BHP_AX, StockName.TLS_AX);
+        assertEquals(expected.size(), cached.listForUser(USER).size());
+        assertTrue(cached.listForUser(USER).containsAll(expected));
+        assertTrue(stored.listForUser(USER).containsAll(expected), "the batch reached the database");
+        assertFalse(stored.listForUser(USER).contains(StockName.WES_AX));
+    }
+
+    @Test
+    void writesThatChangeNothing_skipTheDatabaseAndListeners() throws SQLException {
+        cached.addForUser(USER, StockName.WES_AX);
+        int notified = notifications.get();
+        long before = statements();
+
+        cached.addForUser(USER, StockName.WES_AX);
+        cached.removeForUser(USER, StockName.BHP_AX);
+
+        assertEquals(before, statements());
+        assertEquals(notified, notifications.get());
+    }
+
+    @Test
+    void listeners_seeTheUpdatedCache() throws SQLException {
+        AtomicInteger seen = new AtomicInteger(-1);
+        cached.addListener(() -> {
+            try {
+                seen.set(cached.listForUser(USER).size());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        cached.addForUser(USER, StockName.WES_AX);
+        assertEquals(1, seen.get());
+    }
+
+    @Test
+    void overlappingBatch_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> cached.updateForUser(USER, List.of(StockName.WES_AX), List.of(StockName.WES_AX)));
+    }
+}
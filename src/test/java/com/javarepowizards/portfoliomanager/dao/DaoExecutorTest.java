@@ -0,0 +1,88 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import com.javarepowizards.portfoliomanager.dao.watchlist.WatchlistDAO;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DaoExecutorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void supply_runsCallsOnVirtualThreads() throws Exception {
+        try (DaoExecutor executor = new DaoExecutor(2)) {
+            boolean virtual = executor.supply(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS);
+            assertTrue(virtual);
+        }
+    }
+
+    @Test
+    void supply_neverRunsMoreThanMaxConcurrencyCallsAtOnce() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        try (DaoExecutor executor = new DaoExecutor(2)) {
+            for (int i = 0; i < 50; i++) {
+                int v = i;
+                futures.add(executor.supply(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        throw new SQLException(e);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    return v;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i, futures.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        assertTrue(peak.get() <= 2, "peak concurrency was " + peak.get());
+    }
+
+    @Test
+    void supply_completesExceptionallyWithTheSqlException() {
+        try (DaoExecutor executor = new DaoExecutor(1)) {
+            CompletableFuture<Object> future = executor.supply(() -> {
+                throw new SQLException("disk gone");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, e.getCause());
+            assertEquals("disk gone", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new DaoExecutor(0));
+    }
+
+    @Test
+    void asyncDaoMethods_runOnTheSharedExecutor() throws Exception {
+        try (DatabaseConnection db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("async.db"))) {
+            WatchlistDAO dao = new WatchlistDAO(db);
+
+            dao.addForUserAsync(1, StockName.BHP_AX).get(5, TimeUnit.SECONDS);
+            dao.addForUserAsync(1, StockName.WES_AX).get(5, TimeUnit.SECONDS);
+            dao.removeForUserAsync(1, StockName.BHP_AX).get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of(StockName.WES_AX), dao.listForUserAsync(1).get(5, TimeUnit.SECONDS));
+        }
+    }
+}
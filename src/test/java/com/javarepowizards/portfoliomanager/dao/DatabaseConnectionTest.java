@@ -0,0 +1,163 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseConnectionTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("pool.db"), 3);
+        db.write(c -> {
+            try (Statement s = c.createStatement()) {
+                return s.executeUpdate("CREATE TABLE t (v INTEGER)");
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        db.close();
+    }
+
+    private static int count(Connection c) throws SQLException {
+        try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM t")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void fileDatabase_usesWriteAheadLog() throws SQLException {
+        String mode = db.read(c -> {
+            try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery("PRAGMA journal_mode")) {
+                rs.next();
+                return rs.getString(1);
+            }
+        });
+        assertEquals("wal", mode);
+    }
+
+    @Test
+    void readers_doNotWaitForAnOpenWriteTransaction() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try {
+                db.write(c -> {
+                    c.setAutoCommit(false);
+                    try (Statement s = c.createStatement()) {
+                        s.executeUpdate("INSERT INTO t VALUES (1)");
+                        inserted.countDown();
+                        release.await();
+                        c.commit();
+                    } catch (InterruptedException e) {
+                        throw new SQLException(e);
+                    } finally {
+                        c.setAutoCommit(true);
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertTrue(inserted.await(5, TimeUnit.SECONDS));
+        int during = CompletableFuture.supplyAsync(() -> {
+            try {
+                return db.read(DatabaseConnectionTest::count);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }).get(2, TimeUnit.SECONDS);
+        assertEquals(0, during, "readers see the last committed state");
+
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+        assertEquals(1, db.read(DatabaseConnectionTest::count));
+    }
+
+    @Test
+    void readInsideWrite_seesTheWritersUncommittedRows() throws SQLException {
+        int seen = db.write(c -> {
+            c.setAutoCommit(false);
+            try (Statement s = c.createStatement()) {
+                s.executeUpdate("INSERT INTO t VALUES (1)");
+                return db.read(DatabaseConnectionTest::count);
+            } finally {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+        });
+        assertEquals(1, seen);
+    }
+
+    @Test
+    void readers_areReadOnly() {
+        assertThrows(SQLException.class, () -> db.read(c -> {
+            try (Statement s = c.createStatement()) {
+                return s.executeUpdate("INSERT INTO t VALUES (1)");
+            }
+        }));
+    }
+
+    @Test
+    void concurrentWritesAndReads_loseNothing() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int v = i;
+                futures.add(pool.submit(() -> db.write(c -> {
+                    try (Statement s = c.createStatement()) {
+                        return s.executeUpdate("INSERT INTO t VALUES (" + v + ")");
+                    }
+                })));
+                futures.add(pool.submit(() -> db.read(DatabaseConnectionTest::count)));
+            }
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(200, db.read(DatabaseConnectionTest::count));
+    }
+
+    @Test
+    void inMemoryDatabase_readsAndWritesShareOneConnection() throws SQLException {
+        try (DatabaseConnection memory = new DatabaseConnection("jdbc:sqlite::memory:")) {
+            memory.write(c -> {
+                try (Statement s = c.createStatement()) {
+                    s.executeUpdate("CREATE TABLE t (v INTEGER)");
+                    return s.executeUpdate("INSERT INTO t VALUES (1)");
+                }
+            });
+            assertEquals(1, memory.read(DatabaseConnectionTest::count));
+        }
+    }
+}
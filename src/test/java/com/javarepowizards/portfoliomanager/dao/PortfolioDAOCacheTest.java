@@ -0,0 +1,131 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.trade.TradeDAO;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.User;
+import com.javarepowizards.portfoliomanager.services.session.Session;
+import com.javarepowizards.portfoliomanager.services.trading.TradeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioDAOCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+    private PortfolioDAO portfolioDAO;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("cache.db"));
+        UserDAO userDAO = new UserDAO(db);
+        portfolioDAO = new PortfolioDAO(db);
+        User user = new User("cached", "cached@example.com", "hash");
+        userDAO.createUser(user, 1_000.0);
+        userId = user.getUserId();
+        Session.setCurrentUser(user);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        Session.setCurrentUser(null);
+        db.close();
+    }
+
+    /** Number of statements prepared so far, cached or not. */
+    private long statements() {
+        StatementCacheStats stats = db.getStatementCacheStats();
+        return stats.hits() + stats.misses();
+    }
+
+    private static Map<StockName, Double> values(List<PortfolioEntry> holdings) {
+        return holdings.stream().collect(Collectors.toMap(PortfolioEntry::getStock, PortfolioEntry::getMarketValue));
+    }
+
+    /** Asserts that the cached view matches what a DAO with an empty cache reads from the database. */
+    private void assertMatchesDatabase() {
+        PortfolioDAO fresh = new PortfolioDAO(db);
+        Map<StockName, Double> expected = values(fresh.getHoldings());
+        Map<StockName, Double> actual = values(portfolioDAO.getHoldings());
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((stock, value) -> assertEquals(value, actual.get(stock), 1e-9));
+        assertEquals(fresh.getAvailableBalance(), portfolioDAO.getAvailableBalance(), 1e-9);
+    }
+
+    @Test
+    void repeatedReads_doNotQueryTheDatabase() {
+        portfolioDAO.upsertHolding(userId, StockName.BHP_AX, 10, 400.0);
+        portfolioDAO.getHoldings();
+        portfolioDAO.getAvailableBalance();
+
+        long before = statements();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, portfolioDAO.getHoldings().size());
+            assertEquals(1_000.0, portfolioDAO.getAvailableBalance(), 1e-9);
+            assertEquals(1_400.0, portfolioDAO.getTotalPortfolioValue(), 1e-9);
+        }
+        assertEquals(before, statements());
+    }
+
+    @Test
+    void writes_updateTheCacheWithoutReloading() throws SQLException {
+        portfolioDAO.getHoldings();
+        portfolioDAO.getAvailableBalance();
+
+        long before = statements();
+        portfolioDAO.upsertHolding(userId, StockName.BHP_AX, 10, 400.0);
+        portfolioDAO.upsertHolding(userId, StockName.BHP_AX, 10, 500.0);
+        portfolioDAO.upsertHolding(userId, StockName.WES_AX, 2, 100.0);
+        portfolioDAO.deductFromBalance(userId, 1_000.0);
+        portfolioDAO.sellHolding(userId, StockName.WES_AX);
+        long writes = statements() - before;
+
+        assertEquals(Map.of(StockName.BHP_AX, 900.0), values(portfolioDAO.getHoldings()));
+        assertEquals(45.0, portfolioDAO.getHoldings().get(0).getPurchasePrice(), 1e-9);
+        assertEquals(100.0, portfolioDAO.getAvailableBalance(), 1e-9);
+        assertEquals(writes, statements() - before, "reads after the writes are served from the cache");
+        assertMatchesDatabase();
+    }
+
+    @Test
+    void invalidate_picksUpChangesMadeElsewhere() throws SQLException {
+        assertEquals(1_000.0, portfolioDAO.getAvailableBalance(), 1e-9);
+        db.write(c -> {
+            try (Statement s = c.createStatement()) {
+                return s.executeUpdate("UPDATE user_balances SET balance = 50 WHERE user_id = " + userId);
+            }
+        });
+        assertEquals(1_000.0, portfolioDAO.getAvailableBalance(), 1e-9);
+
+        portfolioDAO.invalidate(userId);
+        assertEquals(50.0, portfolioDAO.getAvailableBalance(), 1e-9);
+    }
+
+    @Test
+    void trades_invalidateTheCachedPortfolio() throws Exception {
+        portfolioDAO.getHoldings();
+        portfolioDAO.getAvailableBalance();
+        try (TradeService trades = new TradeService(new TradeDAO(db), 8, portfolioDAO::invalidate)) {
+            trades.execute(TradeOrder.buy(userId, StockName.BHP_AX, 5, 20.0));
+        }
+        assertEquals(Map.of(StockName.BHP_AX, 100.0), values(portfolioDAO.getHoldings()));
+        assertEquals(900.0, portfolioDAO.getAvailableBalance(), 1e-9);
+    }
+}
@@ -0,0 +1,129 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTest {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM t WHERE v >= ?";
+    private static final String SUM_SQL = "SELECT COALESCE(SUM(v), 0) FROM t";
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("cache.db"), 1, 2);
+        db.write(c -> {
+            try (Statement s = c.createStatement()) {
+                return s.executeUpdate("CREATE TABLE t (v INTEGER)");
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        db.close();
+    }
+
+    private static int queryInt(Connection c, String sql, Integer param) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            if (param != null) {
+                ps.setInt(1, param);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private int query(String sql, Integer param) throws SQLException {
+        return db.read(c -> queryInt(c, sql, param));
+    }
+
+    private void insert(int v) throws SQLException {
+        db.write(c -> {
+            try (PreparedStatement ps = c.prepareStatement("INSERT INTO t VALUES (?)")) {
+                ps.setInt(1, v);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void repeatedQueries_reuseTheStatement() throws SQLException {
+        for (int i = 0; i < 10; i++) {
+            query(COUNT_SQL, 0);
+        }
+        StatementCacheStats stats = db.getStatementCacheStats();
+        assertEquals(1, stats.misses());
+        assertEquals(9, stats.hits());
+        assertEquals(0.9, stats.hitRate(), 1e-12);
+    }
+
+    @Test
+    void cachedStatements_seeLaterCommits() throws SQLException {
+        assertEquals(0, query(COUNT_SQL, 0));
+        assertEquals(0, query(SUM_SQL, null));
+        insert(5);
+        assertEquals(1, query(COUNT_SQL, 0));
+        assertEquals(5, query(SUM_SQL, null));
+        assertEquals(0, query(COUNT_SQL, 6), "parameters are rebound on reuse");
+    }
+
+    @Test
+    void nestedUseOfTheSameSql_getsItsOwnStatement() throws SQLException {
+        insert(1);
+        insert(2);
+        int total = db.read(c -> {
+            int sum = 0;
+            try (PreparedStatement outer = c.prepareStatement(COUNT_SQL)) {
+                outer.setInt(1, 0);
+                try (ResultSet rs = outer.executeQuery()) {
+                    rs.next();
+                    sum += rs.getInt(1);
+                    sum += queryInt(c, COUNT_SQL, 2);
+                    sum += rs.getInt(1);
+                }
+            }
+            return sum;
+        });
+        assertEquals(2 + 1 + 2, total);
+    }
+
+    @Test
+    void fullCache_evictsTheLeastRecentlyUsedStatement() throws SQLException {
+        query(COUNT_SQL, 0);
+        query(SUM_SQL, null);
+        query("SELECT 1", null);
+        assertEquals(1, db.getStatementCacheStats().evictions());
+
+        query(SUM_SQL, null);
+        assertEquals(1, db.getStatementCacheStats().hits());
+    }
+
+    @Test
+    void closedView_reportsClosed() throws SQLException {
+        boolean closed = db.read(c -> {
+            PreparedStatement ps = c.prepareStatement(SUM_SQL);
+            assertFalse(ps.isClosed());
+            ps.close();
+            return ps.isClosed();
+        });
+        assertTrue(closed);
+    }
+}
@@ -0,0 +1,166 @@
+package com.javarepowizards.portfoliomanager.dao;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioSnapshot;
+import com.javarepowizards.portfoliomanager.dao.trade.TradeDAO;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeRecord;
+import com.javarepowizards.portfoliomanager.models.TradeSide;
+import com.javarepowizards.portfoliomanager.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TradeLedgerTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+    private PortfolioDAO portfolioDAO;
+    private TradeDAO tradeDAO;
+    private final StepClock clock = new StepClock();
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("ledger.db"));
+        UserDAO userDAO = new UserDAO(db);
+        portfolioDAO = new PortfolioDAO(db);
+        User user = new User("ledger", "ledger@example.com", "hash");
+        userDAO.createUser(user, 1_000.0);
+        userId = user.getUserId();
+        tradeDAO = new TradeDAO(db, clock, 3);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        db.close();
+    }
+
+    private void trade(TradeOrder order) throws SQLException {
+        clock.advance();
+        tradeDAO.executeBatch(List.of(order));
+    }
+
+    private int count(String table) throws SQLException {
+        return db.read(c -> {
+            try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
+    }
+
+    private static Map<StockName, Integer> shares(List<PortfolioEntry> holdings) {
+        return holdings.stream().collect(Collectors.toMap(PortfolioEntry::getStock, PortfolioEntry::getAmountHeld));
+    }
+
+    @Test
+    void ledger_recordsExecutedLegsOnly() throws SQLException {
+        trade(TradeOrder.buy(userId, StockName.BHP_AX, 10, 40.0));
+        trade(TradeOrder.buy(userId, StockName.BHP_AX, 1_000, 40.0));     // rejected: not enough cash
+        trade(TradeOrder.sell(userId, StockName.BHP_AX, 4, 45.0));
+
+        List<TradeRecord> trades = tradeDAO.findTrades(userId, Instant.EPOCH, clock.instant().plusMillis(1));
+        assertEquals(2, trades.size());
+        assertEquals(TradeSide.BUY, trades.get(0).side());
+        assertEquals(-400.0, trades.get(0).cashDelta(), 1e-9);
+        assertEquals(TradeSide.SELL, trades.get(1).side());
+        assertTrue(trades.get(0).tradeId() < trades.get(1).tradeId());
+        assertTrue(tradeDAO.findTrades(userId, clock.instant().plusMillis(1), clock.instant().plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    void ledger_isAppendOnly() throws SQLException {
+        trade(TradeOrder.buy(userId, StockName.BHP_AX, 1, 40.0));
+        assertThrows(SQLException.class, () -> db.write(c -> {
+            try (Statement s = c.createStatement()) {
+                return s.executeUpdate("UPDATE trades SET quantity = 2");
+            }
+        }));
+        assertThrows(SQLException.class, () -> db.write(c -> {
+            try (Statement s = c.createStatement()) {
+                return s.executeUpdate("DELETE FROM trades");
+            }
+        }));
+        assertEquals(1, count("trades"));
+    }
+
+    @Test
+    void positionsAsOf_replaysFromTheNearestSnapshot() throws SQLException {
+        // bought before the ledger existed; captured by the opening snapshot
+        portfolioDAO.upsertHolding(userId, StockName.WES_AX, 2, 100.0);
+
+        Instant beforeFirstTrade = clock.instant();
+        trade(TradeOrder.buy(userId, StockName.BHP_AX, 10, 40.0));
+        Instant afterFirstBuy = clock.instant();
+        for (int i = 0; i < 6; i++) {
+            trade(TradeOrder.buy(userId, StockName.BHP_AX, 1, 40.0));
+        }
+        trade(TradeOrder.sell(userId, StockName.BHP_AX, 8, 50.0));
+        Instant afterSell = clock.instant();
+        trade(TradeOrder.sell(userId, StockName.BHP_AX, 8, 50.0));
+
+        assertEquals(1 + 3, count("position_snapshots"), "an opening snapshot, then one every 3 trades");
+        assertTrue(tradeDAO.positionsAsOf(userId, beforeFirstTrade).isEmpty());
+
+        PortfolioSnapshot first = tradeDAO.positionsAsOf(userId, afterFirstBuy).orElseThrow();
+        assertEquals(Map.of(StockName.BHP_AX, 10, StockName.WES_AX, 2), shares(first.getHoldings()));
+        assertEquals(600.0, first.getAvailableBalance(), 1e-9);
+
+        PortfolioSnapshot sold = tradeDAO.positionsAsOf(userId, afterSell).orElseThrow();
+        assertEquals(Map.of(StockName.BHP_AX, 8, StockName.WES_AX, 2), shares(sold.getHoldings()));
+        assertEquals(1_000.0 - 16 * 40.0 + 8 * 50.0, sold.getAvailableBalance(), 1e-9);
+
+        PortfolioSnapshot now = tradeDAO.positionsAsOf(userId, clock.instant()).orElseThrow();
+        List<PortfolioEntry> live = portfolioDAO.getHoldingsForUser(userId);
+        assertEquals(shares(live), shares(now.getHoldings()));
+        assertEquals(Map.of(StockName.WES_AX, 2), shares(now.getHoldings()));
+        assertEquals(1_000.0 - 16 * 40.0 + 16 * 50.0, now.getAvailableBalance(), 1e-9);
+    }
+
+    /**
+     * Clock that moves forward one second each time it is advanced.
+     */
+    private static final class StepClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance() {
+            now = now.plusSeconds(1);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
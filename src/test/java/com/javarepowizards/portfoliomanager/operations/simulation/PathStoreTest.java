@@ -0,0 +1,62 @@
+package com.javarepowizards.portfoliomanager.operations.simulation;
+
+import com.javarepowizards.portfoliomanager.services.simulation.PathStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathStoreTest {
+
+    /** Path p starts at 100, dips to 100 - p on day 1 and ends at 100 + p. */
+    private static PathStore ladder(int paths) {
+        PathStore store = new PathStore(paths, 2);
+        for (int p = 0; p < paths; p++) {
+            store.set(p, 0, 100);
+            store.set(p, 1, 100 - p);
+            store.set(p, 2, 100 + p);
+        }
+        return store;
+    }
+
+    @Test
+    void storesValuesAsFloats() {
+        PathStore store = new PathStore(3, 4);
+        store.set(2, 4, 1234.5);
+
+        assertEquals(3, store.paths());
+        assertEquals(4, store.days());
+        assertEquals(1234.5f, store.get(2, 4));
+        assertEquals(0f, store.get(0, 0));
+    }
+
+    @Test
+    void answersTerminalAndBarrierProbabilities() {
+        PathStore store = ladder(100);
+
+        // paths 51..99 end above 150
+        assertEquals(0.49, store.probabilityEndsAbove(150), 1e-12);
+        // paths 11..99 dip below 90 on day 1
+        assertEquals(0.89, store.probabilityFallsBelow(90), 1e-12);
+        assertEquals(0.0, store.probabilityFallsBelow(0), 1e-12);
+        assertEquals(1.0, store.probabilityAbove(0, 99.5), 1e-12);
+    }
+
+    @Test
+    void describesTheDistributionOnAnyDay() {
+        PathStore store = ladder(100);
+
+        float[] endValues = store.distribution(2);
+        assertEquals(100, endValues.length);
+        assertEquals(100f, endValues[0]);
+        assertEquals(199f, endValues[99]);
+        assertEquals(149.5, store.mean(2), 1e-9);
+        assertEquals(149.0, store.quantile(2, 0.5), 1e-9);
+        assertEquals(1.0, store.quantile(1, 0.0), 1e-9);
+    }
+
+    @Test
+    void rejectsEmptyStores() {
+        assertThrows(IllegalArgumentException.class, () -> new PathStore(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new PathStore(10, 0));
+    }
+}
@@ -2,12 +2,18 @@ package com.javarepowizards.portfoliomanager.operations.simulation;
 
 import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
 import com.javarepowizards.portfoliomanager.dao.stock.StockDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.simulation.BlockBootstrapSimulator;
+import com.javarepowizards.portfoliomanager.services.simulation.PathStore;
 import com.javarepowizards.portfoliomanager.services.simulation.PortfolioSimulation;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,4 +57,84 @@ public class PortfolioSimulationTest {
                         "Each day's portfolio value should equal initial cash")
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void simulatePortfolio_reportsEachDay_andStopsWhenInterrupted() {
+        PortfolioDAO emptyPortfolio = new PortfolioDAO(new ArrayList<>(), 1_000.0);
+        PortfolioSimulation engine = new PortfolioSimulation(
+                emptyPortfolio, null, null, 30, 0.0, 0.0, 0.0);
+
+        // every day (including day 0) is reported once, in order
+        List<Integer> reported = new ArrayList<>();
+        engine.simulatePortfolio((done, total, values) -> {
+            assertEquals(30, total);
+            assertEquals(done + 1, values.size());
+            reported.add(done);
+        });
+        assertEquals(31, reported.size());
+        assertEquals(30, reported.getLast());
+
+        // an interrupted caller stops the run cooperatively
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, engine::simulatePortfolio);
+        } finally {
+            Thread.interrupted(); // clear the flag for other tests
+        }
+    }
+
+    @Test
+    void simulatePortfolio_withBootstrap_replaysHistoricalReturns() {
+        // GIVEN a history in which the stock rises exactly 1% every day
+        LocalDate start = LocalDate.of(2023, 1, 2);
+        List<LocalDate> dates = new ArrayList<>();
+        double[] closes = new double[20];
+        for (int d = 0; d < closes.length; d++) {
+            dates.add(start.plusDays(d));
+            closes[d] = 10.0 * Math.pow(1.01, d);
+        }
+        PriceMatrix prices = PriceMatrix.of(dates, List.of(StockName.WES_AX), new double[][] {closes});
+        BlockBootstrapSimulator bootstrap = new BlockBootstrapSimulator(prices, start, dates.get(19), 3);
+
+        // AND 100 shares plus 500 cash
+        List<PortfolioEntry> holdings = new ArrayList<>(List.of(new PortfolioEntry(StockName.WES_AX, closes[19], 100)));
+        PortfolioDAO portfolio = new PortfolioDAO(holdings, 500.0);
+
+        // WHEN simulating with the bootstrap model
+        List<Double> results = new PortfolioSimulation(portfolio, bootstrap, 5).simulatePortfolio();
+
+        // THEN every resampled day compounds the same 1% move from the last close
+        for (int day = 1; day <= 5; day++) {
+            assertEquals(500.0 + 100 * closes[19] * Math.pow(1.01, day), results.get(day), 1e-9);
+        }
+    }
+
+    @Test
+    void simulatePaths_withBootstrap_storesEveryPathOffHeap() {
+        // GIVEN a history that rises 1% a day, so every resampled path is identical
+        LocalDate start = LocalDate.of(2023, 1, 2);
+        List<LocalDate> dates = new ArrayList<>();
+        double[] closes = new double[20];
+        for (int d = 0; d < closes.length; d++) {
+            dates.add(start.plusDays(d));
+            closes[d] = 10.0 * Math.pow(1.01, d);
+        }
+        PriceMatrix prices = PriceMatrix.of(dates, List.of(StockName.WES_AX), new double[][] {closes});
+        BlockBootstrapSimulator bootstrap = new BlockBootstrapSimulator(prices, start, dates.get(19), 3);
+        List<PortfolioEntry> holdings = new ArrayList<>(List.of(new PortfolioEntry(StockName.WES_AX, closes[19], 100)));
+        PortfolioDAO portfolio = new PortfolioDAO(holdings, 500.0);
+
+        // WHEN simulating many paths at once
+        PathStore store = new PortfolioSimulation(portfolio, bootstrap, 5).simulatePaths(64);
+
+        // THEN every path is stored and can be queried without rerunning
+        assertEquals(64, store.paths());
+        assertEquals(5, store.days());
+        double end = 500.0 + 100 * closes[19] * Math.pow(1.01, 5);
+        for (int p = 0; p < store.paths(); p++) {
+            assertEquals(end, store.get(p, 5), end * 1e-6);
+        }
+        assertEquals(1.0, store.probabilityEndsAbove(end * 0.99));
+        assertEquals(0.0, store.probabilityFallsBelow(500.0 + 100 * closes[19] * 0.99));
+    }
+}
@@ -0,0 +1,99 @@
+package com.javarepowizards.portfoliomanager.operations.simulation;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockData;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.simulation.PortfolioSimulation;
+import com.javarepowizards.portfoliomanager.services.simulation.SensitivityAnalysis;
+import com.javarepowizards.portfoliomanager.services.simulation.SensitivityAnalysis.Parameter;
+import com.javarepowizards.portfoliomanager.services.simulation.SensitivityAnalysis.Sensitivity;
+import com.javarepowizards.portfoliomanager.services.simulation.StockStatisticsCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SensitivityAnalysisTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2023, 12, 29);
+
+    /** A year of weekday closes drifting upwards, per ticker. */
+    private static List<StockData> walk(long seed, double start) {
+        Random rnd = new Random(seed);
+        List<StockData> out = new ArrayList<>();
+        double close = start;
+        for (LocalDate d = LocalDate.of(2022, 12, 29); !d.isAfter(AS_OF); d = d.plusDays(1)) {
+            if (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            close *= 1.001 + rnd.nextGaussian() * 0.012;
+            StockData sd = new StockData(d);
+            sd.setClose(close);
+            out.add(sd);
+        }
+        return out;
+    }
+
+    private static PortfolioSimulation simulation() {
+        Map<StockName, List<StockData>> history = Map.of(
+                StockName.BHP_AX, walk(1, 40.0),
+                StockName.CSL_AX, walk(2, 250.0));
+        IStockDAO dao = new IStockDAO() {
+            @Override public void loadCSV(String filePath) { }
+            @Override public List<StockData> getStockData(StockName stockName) {
+                return history.getOrDefault(stockName, List.of());
+            }
+            @Override public StockData getStockData(StockName stockName, LocalDate date) {
+                for (StockData sd : getStockData(stockName)) {
+                    if (sd.getDate().equals(date)) {
+                        return sd;
+                    }
+                }
+                return null;
+            }
+        };
+        List<PortfolioEntry> holdings = new ArrayList<>(List.of(
+                new PortfolioEntry(StockName.BHP_AX, 40.0, 100),
+                new PortfolioEntry(StockName.CSL_AX, 250.0, 10)));
+        return new PortfolioSimulation(new PortfolioDAO(holdings, 1_000.0), dao,
+                new StockStatisticsCache(dao), AS_OF, 60, 2.0, 0.02, 0.3);
+    }
+
+    @Test
+    void run_producesOneBarPerInputOrderedBySwing() {
+        SensitivityAnalysis.Report report = new SensitivityAnalysis(simulation(), 200, 0.1, 42L).run();
+
+        // three per-ticker inputs for two holdings, plus three model-wide inputs
+        assertEquals(9, report.tornado().size());
+        for (int i = 1; i < report.tornado().size(); i++) {
+            assertTrue(Math.abs(report.tornado().get(i - 1).terminalSwing())
+                    >= Math.abs(report.tornado().get(i).terminalSwing()));
+        }
+        assertEquals(9, report.bySharpe().size());
+        assertTrue(report.baseTerminal() > 0);
+    }
+
+    @Test
+    void run_withCommonRandomNumbers_isReproducibleAndMonotoneInDrift() {
+        SensitivityAnalysis.Report first = new SensitivityAnalysis(simulation(), 100, 0.1, 7L).run();
+        SensitivityAnalysis.Report second = new SensitivityAnalysis(simulation(), 100, 0.1, 7L).run();
+
+        assertEquals(first.baseTerminal(), second.baseTerminal());
+        for (Sensitivity s : first.tornado()) {
+            if (s.parameter() == Parameter.DRIFT) {
+                // with the same shocks, only the drift differs between the two runs
+                assertTrue(s.highTerminal() > s.lowTerminal(), s.label());
+                assertTrue(s.terminalSensitivity() > 0, s.label());
+                assertEquals(s.baseValue(), (s.lowValue() + s.highValue()) / 2, 1e-12);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.javarepowizards.portfoliomanager.operations.simulation;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockData;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.simulation.PortfolioSimulation;
+import com.javarepowizards.portfoliomanager.services.simulation.ShardedSimulation;
+import com.javarepowizards.portfoliomanager.services.simulation.StockStatisticsCache;
+import com.javarepowizards.portfoliomanager.services.simulation.WorkerLauncher;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedSimulationTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2023, 12, 29);
+
+    private static PortfolioSimulation simulation() {
+        Random rnd = new Random(9);
+        List<StockData> history = new ArrayList<>();
+        double close = 30.0;
+        for (LocalDate d = LocalDate.of(2022, 12, 29); !d.isAfter(AS_OF); d = d.plusDays(1)) {
+            if (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            close *= 1.0005 + rnd.nextGaussian() * 0.015;
+            StockData sd = new StockData(d);
+            sd.setClose(close);
+            history.add(sd);
+        }
+        IStockDAO dao = new IStockDAO() {
+            @Override public void loadCSV(String filePath) { }
+            @Override public List<StockData> getStockData(StockName stockName) {
+                return stockName == StockName.WES_AX ? history : List.of();
+            }
+            @Override public StockData getStockData(StockName stockName, LocalDate date) {
+                return stockName == StockName.WES_AX ? history.getLast() : null;
+            }
+        };
+        List<PortfolioEntry> holdings = new ArrayList<>(List.of(new PortfolioEntry(StockName.WES_AX, 30.0, 50)));
+        return new PortfolioSimulation(new PortfolioDAO(holdings, 2_000.0), dao,
+                new StockStatisticsCache(dao), AS_OF, 40, 2.0, 0.02, 0.3);
+    }
+
+    @Test
+    void run_givesTheSameResultForAnyNumberOfWorkers() throws Exception {
+        ShardedSimulation.Result one = new ShardedSimulation(simulation(), WorkerLauncher.inProcess(), 1).run(300, 5L);
+        ShardedSimulation.Result three = new ShardedSimulation(simulation(), WorkerLauncher.inProcess(), 3).run(300, 5L);
+
+        assertEquals(300, one.summary().paths());
+        assertEquals(300, three.summary().paths());
+        assertEquals(one.meanTerminalValue(), three.meanTerminalValue(), 1e-9 * one.meanTerminalValue());
+        assertEquals(one.summary().annualisedSharpe(), three.summary().annualisedSharpe(), 1e-9);
+        assertEquals(0, three.retries());
+    }
+
+    @Test
+    void run_retriesTheShardOfAWorkerThatDies() throws Exception {
+        // the first worker reads its first task and then drops the connection
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher inProcess = WorkerLauncher.inProcess();
+        WorkerLauncher flaky = coordinator -> {
+            if (launches.getAndIncrement() > 0) {
+                return inProcess.launch(coordinator);
+            }
+            Socket socket = new Socket();
+            Thread t = new Thread(() -> {
+                try (socket) {
+                    socket.connect(coordinator);
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    in.readInt();
+                    in.readByte();
+                } catch (IOException ignored) {
+                    // dying is the point
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            return socket::close;
+        };
+
+        ShardedSimulation.Result clean = new ShardedSimulation(simulation(), inProcess, 2).run(200, 1L);
+        ShardedSimulation.Result retried = new ShardedSimulation(simulation(), flaky, 2).run(200, 1L);
+
+        assertTrue(retried.retries() >= 1);
+        assertTrue(launches.get() >= 3);
+        assertEquals(clean.meanTerminalValue(), retried.meanTerminalValue(), 1e-9 * clean.meanTerminalValue());
+    }
+
+    @Test
+    void run_retriesTheShardOfAWorkerThatHangs() throws Exception {
+        // the first worker reads its first task and then never replies
+        AtomicInteger launches = new AtomicInteger();
+        WorkerLauncher inProcess = WorkerLauncher.inProcess();
+        WorkerLauncher hanging = coordinator -> {
+            if (launches.getAndIncrement() > 0) {
+                return inProcess.launch(coordinator);
+            }
+            Socket socket = new Socket();
+            Thread t = new Thread(() -> {
+                try {
+                    socket.connect(coordinator);
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    in.readInt();
+                    in.readByte();
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (IOException | InterruptedException ignored) {
+                    // hanging is the point
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            return socket::close;
+        };
+
+        ShardedSimulation.Result clean = new ShardedSimulation(simulation(), inProcess, 2).run(200, 1L);
+        ShardedSimulation.Result retried = new ShardedSimulation(simulation(), hanging, 2,
+                ShardedSimulation.DEFAULT_MAX_ATTEMPTS, Duration.ofMillis(500)).run(200, 1L);
+
+        assertTrue(retried.retries() >= 1);
+        assertEquals(clean.meanTerminalValue(), retried.meanTerminalValue(), 1e-9 * clean.meanTerminalValue());
+    }
+
+    @Test
+    void run_givesUpWhenTheLauncherThrows() {
+        WorkerLauncher broken = coordinator -> {
+            throw new IllegalStateException("no worker binary");
+        };
+        IOException e = assertThrows(IOException.class,
+                () -> new ShardedSimulation(simulation(), broken, 2).run(50, 1L));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void run_givesUpWhenWorkersNeverConnect() {
+        WorkerLauncher broken = coordinator -> {
+            throw new IOException("cannot start worker");
+        };
+        assertThrows(IOException.class, () -> new ShardedSimulation(simulation(), broken, 2).run(50, 1L));
+    }
+
+    @Test
+    void run_acrossSeparateWorkerJvms() throws Exception {
+        ShardedSimulation.Result local = new ShardedSimulation(simulation(), WorkerLauncher.inProcess(), 1).run(100, 3L);
+        ShardedSimulation.Result forked = new ShardedSimulation(simulation(),
+                WorkerLauncher.localJvm(List.of("-Xmx64m")), 2).run(100, 3L);
+
+        assertEquals(local.meanTerminalValue(), forked.meanTerminalValue(), 1e-9 * local.meanTerminalValue());
+    }
+}
@@ -0,0 +1,146 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.DatabaseConnection;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.User;
+import com.javarepowizards.portfoliomanager.services.Auth.AuthService;
+import com.javarepowizards.portfoliomanager.services.Auth.LoginService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthServiceTest {
+
+    @TempDir
+    Path dir;
+
+    /** BCrypt encoder that counts how many hashes it checks and how many run at once. */
+    private static final class CountingEncoder extends BCryptPasswordEncoder {
+        final AtomicInteger matches = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+
+        CountingEncoder() {
+            super(4);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            matches.incrementAndGet();
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                return super.matches(rawPassword, encodedPassword);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    @Test
+    void verifyPasswordAsync_runsOnTheHashingThreads() throws Exception {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                threads.add(Thread.currentThread().getName());
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        try (AuthService auth = new AuthService(encoder)) {
+            String hash = auth.hashPassword("correct horse");
+            assertTrue(auth.verifyPasswordAsync("correct horse", hash).get(10, TimeUnit.SECONDS));
+            assertFalse(auth.verifyPasswordAsync("wrong", hash).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(2, threads.size());
+        for (String thread : threads) {
+            assertTrue(thread.startsWith("auth-"), thread);
+        }
+    }
+
+    @Test
+    void aBurstOfLogins_neverHashesOnMoreThreadsThanConfigured() throws Exception {
+        CountingEncoder encoder = new CountingEncoder();
+        try (AuthService auth = new AuthService(encoder)) {
+            List<CompletableFuture<Boolean>> logins = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                String password = "password-" + i;
+                logins.add(auth.verifyPasswordAsync(password, encoder.encode(password)));
+            }
+            for (CompletableFuture<Boolean> login : logins) {
+                assertTrue(login.get(30, TimeUnit.SECONDS));
+            }
+        }
+        assertTrue(encoder.peak.get() <= AuthService.DEFAULT_THREADS, "peak was " + encoder.peak.get());
+    }
+
+    @Test
+    void successfulVerification_isRememberedForTheSameHash() throws Exception {
+        CountingEncoder encoder = new CountingEncoder();
+        try (AuthService auth = new AuthService(encoder)) {
+            String hash = encoder.encode("secret-pass");
+
+            assertTrue(auth.verifyPasswordAsync("secret-pass", hash).get(10, TimeUnit.SECONDS));
+            assertTrue(auth.verifyPassword("secret-pass", hash));
+            assertEquals(1, encoder.matches.get());
+
+            assertFalse(auth.verifyPassword("other-pass", hash));
+            assertTrue(auth.verifyPassword("secret-pass", encoder.encode("secret-pass")));
+            assertEquals(3, encoder.matches.get(), "failures and new hashes are checked for real");
+        }
+    }
+
+    @Test
+    void zeroTtl_disablesTheVerificationCache() {
+        try (AuthService auth = new AuthService(4, 1, Duration.ZERO, Clock.systemUTC())) {
+            String hash = auth.hashPassword("secret-pass");
+            assertTrue(auth.verifyPassword("secret-pass", hash));
+            assertFalse(auth.verifyPassword("secret-pass", hash.substring(0, hash.length() - 1) + "x"));
+        }
+    }
+
+    @Test
+    void needsRehash_comparesTheCostOfTheStoredHash() {
+        try (AuthService weak = new AuthService(4); AuthService strong = new AuthService(5)) {
+            String hash = weak.hashPassword("secret-pass");
+            assertTrue(hash.startsWith("$2a$04$"));
+            assertFalse(weak.needsRehash(hash));
+            assertTrue(strong.needsRehash(hash));
+            assertTrue(weak.needsRehash(strong.hashPassword("secret-pass")));
+            assertFalse(weak.needsRehash("not-a-bcrypt-hash"));
+        }
+    }
+
+    @Test
+    void login_upgradesHashesMadeWithAnotherCost() throws Exception {
+        try (DatabaseConnection db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("auth.db"));
+             AuthService old = new AuthService(4);
+             AuthService current = new AuthService(5)) {
+            UserDAO userDAO = new UserDAO(db);
+            User user = new User("learner", "learner@example.com", old.hashPassword("secret-pass"));
+            userDAO.createUser(user, 0.0);
+            LoginService login = new LoginService(current, userDAO);
+
+            assertTrue(login.login("learner", "wrong-pass").get(10, TimeUnit.SECONDS).isEmpty());
+            assertTrue(login.login("nobody", "secret-pass").get(10, TimeUnit.SECONDS).isEmpty());
+            assertTrue(userDAO.getUserById(user.getUserId()).orElseThrow().getPasswordHash().startsWith("$2a$04$"));
+
+            User loggedIn = login.login("learner@example.com", "secret-pass").get(10, TimeUnit.SECONDS).orElseThrow();
+            String stored = userDAO.getUserById(user.getUserId()).orElseThrow().getPasswordHash();
+            assertTrue(stored.startsWith("$2a$05$"), stored);
+            assertEquals(stored, loggedIn.getPasswordHash());
+            assertTrue(current.verifyPassword("secret-pass", stored));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.backtest.BacktestEngine;
+import com.javarepowizards.portfoliomanager.services.backtest.BacktestResult;
+import com.javarepowizards.portfoliomanager.services.backtest.TargetWeightRebalance;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BacktestEngineTest {
+
+    private static final LocalDate D0 = LocalDate.of(2023, 1, 2);
+
+    // ticker A doubles then halves, ticker B stays flat
+    private static PriceMatrix prices() {
+        List<LocalDate> dates = List.of(D0, D0.plusDays(1), D0.plusDays(2), D0.plusDays(3));
+        return PriceMatrix.of(dates,
+                List.of(StockName.WES_AX, StockName.BHP_AX),
+                new double[][] {
+                        {10.0, 20.0, 10.0, 10.0},
+                        {5.0, 5.0, 5.0, 5.0}
+                });
+    }
+
+    @Test
+    void buyAndHold_tracksPricesAndDrawdown() {
+        BacktestEngine engine = new BacktestEngine(prices());
+
+        BacktestResult r = engine.run(Map.of(StockName.WES_AX, 1.0), 1000.0, 0, D0, D0.plusDays(3));
+
+        assertArrayEquals(new double[] {1000.0, 2000.0, 1000.0, 1000.0}, r.equity(), 1e-9);
+        assertEquals(-0.5, r.maxDrawdown(), 1e-12);
+        assertEquals(1.0, r.totalTurnover(), 1e-12);
+        assertEquals(4, r.equityCurve().size());
+    }
+
+    @Test
+    void dailyRebalance_tradesBackToTargetWeights() {
+        BacktestEngine engine = new BacktestEngine(prices());
+        Map<StockName, Double> halfAndHalf = Map.of(StockName.WES_AX, 0.5, StockName.BHP_AX, 0.5);
+
+        BacktestResult r = engine.run(halfAndHalf, 1000.0, 1, D0, D0.plusDays(3));
+
+        // day 1: 50 A @20 + 100 B @5 = 1500, rebalanced to 750/750
+        // day 2: 37.5 A @10 + 150 B @5 = 1125
+        assertEquals(1500.0, r.equity()[1], 1e-9);
+        assertEquals(1125.0, r.equity()[2], 1e-9);
+        // trading 250 of value each way on 1500 of equity
+        assertEquals(500.0 / 1500.0, r.turnover()[1], 1e-12);
+        assertEquals(0.0, r.turnover()[3], 1e-12);
+    }
+
+    @Test
+    void replay_keepsShareCountsAndCash() {
+        BacktestEngine engine = new BacktestEngine(prices());
+        List<PortfolioEntry> holdings = List.of(new PortfolioEntry(StockName.WES_AX, 10.0, 3));
+
+        BacktestResult r = engine.replay(holdings, 100.0, D0.minusDays(5), D0.plusDays(1));
+
+        assertEquals(List.of(D0, D0.plusDays(1)), r.dates());
+        assertArrayEquals(new double[] {130.0, 160.0}, r.equity(), 1e-9);
+        assertEquals(0.0, r.totalTurnover());
+    }
+
+    @Test
+    void run_rejectsEmptyRangeAndMissingTickers() {
+        BacktestEngine engine = new BacktestEngine(prices());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.run(Map.of(StockName.WES_AX, 1.0), 1000.0, 0, D0.plusDays(10), D0.plusDays(20)));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.run(Map.of(StockName.RIO_AX, 1.0), 1000.0, 0, D0, D0.plusDays(3)));
+    }
+}
@@ -0,0 +1,72 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.simulation.BlockBootstrapSimulator;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockBootstrapSimulatorTest {
+
+    private static final LocalDate D0 = LocalDate.of(2023, 1, 2);
+    private static final int DAYS = 50;
+
+    /** WES returns d/1000 into day d and BHP returns the negative of that, so each day is recognisable. */
+    private static PriceMatrix mirroredPrices() {
+        List<LocalDate> dates = new ArrayList<>();
+        double[][] closes = new double[2][DAYS];
+        closes[0][0] = 100.0;
+        closes[1][0] = 100.0;
+        dates.add(D0);
+        for (int d = 1; d < DAYS; d++) {
+            dates.add(D0.plusDays(d));
+            closes[0][d] = closes[0][d - 1] * (1 + d / 1000.0);
+            closes[1][d] = closes[1][d - 1] * (1 - d / 1000.0);
+        }
+        return PriceMatrix.of(dates, List.of(StockName.WES_AX, StockName.BHP_AX), closes);
+    }
+
+    @Test
+    void path_appliesTheSameHistoricalDayToEveryTicker_inContiguousBlocks() {
+        int blockLength = 5;
+        BlockBootstrapSimulator sim =
+                new BlockBootstrapSimulator(mirroredPrices(), D0, D0.plusDays(DAYS - 1), blockLength);
+        BlockBootstrapSimulator.JointPath path =
+                sim.newPath(List.of(StockName.WES_AX, StockName.BHP_AX), new Random(3));
+
+        assertEquals(DAYS - 1, sim.sampleDays());
+        int previousDay = -1;
+        for (int step = 0; step < 200; step++) {
+            double wes = path.price(0);
+            double bhp = path.price(1);
+            path.next();
+            int day = (int) Math.round((path.price(0) / wes - 1) * 1000);
+
+            assertTrue(day >= 1 && day < DAYS);
+            assertEquals(-day / 1000.0, path.price(1) / bhp - 1, 1e-12);
+            if (step % blockLength != 0) {
+                int expected = previousDay == DAYS - 1 ? 1 : previousDay + 1;
+                assertEquals(expected, day, "days within a block should be consecutive");
+            }
+            previousDay = day;
+        }
+    }
+
+    @Test
+    void constructor_rejectsEmptySampleAndUnknownTickers() {
+        PriceMatrix prices = mirroredPrices();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockBootstrapSimulator(prices, D0.plusYears(1), D0.plusYears(2), 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockBootstrapSimulator(prices, D0, D0.plusDays(10), 0));
+        BlockBootstrapSimulator sim = new BlockBootstrapSimulator(prices, D0, D0.plusDays(10), 5);
+        assertThrows(IllegalArgumentException.class, () -> sim.newPath(List.of(StockName.RIO_AX)));
+    }
+}
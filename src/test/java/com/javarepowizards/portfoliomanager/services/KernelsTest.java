@@ -0,0 +1,80 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.services.utility.Kernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernelsTest {
+
+    private static double[] random(Random rng, int n) {
+        double[] a = new double[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = rng.nextGaussian();
+        }
+        return a;
+    }
+
+    @Test
+    void surefireRunsTheVectorisedKernels() {
+        // the build adds jdk.incubator.vector, so the fallback should not be in use
+        assertTrue(Kernels.isVectorised());
+    }
+
+    @Test
+    void reductions_matchPlainLoopsForEveryLengthAndOffset() {
+        Random rng = new Random(1);
+        for (int n = 0; n < 40; n++) {
+            double[] a = random(rng, n + 3);
+            double[] b = random(rng, n + 3);
+            int from = n % 3;
+            int to = from + n;
+            double sum = 0, squares = 0, dot = 0, centred = 0;
+            for (int i = from; i < to; i++) {
+                sum += a[i];
+                squares += a[i] * a[i];
+                dot += a[i] * b[i];
+                centred += (a[i] - 0.5) * (b[i] + 0.25);
+            }
+            assertEquals(sum, Kernels.sum(a, from, to), 1e-12);
+            assertEquals(squares, Kernels.sumOfSquares(a, from, to), 1e-12);
+            assertEquals(dot, Kernels.dot(a, b, from, to), 1e-12);
+            assertEquals(centred, Kernels.centredDot(a, 0.5, b, -0.25, from, to), 1e-12);
+        }
+    }
+
+    @Test
+    void returns_matchTheScalarFormulaExactly() {
+        Random rng = new Random(2);
+        double[] closes = new double[37];
+        closes[0] = 50;
+        for (int d = 1; d < closes.length; d++) {
+            closes[d] = closes[d - 1] * (1 + 0.02 * rng.nextGaussian());
+        }
+        double[] out = new double[closes.length];
+        Kernels.returns(closes, out, 1, closes.length);
+
+        assertEquals(0.0, out[0]);
+        for (int d = 1; d < closes.length; d++) {
+            assertEquals((closes[d] - closes[d - 1]) / closes[d - 1], out[d]);
+        }
+    }
+
+    @Test
+    void covariance_isTheSymmetricSampleCovariance() {
+        double[] x = {1, 2, 3, 4, 5};
+        double[] y = {2, 4, 6, 8, 10};
+        double[] z = {5, 3, 4, 1, 2};
+
+        double[][] cov = Kernels.covariance(new double[][] {x, y, z}, 0, 5);
+
+        assertEquals(2.5, cov[0][0], 1e-12);
+        assertEquals(5.0, cov[0][1], 1e-12);
+        assertEquals(10.0, cov[1][1], 1e-12);
+        assertEquals(cov[0][2], cov[2][0]);
+        assertEquals(-2.0, cov[0][2], 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> Kernels.covariance(new double[][] {x}, 0, 1));
+    }
+}
@@ -0,0 +1,158 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.optimisation.Allocation;
+import com.javarepowizards.portfoliomanager.services.optimisation.EfficientFrontier;
+import com.javarepowizards.portfoliomanager.services.optimisation.MeanVarianceOptimiser;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeanVarianceOptimiserTest {
+
+    private static final double EPS = 1e-6;
+
+    // uncorrelated assets: 20% and 30% volatility, 5% and 10% expected return
+    private static MeanVarianceOptimiser twoAssets() {
+        return new MeanVarianceOptimiser(List.of(StockName.BHP_AX, StockName.CSL_AX),
+                new double[] {0.05, 0.10},
+                new double[][] {{0.04, 0.0}, {0.0, 0.09}},
+                0.0);
+    }
+
+    /** Random factor-model covariance so the matrix is positive definite and correlated. */
+    private static MeanVarianceOptimiser randomUniverse(int n, long seed) {
+        Random rng = new Random(seed);
+        double[][] loadings = new double[n][3];
+        double[] mu = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int f = 0; f < 3; f++) {
+                loadings[i][f] = 0.05 + 0.2 * rng.nextDouble();
+            }
+            mu[i] = 0.02 + 0.15 * rng.nextDouble();
+        }
+        double[][] cov = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                for (int f = 0; f < 3; f++) {
+                    cov[i][j] += loadings[i][f] * loadings[j][f];
+                }
+            }
+            cov[i][i] += 0.01 + 0.04 * rng.nextDouble();
+        }
+        List<StockName> tickers = Arrays.asList(StockName.values()).subList(0, n);
+        return new MeanVarianceOptimiser(tickers, mu, cov, 0.01);
+    }
+
+    private static void assertFeasible(Allocation a) {
+        double sum = 0.0;
+        for (double w : a.weights()) {
+            assertTrue(w >= 0.0, "weights must be long-only");
+            sum += w;
+        }
+        assertEquals(1.0, sum, 1e-9);
+    }
+
+    @Test
+    void minVariance_matchesClosedFormForUncorrelatedAssets() {
+        Allocation minVar = twoAssets().minVariance();
+
+        // w1 = σ2² / (σ1² + σ2²)
+        assertEquals(0.09 / 0.13, minVar.weights()[0], EPS);
+        assertEquals(Math.sqrt(0.04 * 0.09 / 0.13), minVar.volatility(), EPS);
+    }
+
+    @Test
+    void maxSharpe_matchesTangencyPortfolio() {
+        Allocation tangency = twoAssets().maxSharpe();
+
+        // tangency weights are proportional to Σ⁻¹μ = (1.25, 1.111...)
+        double a = 0.05 / 0.04;
+        double b = 0.10 / 0.09;
+        assertEquals(a / (a + b), tangency.weights()[0], 1e-5);
+    }
+
+    @Test
+    void forTargetReturn_hitsTheTargetOrClampsToTheFrontier() {
+        MeanVarianceOptimiser optimiser = twoAssets();
+
+        Allocation mid = optimiser.forTargetReturn(0.08);
+        assertEquals(0.08, mid.expectedReturn(), 1e-7);
+        assertEquals(0.4, mid.weights()[0], 1e-6);
+
+        assertEquals(1.0, optimiser.forTargetReturn(0.5).weights()[1], EPS);
+        assertEquals(optimiser.minVariance().weights()[0],
+                optimiser.forTargetReturn(0.0).weights()[0], EPS);
+    }
+
+    @Test
+    void frontier_isFeasibleAndBoundedByItsLandmarks() {
+        EfficientFrontier frontier = randomUniverse(12, 7L).frontier(25);
+
+        assertEquals(25, frontier.points().size());
+        assertFeasible(frontier.minVariance());
+        assertFeasible(frontier.maxSharpe());
+        double previousReturn = Double.NEGATIVE_INFINITY;
+        double previousVol = 0.0;
+        for (Allocation p : frontier.points()) {
+            assertFeasible(p);
+            assertTrue(p.expectedReturn() >= previousReturn - 1e-9);
+            assertTrue(p.volatility() >= previousVol - 1e-7);
+            assertTrue(p.volatility() >= frontier.minVariance().volatility() - 1e-7);
+            assertTrue(p.sharpe() <= frontier.maxSharpe().sharpe() + 1e-6);
+            previousReturn = p.expectedReturn();
+            previousVol = p.volatility();
+        }
+    }
+
+    @Test
+    void frontier_rejectsFewerThanTwoPoints() {
+        MeanVarianceOptimiser optimiser = twoAssets();
+        assertThrows(IllegalArgumentException.class, () -> optimiser.frontier(1));
+        assertThrows(IllegalArgumentException.class, () -> optimiser.frontier(0));
+    }
+
+    @Test
+    void fromHistory_estimatesAnnualisedMomentsFromPrices() {
+        List<LocalDate> dates = new ArrayList<>();
+        double[][] closes = new double[2][21];
+        closes[0][0] = 100.0;
+        closes[1][0] = 100.0;
+        for (int d = 0; d < 21; d++) {
+            dates.add(LocalDate.of(2023, 1, 2).plusDays(d));
+            if (d > 0) {
+                closes[0][d] = closes[0][d - 1] * (d % 2 == 0 ? 1.01 : 0.995);
+                closes[1][d] = closes[1][d - 1] * 1.001;
+            }
+        }
+        PriceMatrix prices = PriceMatrix.of(dates, List.of(StockName.BHP_AX, StockName.WOW_AX), closes);
+
+        MeanVarianceOptimiser optimiser = MeanVarianceOptimiser.fromHistory(
+                prices, prices.tickers(), dates.get(20), 20, 0.0);
+        Allocation minVar = optimiser.minVariance();
+
+        // WOW has a constant return, so the minimum-variance portfolio holds only WOW
+        assertEquals(1.0, minVar.weights()[1], EPS);
+        assertEquals(0.001 * MeanVarianceOptimiser.TRADING_DAYS_PER_YEAR, minVar.expectedReturn(), 1e-9);
+    }
+
+    @Test
+    void frontier_forTwentyAssetsTakesUnder200Milliseconds() {
+        MeanVarianceOptimiser optimiser = randomUniverse(20, 42L);
+        optimiser.frontier(50); // warm up the JIT
+
+        long start = System.nanoTime();
+        EfficientFrontier frontier = optimiser.frontier(50);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(50, frontier.points().size());
+        assertTrue(elapsedMs < 200, "frontier took " + elapsedMs + " ms");
+    }
+}
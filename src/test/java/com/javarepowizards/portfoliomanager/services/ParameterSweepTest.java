@@ -0,0 +1,82 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.backtest.BacktestEngine;
+import com.javarepowizards.portfoliomanager.services.backtest.ParameterSweep;
+import com.javarepowizards.portfoliomanager.services.backtest.StrategyParameters;
+import com.javarepowizards.portfoliomanager.services.backtest.SweepResult;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSweepTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    /** Every ticker following a seeded random walk over {@code days} consecutive days. */
+    private static PriceMatrix randomPrices(int days) {
+        Random rnd = new Random(7);
+        List<StockName> tickers = Arrays.asList(StockName.values());
+        List<LocalDate> dates = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            dates.add(START.plusDays(d));
+        }
+        double[][] closes = new double[tickers.size()][days];
+        for (double[] column : closes) {
+            double close = 20.0;
+            for (int d = 0; d < days; d++) {
+                close *= 1 + rnd.nextGaussian() * 0.015 + 0.0002;
+                column[d] = close;
+            }
+        }
+        return PriceMatrix.of(dates, tickers, closes);
+    }
+
+    @Test
+    void grid_coversEveryCombination() {
+        List<StrategyParameters> grid = ParameterSweep.grid(
+                new int[] {5, 21}, new int[] {20, 60, 120}, new double[] {0.0, 0.001});
+
+        assertEquals(12, grid.size());
+        assertTrue(grid.contains(new StrategyParameters(21, 120, 0.001)));
+    }
+
+    @Test
+    void run_matchesSequentialEvaluationAndIsRanked() {
+        ParameterSweep sweep = new ParameterSweep(new BacktestEngine(randomPrices(300)), 10_000.0, 0.001);
+        List<StrategyParameters> configs = ParameterSweep.random(50, 1L, 30, 120, -0.001, 0.002);
+        LocalDate end = START.plusDays(299);
+
+        List<SweepResult> bySharpe = sweep.run(configs, START, end, SweepResult.BY_SHARPE);
+        List<SweepResult> byDrawdown = sweep.run(configs, START, end, SweepResult.BY_DRAWDOWN);
+
+        assertEquals(configs.size(), bySharpe.size());
+        for (SweepResult r : bySharpe) {
+            SweepResult single = sweep.evaluate(r.params(), START, end);
+            assertEquals(single.maxDrawdown(), r.maxDrawdown(), 0.0);
+            assertEquals(single.metrics(), r.metrics());
+        }
+        for (int i = 1; i < byDrawdown.size(); i++) {
+            assertTrue(byDrawdown.get(i - 1).maxDrawdown() >= byDrawdown.get(i).maxDrawdown());
+        }
+    }
+
+    @Test
+    void run_thousandsOfConfigsOverFullHistory_finishesWithinAMinute() {
+        ParameterSweep sweep = new ParameterSweep(new BacktestEngine(randomPrices(1012)), 10_000.0, 0.0);
+        List<StrategyParameters> configs = ParameterSweep.random(2000, 3L, 63, 252, -0.001, 0.002);
+
+        List<SweepResult> results = assertTimeout(Duration.ofMinutes(1),
+                () -> sweep.run(configs, START, START.plusDays(1011), SweepResult.BY_SHARPE));
+
+        assertEquals(2000, results.size());
+    }
+}
@@ -0,0 +1,161 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.risk.RiskEngine;
+import com.javarepowizards.portfoliomanager.services.risk.RiskMetrics;
+import com.javarepowizards.portfoliomanager.services.risk.RiskWindow;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RiskEngineTest {
+
+    private static final double EPS = 1e-9;
+
+    private static double[] randomWalk(Random rng, int days, double vol) {
+        double[] levels = new double[days];
+        levels[0] = 100.0;
+        for (int d = 1; d < days; d++) {
+            // round returns so the order-statistic window sees repeated values
+            double r = Math.round(rng.nextGaussian() * vol * 1000) / 1000.0;
+            levels[d] = levels[d - 1] * (1 + r);
+        }
+        return levels;
+    }
+
+    /** Recomputes every metric from scratch over the window ending at {@code t}. */
+    private static RiskMetrics bruteForce(double[] levels, double[] bench, int t, int length, double confidence) {
+        int first = Math.max(1, t - length + 1);
+        int n = t - first + 1;
+        double[] r = new double[n];
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            int d = first + i;
+            r[i] = (levels[d] - levels[d - 1]) / levels[d - 1];
+            b[i] = bench[d];
+        }
+        double[] sorted = r.clone();
+        Arrays.sort(sorted);
+        int k = Math.max(1, (int) Math.ceil((1 - confidence) * n - 1e-9));
+        double tail = 0.0;
+        for (int i = 0; i < k; i++) {
+            tail += sorted[i];
+        }
+
+        double mx = Arrays.stream(r).average().orElse(0);
+        double my = Arrays.stream(b).average().orElse(0);
+        double cov = 0, vx = 0, vy = 0;
+        for (int i = 0; i < n; i++) {
+            cov += (r[i] - mx) * (b[i] - my);
+            vx += (r[i] - mx) * (r[i] - mx);
+            vy += (b[i] - my) * (b[i] - my);
+        }
+
+        double[] dd = new double[t + 1];
+        for (int d = 0; d <= t; d++) {
+            double peak = 0;
+            for (int j = Math.max(0, d - length + 1); j <= d; j++) {
+                peak = Math.max(peak, levels[j]);
+            }
+            dd[d] = 1 - levels[d] / peak;
+        }
+        double maxDd = 0;
+        for (int d = Math.max(0, t - length + 1); d <= t; d++) {
+            maxDd = Math.max(maxDd, dd[d]);
+        }
+        return new RiskMetrics(n, -sorted[k - 1], -tail / k, cov / vy, cov / Math.sqrt(vx * vy), dd[t], maxDd);
+    }
+
+    @Test
+    void riskWindow_matchesBruteForceAtEveryBar() {
+        Random rng = new Random(11);
+        int days = 400;
+        int length = 40;
+        double[] levels = randomWalk(rng, days, 0.02);
+        double[] bench = new double[days];
+        for (int d = 1; d < days; d++) {
+            bench[d] = 0.6 * (levels[d] - levels[d - 1]) / levels[d - 1] + 0.01 * rng.nextGaussian();
+        }
+
+        RiskWindow window = new RiskWindow(length, 0.9);
+        for (int t = 0; t < days; t++) {
+            window.update(levels[t], bench[t]);
+            if (t < 2) {
+                continue;
+            }
+            RiskMetrics expected = bruteForce(levels, bench, t, length, 0.9);
+            RiskMetrics actual = window.metrics();
+            assertEquals(expected.observations(), actual.observations());
+            assertEquals(expected.valueAtRisk(), actual.valueAtRisk(), EPS, "VaR at " + t);
+            assertEquals(expected.expectedShortfall(), actual.expectedShortfall(), EPS, "CVaR at " + t);
+            assertEquals(expected.beta(), actual.beta(), 1e-6, "beta at " + t);
+            assertEquals(expected.correlation(), actual.correlation(), 1e-6, "correlation at " + t);
+            assertEquals(expected.drawdown(), actual.drawdown(), EPS, "drawdown at " + t);
+            assertEquals(expected.maxDrawdown(), actual.maxDrawdown(), EPS, "max drawdown at " + t);
+        }
+    }
+
+    @Test
+    void engine_fallsBackToEqualWeightBenchmarkWithoutTheIndex() {
+        Random rng = new Random(5);
+        int days = 120;
+        List<LocalDate> dates = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            dates.add(LocalDate.of(2023, 1, 2).plusDays(d));
+        }
+        double[] bhp = randomWalk(rng, days, 0.02);
+        PriceMatrix prices = PriceMatrix.of(dates, List.of(StockName.BHP_AX, StockName.RIO_AX),
+                new double[][] {bhp, bhp.clone()});
+
+        RiskEngine engine = new RiskEngine(prices, 30, 0.95);
+        engine.advanceTo(dates.get(days - 1));
+
+        assertFalse(engine.usesIndexBenchmark());
+        assertEquals(dates.get(days - 1), engine.getCurrentDate());
+        // both tickers move identically, so each equals the proxy index exactly
+        RiskMetrics bhpRisk = engine.tickerMetrics(StockName.BHP_AX);
+        assertEquals(1.0, bhpRisk.beta(), 1e-9);
+        assertEquals(1.0, bhpRisk.correlation(), 1e-9);
+        assertFalse(engine.step());
+    }
+
+    @Test
+    void trackedPortfolio_matchesItsOnlyHoldingAndSurvivesLateTracking() {
+        Random rng = new Random(3);
+        int days = 200;
+        List<LocalDate> dates = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            dates.add(LocalDate.of(2022, 1, 3).plusDays(d));
+        }
+        PriceMatrix prices = PriceMatrix.of(dates, List.of(StockName.AXJO_AX, StockName.CSL_AX),
+                new double[][] {randomWalk(rng, days, 0.01), randomWalk(rng, days, 0.02)});
+
+        RiskEngine engine = new RiskEngine(prices, 25, 0.95);
+        engine.trackPortfolio(1, List.of(new PortfolioEntry(StockName.CSL_AX, 0, 10)));
+        engine.advanceTo(dates.get(150));
+        // tracking part way through replays enough history to agree with the early tracker
+        engine.trackPortfolio(2, List.of(new PortfolioEntry(StockName.CSL_AX, 0, 3)));
+        engine.advanceTo(dates.get(days - 1));
+
+        assertTrue(engine.usesIndexBenchmark());
+        assertEquals(1.0, engine.tickerMetrics(StockName.AXJO_AX).beta(), 1e-9);
+        RiskMetrics stock = engine.tickerMetrics(StockName.CSL_AX);
+        for (int user : new int[] {1, 2}) {
+            RiskMetrics portfolio = engine.portfolioMetrics(user);
+            assertEquals(stock.valueAtRisk(), portfolio.valueAtRisk(), EPS);
+            assertEquals(stock.expectedShortfall(), portfolio.expectedShortfall(), EPS);
+            assertEquals(stock.beta(), portfolio.beta(), 1e-6);
+            assertEquals(stock.maxDrawdown(), portfolio.maxDrawdown(), EPS);
+        }
+        assertThrows(IllegalArgumentException.class, () -> engine.portfolioMetrics(3));
+        assertThrows(IllegalArgumentException.class, () -> engine.tickerMetrics(StockName.WBC_AX));
+    }
+}
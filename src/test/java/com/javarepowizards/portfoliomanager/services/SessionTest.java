@@ -0,0 +1,119 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.DatabaseConnection;
+import com.javarepowizards.portfoliomanager.dao.StatementCacheStats;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.User;
+import com.javarepowizards.portfoliomanager.services.session.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+    private UserDAO userDAO;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("session.db"));
+        userDAO = new UserDAO(db);
+        user = new User("session", "session@example.com", "hash");
+        userDAO.createUser(user, 1_000.0);
+        Session.setCurrentUser(user);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        Session.setCurrentUser(null);
+        db.close();
+    }
+
+    /** Number of statements prepared so far, cached or not. */
+    private long statements() {
+        StatementCacheStats stats = db.getStatementCacheStats();
+        return stats.hits() + stats.misses();
+    }
+
+    @Test
+    void getCurrentUser_doesNotQueryTheDatabase() {
+        long before = statements();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(user.getUserId(), userDAO.getCurrentUser().orElseThrow().getUserId());
+        }
+        assertEquals(before, statements());
+    }
+
+    @Test
+    void updates_reloadTheSessionUserOnce() {
+        userDAO.updateEmail(user.getUserId(), "renamed@example.com");
+        userDAO.updateUsername(user.getUserId(), "renamed");
+
+        long before = statements();
+        User reloaded = userDAO.getCurrentUser().orElseThrow();
+        assertEquals("renamed@example.com", reloaded.getEmail());
+        assertEquals("renamed", reloaded.getUsername());
+        assertSame(reloaded, Session.getCurrentUser());
+        assertEquals(before + 1, statements());
+
+        userDAO.getCurrentUser();
+        assertEquals(before + 1, statements());
+    }
+
+    @Test
+    void updatesToAnotherUser_leaveTheSessionAlone() throws SQLException {
+        User other = new User("other", "other@example.com", "hash");
+        userDAO.createUser(other, 0.0);
+        userDAO.updatePassword(other.getUserId(), "new-hash");
+
+        long before = statements();
+        assertSame(user, userDAO.getCurrentUser().orElseThrow());
+        assertEquals(before, statements());
+    }
+
+    @Test
+    void reload_isNotInstalledOverANewerLogin() throws SQLException {
+        Session.invalidate(user.getUserId());
+        User other = new User("other", "other@example.com", "hash");
+
+        Optional<User> reloaded = Session.currentUser(id -> {
+            Session.setCurrentUser(other);    // someone else logs in while the reload runs
+            return userDAO.getUserById(id);
+        });
+
+        assertEquals(user.getUserId(), reloaded.orElseThrow().getUserId());
+        assertSame(other, Session.getCurrentUser());
+    }
+
+    @Test
+    void reload_isNotInstalledOverAnInvalidationDuringTheReload() throws SQLException {
+        userDAO.updateEmail(user.getUserId(), "first@example.com");
+
+        Optional<User> reloaded = Session.currentUser(id -> {
+            Optional<User> read = userDAO.getUserById(id);
+            userDAO.updateEmail(id, "second@example.com");   // commits after the reload read the row
+            return read;
+        });
+        assertEquals("first@example.com", reloaded.orElseThrow().getEmail());
+
+        assertEquals("second@example.com", userDAO.getCurrentUser().orElseThrow().getEmail());
+    }
+
+    @Test
+    void noUserLoggedIn_throws() {
+        Session.setCurrentUser(null);
+        assertNull(Session.getCurrentUser());
+        assertThrows(NullPointerException.class, userDAO::getCurrentUser);
+    }
+}
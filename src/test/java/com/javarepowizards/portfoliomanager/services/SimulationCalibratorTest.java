@@ -0,0 +1,82 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.simulation.ISimulationParameterDAO;
+import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.SimulationParameters;
+import com.javarepowizards.portfoliomanager.models.StockData;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.simulation.SimulationCalibrator;
+import com.javarepowizards.portfoliomanager.services.simulation.StockStatisticsCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationCalibratorTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2023, 12, 29);
+
+    /** A year of weekday closes moving about 3% a day, well beyond the default 2% clamp. */
+    private static List<StockData> volatileWalk() {
+        Random rnd = new Random(11);
+        List<StockData> out = new ArrayList<>();
+        double close = 40.0;
+        for (LocalDate d = LocalDate.of(2022, 12, 29); !d.isAfter(AS_OF); d = d.plusDays(1)) {
+            if (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            close *= 1 + rnd.nextGaussian() * 0.03;
+            StockData sd = new StockData(d);
+            sd.setClose(close);
+            out.add(sd);
+        }
+        return out;
+    }
+
+    /** Only BHP has history; every other ticker is empty. */
+    private static IStockDAO bhpOnly(List<StockData> data) {
+        return new IStockDAO() {
+            @Override public void loadCSV(String filePath) { }
+            @Override public List<StockData> getStockData(StockName stockName) {
+                return stockName == StockName.BHP_AX ? data : List.of();
+            }
+            @Override public StockData getStockData(StockName stockName, LocalDate date) { return null; }
+        };
+    }
+
+    @Test
+    void calibrate_fitsHistoryBetterThanDefaults() {
+        StockStatisticsCache cache = new StockStatisticsCache(bhpOnly(volatileWalk()));
+        SimulationCalibrator calibrator = new SimulationCalibrator(cache, AS_OF);
+
+        SimulationCalibrator.Calibration c = calibrator.calibrate(StockName.BHP_AX);
+
+        assertTrue(c.distance() < c.defaultDistance(),
+                "fitted " + c.distance() + " should beat default " + c.defaultDistance());
+        assertTrue(c.params().maxDailyMovement() > SimulationParameters.DEFAULT.maxDailyMovement());
+        assertEquals(c, calibrator.calibrate(StockName.BHP_AX), "seeded calibration should be repeatable");
+    }
+
+    @Test
+    void calibrateAndSave_skipsTickersWithoutHistory_andPersistsTheRest() throws Exception {
+        StockStatisticsCache cache = new StockStatisticsCache(bhpOnly(volatileWalk()));
+        SimulationCalibrator calibrator = new SimulationCalibrator(cache, AS_OF);
+        Map<StockName, SimulationParameters> saved = new EnumMap<>(StockName.class);
+        ISimulationParameterDAO dao = new ISimulationParameterDAO() {
+            @Override public Map<StockName, SimulationParameters> findAll() { return saved; }
+            @Override public void saveAll(Map<StockName, SimulationParameters> params) { saved.putAll(params); }
+        };
+
+        Map<StockName, SimulationParameters> fitted =
+                calibrator.calibrateAndSave(List.of(StockName.BHP_AX, StockName.AXJO_AX), dao);
+
+        assertEquals(Map.of(StockName.BHP_AX, fitted.get(StockName.BHP_AX)), saved);
+    }
+}
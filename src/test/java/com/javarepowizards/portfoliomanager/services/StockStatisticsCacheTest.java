@@ -0,0 +1,83 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.stock.IStockDAO;
+import com.javarepowizards.portfoliomanager.models.StockData;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.simulation.StockStatistics;
+import com.javarepowizards.portfoliomanager.services.simulation.StockStatisticsCache;
+import com.javarepowizards.portfoliomanager.services.utility.StockDataFilter;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StockStatisticsCacheTest {
+
+    /** Two years of weekday closes following a seeded random walk. */
+    private static List<StockData> randomWalk() {
+        Random rnd = new Random(42);
+        List<StockData> out = new ArrayList<>();
+        double close = 50.0;
+        for (LocalDate d = LocalDate.of(2022, 1, 3); d.isBefore(LocalDate.of(2024, 1, 1)); d = d.plusDays(1)) {
+            if (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            close *= 1 + rnd.nextGaussian() * 0.02;
+            StockData sd = new StockData(d);
+            sd.setClose(close);
+            out.add(sd);
+        }
+        return out;
+    }
+
+    private static IStockDAO daoFor(List<StockData> data) {
+        return new IStockDAO() {
+            @Override public void loadCSV(String filePath) { }
+            @Override public List<StockData> getStockData(StockName stockName) { return data; }
+            @Override public StockData getStockData(StockName stockName, LocalDate date) { return null; }
+        };
+    }
+
+    @Test
+    void slidingWindow_matchesFreshStatistics_forEveryDay() {
+        List<StockData> data = randomWalk();
+        StockStatisticsCache cache = new StockStatisticsCache(daoFor(data));
+        StockDataFilter filter = new StockDataFilter();
+
+        for (LocalDate asOf = LocalDate.of(2023, 1, 2); asOf.isBefore(LocalDate.of(2023, 12, 30)); asOf = asOf.plusDays(1)) {
+            StockStatistics expected = new StockStatistics(filter.getDataFromLastYear(data, asOf));
+            StockStatistics actual = cache.getLastYear(StockName.BHP_AX, asOf);
+
+            assertEquals(expected.getAverageDailyReturn(), actual.getAverageDailyReturn(), 1e-12);
+            assertEquals(expected.getVolatility(), actual.getVolatility(), 1e-12);
+            assertEquals(expected.getMomentum(), actual.getMomentum(), 1e-12);
+        }
+    }
+
+    @Test
+    void movingBackwards_rebuildsWindow_andRepeatsAreCached() {
+        List<StockData> data = randomWalk();
+        StockStatisticsCache cache = new StockStatisticsCache(daoFor(data));
+        LocalDate later = LocalDate.of(2023, 11, 30);
+        LocalDate earlier = LocalDate.of(2023, 3, 15);
+
+        StockStatistics first = cache.getLastYear(StockName.BHP_AX, later);
+        StockStatistics back = cache.getLastYear(StockName.BHP_AX, earlier);
+        StockStatistics expected = new StockStatistics(new StockDataFilter().getDataFromLastYear(data, earlier));
+
+        assertEquals(expected.getVolatility(), back.getVolatility(), 1e-12);
+        assertSame(first, cache.getLastYear(StockName.BHP_AX, later));
+    }
+
+    @Test
+    void tooLittleData_throws() {
+        StockStatisticsCache cache = new StockStatisticsCache(daoFor(randomWalk()));
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.getLastYear(StockName.BHP_AX, LocalDate.of(2021, 6, 1)));
+    }
+}
@@ -87,4 +87,20 @@ public class StockStatisticsTest {
         assertEquals(expectedMomentum, stats.getAverageDailyReturn(), 1e-9);
     }
 
+    @Test
+    void constructor_leavesCallersListInOriginalOrder() {
+        LocalDate start = LocalDate.of(2023, 1, 1);
+        List<StockData> data = new ArrayList<>(List.of(
+                makeData(start.plusDays(2), 121),
+                makeData(start,             100),
+                makeData(start.plusDays(1), 110)
+        ));
+        List<StockData> before = List.copyOf(data);
+
+        StockStatistics stats = new StockStatistics(data);
+
+        assertEquals(before, data);
+        assertEquals(0.1, stats.getAverageDailyReturn(), 1e-12);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.services.simulation.PortfolioStatistics;
+import com.javarepowizards.portfoliomanager.services.simulation.StreamingPortfolioStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingPortfolioStatisticsTest {
+
+    private static double[] randomPath(Random rnd, int days) {
+        double[] values = new double[days + 1];
+        values[0] = 10_000.0;
+        for (int d = 1; d <= days; d++) {
+            values[d] = values[d - 1] * (1 + rnd.nextGaussian() * 0.01 + 0.0003);
+        }
+        return values;
+    }
+
+    @Test
+    void singlePath_matchesTwoPassReference() {
+        double[] values = randomPath(new Random(5), 365);
+        List<Double> boxed = new ArrayList<>();
+        for (double v : values) {
+            boxed.add(v);
+        }
+
+        // reference: the original three-pass calculation
+        double[] daily = new double[values.length - 1];
+        for (int i = 1; i < values.length; i++) {
+            daily[i - 1] = (values[i] - values[i - 1]) / values[i - 1];
+        }
+        double mean = 0;
+        for (double r : daily) mean += r / daily.length;
+        double var = 0;
+        for (double r : daily) var += (r - mean) * (r - mean) / daily.length;
+        double σ = Math.sqrt(var);
+
+        PortfolioStatistics.Metrics m = PortfolioStatistics.compute(boxed, 365);
+
+        assertEquals((values[365] - values[0]) / values[0] * 100.0, m.cumulativeReturnPct(), 1e-9);
+        assertEquals(σ * Math.sqrt(365) * 100.0, m.annualisedVolatilityPct(), 1e-9);
+        assertEquals(mean * 365 / σ, m.annualisedSharpe(), 1e-9);
+    }
+
+    @Test
+    void drawdown_depthDurationAndCalmar() {
+        StreamingPortfolioStatistics stats = new StreamingPortfolioStatistics(252);
+        stats.acceptAll(new double[] {100, 120, 90, 60, 110, 130, 117});
+
+        StreamingPortfolioStatistics.Summary s = stats.summary();
+
+        assertEquals(1, s.paths());
+        assertEquals(-50.0, s.maxDrawdownPct(), 1e-9);       // 120 -> 60
+        assertEquals(-50.0, s.worstDrawdownPct(), 1e-9);
+        assertEquals(3, s.longestDrawdownDays());            // 90, 60, 110 below 120
+        assertEquals(17.0, s.cumulativeReturnPct(), 1e-9);
+        assertTrue(s.annualisedSortino() > s.annualisedSharpe());
+        double meanDaily = (0.2 - 0.25 - 1.0 / 3 + 5.0 / 6 + 2.0 / 11 - 0.1) / 6;
+        assertEquals(meanDaily * 252 / 0.5, s.calmar(), 1e-9);
+    }
+
+    @Test
+    void merge_ofPartitions_equalsSingleAccumulator() {
+        Random rnd = new Random(9);
+        StreamingPortfolioStatistics all = new StreamingPortfolioStatistics(252);
+        StreamingPortfolioStatistics left = new StreamingPortfolioStatistics(252);
+        StreamingPortfolioStatistics right = new StreamingPortfolioStatistics(252);
+
+        for (int p = 0; p < 40; p++) {
+            double[] path = randomPath(rnd, 100 + p);
+            all.acceptAll(path);
+            all.endPath();
+            StreamingPortfolioStatistics worker = p % 3 == 0 ? left : right;
+            worker.acceptAll(path);
+            worker.endPath();
+        }
+
+        StreamingPortfolioStatistics.Summary expected = all.summary();
+        StreamingPortfolioStatistics.Summary merged = left.merge(right).summary();
+
+        assertEquals(40, merged.paths());
+        assertEquals(expected.cumulativeReturnPct(), merged.cumulativeReturnPct(), 1e-9);
+        assertEquals(expected.annualisedVolatilityPct(), merged.annualisedVolatilityPct(), 1e-9);
+        assertEquals(expected.annualisedSharpe(), merged.annualisedSharpe(), 1e-9);
+        assertEquals(expected.annualisedSortino(), merged.annualisedSortino(), 1e-9);
+        assertEquals(expected.maxDrawdownPct(), merged.maxDrawdownPct(), 1e-9);
+        assertEquals(expected.worstDrawdownPct(), merged.worstDrawdownPct(), 0.0);
+        assertEquals(expected.longestDrawdownDays(), merged.longestDrawdownDays());
+        assertEquals(expected.calmar(), merged.calmar(), 1e-9);
+    }
+
+    @Test
+    void tooFewValues_giveZeroMetrics() {
+        assertEquals(new PortfolioStatistics.Metrics(0, 0, 0), PortfolioStatistics.compute(List.of(5.0), 10));
+    }
+}
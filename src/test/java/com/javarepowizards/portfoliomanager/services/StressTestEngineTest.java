@@ -0,0 +1,91 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.Sector;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.services.stress.Scenario;
+import com.javarepowizards.portfoliomanager.services.stress.StressTestEngine;
+import com.javarepowizards.portfoliomanager.services.stress.StressTestResult;
+import com.javarepowizards.portfoliomanager.services.utility.PriceMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StressTestEngineTest {
+
+    private static final LocalDate D0 = LocalDate.of(2020, 2, 20);
+    private static final LocalDate D1 = LocalDate.of(2020, 3, 23);
+
+    // BHP (materials) falls 30% and WBC (bank) 40% between the two dates
+    private static PriceMatrix prices() {
+        return PriceMatrix.of(List.of(D0, D1),
+                List.of(StockName.BHP_AX, StockName.WBC_AX),
+                new double[][] {{50.0, 35.0}, {25.0, 15.0}});
+    }
+
+    @Test
+    void sectorShockAndReplay_areValuedForEveryUser() {
+        StressTestEngine engine = new StressTestEngine(prices(), D1);
+        Map<Integer, List<PortfolioEntry>> holdings = Map.of(
+                1, List.of(new PortfolioEntry(StockName.BHP_AX, 0, 10)),
+                2, List.of(new PortfolioEntry(StockName.BHP_AX, 0, 10), new PortfolioEntry(StockName.WBC_AX, 0, 20)));
+        Scenario sector = Scenario.sectorShock("Materials -20%, banks -10%",
+                Map.of(Sector.MATERIALS, -0.2, Sector.FINANCIALS, -0.1));
+        Scenario replay = Scenario.march2020(prices());
+
+        StressTestResult r = engine.run(holdings, List.of(sector, replay));
+
+        int one = r.rowOf(1);
+        int two = r.rowOf(2);
+        // user 1: 10 BHP @ 35 = 350
+        assertEquals(350.0, r.marketValue()[one], 1e-9);
+        assertEquals(-70.0, r.pnl()[one][0], 1e-9);
+        assertEquals(-105.0, r.pnl()[one][1], 1e-9);
+        // user 2: 350 of BHP plus 20 WBC @ 15 = 300
+        assertEquals(-70.0 - 30.0, r.pnl()[two][0], 1e-9);
+        assertEquals(-105.0 - 120.0, r.pnl()[two][1], 1e-9);
+        assertEquals(1, r.worstScenario(two));
+        assertEquals(-70.0 - 100.0, r.totalPnl(0), 1e-9);
+        assertEquals(-1, r.rowOf(3));
+    }
+
+    @Test
+    void runForAllUsers_readsHoldingsFromThePortfolioStore() throws Exception {
+        StressTestEngine engine = new StressTestEngine(prices(), D1);
+        PortfolioDAO portfolio = new PortfolioDAO(
+                new ArrayList<>(List.of(new PortfolioEntry(StockName.WBC_AX, 0, 4))), 0.0);
+
+        StressTestResult r = engine.runForAllUsers(portfolio, List.of(Scenario.march2020(prices())));
+
+        assertEquals(1, r.userIds().length);
+        assertEquals(-0.4 * 60.0, r.pnl()[0][0], 1e-9);
+    }
+
+    @Test
+    void run_valuesTenThousandUsersQuickly() {
+        StressTestEngine engine = new StressTestEngine(prices(), D1);
+        Map<Integer, List<PortfolioEntry>> holdings = new HashMap<>();
+        for (int u = 0; u < 10_000; u++) {
+            holdings.put(u, List.of(new PortfolioEntry(StockName.BHP_AX, 0, u % 50),
+                    new PortfolioEntry(StockName.WBC_AX, 0, u % 7)));
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int s = 1; s <= 50; s++) {
+            scenarios.add(Scenario.sectorShock("Materials -" + s + "%", Map.of(Sector.MATERIALS, -s / 100.0)));
+        }
+
+        long start = System.nanoTime();
+        StressTestResult r = engine.run(holdings, scenarios);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(10_000, r.pnl().length);
+        assertTrue(elapsedMs < 5_000, "took " + elapsedMs + " ms");
+    }
+}
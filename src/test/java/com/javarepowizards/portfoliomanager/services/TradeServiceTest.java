@@ -0,0 +1,169 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.DatabaseConnection;
+import com.javarepowizards.portfoliomanager.dao.portfolio.PortfolioDAO;
+import com.javarepowizards.portfoliomanager.dao.trade.TradeDAO;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.PortfolioEntry;
+import com.javarepowizards.portfoliomanager.models.StockName;
+import com.javarepowizards.portfoliomanager.models.TradeLeg;
+import com.javarepowizards.portfoliomanager.models.TradeOrder;
+import com.javarepowizards.portfoliomanager.models.TradeResult;
+import com.javarepowizards.portfoliomanager.models.TradeSide;
+import com.javarepowizards.portfoliomanager.models.User;
+import com.javarepowizards.portfoliomanager.services.trading.TradeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TradeServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+    private PortfolioDAO portfolioDAO;
+    private TradeService service;
+    private int userId;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("trades.db"));
+        UserDAO userDAO = new UserDAO(db);
+        portfolioDAO = new PortfolioDAO(db);
+        User user = new User("trader", "trader@example.com", "hash");
+        userDAO.createUser(user, 1_000.0);
+        userId = user.getUserId();
+        service = new TradeService(new TradeDAO(db), TradeService.DEFAULT_MAX_BATCH, portfolioDAO::invalidate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.close();
+        db.close();
+    }
+
+    private double balance() throws SQLException {
+        return db.read(c -> {
+            try (Statement s = c.createStatement();
+                 ResultSet rs = s.executeQuery("SELECT balance FROM user_balances WHERE user_id = " + userId)) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        });
+    }
+
+    private Map<StockName, Integer> shares() {
+        return portfolioDAO.getHoldingsForUser(userId).stream()
+                .collect(Collectors.toMap(PortfolioEntry::getStock, PortfolioEntry::getAmountHeld));
+    }
+
+    @Test
+    void buyThenSell_movesSharesAndCash() throws SQLException {
+        TradeResult bought = service.execute(TradeOrder.buy(userId, StockName.BHP_AX, 10, 40.0));
+        assertTrue(bought.executed());
+        assertEquals(600.0, bought.balanceAfter(), 1e-9);
+        assertEquals(Map.of(StockName.BHP_AX, 10), shares());
+
+        TradeResult sold = service.execute(TradeOrder.sell(userId, StockName.BHP_AX, 4, 50.0));
+        assertTrue(sold.executed());
+        assertEquals(800.0, balance(), 1e-9);
+        PortfolioEntry left = portfolioDAO.getHoldingsForUser(userId).get(0);
+        assertEquals(6, left.getAmountHeld());
+        assertEquals(40.0, left.getPurchasePrice(), 1e-9, "partial sells keep the average cost");
+
+        service.execute(TradeOrder.sell(userId, StockName.BHP_AX, 6, 40.0));
+        assertTrue(shares().isEmpty());
+        assertEquals(1_040.0, balance(), 1e-9);
+    }
+
+    @Test
+    void basket_isAppliedAllOrNothing() throws SQLException {
+        service.execute(TradeOrder.buy(userId, StockName.BHP_AX, 10, 50.0));
+
+        // sells BHP to fund CBA; the buy alone would overdraw the account
+        TradeOrder rotate = new TradeOrder(userId, List.of(
+                new TradeLeg(StockName.BHP_AX, TradeSide.SELL, 10, 50.0),
+                new TradeLeg(StockName.WES_AX, TradeSide.BUY, 9, 100.0)));
+        assertTrue(service.execute(rotate).executed());
+        assertEquals(Map.of(StockName.WES_AX, 9), shares());
+        assertEquals(100.0, balance(), 1e-9);
+
+        TradeOrder tooBig = new TradeOrder(userId, List.of(
+                new TradeLeg(StockName.BHP_AX, TradeSide.BUY, 1, 10.0),
+                new TradeLeg(StockName.WES_AX, TradeSide.SELL, 1, 100.0),
+                new TradeLeg(StockName.WBC_AX, TradeSide.BUY, 10, 100.0)));
+        TradeResult rejected = service.execute(tooBig);
+        assertFalse(rejected.executed());
+        assertTrue(rejected.rejectionReason().startsWith("Insufficient balance"));
+        assertEquals(Map.of(StockName.WES_AX, 9), shares(), "earlier legs are rolled back");
+        assertEquals(100.0, balance(), 1e-9);
+    }
+
+    @Test
+    void sellingMoreThanHeld_isRejected() throws SQLException {
+        TradeResult result = service.execute(TradeOrder.sell(userId, StockName.BHP_AX, 1, 40.0));
+        assertFalse(result.executed());
+        assertEquals(1_000.0, balance(), 1e-9);
+    }
+
+    @Test
+    void concurrentBuys_shareCommitsAndNeverOverdraw() throws Exception {
+        List<CompletableFuture<TradeResult>> futures = new ArrayList<>();
+        List<CompletableFuture<Void>> submitters = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            submitters.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 50; i++) {
+                    CompletableFuture<TradeResult> f = service.submit(TradeOrder.buy(userId, StockName.BHP_AX, 1, 3.0));
+                    synchronized (futures) {
+                        futures.add(f);
+                    }
+                }
+            }));
+        }
+        CompletableFuture.allOf(submitters.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        int executed = 0;
+        for (CompletableFuture<TradeResult> f : futures) {
+            if (f.get(10, TimeUnit.SECONDS).executed()) {
+                executed++;
+            }
+        }
+        assertEquals(333, executed, "exactly as many buys as the cash covers");
+        assertEquals(1_000.0 - 333 * 3.0, balance(), 1e-9);
+        assertEquals(Map.of(StockName.BHP_AX, 333), shares());
+        assertEquals(400, service.getOrderCount());
+        assertTrue(service.getCommitCount() <= 400);
+    }
+
+    @Test
+    void close_appliesQueuedOrdersThenRejectsNewOnes() throws Exception {
+        CompletableFuture<TradeResult> queued = service.submit(TradeOrder.buy(userId, StockName.BHP_AX, 1, 10.0));
+        service.close();
+        assertTrue(queued.isDone());
+        assertTrue(queued.get().executed());
+        assertThrows(IllegalStateException.class,
+                () -> service.submit(TradeOrder.buy(userId, StockName.BHP_AX, 1, 10.0)));
+    }
+
+    @Test
+    void legs_rejectInvalidQuantitiesAndPrices() {
+        assertThrows(IllegalArgumentException.class, () -> TradeOrder.buy(userId, StockName.BHP_AX, 0, 10.0));
+        assertThrows(IllegalArgumentException.class, () -> TradeOrder.buy(userId, StockName.BHP_AX, 1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new TradeOrder(userId, List.of()));
+    }
+}
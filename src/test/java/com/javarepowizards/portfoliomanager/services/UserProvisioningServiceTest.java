@@ -0,0 +1,136 @@
+package com.javarepowizards.portfoliomanager.services;
+
+import com.javarepowizards.portfoliomanager.dao.DatabaseConnection;
+import com.javarepowizards.portfoliomanager.dao.user.UserDAO;
+import com.javarepowizards.portfoliomanager.models.User;
+import com.javarepowizards.portfoliomanager.models.UserImportResult;
+import com.javarepowizards.portfoliomanager.models.UserImportRow;
+import com.javarepowizards.portfoliomanager.services.Auth.AuthService;
+import com.javarepowizards.portfoliomanager.services.Auth.UserProvisioningService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserProvisioningServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection db;
+    private UserDAO userDAO;
+    private AuthService auth;
+    private UserProvisioningService provisioning;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = new DatabaseConnection("jdbc:sqlite:" + dir.resolve("provision.db"));
+        userDAO = new UserDAO(db);
+        auth = new AuthService(4);
+        provisioning = new UserProvisioningService(auth, userDAO);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        auth.close();
+        db.close();
+    }
+
+    @Test
+    void importCsv_createsValidRowsAndReportsTheRest() throws Exception {
+        userDAO.createUser(new User("taken", "taken@example.com", "hash"), 0.0);
+        String csv = """
+                username,email,password,balance
+                alice,alice@example.com,password-1,1000
+                bob,not-an-email,password-2,1000
+                carol,carol@example.com,short,1000
+                taken,new@example.com,password-3,1000
+                dave,taken@example.com,password-4,1000
+                alice,alice2@example.com,password-5,1000
+
+                erin,erin@example.com,password-6,-5
+                frank,frank@example.com,password-7
+                gina,gina@example.com,password-8,2500.50
+                """;
+
+        List<UserImportResult> results = provisioning.importCsv(new StringReader(csv));
+
+        assertEquals(List.of(2, 3, 4, 5, 6, 7, 9, 10, 11), results.stream().map(UserImportResult::line).toList());
+        assertEquals(List.of("alice", "gina"),
+                results.stream().filter(UserImportResult::created).map(UserImportResult::username).toList());
+        assertEquals("Invalid email format", results.get(1).rejectionReason());
+        assertEquals("Password must be at least 8 characters", results.get(2).rejectionReason());
+        assertEquals("Username already taken: taken", results.get(3).rejectionReason());
+        assertEquals("Email already registered: taken@example.com", results.get(4).rejectionReason());
+        assertEquals("Username already taken: alice", results.get(5).rejectionReason());
+        assertEquals("Balance cannot be negative", results.get(6).rejectionReason());
+        assertEquals("Expected 4 columns but found 3", results.get(7).rejectionReason());
+
+        User gina = results.get(8).user();
+        User stored = userDAO.getUserByUsername("gina").orElseThrow();
+        assertEquals(gina.getUserId(), stored.getUserId());
+        assertEquals(2500.50, userDAO.getBalance(stored.getUserId()), 1e-9);
+        assertTrue(auth.verifyPassword("password-8", stored.getPasswordHash()));
+        assertTrue(userDAO.getUserByUsername("dave").isEmpty());
+    }
+
+    @Test
+    void importUsers_createsACohortInOneBatchedTransaction() throws SQLException {
+        int cohort = 1_200;
+        List<UserImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < cohort; i++) {
+            rows.add(new UserImportRow(i + 1, "student" + i, "student" + i + "@example.com", "password-" + i, "100"));
+        }
+
+        List<UserImportResult> results = provisioning.importUsers(rows);
+
+        assertTrue(results.stream().allMatch(UserImportResult::created));
+        assertEquals(cohort, results.stream().map(r -> r.user().getUserId()).distinct().count());
+        for (int i : new int[]{0, 499, 500, 1_199}) {
+            User user = results.get(i).user();
+            assertEquals(user.getUserId(), userDAO.getUserByEmail("student" + i + "@example.com").orElseThrow().getUserId());
+            assertEquals(100.0, userDAO.getBalance(user.getUserId()), 1e-9);
+        }
+    }
+
+    @Test
+    void takenUsernamesAndEmails_areRejectedBeforeHashing() throws Exception {
+        userDAO.createUser(new User("taken", "taken@example.com", "hash"), 0.0);
+        AtomicInteger encoded = new AtomicInteger();
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                encoded.incrementAndGet();
+                return super.encode(rawPassword);
+            }
+        };
+        try (AuthService counting = new AuthService(encoder)) {
+            UserProvisioningService service = new UserProvisioningService(counting, userDAO);
+            List<UserImportResult> results = service.importUsers(List.of(
+                    new UserImportRow(1, "taken", "new@example.com", "password-1", "10"),
+                    new UserImportRow(2, "fresh", "taken@example.com", "password-2", "10"),
+                    new UserImportRow(3, "fresh", "fresh@example.com", "password-3", "10"),
+                    new UserImportRow(4, "fresh", "fresh2@example.com", "password-4", "10")));
+
+            assertEquals(List.of(false, false, true, false), results.stream().map(UserImportResult::created).toList());
+            assertEquals("Username already taken: fresh", results.get(3).rejectionReason());
+            assertEquals(1, encoded.get());
+        }
+    }
+
+    @Test
+    void rowsAsEntered_doNotExposePasswords() {
+        UserImportRow row = new UserImportRow(1, "alice", "alice@example.com", "hunter2-hunter2", "10");
+        assertFalse(row.toString().contains("hunter2"));
+    }
+}